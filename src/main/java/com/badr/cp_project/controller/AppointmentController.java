@@ -1,13 +1,17 @@
 package com.badr.cp_project.controller;
 
 import com.badr.cp_project.dao.AppointmentDAO;
+import com.badr.cp_project.dao.CachingClientDAO;
+import com.badr.cp_project.dao.ClientDAO;
 import com.badr.cp_project.model.Appointment;
 import com.badr.cp_project.service.DataLoadService;
 import com.badr.cp_project.service.NavigationService;
+import com.badr.cp_project.service.PagedObservableList;
+import com.badr.cp_project.service.TableChangeTracker;
 import com.badr.cp_project.service.UtilityService;
 import com.badr.cp_project.service.WindowsNaviService;
-import com.badr.cp_project.util.DatabaseConnection;
-import javafx.collections.ObservableList;
+import com.badr.cp_project.util.ConnectionPool;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
@@ -15,7 +19,6 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
-import java.sql.Connection;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
@@ -28,6 +31,10 @@ public class AppointmentController {
     private final DataLoadService dataLoadService;
     private final UtilityService utilityService = new UtilityService();
     private final AppointmentDAO terminDAO;
+    private final ClientDAO klientDAO;
+    private TableChangeTracker<Appointment, Integer> appointmentTracker;
+    // true, sobald die Seite für einen Klienten geöffnet wurde (setClientData)
+    private boolean clientContext;
 
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
     private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
@@ -51,9 +58,8 @@ public class AppointmentController {
     public AppointmentController() {
         this.navigationService = new NavigationService();
         this.dataLoadService = new DataLoadService(utilityService);
-        DatabaseConnection dbConnection = new DatabaseConnection();
-        Connection conn = dbConnection.connect();
-        this.terminDAO = new AppointmentDAO(conn);
+        this.terminDAO = new AppointmentDAO(ConnectionPool.getInstance());
+        this.klientDAO = new CachingClientDAO(ConnectionPool.getInstance());
     }
 
     @FXML
@@ -64,11 +70,38 @@ public class AppointmentController {
         appointmantDatePicker.setValue(LocalDate.of(1900, 1, 1));
 
         initializeAppointmentTable();
-        loadAllAppointmentIntoTable();
+        appointmentTracker = new TableChangeTracker<>(appointmantTableView, terminDAO::getAppointmentChangesSince,
+                Appointment::getAppointmentId, dataLoadService, utilityService);
+        dataLoadService.cancelPendingLoadsOnNavigation(appointmantTableView);
+        dataLoadService.subscribeWhileShown(appointmantTableView, Appointment.class, appointmentTracker::apply);
+        // Erst nach der Konfiguration durch die Navigation entscheiden, ob alle Termine oder die eines Klienten geladen werden
+        Platform.runLater(() -> {
+            if (!clientContext) {
+                loadAllAppointmentIntoTable();
+            }
+        });
 
         appointmantTableView.getSelectionModel().selectedItemProperty().addListener((ignored , ignored2 , newAppointment) ->
                 appointmentSelected(newAppointment)
         );
+        // Name und Vorname zur eingegebenen Ifa-Nummer aus dem Klientenstamm übernehmen
+        appointmantIfaTextField.focusedProperty().addListener((ignored, ignored2, focused) -> {
+            if (!focused && !appointmantIfaTextField.isDisabled()) {
+                fillClientNames(appointmantIfaTextField.getText());
+            }
+        });
+    }
+
+    private void fillClientNames(String ifaNummer) {
+        if (ifaNummer.isBlank()) {
+            return;
+        }
+        dataLoadService.findClientAsync(klientDAO, ifaNummer).thenAccept(klient -> {
+            if (klient != null && ifaNummer.equals(appointmantIfaTextField.getText())) {
+                appointmentLastNameField.setText(klient.getClientLastname());
+                appointmentFirstNameField.setText(klient.getClientFirstname());
+            }
+        });
     }
 
 
@@ -85,13 +118,17 @@ public class AppointmentController {
 
 
     private void loadAllAppointmentIntoTable() {
-        ObservableList<Appointment> alleTermine = dataLoadService.loadAllAppointment(terminDAO);
+        PagedObservableList<Appointment> alleTermine = dataLoadService.loadAllAppointment(terminDAO);
         utilityService.loadData(appointmantTableView, alleTermine, "Fehler beim Laden der Termindaten");
+        utilityService.enableLazyPaging(appointmantTableView, alleTermine);
+        appointmentTracker.track(DataLoadService.APPOINTMENT_BY_ID, ignore -> true);
     }
 
     public void loadAppointmentForClient(String klientIfaNummer) {
-        ObservableList<Appointment> termine = dataLoadService.loadTermineByClientIfaNumber(terminDAO, klientIfaNummer);
-        utilityService.loadData(appointmantTableView, termine, "Fehler beim Laden der Termine für den Klienten");
+        utilityService.loadDataAsync(appointmantTableView,
+                dataLoadService.loadTermineByClientIfaNumberAsync(terminDAO, klientIfaNummer),
+                "Fehler beim Laden der Termine für den Klienten");
+        appointmentTracker.track(DataLoadService.APPOINTMENT_BY_DATE, termin -> klientIfaNummer.equals(termin.getAppointmentClientIfaNumber()));
     }
 
     @FXML
@@ -110,7 +147,7 @@ public class AppointmentController {
         }
 
         dataLoadService.updateAppointment(selectedTermin, terminDAO);
-        loadAllAppointmentIntoTable();
+        appointmentTracker.refresh();
     }
 
     private void appointmentSelected(Appointment termin) {
@@ -156,19 +193,32 @@ public class AppointmentController {
             if (logger.isLoggable(Level.FINE)) {
                 logger.log(Level.FINE, String.format("Termin erfolgreich aktualisiert für Klient: %s %s", name, vorname));
             }
+            // Ein bearbeiteter Termin bleibt ausgewählt und seine Felder gefüllt
+            appointmentTracker.refresh();
+        } else if (clientContext) {
+            saveNewAppointment(new Appointment(ifaNummer, terminAdresse, terminInstitution, terminDatum, terminPrioritaet, "Offen", terminUhrzeit, name, vorname));
         } else {
-            Appointment neuerTermin = new Appointment(ifaNummer, terminAdresse, terminInstitution, terminDatum, terminPrioritaet, "Offen", terminUhrzeit, name, vorname);
-            dataLoadService.saveAppointment(neuerTermin, terminDAO);
-
-
-            if (logger.isLoggable(Level.FINE)) {
-                logger.log(Level.FINE, String.format("Termin erfolgreich erstellt für Klient: %s %s", name, vorname));
-            }
+            // Eine eingegebene Ifa-Nummer muss zu einem Klienten gehören; Name und Vorname kommen aus dem Klientenstamm
+            dataLoadService.findClientAsync(klientDAO, ifaNummer).thenAccept(klient -> {
+                if (klient == null) {
+                    showWarning("Es gibt keinen Klienten mit der IFA-Nummer " + ifaNummer + ".");
+                    return;
+                }
+                saveNewAppointment(new Appointment(ifaNummer, terminAdresse, terminInstitution, terminDatum, terminPrioritaet, "Offen", terminUhrzeit,
+                        klient.getClientLastname(), klient.getClientFirstname()));
+            });
         }
+    }
 
+    private void saveNewAppointment(Appointment neuerTermin) {
+        dataLoadService.saveAppointment(neuerTermin, terminDAO);
 
+        if (logger.isLoggable(Level.FINE)) {
+            logger.log(Level.FINE, String.format("Termin erfolgreich erstellt für Klient: %s %s",
+                    neuerTermin.getAppointmentClientLastname(), neuerTermin.getAppointmentClientFirstname()));
+        }
         clearFields();
-        loadAllAppointmentIntoTable();
+        appointmentTracker.refresh();
     }
 
     private boolean validateInput() {
@@ -206,7 +256,7 @@ public class AppointmentController {
             int terminId = selectedTermin.getAppointmentId();
             dataLoadService.deleteAppointmentById(terminId, terminDAO);
             logger.log(Level.INFO,"Termin wurde erfolgreich gelöscht.");
-            loadAllAppointmentIntoTable();
+            appointmentTracker.refresh();
         }
     }
 
@@ -218,9 +268,21 @@ public class AppointmentController {
         appointmentLastNameField.setDisable(true);
         appointmentFirstNameField.setDisable(true);
 
+        clientContext = true;
         loadAppointmentForClient(ifaNummer);
     }
 
+    /**
+     * Zeigt die Termine des Klienten eines Termins und wählt den Termin aus, sobald sie geladen sind.
+     * @param termin der anzuzeigende Termin.
+     */
+    public void showAppointment(Appointment termin) {
+        setClientData(termin.getAppointmentClientIfaNumber(), termin.getAppointmentClientLastname(),
+                termin.getAppointmentClientFirstname());
+        int terminId = termin.getAppointmentId();
+        utilityService.selectWhenLoaded(appointmantTableView, geladen -> geladen.getAppointmentId() == terminId);
+    }
+
     @FXML
     protected void onHomeButtonClick(ActionEvent event) {
         navigateToHome(event);
@@ -1,20 +1,21 @@
 package com.badr.cp_project.controller;
 
-import com.badr.cp_project.dao.FileDAO;
-import com.badr.cp_project.dao.DocumentDAO;
+import com.badr.cp_project.dao.CachingClientDAO;
 import com.badr.cp_project.dao.ClientDAO;
-import com.badr.cp_project.dao.AppointmentDAO;
+import com.badr.cp_project.dao.ClientDossierDAO;
+import com.badr.cp_project.dao.FileDAO;
 import com.badr.cp_project.model.File;
 import com.badr.cp_project.model.Document;
 import com.badr.cp_project.model.Client;
 import com.badr.cp_project.model.Appointment;
+import com.badr.cp_project.model.ClientDossier;
+import com.badr.cp_project.service.ClientValidationService;
 import com.badr.cp_project.service.DataLoadService;
 import com.badr.cp_project.service.NavigationService;
 import com.badr.cp_project.service.UtilityService;
 import com.badr.cp_project.service.WindowsNaviService;
-import com.badr.cp_project.util.DatabaseConnection;
+import com.badr.cp_project.util.ConnectionPool;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.event.ActionEvent;
 import javafx.scene.Node;
@@ -23,11 +24,12 @@ import javafx.stage.Stage;
 
 import java.awt.Desktop;
 import java.io.IOException;
-import java.sql.Connection;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -37,12 +39,13 @@ public class ClientController {
 
     // Services and DAOs
     private final UtilityService utilityService = new UtilityService();
+    private final ClientValidationService clientValidationService = new ClientValidationService();
     private final NavigationService navigationService;
     private final DataLoadService dataLoadService;
     private final ClientDAO klientDAO;
-    private final AppointmentDAO terminDAO;
-    private final DocumentDAO dokuDAO;
-    private final FileDAO dateiDAO;
+    private final ClientDossierDAO dossierDAO;
+    private final FileDAO fileDAO;
+    private CompletableFuture<ClientDossier> pendingDossier;
 
     // Date and Time Formatters
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
@@ -90,34 +93,53 @@ public class ClientController {
 
     // Constructor
     public ClientController() {
-        DatabaseConnection dbConnection = new DatabaseConnection();
-        Connection conn = dbConnection.connect();
-        this.klientDAO = new ClientDAO(conn);
-        this.dokuDAO = new DocumentDAO(conn);
-        this.terminDAO = new AppointmentDAO(conn);
-        this.dateiDAO = new FileDAO(conn);
+        ConnectionPool connectionPool = ConnectionPool.getInstance();
+        this.klientDAO = new CachingClientDAO(connectionPool);
+        this.dossierDAO = new ClientDossierDAO(connectionPool);
+        this.fileDAO = new FileDAO(connectionPool);
         this.dataLoadService = new DataLoadService(utilityService);
         this.navigationService = new NavigationService();
     }
 
-    private static final String DEFAULT_SELECTION_PROMPT = "Bitte auswählen...";
+    private static final String DEFAULT_SELECTION_PROMPT = ClientValidationService.DEFAULT_SELECTION_PROMPT;
 
     @FXML
     private void initialize() {
-        clientGenderChoiceBox.setItems(FXCollections.observableArrayList(DEFAULT_SELECTION_PROMPT, "Männlich", "Weiblich", "Diverses"));
-        relationshipStatusChoiceBox.setItems(FXCollections.observableArrayList(DEFAULT_SELECTION_PROMPT, "Verheiratet", "Ledig", "Verwitwet"));
+        clientGenderChoiceBox.setItems(FXCollections.observableArrayList(DEFAULT_SELECTION_PROMPT));
+        clientGenderChoiceBox.getItems().addAll(ClientValidationService.GENDERS);
+        relationshipStatusChoiceBox.setItems(FXCollections.observableArrayList(DEFAULT_SELECTION_PROMPT));
+        relationshipStatusChoiceBox.getItems().addAll(ClientValidationService.RELATIONSHIP_STATUSES);
 
         clientGenderChoiceBox.setValue(DEFAULT_SELECTION_PROMPT);
         relationshipStatusChoiceBox.setValue(DEFAULT_SELECTION_PROMPT);
         dateOfBirthPicker.setValue(LocalDate.of(1900, 1, 1));
 
         nationalityField.clear();
-        clientIfaNummber.setText(utilityService.generateRandomIfaNumber());
+        dataLoadService.assignNewIfaNumber(clientIfaNummber);
 
         initializeDokuTable();
         initializeTerminTable();
         initializeDateiTable();
         addTableListeners();
+        dataLoadService.cancelPendingLoadsOnNavigation(appointmentTableView);
+        subscribeToDossierChanges();
+    }
+
+    // Änderungen aus anderen Ansichten direkt in das Dossier des angezeigten Klienten übernehmen
+    private void subscribeToDossierChanges() {
+        dataLoadService.subscribeWhileShown(appointmentTableView, Appointment.class, event ->
+                utilityService.applyChange(appointmentTableView, event, Appointment::getAppointmentId,
+                        DataLoadService.APPOINTMENT_BY_DATE, termin -> isShownClient(termin.getAppointmentClientIfaNumber())));
+        dataLoadService.subscribeWhileShown(documentTableView, Document.class, event ->
+                utilityService.applyChange(documentTableView, event, Document::getDocumentId,
+                        DataLoadService.DOCUMENT_BY_DATE, doku -> isShownClient(doku.getDocumentClientIfaNumber())));
+        dataLoadService.subscribeWhileShown(fileTableView, File.class, event ->
+                utilityService.applyChange(fileTableView, event, File::getFileId,
+                        DataLoadService.FILE_BY_UPLOAD_DATE, datei -> isShownClient(datei.getFileClientIfaNumber())));
+    }
+
+    private boolean isShownClient(String ifaNumber) {
+        return ifaNumber != null && ifaNumber.equals(clientIfaNummber.getText());
     }
 
 
@@ -159,20 +181,21 @@ public class ClientController {
     }
 
     // Methods for loading data into tables
-    private void loadAppointmentForKlient(String ifaNummer) {
-        ObservableList<Appointment> terminListe = dataLoadService.loadTermineByClientIfaNumber(terminDAO, ifaNummer);
-        appointmentTableView.setItems(terminListe);
-    }
-
-    private void loadDocumentForKlient(String ifaNummer) {
-        List<Document> dokumentationList = dokuDAO.getDocumentByIfa(ifaNummer);
-        ObservableList<Document> dokumentationObservableList = FXCollections.observableArrayList(dokumentationList);
-        documentTableView.setItems(dokumentationObservableList);
-    }
-
-    private void loadFileForKlient(String ifaNummer) {
-        ObservableList<File> dateiListe = dataLoadService.loadFileByClientIfaNumber(dateiDAO, ifaNummer);
-        fileTableView.setItems(dateiListe);
+    private void loadDossierForKlient(String ifaNummer) {
+        if (pendingDossier != null) {
+            pendingDossier.cancel(true);
+        }
+        CompletableFuture<ClientDossier> dossier = dataLoadService.loadClientDossierAsync(dossierDAO, ifaNummer);
+        pendingDossier = dossier;
+        utilityService.loadDataAsync(appointmentTableView,
+                dossier.thenApply(d -> FXCollections.observableArrayList(d.appointments())),
+                "Fehler beim Laden der Termine für den Klienten");
+        utilityService.loadDataAsync(documentTableView,
+                dossier.thenApply(d -> FXCollections.observableArrayList(d.documents())),
+                "Fehler beim Laden der Dokumentationen für den Klienten");
+        utilityService.loadDataAsync(fileTableView,
+                dossier.thenApply(d -> FXCollections.observableArrayList(d.files())),
+                "Fehler beim Laden der Dateien für den Klienten");
     }
 
     // Double-click event handlers
@@ -200,10 +223,10 @@ public class ClientController {
 
     private void openFileInBrowser(File datei) {
         try {
-            java.io.File file = new java.io.File(datei.getFilePath());
-            if (file.exists()) {
+            Path file = fileDAO.resolveForOpening(datei);
+            if (file != null) {
                 // Öffne die Datei im Standardbrowser
-                Desktop.getDesktop().browse(file.toURI());
+                Desktop.getDesktop().browse(file.toUri());
             } else {
                 showAlert("Die Datei wurde nicht gefunden.", "Datei öffnen");
             }
@@ -225,21 +248,22 @@ public class ClientController {
             String geschlecht = clientGenderChoiceBox.getValue();
             String beziehungsstatus = relationshipStatusChoiceBox.getValue();
 
+            if (ifaNummer == null || ifaNummer.isBlank()) {
+                showAlert("Es konnte keine IFA-Nummer vergeben werden. Bitte prüfen Sie die Datenbankverbindung.", "Eingabefehler");
+                return;
+            }
+
             // Eingabeprüfung inklusive Auswahl der ChoiceBoxen
             if (!isInputValid(name, vorname, geburtsdatum, geschlecht, beziehungsstatus)) return;
 
             // Client-Objekt erstellen und speichern
             Client klient = new Client(ifaNummer, name, vorname, geburtsdatum, nationalitaet, geschlecht, beziehungsstatus);
-            boolean isNewKlient = !klientDAO.existsByIfa(ifaNummer);
-
-            dataLoadService.saveOrUpdateClient(klient, klientDAO);
+            ClientDAO.UpsertResult result = dataLoadService.saveOrUpdateClient(klient, klientDAO);
             LOGGER.log(Level.INFO, "Klient gespeichert: {0} {1}", new Object[]{name, vorname});
 
-            loadAppointmentForKlient(ifaNummer);
-            loadDocumentForKlient(ifaNummer);
-            loadFileForKlient(ifaNummer);
+            loadDossierForKlient(ifaNummer);
 
-            if (isNewKlient) {
+            if (result == ClientDAO.UpsertResult.INSERTED) {
                 dataLoadService.resetClientForm(clientLastNameField, clientFirstnameField, dateOfBirthPicker, nationalityField,
                         clientGenderChoiceBox, relationshipStatusChoiceBox, clientIfaNummber);
                 LOGGER.info("Neuer Klient, Formular zurückgesetzt.");
@@ -251,15 +275,9 @@ public class ClientController {
     }
 
     private boolean isInputValid(String name, String vorname, LocalDate geburtsdatum, String geschlecht, String beziehungsstatus) {
-        if (name.isEmpty() || vorname.isEmpty() || geburtsdatum == null) {
-            showAlert("Eingabefehler", "Bitte füllen Sie alle erforderlichen Felder aus.");
-            return false;
-        }
-        if (DEFAULT_SELECTION_PROMPT.equals(geschlecht) || DEFAULT_SELECTION_PROMPT.equals(beziehungsstatus)) {
-            showAlert("Eingabefehler", "Bitte wählen Sie ein gültiges Geschlecht und einen Beziehungsstatus aus.");
-            return false;
-        }
-        return true;
+        Optional<String> error = clientValidationService.validate(name, vorname, geburtsdatum, geschlecht, beziehungsstatus);
+        error.ifPresent(message -> showAlert(message, "Eingabefehler"));
+        return error.isEmpty();
     }
 
     private void showAlert(String message, String title) {
@@ -320,7 +338,7 @@ public class ClientController {
             return;
         }
 
-        klientDAO.deleteByIfa(ifaNumber);
+        dataLoadService.deleteClient(ifaNumber, klientDAO);
         if (LOGGER.isLoggable(Level.INFO)) {
             LOGGER.log(Level.INFO, String.format("Klient gelöscht: %s", ifaNumber));
         }
@@ -346,9 +364,7 @@ public class ClientController {
 
         relationshipStatusChoiceBox.setValue(relationshipStatus);
 
-        loadAppointmentForKlient(ifaNumber);
-        loadDocumentForKlient(ifaNumber);
-        loadFileForKlient(ifaNumber);
+        loadDossierForKlient(ifaNumber);
     }
 
 }
@@ -1,34 +1,51 @@
 package com.badr.cp_project.controller;
 
+import com.badr.cp_project.dao.CachingClientDAO;
+import com.badr.cp_project.dao.ClientDAO;
 import com.badr.cp_project.dao.DocumentDAO;
 import com.badr.cp_project.model.Document;
 import com.badr.cp_project.service.DataLoadService;
+import com.badr.cp_project.service.DocumentationSearchService;
 import com.badr.cp_project.service.NavigationService;
+import com.badr.cp_project.service.PagedObservableList;
+import com.badr.cp_project.service.TableChangeTracker;
 import com.badr.cp_project.service.UtilityService;
 import com.badr.cp_project.service.WindowsNaviService;
-import com.badr.cp_project.util.DatabaseConnection;
-import javafx.collections.ObservableList;
+import com.badr.cp_project.util.ConnectionPool;
+import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 
-import java.sql.Connection;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class DocumentController {
 
+    private static final int SEARCH_HITS = 200;
+
     private final NavigationService navigationService;
     private final UtilityService utilityService;
     private final DataLoadService dataLoadService;
 
     private final DocumentDAO documentDAO;
+    private final ClientDAO clientDAO;
+    private TableChangeTracker<Document, Integer> documentTracker;
     private Document selectedDocument;
+    private PagedObservableList<Document> documentList;
+    // Ausschnitte der aktuell angezeigten Treffer der Volltextsuche
+    private final Map<Document, DocumentationSearchService.Snippet> snippets = new IdentityHashMap<>();
+    private int searchGeneration;
+    // true, solange die vollständige Beschreibung der ausgewählten Dokumentation noch geladen wird
+    private boolean bodyLoading;
 
     @FXML
     private TextArea documentDescriptionTextArea;
@@ -40,6 +57,8 @@ public class DocumentController {
     private TextField documentClientIfaNumberField;
     @FXML
     private TextField documentTitelField;
+    @FXML
+    private TextField documentSearchField;
 
     @FXML
     private TableView<Document> documentTableView;
@@ -59,8 +78,8 @@ public class DocumentController {
         this.utilityService = new UtilityService();
         this.navigationService = new NavigationService();
         this.dataLoadService = new DataLoadService(utilityService);
-        Connection connection = new DatabaseConnection().connect();
-        this.documentDAO = new DocumentDAO(connection);
+        this.documentDAO = new DocumentDAO(ConnectionPool.getInstance());
+        this.clientDAO = new CachingClientDAO(ConnectionPool.getInstance());
     }
 
     @FXML
@@ -71,7 +90,12 @@ public class DocumentController {
 
         setCellFactories();
         addDoubleClickListener();
+        documentTracker = new TableChangeTracker<>(documentTableView, documentDAO::getDocumentChangesSince,
+                Document::getDocumentId, dataLoadService, utilityService);
+        dataLoadService.cancelPendingLoadsOnNavigation(documentTableView);
+        dataLoadService.subscribeWhileShown(documentTableView, Document.class, documentTracker::apply);
         loadDocumentData();
+        addFullTextSearch();
     }
 
     private void setCellFactories() {
@@ -81,6 +105,35 @@ public class DocumentController {
         documentTimeColumn.setCellFactory(utilityService.timeCellFactory(timeFormatter));
         documentTitelColumn.setCellValueFactory(cellData -> cellData.getValue().dokuTitelProperty());
         documentDescriptionColumn.setCellValueFactory(cellData -> cellData.getValue().documentDescriptionProperty());
+        documentDescriptionColumn.setCellFactory(utilityService.snippetCellFactory(snippets::get));
+    }
+
+    private void addFullTextSearch() {
+        utilityService.onTypingPause(documentSearchField, this::runFullTextSearch);
+    }
+
+    /**
+     * Zeigt die Treffer der Volltextsuche nach Relevanz sortiert an; eine leere Suche zeigt wieder alle Dokumentationen.
+     * Die vollständige Liste wird währenddessen weiter aktuell gehalten.
+     */
+    private void runFullTextSearch(String query) {
+        int generation = ++searchGeneration;
+        if (query == null || query.isBlank()) {
+            snippets.clear();
+            documentTableView.setItems(documentList);
+            return;
+        }
+        dataLoadService.loadAsync(() -> DocumentationSearchService.getInstance().search(query, SEARCH_HITS, documentDAO),
+                "Volltextsuche").thenAccept(hits -> {
+            // Überholte Ergebnisse verwerfen, wenn inzwischen weitergetippt wurde
+            if (generation != searchGeneration) {
+                return;
+            }
+            snippets.clear();
+            hits.forEach(hit -> snippets.put(hit.document(), hit.snippet()));
+            List<Document> found = hits.stream().map(DocumentationSearchService.Hit::document).toList();
+            documentTableView.setItems(FXCollections.observableArrayList(found));
+        });
     }
 
     private void addDoubleClickListener() {
@@ -88,27 +141,77 @@ public class DocumentController {
     }
 
     private void loadDocumentData() {
-        ObservableList<Document> dokuList = dataLoadService.loadDocuments(documentDAO);
-        documentTableView.setItems(dokuList);
+        documentList = dataLoadService.loadDocuments(documentDAO);
+        documentTableView.setItems(documentList);
+        utilityService.enableLazyPaging(documentTableView, documentList);
+        documentTracker.track(DataLoadService.DOCUMENT_BY_ID, ignore -> true);
     }
 
+    /**
+     * Übernimmt eine Dokumentation in das Formular. Listen enthalten nur Auszüge der Beschreibung; der vollständige
+     * Text wird dann nachgeladen und das Textfeld bis dahin gesperrt.
+     */
     private void loadDocumentIntoFields(Document document) {
         this.selectedDocument = document;
         documentClientIfaNumberField.setText(document.getDocumentClientIfaNumber());
         documentDescriptionTextArea.setText(document.getDocumentDescription());
+        bodyLoading = document.isDescriptionExcerpt();
+        documentDescriptionTextArea.setEditable(!bodyLoading);
+        if (bodyLoading) {
+            loadDocumentBody(document);
+        }
         documentDatePicker.setValue(document.getDocumentDate());
         documentTimeField.setText(document.getDocumentTime().toString());
         documentTitelField.setText(document.getDokuTitel());
     }
 
+    private void loadDocumentBody(Document document) {
+        dataLoadService.loadAsync(() -> documentDAO.getDocumentBody(document.getDocumentId()), "Dokumentation")
+                .thenAccept(body -> {
+                    // Inzwischen eine andere Dokumentation ausgewählt
+                    if (selectedDocument != document) {
+                        return;
+                    }
+                    if (body == null) {
+                        clearForm();
+                        showAlert("Die Dokumentation wurde inzwischen gelöscht.");
+                        return;
+                    }
+                    documentDescriptionTextArea.setText(body);
+                    documentDescriptionTextArea.setEditable(true);
+                    bodyLoading = false;
+                })
+                .exceptionally(e -> {
+                    // Nur den Auszug stehen zu lassen, würde beim Speichern den Text kürzen; daher das Formular leeren
+                    if (selectedDocument == document && !utilityService.isCancellation(e)) {
+                        clearForm();
+                        showAlert("Die Dokumentation konnte nicht geladen werden.");
+                    }
+                    return null;
+                });
+    }
+
     public void setDocumentClientIfaNumber(String ifaNumber) {
         documentClientIfaNumberField.setText(ifaNumber);
         documentClientIfaNumberField.setDisable(true);
 
     }
 
+    /**
+     * Übernimmt eine Dokumentation zur Bearbeitung in das Formular, wie ein Doppelklick in der Tabelle.
+     * @param document die zu öffnende Dokumentation.
+     */
+    public void openDocument(Document document) {
+        setDocumentClientIfaNumber(document.getDocumentClientIfaNumber());
+        loadDocumentIntoFields(document);
+    }
+
     @FXML
     protected void onSaveButtonClick(ActionEvent ignoredEvent) {
+        if (bodyLoading) {
+            showAlert("Die Dokumentation wird noch geladen. Bitte versuchen Sie es gleich noch einmal.");
+            return;
+        }
         String documentDeskription = documentDescriptionTextArea.getText();
         LocalDate documentDate = documentDatePicker.getValue();
         LocalTime documentTime;
@@ -129,12 +232,25 @@ public class DocumentController {
         Document doku = createDocumentObject(documentDeskription, documentDate, documentTime, documentClientNumberings, documentTitle);
         if (selectedDocument != null) {
             doku.setDocumentId(selectedDocument.getDocumentId());
-            documentDAO.update(doku);
-        } else {
-            documentDAO.save(doku);
         }
+        if (documentClientIfaNumberField.isDisabled()) {
+            saveDocument(doku);
+            return;
+        }
+        // Eine eingegebene Ifa-Nummer muss zu einem Klienten gehören
+        dataLoadService.findClientAsync(clientDAO, documentClientNumberings).thenAccept(client -> {
+            if (client == null) {
+                showAlert("Es gibt keinen Klienten mit der IFA-Nummer " + documentClientNumberings + ".");
+            } else {
+                saveDocument(doku);
+            }
+        });
+    }
 
-        loadDocumentData();
+    private void saveDocument(Document doku) {
+        dataLoadService.saveOrUpdateDocument(doku, documentDAO);
+
+        documentTracker.refresh();
         clearForm();
     }
 
@@ -171,8 +287,8 @@ public class DocumentController {
             return;
         }
 
-        documentDAO.delete(selectedDoku.getDocumentId());
-        loadDocumentData();
+        dataLoadService.deleteDocument(selectedDoku.getDocumentId(), documentDAO);
+        documentTracker.refresh();
     }
 
     private boolean showConfirmationDialog() {
@@ -198,7 +314,9 @@ public class DocumentController {
         documentDatePicker.setValue(null);
         documentTimeField.clear();
         documentTitelField.clear();
+        documentDescriptionTextArea.setEditable(true);
         selectedDocument = null;
+        bodyLoading = false;
     }
 
 }
@@ -1,13 +1,14 @@
 package com.badr.cp_project.controller;
 
+import com.badr.cp_project.dao.CachingClientDAO;
+import com.badr.cp_project.dao.ClientDAO;
 import com.badr.cp_project.dao.FileDAO;
 import com.badr.cp_project.model.File;
 import com.badr.cp_project.service.DataLoadService;
 import com.badr.cp_project.service.NavigationService;
 import com.badr.cp_project.service.UtilityService;
 import com.badr.cp_project.service.WindowsNaviService;
-import com.badr.cp_project.util.DatabaseConnection;
-import javafx.collections.ObservableList;
+import com.badr.cp_project.util.ConnectionPool;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
@@ -19,8 +20,8 @@ import javafx.stage.Stage;
 import java.awt.*;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.sql.Connection;
 import java.time.LocalDate;
 import java.util.Optional;
 import java.util.logging.Level;
@@ -31,7 +32,9 @@ public class FileController {
     private static final Logger LOGGER = Logger.getLogger(FileController.class.getName());
 
     private final FileDAO fileDAO;
+    private final ClientDAO clientDAO;
     private final DataLoadService dataLoadService;
+    private final UtilityService utilityService;
     private final NavigationService navigationService;
 
     @FXML
@@ -47,15 +50,20 @@ public class FileController {
 
 
     public FileController() {
-        Connection connection = new DatabaseConnection().connect();
-        this.fileDAO = new FileDAO(connection); // Übergibt die Connection an den DateiDAO
-        this.dataLoadService = new DataLoadService(new UtilityService());
+        this.fileDAO = new FileDAO(ConnectionPool.getInstance()); // Übergibt den gemeinsamen Pool an den DateiDAO
+        this.clientDAO = new CachingClientDAO(ConnectionPool.getInstance());
+        this.utilityService = new UtilityService();
+        this.dataLoadService = new DataLoadService(utilityService);
         this.navigationService = new NavigationService();
     }
 
     @FXML
     private void initialize() {
         setCellFactories();
+        dataLoadService.cancelPendingLoadsOnNavigation(fileTableView);
+        dataLoadService.subscribeWhileShown(fileTableView, File.class, event ->
+                utilityService.applyChange(fileTableView, event, File::getFileId, DataLoadService.FILE_BY_UPLOAD_DATE,
+                        file -> file.getFileClientIfaNumber().equals(fileClientIfaNumberField.getText())));
 
         // Doppelklick-Handler hinzufügen
         fileTableView.setOnMouseClicked(event -> {
@@ -80,9 +88,20 @@ public class FileController {
         loadFileForClient(ifaNummer);
     }
 
+    /**
+     * Zeigt die Dateien des Klienten einer Datei und wählt die Datei aus, sobald sie geladen sind.
+     * @param datei die anzuzeigende Datei.
+     */
+    public void showFile(File datei) {
+        setFileClientIfaNumber(datei.getFileClientIfaNumber());
+        int dateiId = datei.getFileId();
+        utilityService.selectWhenLoaded(fileTableView, geladen -> geladen.getFileId() == dateiId);
+    }
+
     private void loadFileForClient(String ifaNummer) {
-        ObservableList<File> dateiListe = dataLoadService.loadFileByClientIfaNumber(fileDAO, ifaNummer);
-        fileTableView.setItems(dateiListe);
+        utilityService.loadDataAsync(fileTableView,
+                dataLoadService.loadFileByClientIfaNumberAsync(fileDAO, ifaNummer),
+                "Fehler beim Laden der Dateien für den Klienten");
     }
 
     @FXML
@@ -96,51 +115,46 @@ public class FileController {
     protected void onUploadButtonClick(ActionEvent event) {
         FileChooser fileChooser = new FileChooser();
         java.io.File file = fileChooser.showOpenDialog(((Node) event.getSource()).getScene().getWindow());
-        if (file != null) {
-            LocalDate hochladedatum = LocalDate.now(); // Datum des Hochladens
-            String ifaNummer = fileClientIfaNumberField.getText(); // Ifa-Nummer des Klienten
-
-            try {
-                String dateiTyp = Files.probeContentType(file.toPath()); // Dateityp (MIME-Typ)
-
-                // Definiere das Zielverzeichnis
-                String targetDirectory = "uploads";
-                java.io.File dir = new java.io.File(targetDirectory);
-
-                // Überprüfe, ob das Verzeichnis erstellt werden konnte oder bereits existiert
-                if (!dir.exists()) {
-                    boolean isCreated = dir.mkdirs();
-                    if (!isCreated) {
-                        if (LOGGER.isLoggable(Level.SEVERE)) {
-                            LOGGER.severe(String.format("Das Verzeichnis '%s' konnte nicht erstellt werden.", targetDirectory));
-                        }
-                        return; // Verlasse die Methode, da das Verzeichnis nicht erstellt wurde
-                    }
-                }
-
-                // Definiere den Zielpfad für die Datei
-                java.io.File targetFile = new java.io.File(dir, file.getName());
-
-                // Kopiere die Datei in das Zielverzeichnis
-                Files.copy(file.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-
-                // Speichere den Pfad zur kopierten Datei
-                String dateiPfad = targetFile.getAbsolutePath();
-
-                // Erstelle ein Datei-Objekt mit allen gesammelten Informationen
-                File datei = new File(hochladedatum, dateiTyp, file.getName(), dateiPfad, ifaNummer);
-
-                // Speichere die Datei in der Datenbank
-                fileDAO.save(datei);
-
-                // Aktualisiere die Tabelle, um die neue Datei anzuzeigen
-                loadFileForClient(ifaNummer);
-
-            } catch (IOException e) {
-                // Protokolliere den Fehler mit Stacktrace
-                LOGGER.log(Level.SEVERE, "Fehler beim Verarbeiten der Datei: " + file.getName(), e);
+        if (file == null) {
+            return;
+        }
+        String ifaNummer = fileClientIfaNumberField.getText(); // Ifa-Nummer des Klienten
+        if (fileClientIfaNumberField.isDisabled()) {
+            uploadFile(file, ifaNummer);
+            return;
+        }
+        // Eine eingegebene Ifa-Nummer muss zu einem Klienten gehören
+        dataLoadService.findClientAsync(clientDAO, ifaNummer).thenAccept(client -> {
+            if (client == null) {
+                showAlert("Es gibt keinen Klienten mit der IFA-Nummer " + ifaNummer + ".");
+            } else {
+                uploadFile(file, ifaNummer);
             }
+        }).exceptionally(e -> {
+            // Beim Verlassen der Seite abgebrochen: nichts melden
+            if (!utilityService.isCancellation(e)) {
+                showAlert("Der Klient konnte nicht geprüft werden, die Datei wurde nicht hochgeladen.");
+            }
+            return null;
+        });
+    }
+
+    private void uploadFile(java.io.File file, String ifaNummer) {
+        String dateiTyp;
+        try {
+            dateiTyp = Files.probeContentType(file.toPath()); // Dateityp (MIME-Typ)
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Dateityp konnte nicht ermittelt werden: " + file.getName(), e);
+            dateiTyp = null;
         }
+
+        // Inhalt in der Dateiablage ablegen (gleiche Inhalte nur einmal) und die Datei speichern;
+        // die Tabelle übernimmt sie über den EventBus
+        dataLoadService.uploadFileAsync(file.toPath(), file.getName(), dateiTyp, ifaNummer, fileDAO)
+                .exceptionally(e -> {
+                    showAlert("Die Datei konnte nicht hochgeladen werden.");
+                    return null;
+                });
     }
 
     @FXML
@@ -154,10 +168,10 @@ public class FileController {
 
             if (saveFile != null) {
                 try {
-                    java.io.File sourceFile = new java.io.File(selectedDatei.getFilePath());
-                    if (sourceFile.exists()) {
+                    Path sourceFile = fileDAO.resolve(selectedDatei);
+                    if (sourceFile != null && Files.exists(sourceFile)) {
                         // Kopiere die Datei zum ausgewählten Speicherort
-                        Files.copy(sourceFile.toPath(), saveFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                        Files.copy(sourceFile, saveFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
                         showAlert("Datei erfolgreich heruntergeladen.");
                     } else {
                         showAlert("Die Datei wurde nicht gefunden.");
@@ -196,10 +210,9 @@ public class FileController {
             // Überprüfen, ob der Benutzer die Löschung bestätigt hat
             if (result.isPresent() && result.get() == ButtonType.YES) {
                 // Datei löschen
-                boolean isDeleted = fileDAO.delete(dokumentId);
+                boolean isDeleted = dataLoadService.deleteFile(dokumentId, fileDAO);
                 if (isDeleted) {
                     showAlert("Datei erfolgreich gelöscht.");
-                    loadFileForClient(selectedDatei.getFileClientIfaNumber());
                 } else {
                     showAlert("Löschen der Datei ist fehlgeschlagen. Möglicherweise existiert sie nicht mehr.");
                 }
@@ -220,10 +233,10 @@ public class FileController {
 
     private void openFileInBrowser(File datei) {
         try {
-            java.io.File file = new java.io.File(datei.getFilePath());
-            if (file.exists()) {
+            Path file = fileDAO.resolveForOpening(datei);
+            if (file != null) {
                 // Öffne die Datei im Standardbrowser
-                Desktop.getDesktop().browse(file.toURI());
+                Desktop.getDesktop().browse(file.toUri());
             } else {
                 showAlert("Die Datei wurde nicht gefunden.");
             }
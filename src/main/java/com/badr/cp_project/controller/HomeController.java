@@ -1,16 +1,19 @@
 package com.badr.cp_project.controller;
 
+import com.badr.cp_project.dao.CachingClientDAO;
 import com.badr.cp_project.dao.ClientDAO;
 import com.badr.cp_project.dao.AppointmentDAO;
 import com.badr.cp_project.model.Client;
 import com.badr.cp_project.model.Appointment;
+import com.badr.cp_project.service.ClientSearchService;
 import com.badr.cp_project.service.DataLoadService;
+import com.badr.cp_project.service.EntityChangeEvent;
+import com.badr.cp_project.service.GlobalSearchService;
 import com.badr.cp_project.service.NavigationService;
+import com.badr.cp_project.service.PagedObservableList;
 import com.badr.cp_project.service.UtilityService;
 import com.badr.cp_project.service.WindowsNaviService;
-import com.badr.cp_project.util.DatabaseConnection;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
+import com.badr.cp_project.util.ConnectionPool;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
@@ -19,18 +22,23 @@ import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
-import java.sql.Connection;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class HomeController {
 
+    private static final Logger LOGGER = Logger.getLogger(HomeController.class.getName());
     private final UtilityService utilityService = new UtilityService();
     private final NavigationService navigationService;
     private final DataLoadService dataLoadService;
     private final ClientDAO clientDAO;
     private final AppointmentDAO appointmentDAO;
+    // Führt die Klientensuche nach einer Änderung erneut aus, damit die Treffer aktuell bleiben
+    private Runnable refreshClientSearch = () -> {
+    };
 
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
     private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
@@ -52,23 +60,49 @@ public class HomeController {
 
     @FXML
     private TextField searchField;
+    @FXML
+    private TextField globalSearchField;
 
     public HomeController() {
         this.navigationService = new NavigationService();
         this.dataLoadService = new DataLoadService(utilityService);
-        DatabaseConnection dbConnection = new DatabaseConnection();
-        Connection conn = dbConnection.connect();
-        this.clientDAO = new ClientDAO(conn);
-        this.appointmentDAO = new AppointmentDAO(conn);
+        ConnectionPool connectionPool = ConnectionPool.getInstance();
+        this.clientDAO = new CachingClientDAO(connectionPool);
+        this.appointmentDAO = new AppointmentDAO(connectionPool);
     }
 
     @FXML
     public void initialize() {
         initializeClientTable();
         initializeAppointmentTable();
+        dataLoadService.cancelPendingLoadsOnNavigation(clientTable);
+        dataLoadService.subscribeWhileShown(clientTable, Client.class, this::onClientChanged);
+        dataLoadService.subscribeWhileShown(appointmentTable, Appointment.class, this::onAppointmentChanged);
         loadClientData();
         loadAppointmentData();
         addDoubleClickListeners();
+        utilityService.addGlobalSearch(globalSearchField, GlobalSearchService.getInstance(), this::navigateToSearchHit);
+    }
+
+    private void onClientChanged(EntityChangeEvent<Client> event) {
+        utilityService.applyChange(clientTable, event, Client::getClientIfaNumber, DataLoadService.CLIENT_BY_IFA, ignore -> true);
+        refreshClientSearch.run();
+
+        // Die offenen Termine zeigen den Klientennamen; mitgelöschte Termine werden einzeln gemeldet
+        if (event.type() == EntityChangeEvent.Type.DELETED) {
+            return;
+        }
+        for (Appointment appointment : appointmentTable.getItems()) {
+            if (appointment.getAppointmentClientIfaNumber().equals(event.key())) {
+                appointment.appointmentClientLastnameProperty().set(event.entity().getClientLastname());
+                appointment.appointmentClientFirstnameProperty().set(event.entity().getClientFirstname());
+            }
+        }
+    }
+
+    private void onAppointmentChanged(EntityChangeEvent<Appointment> event) {
+        utilityService.applyChange(appointmentTable, event, Appointment::getAppointmentId,
+                DataLoadService.APPOINTMENT_BY_DATE, DataLoadService.OPEN_APPOINTMENT);
     }
 
     private void initializeClientTable() {
@@ -102,6 +136,21 @@ public class HomeController {
         utilityService.addDoubleClickListener(appointmentTable, this::navigateToAppointmentDetail);
     }
 
+    private void navigateToSearchHit(GlobalSearchService.Hit hit) {
+        Stage stage = (Stage) globalSearchField.getScene().getWindow();
+        // Der Suchindex kennt nur den Schlüssel; der Eintrag wird erst für die Detailansicht geladen
+        dataLoadService.loadAsync(() -> GlobalSearchService.getInstance().loadEntity(hit, ConnectionPool.getInstance()),
+                        "Suchtreffer " + hit.type().getLabel() + " " + hit.key())
+                .thenAccept(entity -> {
+                    if (entity == null) {
+                        LOGGER.log(Level.WARNING, "Suchtreffer {0} {1} existiert nicht mehr.",
+                                new Object[]{hit.type().getLabel(), hit.key()});
+                        return;
+                    }
+                    navigationService.navigateToSearchHit(stage, hit, entity);
+                });
+    }
+
     private void navigateToClientDetail(Client klient) {
         if (klient != null) {
             Stage stage = (Stage) clientTable.getScene().getWindow();
@@ -125,24 +174,19 @@ public class HomeController {
     }
 
     private void loadClientData() {
-        ObservableList<Client> clients = dataLoadService.loadClientData(clientDAO);
-
-        FilteredList<Client> filteredClientList = new FilteredList<>(clients, ignore -> true);
-
-        utilityService.addSearchFilter(searchField, clientTable, filteredClientList, (client, lowerCaseFilter) ->
-                client.getClientLastname().toLowerCase().contains(lowerCaseFilter)
-                        || client.getClientFirstname().toLowerCase().contains(lowerCaseFilter)
-                        || client.getClientIfaNumber().toLowerCase().contains(lowerCaseFilter)
-                        || client.getClientGender().toLowerCase().contains(lowerCaseFilter)
-                        || client.getClientNationality().toLowerCase().contains(lowerCaseFilter)
-                        || client.getClientRelationshipStatus().toLowerCase().contains(lowerCaseFilter)
-                        || client.getClientDateOfBirth().toString().contains(lowerCaseFilter)
-        );
+        PagedObservableList<Client> clients = dataLoadService.loadClientData(clientDAO);
+        clientTable.setItems(clients);
+        utilityService.enableLazyPaging(clientTable, clients);
+
+        // Gesucht wird über alle Klienten, nicht nur über die geladenen Seiten
+        refreshClientSearch = utilityService.addIndexedSearch(searchField, clientTable, clients,
+                query -> dataLoadService.searchClientsAsync(query, ClientSearchService.getInstance(), clientDAO));
     }
 
     private void loadAppointmentData() {
-        ObservableList<Appointment> appointments = dataLoadService.loadOffeneAppointment(appointmentDAO);
+        PagedObservableList<Appointment> appointments = dataLoadService.loadOffeneAppointment(appointmentDAO);
         appointmentTable.setItems(appointments);
+        utilityService.enableLazyPaging(appointmentTable, appointments);
     }
 
     @FXML
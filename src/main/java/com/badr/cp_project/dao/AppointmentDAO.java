@@ -1,15 +1,19 @@
 package com.badr.cp_project.dao;
 
 import com.badr.cp_project.model.Appointment;
+import com.badr.cp_project.util.ConnectionPool;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import static com.badr.cp_project.dao.MapperGenerator.column;
+
 public class AppointmentDAO {
 
     private static final String SELECT_ALL_APPOINTMENT =
@@ -19,7 +23,13 @@ public class AppointmentDAO {
                     "INNER JOIN client k ON a.clientIfaNumber = k.ifaNumber";
 
     private static final String SELECT_APPOINTMENT_BY_IFA_NUMBER =
-            SELECT_ALL_APPOINTMENT + " WHERE a.clientIfaNumber = ?";
+            SELECT_ALL_APPOINTMENT + " WHERE a.clientIfaNumber = ? ORDER BY a.date, a.time, a.appointmentId";
+
+    private static final String SELECT_APPOINTMENT_PAGE_AFTER =
+            SELECT_ALL_APPOINTMENT + " WHERE a.appointmentId > ? ORDER BY a.appointmentId LIMIT ?";
+
+    private static final String SELECT_ALL_APPOINTMENT_ORDERED =
+            SELECT_ALL_APPOINTMENT + " ORDER BY a.appointmentId";
 
     private static final String INSERT_APPOINTMENT =
             "INSERT INTO appointment (date, time, address, institution, priority, status, clientIfaNumber) " +
@@ -28,14 +38,46 @@ public class AppointmentDAO {
     private static final String UPDATE_APPOINTMENT =
             "UPDATE appointment SET date = ?, time = ?, address = ?, institution = ?, priority = ?, status = ? WHERE appointmentId = ?";
 
+    private static final String SELECT_APPOINTMENT_EXISTS =
+            "SELECT 1 FROM appointment WHERE appointmentId = ?";
+
     private static final String DELETE_APPOINTMENT_BY_ID =
             "DELETE FROM appointment WHERE appointmentId = ?";
 
-    private final Connection conn;
+    private static final String SELECT_EXISTING_APPOINTMENT_IDS =
+            "SELECT appointmentId FROM appointment WHERE appointmentId IN";
+
+    // Auch eine Namensänderung des Klienten ändert die angezeigte Terminzeile
+    private static final String SELECT_APPOINTMENT_CHANGED_SINCE =
+            SELECT_ALL_APPOINTMENT + " WHERE a.updatedAt > ? OR k.updatedAt > ?";
+
+    private static final String SELECT_APPOINTMENT_BY_IDS =
+            SELECT_ALL_APPOINTMENT + " WHERE a.appointmentId IN";
+
+    /** Der Tabellenname in {@code change_log}. */
+    public static final String TABLE = "appointment";
+
+    // Bekannte Statuswerte in der gespeicherten Schreibweise; Filter und Speichern bringen Eingaben auf diese Form
+    private static final List<String> KNOWN_STATUSES = List.of("Offen", "Erledigt");
+
+    // Spalten in der Reihenfolge des Appointment-Konstruktors mit ID
+    private static final RowMapper<Appointment> APPOINTMENT_MAPPER = MapperGenerator.mapperFor(Appointment.class,
+            column("appointmentId", int.class),
+            column("clientIfaNumber", String.class),
+            column("address", String.class),
+            column("institution", String.class),
+            column("date", LocalDate.class),
+            column("priority", String.class),
+            column("status", String.class),
+            column("time", LocalTime.class),
+            column("clientLastName", String.class),
+            column("clientFirstName", String.class));
+
+    private final ConnectionPool connectionPool;
     Logger logger = Logger.getLogger(getClass().getName());
 
-    public AppointmentDAO(Connection conn) {
-        this.conn = conn;
+    public AppointmentDAO(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
     }
 
     /**
@@ -43,44 +85,171 @@ public class AppointmentDAO {
      * @return eine Liste aller Termine.
      */
     public List<Appointment> getAllAppointment() {
-        return executeAppointmentQuery(SELECT_ALL_APPOINTMENT);
+        return executeAppointmentQueryOrEmpty(SELECT_ALL_APPOINTMENT);
     }
 
     /**
      * Ruft alle Termine für einen bestimmten Klienten anhand der Ifa-Nummer ab.
      * @param ifaNumber die Ifa-Nummer des Klienten.
      * @return eine Liste der Termine.
+     * @throws SQLException wenn die Abfrage fehlschlägt; eine leere Liste bedeutet dagegen, dass der Klient keine Termine hat.
      */
-    public List<Appointment> getAppointmentByClientIfa(String ifaNumber) {
+    public List<Appointment> getAppointmentByClientIfa(String ifaNumber) throws SQLException {
         return executeAppointmentQuery(SELECT_APPOINTMENT_BY_IFA_NUMBER, ifaNumber);
     }
 
     /**
-     * Speichert einen neuen Termin in der Datenbank.
+     * Ruft eine Seite von Terminen nach ID sortiert ab (Keyset-Paginierung).
+     * @param afterAppointmentId die ID des letzten Termins der vorherigen Seite oder 0 für die erste Seite.
+     * @param pageSize die maximale Anzahl der Termine pro Seite.
+     * @return die Termine der Seite.
+     * @throws SQLException wenn die Abfrage fehlschlägt; eine leere Seite bedeutet dagegen, dass keine Termine folgen.
+     */
+    public List<Appointment> getAppointmentPage(int afterAppointmentId, int pageSize) throws SQLException {
+        return executeAppointmentQuery(SELECT_APPOINTMENT_PAGE_AFTER, afterAppointmentId, pageSize);
+    }
+
+    /**
+     * Ruft Termine ab, die den Filterkriterien entsprechen. Filter, Sortierung und Limit werden in SQL ausgewertet.
+     * @param filter die Filterkriterien.
+     * @return eine Liste der passenden Termine.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public List<Appointment> findAppointments(AppointmentFilter filter) throws SQLException {
+        StringBuilder query = new StringBuilder(SELECT_ALL_APPOINTMENT);
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+
+        if (filter.getStatus() != null) {
+            conditions.add("a.status = ?");
+            params.add(normalizeStatus(filter.getStatus()));
+        }
+        if (filter.getPriority() != null) {
+            conditions.add("a.priority = ?");
+            params.add(filter.getPriority());
+        }
+        if (filter.getFromDate() != null) {
+            conditions.add("a.date >= ?");
+            params.add(Date.valueOf(filter.getFromDate()));
+        }
+        if (filter.getToDate() != null) {
+            conditions.add("a.date <= ?");
+            params.add(Date.valueOf(filter.getToDate()));
+        }
+        if (filter.getAfter() != null) {
+            // Keyset-Bedingung auf (date, time, appointmentId) passend zur Sortierrichtung
+            Appointment after = filter.getAfter();
+            String op = filter.getOrder() == AppointmentFilter.Order.DATE_ASC ? ">" : "<";
+            conditions.add("(a.date " + op + " ? OR (a.date = ? AND (a.time " + op + " ? OR (a.time = ? AND a.appointmentId " + op + " ?))))");
+            Date afterDate = Date.valueOf(after.getAppointmentDate());
+            Time afterTime = Time.valueOf(after.getAppointmentTime());
+            params.add(afterDate);
+            params.add(afterDate);
+            params.add(afterTime);
+            params.add(afterTime);
+            params.add(after.getAppointmentId());
+        }
+        if (!conditions.isEmpty()) {
+            query.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        query.append(" ORDER BY ").append(filter.getOrder().getOrderByClause());
+        if (filter.getLimit() > 0) {
+            query.append(" LIMIT ?");
+            params.add(filter.getLimit());
+        }
+        return executeAppointmentQuery(query.toString(), params.toArray());
+    }
+
+    /**
+     * Liest alle Termine mit Klientennamen nach ID sortiert über einen Vorwärts-Cursor, ohne sie im Speicher zu sammeln.
+     * @param consumer erhält jeden Termin einzeln.
+     * @return die Anzahl der gelesenen Termine.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public long forEachAppointment(Consumer<? super Appointment> consumer) throws SQLException {
+        return JdbcStream.forEach(connectionPool, SELECT_ALL_APPOINTMENT_ORDERED, APPOINTMENT_MAPPER, consumer);
+    }
+
+    /**
+     * Ruft die seit dem Wasserzeichen eingefügten, geänderten und gelöschten Termine ab.
+     * @param since das Wasserzeichen der vorherigen Abfrage oder null, um nur den Startpunkt zu ermitteln.
+     * @return die Änderungen mit dem Wasserzeichen für die nächste Abfrage.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public ChangeSet<Appointment, Integer> getAppointmentChangesSince(Timestamp since) throws SQLException {
+        return ChangeTracking.changesSince(connectionPool, since, SELECT_APPOINTMENT_CHANGED_SINCE, APPOINTMENT_MAPPER,
+                TABLE, Integer::valueOf);
+    }
+
+    /**
+     * Ruft Termine anhand ihrer IDs ab.
+     * @param appointmentIds die IDs der Termine.
+     * @return die gefundenen Termine; nicht mehr vorhandene fehlen.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public List<Appointment> getAppointmentsByIds(List<Integer> appointmentIds) throws SQLException {
+        return ChangeTracking.findByKeys(connectionPool, SELECT_APPOINTMENT_BY_IDS, APPOINTMENT_MAPPER, appointmentIds);
+    }
+
+    /**
+     * Speichert einen neuen Termin in der Datenbank. Die erzeugte ID wird in den Termin übernommen.
      * @param appointment der zu speichernde Termin.
+     * @return true, wenn der Termin gespeichert wurde.
      */
-    public void save(Appointment appointment) {
-        try (PreparedStatement stmt = conn.prepareStatement(INSERT_APPOINTMENT)) {
-            setAppointmentStatement(stmt, appointment);
-            stmt.executeUpdate();
+    public boolean save(Appointment appointment) {
+        try {
+            int appointmentId = ChangeTracking.inTransaction(connectionPool, conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(INSERT_APPOINTMENT, Statement.RETURN_GENERATED_KEYS)) {
+                    setAppointmentStatement(stmt, appointment);
+                    stmt.executeUpdate();
+                    try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Der Treiber lieferte keine erzeugte ID.");
+                        }
+                        int id = generatedKeys.getInt(1);
+                        ChangeTracking.log(conn, TABLE, ChangeLogEntry.Operation.INSERT, id);
+                        return id;
+                    }
+                }
+            });
+            appointment.setAppointmentId(appointmentId);
             logger.log(Level.INFO,"Termin erfolgreich gespeichert.");
+            return true;
         } catch (SQLException e) {
             logger.log(Level.SEVERE,"Fehler beim Speichern des Termins: ", e);
+            return false;
         }
     }
 
     /**
      * Aktualisiert einen bestehenden Termin in der Datenbank.
      * @param appointment der zu aktualisierende Termin.
+     * @return true, wenn der Termin gefunden und aktualisiert wurde.
      */
-    public void update(Appointment appointment) {
-        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_APPOINTMENT)) {
-            setAppointmentStatement(stmt, appointment);
-            stmt.setInt(7, appointment.getAppointmentId());
-            stmt.executeUpdate();
-            logger.log(Level.INFO,"Termin erfolgreich aktualisiert.");
+    public boolean update(Appointment appointment) {
+        try {
+            boolean updated = ChangeTracking.inTransaction(connectionPool, conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(UPDATE_APPOINTMENT)) {
+                    setAppointmentStatement(stmt, appointment);
+                    stmt.setInt(7, appointment.getAppointmentId());
+                    int rows = stmt.executeUpdate();
+                    if (rows == 0) {
+                        // Unveränderte Zeilen zählen bei useAffectedRows nicht; nichts zu protokollieren
+                        return ChangeTracking.updatedOrUnchanged(conn, rows, SELECT_APPOINTMENT_EXISTS, appointment.getAppointmentId());
+                    }
+                }
+                ChangeTracking.log(conn, TABLE, ChangeLogEntry.Operation.UPDATE, appointment.getAppointmentId());
+                return true;
+            });
+            if (updated) {
+                logger.log(Level.INFO, "Termin erfolgreich aktualisiert.");
+            } else {
+                logger.log(Level.INFO, "Kein Termin mit der angegebenen ID gefunden.");
+            }
+            return updated;
         } catch (SQLException e) {
             logger.log(Level.SEVERE,"Fehler beim Aktualisieren des Termins: ", e);
+            return false;
         }
     }
 
@@ -88,63 +257,119 @@ public class AppointmentDAO {
      * Löscht einen Termin anhand seiner ID.
      *
      * @param appointmentId die ID des zu löschenden Termins.
+     * @return true, wenn der Termin gelöscht wurde.
      */
-    public void deleteById(int appointmentId) {
-        try (PreparedStatement stmt = conn.prepareStatement(DELETE_APPOINTMENT_BY_ID)) {
-            stmt.setInt(1, appointmentId);
-            int rowsAffected = stmt.executeUpdate();
+    public boolean deleteById(int appointmentId) {
+        try {
+            int rowsAffected = ChangeTracking.delete(connectionPool, DELETE_APPOINTMENT_BY_ID, SELECT_EXISTING_APPOINTMENT_IDS,
+                    TABLE, List.of(appointmentId));
             if (rowsAffected > 0) {
                 logger.log(Level.INFO, "Termin erfolgreich gelöscht.");
             } else {
                 logger.log(Level.INFO, "Kein Termin mit der angegebenen ID gefunden.");
             }
+            return rowsAffected > 0;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Fehler beim Löschen des Termins: ", e);
+            return false;
         }
     }
 
+    /**
+     * Speichert mehrere neue Termine per JDBC-Batch in einer Transaktion.
+     * Die erzeugten IDs werden in die Termine übernommen.
+     * @param appointments die zu speichernden Termine.
+     * @return die erzeugten IDs in der Reihenfolge der Termine.
+     * @throws SQLException wenn das Speichern fehlschlägt; es wurde dann kein Termin gespeichert.
+     */
+    public List<Integer> saveAll(List<Appointment> appointments) throws SQLException {
+        List<Integer> ids = JdbcBatch.insert(connectionPool, INSERT_APPOINTMENT, TABLE, appointments,
+                this::setAppointmentStatement);
+        for (int i = 0; i < appointments.size(); i++) {
+            appointments.get(i).setAppointmentId(ids.get(i));
+        }
+        logger.log(Level.INFO, "{0} Termine per Batch gespeichert.", appointments.size());
+        return ids;
+    }
+
+    /**
+     * Aktualisiert mehrere bestehende Termine per JDBC-Batch in einer Transaktion.
+     * @param appointments die zu aktualisierenden Termine.
+     * @return die Anzahl der aktualisierten Termine, soweit der Treiber sie meldet.
+     * @throws SQLException wenn das Aktualisieren fehlschlägt; es wurde dann kein Termin geändert.
+     */
+    public int updateAll(List<Appointment> appointments) throws SQLException {
+        int updated = JdbcBatch.execute(connectionPool, UPDATE_APPOINTMENT, TABLE, ChangeLogEntry.Operation.UPDATE,
+                appointments, (stmt, appointment) -> {
+                    setAppointmentStatement(stmt, appointment);
+                    stmt.setInt(7, appointment.getAppointmentId());
+                }, Appointment::getAppointmentId);
+        logger.log(Level.INFO, "{0} Termine per Batch aktualisiert.", updated);
+        return updated;
+    }
+
+    /**
+     * Löscht mehrere Termine anhand ihrer IDs per JDBC-Batch in einer Transaktion.
+     * @param appointmentIds die IDs der zu löschenden Termine.
+     * @return die Anzahl der gelöschten Termine, soweit der Treiber sie meldet.
+     * @throws SQLException wenn das Löschen fehlschlägt; es wurde dann kein Termin gelöscht.
+     */
+    public int deleteAll(List<Integer> appointmentIds) throws SQLException {
+        int deleted = ChangeTracking.delete(connectionPool, DELETE_APPOINTMENT_BY_ID, SELECT_EXISTING_APPOINTMENT_IDS,
+                TABLE, appointmentIds);
+        logger.log(Level.INFO, "{0} Termine per Batch gelöscht.", deleted);
+        return deleted;
+    }
+
     /**
      * Führt eine Termin-Abfrage mit optionalen Parametern aus.
      * @param query die SQL-Abfrage.
      * @param params optionale Parameter für die Abfrage.
      * @return eine Liste der gefundenen Termine.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
      */
-    private List<Appointment> executeAppointmentQuery(String query, Object... params) {
+    private List<Appointment> executeAppointmentQuery(String query, Object... params) throws SQLException {
         List<Appointment> appointmentList = new ArrayList<>();
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             setStatementParameters(stmt, params);
             try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    appointmentList.add(mapResultSetToAppointment(rs));
-                }
+                appointmentList.addAll(APPOINTMENT_MAPPER.mapAll(rs));
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE,"Fehler bei der Abfrage der Termine: ",e);
         }
         return appointmentList;
     }
 
     /**
-     * Mappt ein ResultSet auf ein Appointment-Objekt.
-     * @param rs das ResultSet.
-     * @return das gemappte Appointment-Objekt.
-     * @throws SQLException wenn ein Fehler beim Zugriff auf die Daten auftritt.
+     * Wie {@link #executeAppointmentQuery}, protokolliert Fehler aber und liefert dann eine leere Liste.
      */
-    private Appointment mapResultSetToAppointment(ResultSet rs) throws SQLException {
-        int id = rs.getInt("appointmentId");
-        String clientIfaNumber = rs.getString("clientIfaNumber");
-        String address = rs.getString("address");
-        String institution = rs.getString("institution");
-        LocalDate date = rs.getDate("date").toLocalDate();
-        LocalTime time = rs.getTime("time").toLocalTime();
-        String priority = rs.getString("priority");
-        String status = rs.getString("status");
-        String clientLastname = rs.getString("clientLastName");
-        String clientFirstname = rs.getString("clientFirstName");
-
-        return new Appointment(id, clientIfaNumber, address, institution, date, priority, status, time, clientLastname, clientFirstname);
+    private List<Appointment> executeAppointmentQueryOrEmpty(String query, Object... params) {
+        try {
+            return executeAppointmentQuery(query, params);
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE,"Fehler bei der Abfrage der Termine: ",e);
+            return new ArrayList<>();
+        }
     }
 
+    /**
+     * Bringt einen bekannten Status unabhängig von Groß- und Kleinschreibung auf seine gespeicherte Schreibweise,
+     * damit der exakte Vergleich in SQL nicht von der Kollation der Spalte abhängt.
+     * @param status der Status, z. B. "offen".
+     * @return die gespeicherte Schreibweise, z. B. "Offen"; unbekannte Werte und null bleiben unverändert.
+     */
+    public static String normalizeStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        String trimmed = status.trim();
+        for (String known : KNOWN_STATUSES) {
+            if (known.equalsIgnoreCase(trimmed)) {
+                return known;
+            }
+        }
+        return status;
+    }
 
     /**
      * Setzt die Parameter für eine Termin-Einfüge- oder Aktualisierungsanweisung.
@@ -158,7 +383,7 @@ public class AppointmentDAO {
         stmt.setString(3, appointment.getAppointmentAddress());
         stmt.setString(4, appointment.getAppointmentInstitution());
         stmt.setString(5, appointment.getAppointmentPriority());
-        stmt.setString(6, appointment.getAppointmentStatus());
+        stmt.setString(6, normalizeStatus(appointment.getAppointmentStatus()));
         stmt.setString(7, appointment.getAppointmentClientIfaNumber());
     }
 
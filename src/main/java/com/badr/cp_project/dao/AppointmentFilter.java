@@ -0,0 +1,134 @@
+package com.badr.cp_project.dao;
+
+import com.badr.cp_project.model.Appointment;
+
+import java.time.LocalDate;
+
+/**
+ * Filterkriterien für Terminabfragen, die vollständig in SQL ausgewertet werden.
+ * Nicht gesetzte Kriterien schränken die Abfrage nicht ein.
+ */
+public class AppointmentFilter {
+
+    /**
+     * Sortierreihenfolge der Ergebnisse nach Datum und Uhrzeit.
+     */
+    public enum Order {
+        DATE_ASC("a.date ASC, a.time ASC, a.appointmentId ASC"),
+        DATE_DESC("a.date DESC, a.time DESC, a.appointmentId DESC");
+
+        private final String orderByClause;
+
+        Order(String orderByClause) {
+            this.orderByClause = orderByClause;
+        }
+
+        String getOrderByClause() {
+            return orderByClause;
+        }
+    }
+
+    private String status;
+    private String priority;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private Order order = Order.DATE_ASC;
+    private int limit;
+    private Appointment after;
+
+    /**
+     * Nur Termine mit diesem Status, z. B. "Offen" oder "Erledigt".
+     */
+    public AppointmentFilter status(String status) {
+        this.status = status;
+        return this;
+    }
+
+    /**
+     * Nur Termine mit dieser Priorität, z. B. "Hoch".
+     */
+    public AppointmentFilter priority(String priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Nur Termine ab diesem Datum (einschließlich).
+     */
+    public AppointmentFilter from(LocalDate fromDate) {
+        this.fromDate = fromDate;
+        return this;
+    }
+
+    /**
+     * Nur Termine bis zu diesem Datum (einschließlich).
+     */
+    public AppointmentFilter to(LocalDate toDate) {
+        this.toDate = toDate;
+        return this;
+    }
+
+    public AppointmentFilter orderBy(Order order) {
+        this.order = order;
+        return this;
+    }
+
+    /**
+     * Begrenzt die Anzahl der Ergebnisse; 0 bedeutet unbegrenzt.
+     */
+    public AppointmentFilter limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Setzt die Abfrage hinter diesem Termin fort (Keyset-Paginierung in der gewählten Sortierung).
+     */
+    public AppointmentFilter after(Appointment after) {
+        this.after = after;
+        return this;
+    }
+
+    /**
+     * Erstellt eine Kopie dieses Filters, damit Folgeseiten den Ausgangsfilter nicht verändern.
+     */
+    public AppointmentFilter copy() {
+        AppointmentFilter copy = new AppointmentFilter();
+        copy.status = status;
+        copy.priority = priority;
+        copy.fromDate = fromDate;
+        copy.toDate = toDate;
+        copy.order = order;
+        copy.limit = limit;
+        copy.after = after;
+        return copy;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Appointment getAfter() {
+        return after;
+    }
+}
@@ -0,0 +1,157 @@
+package com.badr.cp_project.dao;
+
+import com.badr.cp_project.model.Client;
+import com.badr.cp_project.util.ConnectionPool;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link ClientDAO} mit vorgeschaltetem {@link IfaExistenceFilter} und {@link ClientCache}.
+ * Sicher nicht vergebene Ifa-Nummern beantwortet der Filter ohne Abfrage.
+ * Einzelabfragen nach Ifa-Nummer und Existenzprüfungen werden aus dem Zwischenspeicher beantwortet und bei Fehlzugriffen
+ * nachgeladen; gelesene Seiten füllen ihn mit. Schreibvorgänge aktualisieren den Zwischenspeicher nach erfolgreichem
+ * Festschreiben (Write-Through). Listen und Delta-Abfragen lesen weiterhin direkt aus der Datenbank.
+ */
+public class CachingClientDAO extends ClientDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(CachingClientDAO.class.getName());
+
+    private final ClientCache cache;
+    private final IfaExistenceFilter ifaFilter;
+
+    public CachingClientDAO(ConnectionPool connectionPool) {
+        this(connectionPool, ClientCache.getInstance(), IfaExistenceFilter.getInstance());
+    }
+
+    CachingClientDAO(ConnectionPool connectionPool, ClientCache cache, IfaExistenceFilter ifaFilter) {
+        super(connectionPool);
+        this.cache = cache;
+        this.ifaFilter = ifaFilter;
+    }
+
+    @Override
+    public Client getClientByIfa(String ifaNumber) throws SQLException {
+        if (!ifaFilter.mightContain(ifaNumber)) {
+            return null;
+        }
+        Optional<Client> cached = cache.lookup(ifaNumber);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        long version = cache.version();
+        Client client = super.getClientByIfa(ifaNumber);
+        cache.putIfUnchanged(ifaNumber, client, version);
+        // Nur eine Abfrage, die der Filter nicht erspart hat, ist ein falscher Treffer
+        if (client == null) {
+            ifaFilter.recordFalsePositive();
+        }
+        return client;
+    }
+
+    @Override
+    public List<Client> getClientsByIfa(List<String> ifaNumbers) throws SQLException {
+        Map<String, Client> found = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String ifaNumber : ifaNumbers) {
+            Optional<Client> cached = cache.lookup(ifaNumber);
+            if (cached == null) {
+                missing.add(ifaNumber);
+            } else {
+                cached.ifPresent(client -> found.put(ifaNumber, client));
+            }
+        }
+        if (!missing.isEmpty()) {
+            long version = cache.version();
+            Set<String> notFound = new HashSet<>(missing);
+            for (Client client : super.getClientsByIfa(missing)) {
+                found.put(client.getClientIfaNumber(), client);
+                notFound.remove(client.getClientIfaNumber());
+                cache.putIfUnchanged(client.getClientIfaNumber(), client, version);
+            }
+            notFound.forEach(ifaNumber -> cache.putIfUnchanged(ifaNumber, null, version));
+        }
+        List<Client> clients = new ArrayList<>(found.size());
+        for (String ifaNumber : ifaNumbers) {
+            Client client = found.get(ifaNumber);
+            if (client != null) {
+                clients.add(client);
+            }
+        }
+        return clients;
+    }
+
+    @Override
+    public List<Client> getClientPage(String afterIfaNumber, int pageSize) throws SQLException {
+        long version = cache.version();
+        List<Client> page = super.getClientPage(afterIfaNumber, pageSize);
+        page.forEach(client -> cache.putIfUnchanged(client.getClientIfaNumber(), client, version));
+        return page;
+    }
+
+    @Override
+    public boolean existsByIfa(String ifaNumber) {
+        try {
+            return getClientByIfa(ifaNumber) != null;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Fehler bei der Überprüfung der IfaNummer", e);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean save(Client client) {
+        boolean saved = super.save(client);
+        if (saved) {
+            ifaFilter.add(client.getClientIfaNumber());
+            cache.put(client);
+        }
+        return saved;
+    }
+
+    @Override
+    public int saveAll(List<Client> clients) throws SQLException {
+        int saved = super.saveAll(clients);
+        // Verwerfen statt Einfügen, damit ein Import die häufig gelesenen Einträge nicht verdrängt
+        clients.forEach(client -> {
+            ifaFilter.add(client.getClientIfaNumber());
+            cache.invalidate(client.getClientIfaNumber());
+        });
+        ifaFilter.rebuildIfSaturated(this);
+        return saved;
+    }
+
+    @Override
+    public boolean update(Client client) {
+        boolean updated = super.update(client);
+        if (updated) {
+            cache.put(client);
+        }
+        return updated;
+    }
+
+    @Override
+    public UpsertResult upsert(Client client) throws SQLException {
+        UpsertResult result = super.upsert(client);
+        ifaFilter.add(client.getClientIfaNumber());
+        cache.put(client);
+        return result;
+    }
+
+    @Override
+    public Deletion deleteByIfa(String ifaNumber) {
+        Deletion deletion = super.deleteByIfa(ifaNumber);
+        if (deletion.deleted()) {
+            cache.markDeleted(ifaNumber);
+        }
+        return deletion;
+    }
+}
@@ -0,0 +1,95 @@
+package com.badr.cp_project.dao;
+
+import com.badr.cp_project.util.ConnectionPool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Liest das Änderungsprotokoll {@code change_log}, in das die DAOs jede Änderung in derselben Transaktion schreiben.
+ * Jeder Abruf ist ein Bereichsscan über den Primärschlüssel {@code seq}.
+ */
+public class ChangeLogDAO {
+
+    private static final String SELECT_LATEST_SEQUENCE =
+            "SELECT COALESCE(MAX(seq), 0) FROM change_log";
+
+    private static final String SELECT_ENTRIES_AFTER =
+            "SELECT seq, tableName, rowKey, operation, origin FROM change_log WHERE seq > ? ORDER BY seq LIMIT ?";
+
+    // Die Grenze rechnet die Datenbank, die auch changedAt setzt; eine abweichende Uhr am Arbeitsplatz spielt keine Rolle.
+    // TIMESTAMPADD verstehen MySQL und H2 gleichermaßen
+    private static final String DELETE_OLDER_THAN =
+            "DELETE FROM change_log WHERE changedAt < TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP(3))";
+
+    private final ConnectionPool connectionPool;
+
+    public ChangeLogDAO(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    /**
+     * @return die Kennung dieser Anwendungsinstanz in der Spalte {@code origin}.
+     */
+    public static String localOrigin() {
+        return ChangeTracking.ORIGIN;
+    }
+
+    /**
+     * Ermittelt die höchste bisher vergebene Nummer, ab der ein neu gestarteter Leser beginnt.
+     * @return die höchste Nummer oder 0 bei leerem Protokoll.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public long getLatestSequence() throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_LATEST_SEQUENCE);
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Liest die Einträge nach einer Nummer in aufsteigender Reihenfolge.
+     * @param afterSequence die Nummer des zuletzt lückenlos verarbeiteten Eintrags.
+     * @param limit die maximale Anzahl der Einträge.
+     * @return die Einträge.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public List<ChangeLogEntry> getEntriesAfter(long afterSequence, int limit) throws SQLException {
+        List<ChangeLogEntry> entries = new ArrayList<>();
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_ENTRIES_AFTER)) {
+            stmt.setLong(1, afterSequence);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(new ChangeLogEntry(rs.getLong(1), rs.getString(2), rs.getString(3),
+                            ChangeLogEntry.Operation.fromCode(rs.getString(4)), rs.getString(5)));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Entfernt Einträge, die älter als die Aufbewahrungsdauer sind.
+     * Die Aufbewahrungsdauer muss die Abstände der Delta-Abfragen ({@link ChangeSet}) deutlich übersteigen,
+     * da diese gelöschte Zeilen aus dem Protokoll lesen.
+     * @param retention die Aufbewahrungsdauer.
+     * @return die Anzahl der entfernten Einträge.
+     * @throws SQLException wenn das Löschen fehlschlägt.
+     */
+    public int purgeOlderThan(Duration retention) throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DELETE_OLDER_THAN)) {
+            stmt.setLong(1, -retention.toSeconds());
+            return stmt.executeUpdate();
+        }
+    }
+}
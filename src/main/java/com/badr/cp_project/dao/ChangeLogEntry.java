@@ -0,0 +1,48 @@
+package com.badr.cp_project.dao;
+
+/**
+ * Ein Eintrag der Tabelle {@code change_log}: eine Zeile, die von einem Arbeitsplatz eingefügt, geändert oder gelöscht wurde.
+ * Die Einträge werden in derselben Transaktion wie die Änderung geschrieben und sind über {@code sequence} geordnet.
+ * @param sequence die fortlaufende Nummer des Eintrags.
+ * @param tableName die geänderte Tabelle, z. B. {@link AppointmentDAO#TABLE}.
+ * @param rowKey der Schlüssel der Zeile (Ifa-Nummer oder ID).
+ * @param operation die Art der Änderung.
+ * @param origin die Kennung der Anwendungsinstanz, die die Änderung geschrieben hat.
+ */
+public record ChangeLogEntry(long sequence, String tableName, String rowKey, Operation operation, String origin) {
+
+    /**
+     * Art der Änderung mit ihrem Kürzel in der Spalte {@code operation}.
+     */
+    public enum Operation {
+        INSERT('I'),
+        UPDATE('U'),
+        DELETE('D');
+
+        private final char code;
+
+        Operation(char code) {
+            this.code = code;
+        }
+
+        public char getCode() {
+            return code;
+        }
+
+        static Operation fromCode(String code) {
+            for (Operation operation : values()) {
+                if (code.charAt(0) == operation.code) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unbekannte Änderungsart: " + code);
+        }
+    }
+
+    /**
+     * @return true, wenn die Änderung von dieser Anwendungsinstanz stammt und bereits lokal verteilt wurde.
+     */
+    public boolean isLocal() {
+        return ChangeTracking.ORIGIN.equals(origin);
+    }
+}
@@ -0,0 +1,30 @@
+package com.badr.cp_project.dao;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Änderungen einer Tabelle seit einem Wasserzeichen, wie sie die Delta-Abfragen der DAOs liefern.
+ * Geänderte und neue Zeilen stehen in {@code changed}, gelöschte nur mit ihrem Schlüssel in {@code deletedKeys}.
+ * Das Anwenden muss idempotent sein: Die Abfragen blicken einige Sekunden vor das Wasserzeichen zurück,
+ * daher können Zeilen mehrfach geliefert werden.
+ * @param changed die seit dem Wasserzeichen eingefügten oder geänderten Zeilen.
+ * @param deletedKeys die Schlüssel der seit dem Wasserzeichen gelöschten Zeilen.
+ * @param watermark das Wasserzeichen für die nächste Delta-Abfrage.
+ * @param <T> der Typ der Zeilen.
+ * @param <K> der Typ des Schlüssels.
+ */
+public record ChangeSet<T, K>(List<T> changed, List<K> deletedKeys, Timestamp watermark) {
+
+    public ChangeSet {
+        changed = List.copyOf(changed);
+        deletedKeys = List.copyOf(deletedKeys);
+    }
+
+    /**
+     * @return true, wenn weder Zeilen geändert noch gelöscht wurden.
+     */
+    public boolean isEmpty() {
+        return changed.isEmpty() && deletedKeys.isEmpty();
+    }
+}
@@ -0,0 +1,296 @@
+package com.badr.cp_project.dao;
+
+import com.badr.cp_project.util.ConnectionPool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Gemeinsame Hilfsmethoden der DAOs für die Änderungsverfolgung: Delta-Abfragen über die Spalte {@code updatedAt}
+ * (siehe Migration V4) und das Änderungsprotokoll {@code change_log} (siehe Migration V5).
+ * Jede schreibende DAO-Methode protokolliert ihre Zeilen in derselben Transaktion, sodass andere Arbeitsplätze
+ * genau die festgeschriebenen Änderungen sehen.
+ */
+final class ChangeTracking {
+
+    // Rückblick, damit Zeilen aus Transaktionen, die erst nach dem letzten Abruf festgeschrieben wurden, nicht verloren gehen
+    static final long OVERLAP_MILLIS = 5_000;
+
+    // Kennung dieser Anwendungsinstanz in change_log.origin, damit eigene Änderungen nicht doppelt verteilt werden
+    static final String ORIGIN = UUID.randomUUID().toString();
+
+    private static final String SELECT_WATERMARK =
+            "SELECT CURRENT_TIMESTAMP(3)";
+
+    private static final String INSERT_CHANGE =
+            "INSERT INTO change_log (tableName, rowKey, operation, origin) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_DELETED_SINCE =
+            "SELECT DISTINCT rowKey FROM change_log WHERE tableName = ? AND changedAt > ? AND operation = 'D'";
+
+    /**
+     * Eine Arbeit innerhalb einer Transaktion.
+     * @param <R> der Typ des Ergebnisses.
+     */
+    @FunctionalInterface
+    interface TransactionWork<R> {
+        R run(Connection conn) throws SQLException;
+    }
+
+    private ChangeTracking() {
+    }
+
+    /**
+     * Führt eine Arbeit in einer eigenen Transaktion aus; bei einem Fehler wird alles zurückgerollt.
+     * @param connectionPool der Pool, aus dem die Verbindung geliehen wird.
+     * @param work die Arbeit, die ihre Änderungen mit {@link #log} protokolliert.
+     * @return das Ergebnis der Arbeit.
+     * @throws SQLException wenn die Arbeit oder das Festschreiben fehlschlägt.
+     */
+    static <R> R inTransaction(ConnectionPool connectionPool, TransactionWork<R> work) throws SQLException {
+        try (Connection conn = connectionPool.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                R result = work.run(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Schreibt für jede Zeile einen Eintrag in {@code change_log}. Muss in der Transaktion der Änderung aufgerufen werden.
+     * @param conn die Verbindung der laufenden Transaktion.
+     * @param table der Tabellenname.
+     * @param operation die Art der Änderung.
+     * @param keys die Schlüssel der geänderten Zeilen.
+     * @throws SQLException wenn das Schreiben fehlschlägt.
+     */
+    static void log(Connection conn, String table, ChangeLogEntry.Operation operation,
+                    Collection<?> keys) throws SQLException {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_CHANGE)) {
+            for (Object key : keys) {
+                stmt.setString(1, table);
+                stmt.setString(2, String.valueOf(key));
+                stmt.setString(3, String.valueOf(operation.getCode()));
+                stmt.setString(4, ORIGIN);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Schreibt einen Eintrag in {@code change_log}. Muss in der Transaktion der Änderung aufgerufen werden.
+     * @param conn die Verbindung der laufenden Transaktion.
+     * @param table der Tabellenname.
+     * @param operation die Art der Änderung.
+     * @param key der Schlüssel der geänderten Zeile.
+     * @throws SQLException wenn das Schreiben fehlschlägt.
+     */
+    static void log(Connection conn, String table, ChangeLogEntry.Operation operation, Object key) throws SQLException {
+        log(conn, table, operation, Collections.singletonList(key));
+    }
+
+    /**
+     * Wertet die Zeilenanzahl eines UPDATE aus. Mit {@code useAffectedRows=true} meldet MySQL 0, wenn die Zeile zwar
+     * gefunden wurde, aber alle Werte bereits aktuell waren; dann wird in derselben Transaktion nachgesehen, ob sie existiert.
+     * @param conn die Verbindung der laufenden Transaktion.
+     * @param rows die von {@code executeUpdate} gemeldete Anzahl.
+     * @param existsSql eine Abfrage mit dem Schlüssel als einzigem Parameter, die eine Zeile liefert, wenn er existiert.
+     * @param key der Schlüssel der aktualisierten Zeile.
+     * @return true, wenn die Zeile existiert, unabhängig davon, ob sich ein Wert geändert hat.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    static boolean updatedOrUnchanged(Connection conn, int rows, String existsSql, Object key) throws SQLException {
+        if (rows > 0) {
+            return true;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(existsSql)) {
+            stmt.setObject(1, key);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Liest Zeilen anhand ihrer Schlüssel, in Abschnitten von {@link JdbcBatch#BATCH_SIZE} Schlüsseln.
+     * @param connectionPool der Pool, aus dem die Verbindung geliehen wird.
+     * @param selectPrefix die Abfrage bis einschließlich {@code IN}, z. B. {@code "... WHERE documentId IN"}.
+     * @param mapper bildet die Zeilen ab.
+     * @param keys die Schlüssel.
+     * @return die gefundenen Zeilen; nicht mehr vorhandene Schlüssel fehlen.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    static <T> List<T> findByKeys(ConnectionPool connectionPool, String selectPrefix, RowMapper<T> mapper,
+                                  List<?> keys) throws SQLException {
+        List<T> rows = new ArrayList<>(keys.size());
+        if (keys.isEmpty()) {
+            return rows;
+        }
+        try (Connection conn = connectionPool.getConnection()) {
+            for (int from = 0; from < keys.size(); from += JdbcBatch.BATCH_SIZE) {
+                List<?> chunk = keys.subList(from, Math.min(from + JdbcBatch.BATCH_SIZE, keys.size()));
+                String sql = selectPrefix + " (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setObject(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rows.addAll(mapper.mapAll(rs));
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Liest die Änderungen einer Tabelle seit dem Wasserzeichen.
+     * Ohne Wasserzeichen wird nur das aktuelle Wasserzeichen als Startpunkt geliefert.
+     * @param connectionPool der Pool, aus dem die Verbindung geliehen wird.
+     * @param since das Wasserzeichen der vorherigen Abfrage oder null.
+     * @param changedSql die Abfrage der geänderten Zeilen; jeder Parameter wird mit dem Wasserzeichen belegt.
+     * @param mapper bildet die geänderten Zeilen ab.
+     * @param table der Tabellenname in {@code change_log}.
+     * @param keyParser wandelt den gespeicherten Schlüssel in den Schlüsseltyp um.
+     * @return die Änderungen mit dem neuen Wasserzeichen.
+     * @throws SQLException wenn eine der Abfragen fehlschlägt.
+     */
+    static <T, K> ChangeSet<T, K> changesSince(ConnectionPool connectionPool, Timestamp since, String changedSql,
+                                               RowMapper<T> mapper, String table,
+                                               Function<String, K> keyParser) throws SQLException {
+        try (Connection conn = connectionPool.getConnection()) {
+            // Das neue Wasserzeichen wird vor den Abfragen gelesen, damit keine Änderung dazwischen verloren geht
+            Timestamp watermark = readWatermark(conn);
+            if (since == null) {
+                return new ChangeSet<>(List.of(), List.of(), watermark);
+            }
+            Timestamp from = new Timestamp(since.getTime() - OVERLAP_MILLIS);
+
+            List<T> changed;
+            try (PreparedStatement stmt = conn.prepareStatement(changedSql)) {
+                long parameters = changedSql.chars().filter(c -> c == '?').count();
+                for (int i = 1; i <= parameters; i++) {
+                    stmt.setTimestamp(i, from);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    changed = mapper.mapAll(rs);
+                }
+            }
+
+            List<K> deletedKeys = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_DELETED_SINCE)) {
+                stmt.setString(1, table);
+                stmt.setTimestamp(2, from);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        deletedKeys.add(keyParser.apply(rs.getString(1)));
+                    }
+                }
+            }
+            return new ChangeSet<>(changed, deletedKeys, watermark);
+        }
+    }
+
+    /**
+     * Löscht Zeilen anhand ihrer Schlüssel und protokolliert die tatsächlich gelöschten in {@code change_log}, alles in
+     * einer Transaktion. Meldet der Treiber für einen Abschnitt keine Zeilenzahlen ({@code SUCCESS_NO_INFO}), wird der
+     * Abschnitt zurückgerollt und nur für die vorhandenen Schlüssel wiederholt.
+     * @param connectionPool der Pool, aus dem die Verbindung geliehen wird.
+     * @param deleteSql die DELETE-Anweisung mit dem Schlüssel als einzigem Parameter.
+     * @param selectExistingPrefix die Abfrage der Schlüsselspalte bis einschließlich {@code IN},
+     *                             z. B. {@code "SELECT appointmentId FROM appointment WHERE appointmentId IN"}.
+     * @param table der Tabellenname in {@code change_log}.
+     * @param keys die Schlüssel der zu löschenden Zeilen.
+     * @return die Anzahl der gelöschten Zeilen.
+     * @throws SQLException wenn das Löschen fehlschlägt; es wurde dann nichts gelöscht.
+     */
+    static int delete(ConnectionPool connectionPool, String deleteSql, String selectExistingPrefix, String table,
+                      List<?> keys) throws SQLException {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        return inTransaction(connectionPool, conn -> {
+            int affected = 0;
+            try (PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+                for (int from = 0; from < keys.size(); from += JdbcBatch.BATCH_SIZE) {
+                    List<?> chunk = keys.subList(from, Math.min(from + JdbcBatch.BATCH_SIZE, keys.size()));
+                    Savepoint beforeChunk = conn.setSavepoint();
+                    int[] counts = executeBatch(delete, chunk);
+                    List<Object> deleted = new ArrayList<>(chunk.size());
+                    for (int i = 0; i < counts.length && deleted != null; i++) {
+                        if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                            deleted = null;
+                        } else if (counts[i] > 0) {
+                            deleted.add(chunk.get(i));
+                        }
+                    }
+                    if (deleted == null) {
+                        // Umgeschriebener Batch ohne Zeilenzahlen: vorhandene Schlüssel gesperrt lesen und nur diese löschen
+                        conn.rollback(beforeChunk);
+                        deleted = selectExisting(conn, selectExistingPrefix, chunk);
+                        executeBatch(delete, deleted);
+                    }
+                    conn.releaseSavepoint(beforeChunk);
+                    affected += deleted.size();
+                    log(conn, table, ChangeLogEntry.Operation.DELETE, deleted);
+                }
+            }
+            return affected;
+        });
+    }
+
+    private static int[] executeBatch(PreparedStatement stmt, List<?> keys) throws SQLException {
+        if (keys.isEmpty()) {
+            return new int[0];
+        }
+        for (Object key : keys) {
+            stmt.setObject(1, key);
+            stmt.addBatch();
+        }
+        return stmt.executeBatch();
+    }
+
+    private static List<Object> selectExisting(Connection conn, String selectPrefix, List<?> keys) throws SQLException {
+        String sql = selectPrefix + " (" + String.join(", ", Collections.nCopies(keys.size(), "?")) + ") FOR UPDATE";
+        List<Object> existing = new ArrayList<>(keys.size());
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < keys.size(); i++) {
+                stmt.setObject(i + 1, keys.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getObject(1));
+                }
+            }
+        }
+        return existing;
+    }
+
+    private static Timestamp readWatermark(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_WATERMARK);
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getTimestamp(1);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.badr.cp_project.dao;
+
+import com.badr.cp_project.model.Client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Größenbeschränkter Zwischenspeicher für Klienten nach Ifa-Nummer, gemeinsam genutzt von allen {@link CachingClientDAO}.
+ * Bei Überschreiten der Kapazität wird der am längsten nicht benutzte Eintrag verdrängt (LRU).
+ * Auch bekannte Nicht-Treffer werden gespeichert, damit Existenzprüfungen nicht jedes Mal die Datenbank fragen.
+ * Änderungen anderer Arbeitsplätze müssen über {@link #put}, {@link #markDeleted} oder {@link #invalidate}
+ * gemeldet werden, z. B. aus den Ereignissen des Änderungsprotokolls.
+ */
+public final class ClientCache {
+
+    static final int DEFAULT_CAPACITY = 10_000;
+
+    private static final ClientCache INSTANCE = new ClientCache(DEFAULT_CAPACITY);
+
+    /**
+     * Momentaufnahme der Zugriffszahlen.
+     * @param hits Zugriffe, die aus dem Zwischenspeicher beantwortet wurden.
+     * @param misses Zugriffe, die die Datenbank fragen mussten.
+     * @param evictions wegen der Kapazität verdrängte Einträge.
+     * @param size die aktuelle Anzahl der Einträge.
+     * @param capacity die maximale Anzahl der Einträge.
+     */
+    public record Stats(long hits, long misses, long evictions, int size, int capacity) {
+
+        /**
+         * @return der Anteil der Treffer an allen Zugriffen oder 0 ohne Zugriffe.
+         */
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<String, Optional<Client>> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    // Wird bei jeder Änderung erhöht, damit ein langsames Nachladen keinen neueren Stand überschreibt
+    private long version;
+
+    ClientCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<Client>> eldest) {
+                if (size() > ClientCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static ClientCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Sucht einen Klienten und zählt Treffer und Fehlzugriffe.
+     * @param ifaNumber die Ifa-Nummer.
+     * @return null, wenn der Klient nicht im Zwischenspeicher ist; ein leeres Optional, wenn er bekanntlich nicht existiert.
+     */
+    synchronized Optional<Client> lookup(String ifaNumber) {
+        Optional<Client> cached = entries.get(ifaNumber);
+        if (cached == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return cached;
+    }
+
+    /**
+     * @return die aktuelle Version, die beim Nachladen an {@link #putIfUnchanged} übergeben wird.
+     */
+    synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Übernimmt einen aus der Datenbank gelesenen Stand, sofern seit {@code readVersion} nichts geändert wurde.
+     * @param ifaNumber die Ifa-Nummer.
+     * @param client der gelesene Klient oder null, wenn er nicht existiert.
+     * @param readVersion die Version vor dem Lesen.
+     */
+    synchronized void putIfUnchanged(String ifaNumber, Client client, long readVersion) {
+        if (version == readVersion) {
+            entries.put(ifaNumber, Optional.ofNullable(client));
+        }
+    }
+
+    /**
+     * Übernimmt den aktuellen Stand eines Klienten.
+     * @param client der gespeicherte oder geänderte Klient.
+     */
+    public synchronized void put(Client client) {
+        version++;
+        entries.put(client.getClientIfaNumber(), Optional.of(client));
+    }
+
+    /**
+     * Merkt sich, dass ein Klient gelöscht wurde.
+     * @param ifaNumber die Ifa-Nummer.
+     */
+    public synchronized void markDeleted(String ifaNumber) {
+        version++;
+        entries.put(ifaNumber, Optional.empty());
+    }
+
+    /**
+     * Verwirft den Eintrag eines Klienten; der nächste Zugriff liest ihn neu.
+     * @param ifaNumber die Ifa-Nummer.
+     */
+    public synchronized void invalidate(String ifaNumber) {
+        version++;
+        entries.remove(ifaNumber);
+    }
+
+    /**
+     * Verwirft alle Einträge, z. B. nach einem Import.
+     */
+    public synchronized void invalidateAll() {
+        version++;
+        entries.clear();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, entries.size(), capacity);
+    }
+}
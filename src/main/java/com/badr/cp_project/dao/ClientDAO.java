@@ -1,17 +1,53 @@
 package com.badr.cp_project.dao;
 
 import com.badr.cp_project.model.Client;
+import com.badr.cp_project.util.ConnectionPool;
+import com.badr.cp_project.util.DatabaseBackend;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.badr.cp_project.dao.MapperGenerator.column;
 
 public class ClientDAO {
 
+    private static final Logger LOGGER = Logger.getLogger(ClientDAO.class.getName());
+
+    /**
+     * Ergebnis eines {@link #upsert(Client)}.
+     */
+    public enum UpsertResult {
+        /** Der Klient war noch nicht vorhanden und wurde angelegt. */
+        INSERTED,
+        /** Der Klient war vorhanden und mindestens ein Feld wurde geändert. */
+        UPDATED,
+        /** Der Klient war vorhanden und alle Felder waren bereits aktuell. */
+        UNCHANGED
+    }
+
+    /**
+     * Ergebnis eines {@link #deleteByIfa(String)}: ob der Klient gelöscht wurde und welche Termine, Dokumentationen und
+     * Dateien dabei per ON DELETE CASCADE mitgelöscht wurden.
+     */
+    public record Deletion(boolean deleted, List<Integer> appointmentIds, List<Integer> documentationIds,
+                           List<Integer> fileIds) {
+
+        static final Deletion NONE = new Deletion(false, List.of(), List.of(), List.of());
+    }
+
     private static final String SELECT_ALL_CLIENT =
             "SELECT ifaNumber, lastName, firstName, birthDate, gender, nationality, relationshipStatus FROM client";
 
+    private static final String SELECT_CLIENT_FIRST_PAGE =
+            SELECT_ALL_CLIENT + " ORDER BY ifaNumber LIMIT ?";
+
+    private static final String SELECT_CLIENT_PAGE_AFTER =
+            SELECT_ALL_CLIENT + " WHERE ifaNumber > ? ORDER BY ifaNumber LIMIT ?";
 
     private static final String INSERT_CLIENT =
             "INSERT INTO client (ifaNumber, lastName, firstName, birthDate, nationality, gender, relationshipStatus) " +
@@ -21,17 +57,88 @@ public class ClientDAO {
             "UPDATE client SET lastName = ?, firstName = ?, birthDate = ?, nationality = ?, gender = ?, relationshipStatus = ? " +
                     "WHERE ifaNumber = ?";
 
+    // Die Ifa-Nummer ist Primärschlüssel, daher entscheidet die Datenbank atomar zwischen Einfügen und Aktualisieren.
+    // MySQL verweist über den Zeilen-Alias auf die neuen Werte; VALUES(spalte) ist dort seit 8.0.20 veraltet
+    private static final String UPSERT_CLIENT_MYSQL =
+            INSERT_CLIENT + " AS new ON DUPLICATE KEY UPDATE lastName = new.lastName, firstName = new.firstName, " +
+                    "birthDate = new.birthDate, nationality = new.nationality, gender = new.gender, " +
+                    "relationshipStatus = new.relationshipStatus";
+
+    // H2 kennt den Zeilen-Alias nicht, im MySQL-Modus aber VALUES(spalte)
+    private static final String UPSERT_CLIENT_EMBEDDED =
+            INSERT_CLIENT + " ON DUPLICATE KEY UPDATE lastName = VALUES(lastName), firstName = VALUES(firstName), " +
+                    "birthDate = VALUES(birthDate), nationality = VALUES(nationality), gender = VALUES(gender), " +
+                    "relationshipStatus = VALUES(relationshipStatus)";
+
+    // H2 zählt bei ON DUPLICATE KEY UPDATE auch eine unveränderte Zeile als aktualisiert; eingebettet wird daher
+    // zuerst nur eine tatsächlich abweichende Zeile aktualisiert
+    private static final String UPDATE_CLIENT_IF_CHANGED =
+            UPDATE_CLIENT + " AND (lastName IS DISTINCT FROM ? OR firstName IS DISTINCT FROM ? " +
+                    "OR birthDate IS DISTINCT FROM ? OR nationality IS DISTINCT FROM ? OR gender IS DISTINCT FROM ? " +
+                    "OR relationshipStatus IS DISTINCT FROM ?)";
+
+    private static final String SELECT_ALL_CLIENT_ORDERED =
+            SELECT_ALL_CLIENT + " ORDER BY ifaNumber";
+
     private static final String DELETE_CLIENT_BY_IFA_NUMBER =
             "DELETE FROM client WHERE ifaNumber = ?";
 
+    private static final String SELECT_CLIENT_EXISTS =
+            "SELECT 1 FROM client WHERE ifaNumber = ?";
+
     private static final String EXISTS_BY_IFA_NUMBER =
             "SELECT COUNT(*) FROM client WHERE ifaNumber = ?";
 
+    private static final String SELECT_CLIENT_CHANGED_SINCE =
+            SELECT_ALL_CLIENT + " WHERE updatedAt > ?";
+
+    private static final String SELECT_ALL_IFA_NUMBERS =
+            "SELECT ifaNumber FROM client";
+
+    private static final String COUNT_CLIENTS =
+            "SELECT COUNT(*) FROM client";
+
+    private static final String SELECT_CLIENT_BY_IFA_NUMBER =
+            SELECT_ALL_CLIENT + " WHERE ifaNumber = ?";
+
+    private static final String SELECT_CLIENT_BY_IFA_NUMBERS =
+            SELECT_ALL_CLIENT + " WHERE ifaNumber IN";
 
-    private final Connection conn;
+    // Die per ON DELETE CASCADE mitgelöschten Zeilen eines Klienten
+    private static final String SELECT_CASCADED_APPOINTMENT_IDS =
+            "SELECT appointmentId FROM appointment WHERE clientIfaNumber = ?";
 
-    public ClientDAO(Connection conn) {
-        this.conn = conn;
+    private static final String SELECT_CASCADED_DOCUMENTATION_IDS =
+            "SELECT documentationId FROM documentation WHERE clientIfaNumber = ?";
+
+    private static final String SELECT_CASCADED_DOCUMENT_IDS =
+            "SELECT documentId FROM document WHERE clientIfaNumber = ?";
+
+    /** Der Tabellenname in {@code change_log}. */
+    public static final String TABLE = "client";
+
+
+    // Spalten in der Reihenfolge des Client-Konstruktors
+    private static final RowMapper<Client> CLIENT_MAPPER = MapperGenerator.mapperFor(Client.class,
+            column("ifaNumber", String.class),
+            column("lastName", String.class),
+            column("firstName", String.class),
+            column("birthDate", LocalDate.class),
+            column("nationality", String.class),
+            column("gender", String.class),
+            column("relationshipStatus", String.class));
+
+    private static final RowMapper<String> IFA_NUMBER_MAPPER = new RowMapper<>("ifaNumber") {
+        @Override
+        String mapRow(ResultSet rs, int[] columns) throws SQLException {
+            return rs.getString(columns[0]);
+        }
+    };
+
+    private final ConnectionPool connectionPool;
+
+    public ClientDAO(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
     }
 
 
@@ -41,42 +148,230 @@ public class ClientDAO {
      */
     public List<Client> getAllClient() {
         List<Client> klientenListe = new ArrayList<>();
-        try (Statement stmt = conn.createStatement();
+        try (Connection conn = connectionPool.getConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(SELECT_ALL_CLIENT)) {
-            while (rs.next()) {
-                klientenListe.add(mapResultSetToClient(rs));
-            }
+            klientenListe.addAll(CLIENT_MAPPER.mapAll(rs));
         } catch (SQLException e) {
-            System.err.println("Fehler beim Abrufen der Klienten: " + e.getMessage());
+            LOGGER.log(Level.SEVERE, "Fehler beim Abrufen der Klienten", e);
+        }
+        return klientenListe;
+    }
+
+    /**
+     * Ruft eine Seite von Klienten nach Ifa-Nummer sortiert ab (Keyset-Paginierung).
+     * @param afterIfaNumber die Ifa-Nummer des letzten Klienten der vorherigen Seite oder null für die erste Seite.
+     * @param pageSize die maximale Anzahl der Klienten pro Seite.
+     * @return die Klienten der Seite.
+     * @throws SQLException wenn die Abfrage fehlschlägt; eine leere Seite bedeutet dagegen, dass keine Klienten folgen.
+     */
+    public List<Client> getClientPage(String afterIfaNumber, int pageSize) throws SQLException {
+        List<Client> klientenListe = new ArrayList<>();
+        String query = afterIfaNumber == null ? SELECT_CLIENT_FIRST_PAGE : SELECT_CLIENT_PAGE_AFTER;
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            int index = 1;
+            if (afterIfaNumber != null) {
+                stmt.setString(index++, afterIfaNumber);
+            }
+            stmt.setInt(index, pageSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                klientenListe.addAll(CLIENT_MAPPER.mapAll(rs));
+            }
         }
         return klientenListe;
     }
 
+    /**
+     * Liest alle Klienten nach Ifa-Nummer sortiert über einen Vorwärts-Cursor, ohne sie im Speicher zu sammeln.
+     * @param consumer erhält jeden Klienten einzeln.
+     * @return die Anzahl der gelesenen Klienten.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public long forEachClient(Consumer<? super Client> consumer) throws SQLException {
+        return JdbcStream.forEach(connectionPool, SELECT_ALL_CLIENT_ORDERED, CLIENT_MAPPER, consumer);
+    }
+
+    /**
+     * Liest alle Ifa-Nummern über einen Vorwärts-Cursor, ohne sie im Speicher zu sammeln.
+     * @param consumer erhält jede Ifa-Nummer einzeln.
+     * @return die Anzahl der gelesenen Ifa-Nummern.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public long forEachIfaNumber(Consumer<? super String> consumer) throws SQLException {
+        return JdbcStream.forEach(connectionPool, SELECT_ALL_IFA_NUMBERS, IFA_NUMBER_MAPPER, consumer);
+    }
+
+    /**
+     * Zählt die Klienten.
+     * @return die Anzahl der Klienten.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public long countClients() throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(COUNT_CLIENTS)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Ruft die seit dem Wasserzeichen eingefügten, geänderten und gelöschten Klienten ab.
+     * @param since das Wasserzeichen der vorherigen Abfrage oder null, um nur den Startpunkt zu ermitteln.
+     * @return die Änderungen mit dem Wasserzeichen für die nächste Abfrage.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public ChangeSet<Client, String> getClientChangesSince(Timestamp since) throws SQLException {
+        return ChangeTracking.changesSince(connectionPool, since, SELECT_CLIENT_CHANGED_SINCE, CLIENT_MAPPER,
+                TABLE, ifaNumber -> ifaNumber);
+    }
+
+    /**
+     * Ruft einen Klienten anhand seiner Ifa-Nummer ab.
+     * @param ifaNumber die Ifa-Nummer.
+     * @return der Klient oder null, wenn keiner existiert.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public Client getClientByIfa(String ifaNumber) throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_CLIENT_BY_IFA_NUMBER)) {
+            stmt.setString(1, ifaNumber);
+            try (ResultSet rs = stmt.executeQuery()) {
+                List<Client> clients = CLIENT_MAPPER.mapAll(rs);
+                return clients.isEmpty() ? null : clients.getFirst();
+            }
+        }
+    }
+
+    /**
+     * Ruft Klienten anhand ihrer Ifa-Nummern ab.
+     * @param ifaNumbers die Ifa-Nummern der Klienten.
+     * @return die gefundenen Klienten; nicht mehr vorhandene fehlen.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public List<Client> getClientsByIfa(List<String> ifaNumbers) throws SQLException {
+        return ChangeTracking.findByKeys(connectionPool, SELECT_CLIENT_BY_IFA_NUMBERS, CLIENT_MAPPER, ifaNumbers);
+    }
+
     /**
      * Speichert einen neuen Klienten in der Datenbank.
      * @param client der zu speichernde Klient.
+     * @return true, wenn der Klient gespeichert wurde.
      */
-    public void save(Client client) {
-        try (PreparedStatement stmt = conn.prepareStatement(INSERT_CLIENT)) {
-            setClientInsertStatement(stmt, client);
-            stmt.executeUpdate();
-            System.out.println("Klient erfolgreich gespeichert.");
+    public boolean save(Client client) {
+        try {
+            boolean inserted = ChangeTracking.inTransaction(connectionPool, conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(INSERT_CLIENT)) {
+                    setClientInsertStatement(stmt, client);
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                }
+                ChangeTracking.log(conn, TABLE, ChangeLogEntry.Operation.INSERT, client.getClientIfaNumber());
+                return true;
+            });
+            if (inserted) {
+                LOGGER.info("Klient erfolgreich gespeichert.");
+            }
+            return inserted;
         } catch (SQLException e) {
-            System.err.println("Fehler beim Speichern des Klienten: " + e.getMessage());
+            LOGGER.log(Level.SEVERE, "Fehler beim Speichern des Klienten", e);
         }
+        return false;
+    }
+
+    /**
+     * Speichert mehrere neue Klienten per JDBC-Batch in einer Transaktion.
+     * @param clients die zu speichernden Klienten mit bereits vergebener Ifa-Nummer.
+     * @return die Anzahl der gespeicherten Klienten, soweit der Treiber sie meldet.
+     * @throws SQLException wenn das Speichern fehlschlägt; es wurde dann kein Klient gespeichert.
+     */
+    public int saveAll(List<Client> clients) throws SQLException {
+        return JdbcBatch.execute(connectionPool, INSERT_CLIENT, TABLE, ChangeLogEntry.Operation.INSERT,
+                clients, this::setClientInsertStatement, Client::getClientIfaNumber);
     }
 
     /**
      * Aktualisiert einen bestehenden Klienten in der Datenbank.
      * @param client der zu aktualisierende Klient.
+     * @return true, wenn der Klient gefunden wurde; auch dann, wenn alle Werte bereits aktuell waren.
      */
-    public void update(Client client) {
-        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_CLIENT)) {
-            setClientUpdateStatement(stmt, client);
-            int rowsUpdated = stmt.executeUpdate();
-            System.out.println(rowsUpdated > 0 ? "Klient erfolgreich aktualisiert." : "Kein Klient zum Aktualisieren gefunden.");
+    public boolean update(Client client) {
+        try {
+            boolean found = ChangeTracking.inTransaction(connectionPool, conn -> {
+                int rows;
+                try (PreparedStatement stmt = conn.prepareStatement(UPDATE_CLIENT)) {
+                    setClientUpdateStatement(stmt, client);
+                    rows = stmt.executeUpdate();
+                }
+                if (rows > 0) {
+                    ChangeTracking.log(conn, TABLE, ChangeLogEntry.Operation.UPDATE, client.getClientIfaNumber());
+                }
+                // Unveränderte Zeilen zählen bei useAffectedRows nicht
+                return ChangeTracking.updatedOrUnchanged(conn, rows, SELECT_CLIENT_EXISTS, client.getClientIfaNumber());
+            });
+            LOGGER.log(found ? Level.INFO : Level.FINE,
+                    found ? "Klient erfolgreich aktualisiert." : "Kein Klient zum Aktualisieren gefunden.");
+            return found;
         } catch (SQLException e) {
-            System.err.println("Fehler beim Aktualisieren des Klienten: " + e.getMessage());
+            LOGGER.log(Level.SEVERE, "Fehler beim Aktualisieren des Klienten", e);
+        }
+        return false;
+    }
+
+    /**
+     * Legt einen Klienten an oder aktualisiert ihn, falls die Ifa-Nummer bereits vergeben ist.
+     * Beides geschieht in einer einzigen Anweisung, sodass gleichzeitiges Speichern desselben Klienten
+     * von zwei Arbeitsplätzen keinen Konflikt erzeugt.
+     * Die Unterscheidung beruht auf der Anzahl betroffener Zeilen (1 = eingefügt, 2 = aktualisiert, 0 = unverändert);
+     * für MySQL muss dazu {@code useAffectedRows=true} in der Verbindungs-URL gesetzt sein. Eingebettet wird zuerst nur
+     * eine abweichende Zeile aktualisiert, damit ein unveränderter Klient auch dort als unverändert gezählt wird.
+     * @param client der zu speichernde Klient.
+     * @return ob der Klient eingefügt, aktualisiert oder unverändert gelassen wurde.
+     * @throws SQLException wenn der Klient nicht gespeichert werden konnte.
+     */
+    public UpsertResult upsert(Client client) throws SQLException {
+        return ChangeTracking.inTransaction(connectionPool, conn -> {
+            UpsertResult result = connectionPool.getBackend() == DatabaseBackend.MYSQL
+                    ? executeUpsert(conn, UPSERT_CLIENT_MYSQL, client)
+                    : upsertEmbedded(conn, client);
+            if (result != UpsertResult.UNCHANGED) {
+                ChangeTracking.log(conn, TABLE, result == UpsertResult.INSERTED
+                        ? ChangeLogEntry.Operation.INSERT : ChangeLogEntry.Operation.UPDATE, client.getClientIfaNumber());
+            }
+            return result;
+        });
+    }
+
+    private UpsertResult upsertEmbedded(Connection conn, Client client) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_CLIENT_IF_CHANGED)) {
+            setClientUpdateStatement(stmt, client);
+            stmt.setString(8, client.getClientLastname());
+            stmt.setString(9, client.getClientFirstname());
+            stmt.setDate(10, java.sql.Date.valueOf(client.getClientDateOfBirth()));
+            stmt.setString(11, client.getClientNationality());
+            stmt.setString(12, client.getClientGender());
+            stmt.setString(13, client.getClientRelationshipStatus());
+            if (stmt.executeUpdate() > 0) {
+                return UpsertResult.UPDATED;
+            }
+        }
+        if (ChangeTracking.updatedOrUnchanged(conn, 0, SELECT_CLIENT_EXISTS, client.getClientIfaNumber())) {
+            return UpsertResult.UNCHANGED;
+        }
+        // Legt ein anderer Zugriff den Klienten inzwischen an, aktualisiert der Upsert ihn statt zu scheitern
+        return executeUpsert(conn, UPSERT_CLIENT_EMBEDDED, client);
+    }
+
+    private UpsertResult executeUpsert(Connection conn, String upsert, Client client) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(upsert)) {
+            setClientInsertStatement(stmt, client);
+            return switch (stmt.executeUpdate()) {
+                case 0 -> UpsertResult.UNCHANGED;
+                case 1 -> UpsertResult.INSERTED;
+                default -> UpsertResult.UPDATED;
+            };
         }
     }
 
@@ -86,49 +381,66 @@ public class ClientDAO {
      * @return true, wenn ein Klient mit der Ifa-Nummer existiert, andernfalls false.
      */
     public boolean existsByIfa(String ifaNumber) {
-        try (PreparedStatement stmt = conn.prepareStatement(EXISTS_BY_IFA_NUMBER)) {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(EXISTS_BY_IFA_NUMBER)) {
             stmt.setString(1, ifaNumber);
             try (ResultSet rs = stmt.executeQuery()) {
                 return rs.next() && rs.getInt(1) > 0;
             }
         } catch (SQLException e) {
-            System.err.println("Fehler bei der Überprüfung der IfaNummer: " + e.getMessage());
+            LOGGER.log(Level.SEVERE, "Fehler bei der Überprüfung der IfaNummer", e);
         }
         return false;
     }
 
     /**
      * Löscht einen Klienten anhand seiner Ifa-Nummer.
+     * Der Klient und seine mitgelöschten Termine, Dokumentationen und Dateien werden in derselben Transaktion in
+     * {@code change_log} protokolliert.
      * @param ifaNumber die Ifa-Nummer des zu löschenden Klienten.
+     * @return das Ergebnis mit den Schlüsseln der mitgelöschten Zeilen; {@link Deletion#deleted()} ist false, wenn
+     *         kein Klient gelöscht wurde.
      */
-    public void deleteByIfa(String ifaNumber) {
-        try (PreparedStatement stmt = conn.prepareStatement(DELETE_CLIENT_BY_IFA_NUMBER)) {
-            stmt.setString(1, ifaNumber);
-            int rowsDeleted = stmt.executeUpdate();
-            System.out.println(rowsDeleted > 0 ? "Klient erfolgreich gelöscht." : "Kein Klient zum Löschen gefunden.");
+    public Deletion deleteByIfa(String ifaNumber) {
+        try {
+            Deletion deletion = ChangeTracking.inTransaction(connectionPool, conn -> {
+                List<Integer> appointmentIds = selectCascadedIds(conn, SELECT_CASCADED_APPOINTMENT_IDS, ifaNumber);
+                List<Integer> documentationIds = selectCascadedIds(conn, SELECT_CASCADED_DOCUMENTATION_IDS, ifaNumber);
+                List<Integer> fileIds = selectCascadedIds(conn, SELECT_CASCADED_DOCUMENT_IDS, ifaNumber);
+                try (PreparedStatement stmt = conn.prepareStatement(DELETE_CLIENT_BY_IFA_NUMBER)) {
+                    stmt.setString(1, ifaNumber);
+                    if (stmt.executeUpdate() == 0) {
+                        return Deletion.NONE;
+                    }
+                }
+                ChangeTracking.log(conn, AppointmentDAO.TABLE, ChangeLogEntry.Operation.DELETE, appointmentIds);
+                ChangeTracking.log(conn, DocumentDAO.TABLE, ChangeLogEntry.Operation.DELETE, documentationIds);
+                ChangeTracking.log(conn, FileDAO.TABLE, ChangeLogEntry.Operation.DELETE, fileIds);
+                ChangeTracking.log(conn, TABLE, ChangeLogEntry.Operation.DELETE, ifaNumber);
+                return new Deletion(true, appointmentIds, documentationIds, fileIds);
+            });
+            LOGGER.log(deletion.deleted() ? Level.INFO : Level.FINE,
+                    deletion.deleted() ? "Klient erfolgreich gelöscht." : "Kein Klient zum Löschen gefunden.");
+            return deletion;
         } catch (SQLException e) {
-            System.err.println("Fehler beim Löschen des Klienten: " + e.getMessage());
+            LOGGER.log(Level.SEVERE, "Fehler beim Löschen des Klienten", e);
         }
+        return Deletion.NONE;
     }
 
-    /**
-     * Mappt ein ResultSet auf ein Klient-Objekt.
-     * @param rs das ResultSet.
-     * @return das gemappte Klient-Objekt.
-     * @throws SQLException wenn ein Fehler beim Zugriff auf die Daten auftritt.
-     */
-    private Client mapResultSetToClient(ResultSet rs) throws SQLException {
-        String ifaNumber = rs.getString("ifaNumber");
-        String lastname = rs.getString("lastName");
-        String firstname = rs.getString("firstName");
-        LocalDate dateOfBirth = rs.getDate("birthDate").toLocalDate();
-        String gender = rs.getString("gender");
-        String nationality = rs.getString("nationality");
-        String relationship = rs.getString("relationshipStatus");
-
-        return new Client(ifaNumber, lastname, firstname, dateOfBirth, nationality, gender, relationship);
-
-}
+    // Liest die Schlüssel der mitgelöschten Zeilen vor dem Löschen des Klienten, in dessen Transaktion
+    private static List<Integer> selectCascadedIds(Connection conn, String sql, String ifaNumber) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, ifaNumber);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
 
     /**
      * Setzt die Parameter für eine Insert-Anweisung.
@@ -0,0 +1,74 @@
+package com.badr.cp_project.dao;
+
+import com.badr.cp_project.model.Appointment;
+import com.badr.cp_project.model.ClientDossier;
+import com.badr.cp_project.model.Document;
+import com.badr.cp_project.model.File;
+import com.badr.cp_project.util.ConnectionPool;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lädt das vollständige Dossier eines Klienten. Die drei Abfragen für Termine, Dokumentationen und Dateien
+ * laufen parallel auf je einer eigenen Verbindung aus dem Pool, sodass das Öffnen eines Klienten
+ * nur noch eine statt drei Netzwerk-Latenzen kostet.
+ */
+public class ClientDossierDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(ClientDossierDAO.class.getName());
+
+    private final AppointmentDAO appointmentDAO;
+    private final DocumentDAO documentDAO;
+    private final FileDAO fileDAO;
+
+    public ClientDossierDAO(ConnectionPool connectionPool) {
+        this(new AppointmentDAO(connectionPool), new DocumentDAO(connectionPool), new FileDAO(connectionPool));
+    }
+
+    public ClientDossierDAO(AppointmentDAO appointmentDAO, DocumentDAO documentDAO, FileDAO fileDAO) {
+        this.appointmentDAO = appointmentDAO;
+        this.documentDAO = documentDAO;
+        this.fileDAO = fileDAO;
+    }
+
+    /**
+     * Ruft Termine, Dokumentationen und Dateien eines Klienten gleichzeitig ab.
+     * @param ifaNumber die Ifa-Nummer des Klienten.
+     * @return das Dossier des Klienten.
+     * @throws SQLException wenn einer der drei Teile nicht geladen werden konnte; die übrigen Abfragen werden dann abgebrochen.
+     * @throws InterruptedException wenn der aufrufende Thread während des Wartens unterbrochen wird,
+     *                              die laufenden Abfragen werden dann ebenfalls unterbrochen.
+     */
+    public ClientDossier getDossierByIfa(String ifaNumber) throws SQLException, InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<Appointment>> appointments = executor.submit(() -> appointmentDAO.getAppointmentByClientIfa(ifaNumber));
+            Future<List<Document>> documents = executor.submit(() -> documentDAO.getDocumentByIfa(ifaNumber));
+            Future<List<File>> files = executor.submit(() -> fileDAO.getFileByIfa(ifaNumber));
+            try {
+                return new ClientDossier(ifaNumber, join(appointments), join(documents), join(files));
+            } catch (SQLException | InterruptedException e) {
+                executor.shutdownNow();
+                throw e;
+            }
+        }
+    }
+
+    private <T> List<T> join(Future<List<T>> part) throws SQLException, InterruptedException {
+        try {
+            return part.get();
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Laden eines Teils des Klientendossiers", e.getCause());
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("Das Klientendossier konnte nicht geladen werden.", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.badr.cp_project.dao;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Kleiner Zwischenspeicher für die vollständigen Beschreibungen zuletzt geöffneter Dokumentationen, nach ID.
+ * Listenabfragen liefern nur Auszüge ({@link DocumentDAO#EXCERPT_LENGTH}); der volle Text wird beim Öffnen über
+ * {@link DocumentDAO#getDocumentBody} nachgeladen und hier gehalten. Bei Überschreiten der Kapazität wird der am
+ * längsten nicht benutzte Eintrag verdrängt (LRU). Änderungen müssen über {@link #put} oder {@link #invalidate}
+ * gemeldet werden, z. B. aus den Ereignissen des Änderungsprotokolls.
+ */
+public final class DocumentBodyCache {
+
+    static final int DEFAULT_CAPACITY = 64;
+
+    private static final DocumentBodyCache INSTANCE = new DocumentBodyCache(DEFAULT_CAPACITY);
+
+    private final int capacity;
+    private final LinkedHashMap<Integer, String> entries;
+    // Wird bei jeder Änderung erhöht, damit ein langsames Nachladen keinen neueren Stand überschreibt
+    private long version;
+
+    DocumentBodyCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                return size() > DocumentBodyCache.this.capacity;
+            }
+        };
+    }
+
+    public static DocumentBodyCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param documentId die ID der Dokumentation.
+     * @return die vollständige Beschreibung oder null, wenn sie nicht im Zwischenspeicher ist.
+     */
+    synchronized String get(int documentId) {
+        return entries.get(documentId);
+    }
+
+    /**
+     * @return die aktuelle Version, die beim Nachladen an {@link #putIfUnchanged} übergeben wird.
+     */
+    synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Übernimmt eine aus der Datenbank gelesene Beschreibung, sofern seit {@code readVersion} nichts geändert wurde.
+     * @param documentId die ID der Dokumentation.
+     * @param body die vollständige Beschreibung.
+     * @param readVersion die Version vor dem Lesen.
+     */
+    synchronized void putIfUnchanged(int documentId, String body, long readVersion) {
+        if (version == readVersion) {
+            entries.put(documentId, body);
+        }
+    }
+
+    /**
+     * Übernimmt die aktuelle Beschreibung einer gespeicherten oder geänderten Dokumentation.
+     * @param documentId die ID der Dokumentation.
+     * @param body die vollständige Beschreibung.
+     */
+    public synchronized void put(int documentId, String body) {
+        version++;
+        entries.put(documentId, body);
+    }
+
+    /**
+     * Verwirft den Eintrag einer Dokumentation; der nächste Zugriff liest ihn neu.
+     * @param documentId die ID der Dokumentation.
+     */
+    public synchronized void invalidate(int documentId) {
+        version++;
+        entries.remove(documentId);
+    }
+
+    /**
+     * Verwirft alle Einträge, z. B. nach einem Import.
+     */
+    public synchronized void invalidateAll() {
+        version++;
+        entries.clear();
+    }
+}
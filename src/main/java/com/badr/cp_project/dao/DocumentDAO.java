@@ -1,55 +1,99 @@
 package com.badr.cp_project.dao;
 
 import com.badr.cp_project.model.Document;
+import com.badr.cp_project.util.ConnectionPool;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import static com.badr.cp_project.dao.MapperGenerator.column;
+
 public class DocumentDAO {
 
+    /** Die Länge der Beschreibungsauszüge, die Listenabfragen statt des vollständigen Texts liefern. */
+    public static final int EXCERPT_LENGTH = 200;
 
     private static final String SELECT_ALL_DOCUMENT =
             "SELECT documentationId, date, time, description, title, clientIfaNumber FROM documentation";
 
+    // Ein Zeichen mehr als der Auszug, damit erkennbar ist, ob der Text gekürzt wurde
+    private static final String SELECT_DOCUMENT_EXCERPTS =
+            "SELECT documentationId, date, time, SUBSTRING(description, 1, " + (EXCERPT_LENGTH + 1)
+                    + ") AS description, title, clientIfaNumber FROM documentation";
+
+    private static final String SELECT_DOCUMENT_BODY =
+            "SELECT description FROM documentation WHERE documentationId = ?";
+
+    private static final String SELECT_DOCUMENT_PAGE_AFTER =
+            SELECT_DOCUMENT_EXCERPTS + " WHERE documentationId > ? ORDER BY documentationId LIMIT ?";
+
+    private static final String SELECT_ALL_DOCUMENT_ORDERED =
+            SELECT_ALL_DOCUMENT + " ORDER BY documentationId";
+
     private static final String INSERT_DOCUMENT =
             "INSERT INTO documentation (date, time, description, title, clientIfaNumber) VALUES (?, ?, ?, ?, ?)";
 
     private static final String UPDATE_DOCUMENT =
             "UPDATE documentation SET date = ?, time = ?, description = ?, title = ? WHERE documentationId = ?";
 
+    private static final String SELECT_DOCUMENT_EXISTS =
+            "SELECT 1 FROM documentation WHERE documentationId = ?";
+
     private static final String DELETE_DOCUMENT_BY_ID =
             "DELETE FROM documentation WHERE documentationId = ?";
 
+    private static final String SELECT_EXISTING_DOCUMENT_IDS =
+            "SELECT documentationId FROM documentation WHERE documentationId IN";
+
     private static final String SELECT_DOCUMENT_BY_IFA_NUMBER =
-            "SELECT *" +
-                    "FROM documentation WHERE clientIfaNumber = ?";
+            SELECT_DOCUMENT_EXCERPTS + " WHERE clientIfaNumber = ? ORDER BY date, time, documentationId";
+
+    private static final String SELECT_DOCUMENT_CHANGED_SINCE =
+            SELECT_DOCUMENT_EXCERPTS + " WHERE updatedAt > ?";
+
+    private static final String SELECT_DOCUMENT_BY_IDS =
+            SELECT_ALL_DOCUMENT + " WHERE documentationId IN";
+
+    /** Der Tabellenname in {@code change_log}. */
+    public static final String TABLE = "documentation";
 
 
 
-    private final Connection conn;
+    // Spalten in der Reihenfolge des Document-Konstruktors
+    private static final RowMapper<Document> DOCUMENT_MAPPER = MapperGenerator.mapperFor(Document.class,
+            column("documentationId", int.class),
+            column("date", LocalDate.class),
+            column("time", LocalTime.class),
+            column("description", String.class),
+            column("clientIfaNumber", String.class),
+            column("title", String.class));
+
+    private static final RowMapper<Document> EXCERPT_MAPPER = DOCUMENT_MAPPER.peek(DocumentDAO::markExcerpt);
+
+    private final ConnectionPool connectionPool;
+    private final DocumentBodyCache bodyCache = DocumentBodyCache.getInstance();
     Logger logger = Logger.getLogger(getClass().getName());
 
-    public DocumentDAO(Connection conn) {
-        this.conn = conn;
+    public DocumentDAO(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
     }
 
     /**
-     * Ruft alle Dokumentationen aus der Datenbank ab.
+     * Ruft alle Dokumentationen aus der Datenbank ab, die Beschreibungen nur als Auszug.
      * @return eine Liste aller Dokumentationen.
      */
     public List<Document> getAllDocuments() {
         List<Document> dokuList = new ArrayList<>();
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(SELECT_ALL_DOCUMENT)) {
-
-            while (rs.next()) {
-                dokuList.add(mapResultSetToDocument(rs));
-            }
+        try (Connection conn = connectionPool.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_DOCUMENT_EXCERPTS)) {
+            dokuList.addAll(EXCERPT_MAPPER.mapAll(rs));
         } catch (SQLException e) {
             logger.log(Level.SEVERE,"Fehler beim Abrufen der Dokumentationen: ", e);
         }
@@ -57,85 +101,232 @@ public class DocumentDAO {
     }
 
     /**
-     * Speichert eine neue Dokumentation in der Datenbank.
+     * Ruft eine Seite von Dokumentationen nach ID sortiert ab (Keyset-Paginierung), die Beschreibungen nur als Auszug.
+     * @param afterDocumentId die ID der letzten Dokumentation der vorherigen Seite oder 0 für die erste Seite.
+     * @param pageSize die maximale Anzahl der Dokumentationen pro Seite.
+     * @return die Dokumentationen der Seite.
+     * @throws SQLException wenn die Abfrage fehlschlägt; eine leere Seite bedeutet dagegen, dass keine Dokumentationen folgen.
+     */
+    public List<Document> getDocumentPage(int afterDocumentId, int pageSize) throws SQLException {
+        List<Document> dokuList = new ArrayList<>();
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_DOCUMENT_PAGE_AFTER)) {
+            stmt.setInt(1, afterDocumentId);
+            stmt.setInt(2, pageSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                dokuList.addAll(EXCERPT_MAPPER.mapAll(rs));
+            }
+        }
+        return dokuList;
+    }
+
+    /**
+     * Liest alle Dokumentationen nach ID sortiert über einen Vorwärts-Cursor, ohne sie im Speicher zu sammeln.
+     * @param consumer erhält jede Dokumentation einzeln.
+     * @return die Anzahl der gelesenen Dokumentationen.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public long forEachDocument(Consumer<? super Document> consumer) throws SQLException {
+        return JdbcStream.forEach(connectionPool, SELECT_ALL_DOCUMENT_ORDERED, DOCUMENT_MAPPER, consumer);
+    }
+
+    /**
+     * Ruft die seit dem Wasserzeichen eingefügten, geänderten und gelöschten Dokumentationen ab,
+     * die Beschreibungen nur als Auszug.
+     * @param since das Wasserzeichen der vorherigen Abfrage oder null, um nur den Startpunkt zu ermitteln.
+     * @return die Änderungen mit dem Wasserzeichen für die nächste Abfrage.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public ChangeSet<Document, Integer> getDocumentChangesSince(Timestamp since) throws SQLException {
+        return ChangeTracking.changesSince(connectionPool, since, SELECT_DOCUMENT_CHANGED_SINCE, EXCERPT_MAPPER,
+                TABLE, Integer::valueOf);
+    }
+
+    /**
+     * Ruft die vollständige Beschreibung einer Dokumentation ab, z. B. beim Öffnen eines Eintrags aus einer Liste.
+     * Zuletzt gelesene Beschreibungen werden im {@link DocumentBodyCache} gehalten.
+     * @param documentId die ID der Dokumentation.
+     * @return die Beschreibung oder null, wenn die Dokumentation nicht existiert.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public String getDocumentBody(int documentId) throws SQLException {
+        String cached = bodyCache.get(documentId);
+        if (cached != null) {
+            return cached;
+        }
+        long readVersion = bodyCache.version();
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_DOCUMENT_BODY)) {
+            stmt.setInt(1, documentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                String body = rs.getString(1);
+                if (body != null) {
+                    bodyCache.putIfUnchanged(documentId, body, readVersion);
+                }
+                return body;
+            }
+        }
+    }
+
+    /**
+     * Ruft Dokumentationen mit vollständiger Beschreibung anhand ihrer IDs ab.
+     * @param documentIds die IDs der Dokumentationen.
+     * @return die gefundenen Dokumentationen; nicht mehr vorhandene fehlen.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public List<Document> getDocumentsByIds(List<Integer> documentIds) throws SQLException {
+        return ChangeTracking.findByKeys(connectionPool, SELECT_DOCUMENT_BY_IDS, DOCUMENT_MAPPER, documentIds);
+    }
+
+    /**
+     * Speichert eine neue Dokumentation in der Datenbank. Die erzeugte ID wird in die Dokumentation übernommen.
      * @param document die zu speichernde Dokumentation.
+     * @return true, wenn die Dokumentation gespeichert wurde.
      */
-    public void save(Document document) {
-        try (PreparedStatement stmt = conn.prepareStatement(INSERT_DOCUMENT)) {
-            setDocumentInsertParameters(stmt, document);
-            stmt.executeUpdate();
+    public boolean save(Document document) {
+        try {
+            int documentId = ChangeTracking.inTransaction(connectionPool, conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(INSERT_DOCUMENT, Statement.RETURN_GENERATED_KEYS)) {
+                    setDocumentInsertParameters(stmt, document);
+                    stmt.executeUpdate();
+                    try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Der Treiber lieferte keine erzeugte ID.");
+                        }
+                        int id = generatedKeys.getInt(1);
+                        ChangeTracking.log(conn, TABLE, ChangeLogEntry.Operation.INSERT, id);
+                        return id;
+                    }
+                }
+            });
+            document.setDocumentId(documentId);
             logger.log(Level.INFO,"Dokumentation erfolgreich gespeichert.");
+            return true;
         } catch (SQLException e) {
             logger.log(Level.SEVERE,"Fehler beim Speichern der Dokumentation:: ", e);
+            return false;
         }
     }
 
     /**
      * Aktualisiert eine bestehende Dokumentation in der Datenbank.
      * @param document die zu aktualisierende Dokumentation.
+     * @return true, wenn die Dokumentation gefunden und aktualisiert wurde.
      */
-    public void update(Document document) {
-        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_DOCUMENT)) {
-            setDocumentUpdateParameters(stmt, document);
-            stmt.executeUpdate();
-            logger.log(Level.INFO,"Dokumentation erfolgreich aktualisiert.");
+    public boolean update(Document document) {
+        try {
+            boolean updated = ChangeTracking.inTransaction(connectionPool, conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(UPDATE_DOCUMENT)) {
+                    setDocumentUpdateParameters(stmt, document);
+                    int rows = stmt.executeUpdate();
+                    if (rows == 0) {
+                        // Unveränderte Zeilen zählen bei useAffectedRows nicht; nichts zu protokollieren
+                        return ChangeTracking.updatedOrUnchanged(conn, rows, SELECT_DOCUMENT_EXISTS, document.getDocumentId());
+                    }
+                }
+                ChangeTracking.log(conn, TABLE, ChangeLogEntry.Operation.UPDATE, document.getDocumentId());
+                return true;
+            });
+            if (updated) {
+                logger.log(Level.INFO, "Dokumentation erfolgreich aktualisiert.");
+            } else {
+                logger.log(Level.INFO, "Keine Dokumentation mit der angegebenen ID gefunden.");
+            }
+            return updated;
         } catch (SQLException e) {
             logger.log(Level.SEVERE,"Fehler beim Aktualisieren der Dokumentation: ", e);
+            return false;
         }
     }
 
     /**
      * Löscht eine Dokumentation anhand ihrer ID aus der Datenbank.
      * @param documentId die ID der zu löschenden Dokumentation.
+     * @return true, wenn die Dokumentation gelöscht wurde.
      */
-    public void delete(int documentId) {
-        try (PreparedStatement stmt = conn.prepareStatement(DELETE_DOCUMENT_BY_ID)) {
-            stmt.setInt(1, documentId);
-            stmt.executeUpdate();
-            logger.log(Level.INFO,"Dokumentation erfolgreich gelöscht.");
+    public boolean delete(int documentId) {
+        try {
+            boolean deleted = ChangeTracking.delete(connectionPool, DELETE_DOCUMENT_BY_ID, SELECT_EXISTING_DOCUMENT_IDS,
+                    TABLE, List.of(documentId)) > 0;
+            if (deleted) {
+                logger.log(Level.INFO, "Dokumentation erfolgreich gelöscht.");
+            } else {
+                logger.log(Level.INFO, "Keine Dokumentation mit der angegebenen ID gefunden.");
+            }
+            return deleted;
         } catch (SQLException e) {
             logger.log(Level.SEVERE,"Fehler beim Löschen der Dokumentation: ", e);
+            return false;
+        }
+    }
+
+    /**
+     * Speichert mehrere neue Dokumentationen per JDBC-Batch in einer Transaktion.
+     * Die erzeugten IDs werden in die Dokumentationen übernommen.
+     * @param documents die zu speichernden Dokumentationen.
+     * @return die erzeugten IDs in der Reihenfolge der Dokumentationen.
+     * @throws SQLException wenn das Speichern fehlschlägt; es wurde dann keine Dokumentation gespeichert.
+     */
+    public List<Integer> saveAll(List<Document> documents) throws SQLException {
+        List<Integer> ids = JdbcBatch.insert(connectionPool, INSERT_DOCUMENT, TABLE, documents,
+                this::setDocumentInsertParameters);
+        for (int i = 0; i < documents.size(); i++) {
+            documents.get(i).setDocumentId(ids.get(i));
         }
+        logger.log(Level.INFO, "{0} Dokumentationen per Batch gespeichert.", documents.size());
+        return ids;
+    }
+
+    /**
+     * Aktualisiert mehrere bestehende Dokumentationen per JDBC-Batch in einer Transaktion.
+     * @param documents die zu aktualisierenden Dokumentationen.
+     * @return die Anzahl der aktualisierten Dokumentationen, soweit der Treiber sie meldet.
+     * @throws SQLException wenn das Aktualisieren fehlschlägt; es wurde dann keine Dokumentation geändert.
+     */
+    public int updateAll(List<Document> documents) throws SQLException {
+        int updated = JdbcBatch.execute(connectionPool, UPDATE_DOCUMENT, TABLE, ChangeLogEntry.Operation.UPDATE,
+                documents, this::setDocumentUpdateParameters, Document::getDocumentId);
+        logger.log(Level.INFO, "{0} Dokumentationen per Batch aktualisiert.", updated);
+        return updated;
     }
 
     /**
-     * Ruft alle Dokumentationen für eine bestimmte Ifa-Nummer ab.
+     * Löscht mehrere Dokumentationen anhand ihrer IDs per JDBC-Batch in einer Transaktion.
+     * @param documentIds die IDs der zu löschenden Dokumentationen.
+     * @return die Anzahl der gelöschten Dokumentationen, soweit der Treiber sie meldet.
+     * @throws SQLException wenn das Löschen fehlschlägt; es wurde dann keine Dokumentation gelöscht.
+     */
+    public int deleteAll(List<Integer> documentIds) throws SQLException {
+        int deleted = ChangeTracking.delete(connectionPool, DELETE_DOCUMENT_BY_ID, SELECT_EXISTING_DOCUMENT_IDS,
+                TABLE, documentIds);
+        logger.log(Level.INFO, "{0} Dokumentationen per Batch gelöscht.", deleted);
+        return deleted;
+    }
+
+    /**
+     * Ruft alle Dokumentationen für eine bestimmte Ifa-Nummer ab, die Beschreibungen nur als Auszug.
      * @param ifaNumber die Ifa-Nummer des Klienten.
      * @return eine Liste der zugehörigen Dokumentationen.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
      */
-    public List<Document> getDocumentByIfa(String ifaNumber) {
+    public List<Document> getDocumentByIfa(String ifaNumber) throws SQLException {
         List<Document> dokus = new ArrayList<>();
-        try (PreparedStatement stmt = conn.prepareStatement(SELECT_DOCUMENT_BY_IFA_NUMBER)) {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_DOCUMENT_BY_IFA_NUMBER)) {
             stmt.setString(1, ifaNumber);
             try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    dokus.add(mapResultSetToDocument(rs));
-                }
+                dokus.addAll(EXCERPT_MAPPER.mapAll(rs));
             }
         } catch (SQLException e) {
             logger.log(Level.SEVERE,"Fehler beim Laden der Dokumentationen: ", e);
+            throw e;
         }
         return dokus;
     }
 
-    /**
-     * Mappt ein ResultSet auf ein Document-Objekt.
-     * @param rs das ResultSet.
-     * @return das gemappte Document-Objekt.
-     * @throws SQLException wenn ein Fehler beim Zugriff auf die Daten auftritt.
-     */
-    private Document mapResultSetToDocument(ResultSet rs) throws SQLException {
-        int documentId = rs.getInt("documentationId");
-        LocalDate documentDate = rs.getDate("date").toLocalDate();
-        LocalTime documentTime = rs.getTime("time").toLocalTime();
-        String documentDescription = rs.getString("description");
-        String documentClientIfaNumber = rs.getString("clientIfaNumber");
-        String documentTitle = rs.getString("title");
-
-        return new Document(documentId, documentDate, documentTime, documentDescription, documentClientIfaNumber, documentTitle);
-    }
-
-
     /**
      * Setzt die Parameter für eine Insert-Anweisung.
      * @param stmt das PreparedStatement.
@@ -154,13 +345,35 @@ public class DocumentDAO {
      * Setzt die Parameter für eine Update-Anweisung.
      * @param stmt das PreparedStatement.
      * @param document die Dokumentation, deren Daten aktualisiert werden.
-     * @throws SQLException wenn ein Fehler beim Setzen der Parameter auftritt.
+     * @throws SQLException wenn ein Fehler beim Setzen der Parameter auftritt oder nur ein Auszug der Beschreibung
+     *                      geladen ist, der den vollständigen Text überschreiben würde.
      */
     private void setDocumentUpdateParameters(PreparedStatement stmt, Document document) throws SQLException {
+        if (document.isDescriptionExcerpt()) {
+            throw new SQLException("Dokumentation " + document.getDocumentId()
+                    + " enthält nur einen Auszug der Beschreibung und kann nicht gespeichert werden.");
+        }
         stmt.setDate(1, java.sql.Date.valueOf(document.getDocumentDate()));
         stmt.setTime(2, java.sql.Time.valueOf(document.getDocumentTime()));
         stmt.setString(3, document.getDocumentDescription());
         stmt.setString(4, document.getDokuTitel());
         stmt.setInt(5, document.getDocumentId());
     }
+
+    /**
+     * Kürzt eine mit {@link #SELECT_DOCUMENT_EXCERPTS} gelesene Beschreibung auf {@link #EXCERPT_LENGTH} Zeichen
+     * und markiert sie als Auszug, falls sie länger ist.
+     */
+    private static void markExcerpt(Document document) {
+        String description = document.getDocumentDescription();
+        if (description == null || description.length() <= EXCERPT_LENGTH) {
+            return;
+        }
+        int end = EXCERPT_LENGTH;
+        if (Character.isHighSurrogate(description.charAt(end - 1))) {
+            end--;
+        }
+        document.documentDescriptionProperty().set(description.substring(0, end));
+        document.setDescriptionExcerpt(true);
+    }
 }
@@ -1,101 +1,391 @@
 package com.badr.cp_project.dao;
 
 import com.badr.cp_project.model.File;
+import com.badr.cp_project.util.BlobStore;
+import com.badr.cp_project.util.ConnectionPool;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.badr.cp_project.dao.MapperGenerator.column;
 
 public class FileDAO {
 
+    private static final Logger LOGGER = Logger.getLogger(FileDAO.class.getName());
+
     private static final String INSERT_FILE =
-            "INSERT INTO document (fileName, fileType, uploadDate, filePath, clientIfaNumber) VALUES (?, ?, ?, ?, ?)";
+            "INSERT INTO document (fileName, fileType, uploadDate, filePath, clientIfaNumber, contentHash) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_BLOB =
+            "INSERT INTO file_blob (contentHash, size) VALUES (?, ?) ON DUPLICATE KEY UPDATE contentHash = contentHash";
+
+    // Sperrt den Eintrag eines Inhalts bis zum Ende der Transaktion, auch gegenüber anderen Anwendungsinstanzen
+    private static final String LOCK_BLOB =
+            "SELECT contentHash FROM file_blob WHERE contentHash = ? FOR UPDATE";
+
+    private static final int BLOB_LOCK_ATTEMPTS = 3;
+
+    private static final String SELECT_CONTENT_HASH_BY_ID =
+            "SELECT contentHash FROM document WHERE documentId = ?";
+
+    // Löscht den Inhalt nur, wenn keine Datei mehr auf ihn verweist; die Referenzen werden in derselben Anweisung gezählt
+    private static final String DELETE_UNREFERENCED_BLOB =
+            "DELETE FROM file_blob WHERE contentHash = ? AND NOT EXISTS (SELECT 1 FROM document WHERE contentHash = ?)";
+
+    private static final String SELECT_UNREFERENCED_BLOBS =
+            "SELECT contentHash FROM file_blob b WHERE NOT EXISTS (SELECT 1 FROM document d WHERE d.contentHash = b.contentHash)";
 
     private static final String DELETE_FILE_BY_ID =
             "DELETE FROM document WHERE documentId = ?";
 
+    private static final String SELECT_ALL_FILE =
+            "SELECT documentId, fileName, fileType, uploadDate, filePath, clientIfaNumber, contentHash FROM document";
+
     private static final String SELECT_FILE_BY_IFA_NUMBER =
-            "SELECT * FROM document WHERE clientIfaNumber = ?";
+            SELECT_ALL_FILE + " WHERE clientIfaNumber = ? ORDER BY uploadDate, documentId";
+
+    private static final String SELECT_ALL_FILE_ORDERED =
+            SELECT_ALL_FILE + " ORDER BY documentId";
+
+    private static final String SELECT_FILE_CHANGED_SINCE =
+            SELECT_ALL_FILE + " WHERE updatedAt > ?";
 
+    private static final String SELECT_FILE_BY_IDS =
+            SELECT_ALL_FILE + " WHERE documentId IN";
 
-    private final Connection conn;
+    /** Der Tabellenname in {@code change_log}. */
+    public static final String TABLE = "document";
 
-    public FileDAO(Connection conn) {
-        this.conn = conn;
+    // Spalten in der Reihenfolge des File-Konstruktors
+    private static final RowMapper<File> FILE_MAPPER = MapperGenerator.mapperFor(File.class,
+            column("documentId", int.class),
+            column("uploadDate", LocalDate.class),
+            column("fileType", String.class),
+            column("fileName", String.class),
+            column("filePath", String.class),
+            column("clientIfaNumber", String.class),
+            column("contentHash", String.class));
+
+    /**
+     * Ergebnis des Löschens einer Datei.
+     * @param deleted true, wenn die Datei gelöscht wurde.
+     * @param contentHash der Hash ihres abgelegten Inhalts oder null.
+     */
+    private record Removal(boolean deleted, String contentHash) {
+    }
+
+    private final ConnectionPool connectionPool;
+    private final BlobStore blobStore;
+
+    public FileDAO(ConnectionPool connectionPool) {
+        this(connectionPool, BlobStore.getInstance());
+    }
+
+    public FileDAO(ConnectionPool connectionPool, BlobStore blobStore) {
+        this.connectionPool = connectionPool;
+        this.blobStore = blobStore;
     }
 
     /**
-     * Speichert eine neue Datei in der Datenbank.
-     * @param datei die zu speichernde Datei.
+     * Legt den Inhalt einer hochgeladenen Datei in der {@link BlobStore Dateiablage} ab und speichert die Datei mit
+     * Verweis auf den Inhalt. Gleiche Inhalte werden nur einmal abgelegt, gleiche Dateinamen überschreiben sich nicht.
+     * Der Verweis wird unter der Sperre des Inhalts und seines Eintrags in {@code file_blob} festgeschrieben, damit ein
+     * gleichzeitiges Löschen, auch in einer anderen Anwendungsinstanz, den Inhalt nicht entfernt.
+     * @param source die hochgeladene Datei.
+     * @param fileName der angezeigte Dateiname.
+     * @param fileType der MIME-Typ oder null.
+     * @param uploadDate das Datum des Hochladens.
+     * @param ifaNumber die Ifa-Nummer des Klienten.
+     * @return die gespeicherte Datei mit erzeugter ID.
+     * @throws IOException wenn der Inhalt nicht abgelegt werden konnte.
+     * @throws SQLException wenn das Speichern fehlschlägt; es wurde dann keine Datei gespeichert.
      */
-    public void save(File datei) {
-        try (PreparedStatement stmt = conn.prepareStatement(INSERT_FILE, Statement.RETURN_GENERATED_KEYS)) {
-            setDateiInsertParameters(stmt, datei);
-            stmt.executeUpdate();
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    datei.setFileId(generatedKeys.getInt(1));
+    public File upload(Path source, String fileName, String fileType, LocalDate uploadDate, String ifaNumber)
+            throws IOException, SQLException {
+        BlobStore.Blob blob = blobStore.store(source);
+        File file = new File(0, uploadDate, fileType, fileName, blob.path().toString(), ifaNumber, blob.hash());
+        Lock lock = blobStore.lockFor(blob.hash());
+        lock.lock();
+        try {
+            file.setFileId(ChangeTracking.inTransaction(connectionPool, conn -> {
+                lockBlobRow(conn, blob.hash(), blob.size());
+                // Hat ein gleichzeitiges Löschen der letzten Referenz den Inhalt vor dem Sperren entfernt, neu ablegen
+                if (!blobStore.exists(blob.hash())) {
+                    try {
+                        blobStore.store(source);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
                 }
+                return insert(conn, file);
+            }));
+        } catch (UncheckedIOException | SQLException e) {
+            // Nur entfernen, wenn keine andere Datei inzwischen auf denselben Inhalt verweist
+            try {
+                releaseIfUnreferenced(blob.hash());
+            } catch (SQLException releaseError) {
+                e.addSuppressed(releaseError);
             }
-            System.out.println("Datei erfolgreich gespeichert.");
-        } catch (SQLException e) {
-            System.err.println("Fehler beim Speichern der Datei: " + e.getMessage());
+            if (e instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+        LOGGER.log(Level.INFO, blob.created() ? "Datei erfolgreich gespeichert." : "Datei gespeichert, Inhalt war bereits abgelegt.");
+        return file;
+    }
+
+    /**
+     * Ermittelt den Speicherort einer Datei: Abgelegte Inhalte werden über ihren Hash gefunden,
+     * ältere Dateien über den gespeicherten Pfad.
+     * @param file die Datei.
+     * @return der Speicherort oder null, wenn die Datei keinen hat.
+     */
+    public Path resolve(File file) {
+        if (file.getContentHash() != null) {
+            return blobStore.resolve(file.getContentHash());
+        }
+        return file.getFilePath() == null ? null : Path.of(file.getFilePath());
+    }
+
+    /**
+     * Ermittelt eine Datei, die sich mit dem zugeordneten Programm öffnen lässt. Abgelegte Inhalte werden dazu unter
+     * ihrem ursprünglichen Dateinamen kopiert, da der Ablageort keine Endung hat; ältere Dateien liegen bereits unter
+     * ihrem Namen.
+     * @param file die Datei.
+     * @return der zu öffnende Pfad oder null, wenn die Datei keinen Inhalt hat.
+     * @throws IOException wenn der Inhalt nicht kopiert werden kann.
+     */
+    public Path resolveForOpening(File file) throws IOException {
+        if (file.getContentHash() == null || !blobStore.exists(file.getContentHash())) {
+            Path path = resolve(file);
+            return path != null && Files.exists(path) ? path : null;
         }
+        return blobStore.copyForOpening(file.getContentHash(), file.getFileName());
     }
 
     /**
-     * Löscht eine Datei anhand ihrer ID aus der Datenbank.
+     * Löscht eine Datei anhand ihrer ID aus der Datenbank. Verweist danach keine Datei mehr auf ihren Inhalt,
+     * wird auch dieser unter seiner Sperre aus der Dateiablage entfernt; schlägt das fehl, holt
+     * {@link #releaseUnreferencedBlobs} es nach.
      *
      * @param dokumentId die ID der zu löschenden Datei.
+     * @return true, wenn die Datei gelöscht wurde.
      */
     public boolean delete(int dokumentId) {
-        try (PreparedStatement stmt = conn.prepareStatement(DELETE_FILE_BY_ID)) {
-            stmt.setInt(1, dokumentId);
-            stmt.executeUpdate();
-            System.out.println("Datei erfolgreich gelöscht.");
+        Removal removal;
+        try {
+            removal = ChangeTracking.inTransaction(connectionPool, conn -> {
+                String contentHash = null;
+                try (PreparedStatement stmt = conn.prepareStatement(SELECT_CONTENT_HASH_BY_ID)) {
+                    stmt.setInt(1, dokumentId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            contentHash = rs.getString(1);
+                        }
+                    }
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(DELETE_FILE_BY_ID)) {
+                    stmt.setInt(1, dokumentId);
+                    if (stmt.executeUpdate() == 0) {
+                        return new Removal(false, null);
+                    }
+                }
+                ChangeTracking.log(conn, TABLE, ChangeLogEntry.Operation.DELETE, dokumentId);
+                return new Removal(true, contentHash);
+            });
         } catch (SQLException e) {
-            System.err.println("Fehler beim Löschen der Datei: " + e.getMessage());
+            LOGGER.log(Level.SEVERE, "Fehler beim Löschen der Datei", e);
+            return false;
         }
-        return false;
+        // Erst nach dem Festschreiben freigeben, damit ein Zurückrollen keinen Verweis ins Leere hinterlässt
+        if (removal.contentHash() != null) {
+            try {
+                releaseIfUnreferenced(removal.contentHash());
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Inhalt " + removal.contentHash() + " wird beim nächsten Aufräumen entfernt", e);
+            }
+        }
+        if (removal.deleted()) {
+            LOGGER.log(Level.INFO, "Datei erfolgreich gelöscht.");
+        }
+        return removal.deleted();
+    }
+
+    /**
+     * Ruft die seit dem Wasserzeichen eingefügten, geänderten und gelöschten Dateien ab.
+     * @param since das Wasserzeichen der vorherigen Abfrage oder null, um nur den Startpunkt zu ermitteln.
+     * @return die Änderungen mit dem Wasserzeichen für die nächste Abfrage.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public ChangeSet<File, Integer> getFileChangesSince(Timestamp since) throws SQLException {
+        return ChangeTracking.changesSince(connectionPool, since, SELECT_FILE_CHANGED_SINCE, FILE_MAPPER,
+                TABLE, Integer::valueOf);
+    }
+
+    /**
+     * Ruft Dateien anhand ihrer IDs ab.
+     * @param fileIds die IDs der Dateien.
+     * @return die gefundenen Dateien; nicht mehr vorhandene fehlen.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public List<File> getFilesByIds(List<Integer> fileIds) throws SQLException {
+        return ChangeTracking.findByKeys(connectionPool, SELECT_FILE_BY_IDS, FILE_MAPPER, fileIds);
     }
 
     /**
      * Ruft alle Dateien für eine bestimmte Ifa-Nummer ab.
      * @param ifaNumber die Ifa-Nummer des Klienten.
      * @return eine Liste der zugehörigen Dateien.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
      */
-    public List<File> getFileByIfa(String ifaNumber) {
+    public List<File> getFileByIfa(String ifaNumber) throws SQLException {
         List<File> dateien = new ArrayList<>();
-        try (PreparedStatement stmt = conn.prepareStatement(SELECT_FILE_BY_IFA_NUMBER)) {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_FILE_BY_IFA_NUMBER)) {
             stmt.setString(1, ifaNumber);
             try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    dateien.add(mapResultSetToFile(rs));
-                }
+                dateien.addAll(FILE_MAPPER.mapAll(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Fehler beim Laden der Dateien: " + e.getMessage());
+            LOGGER.log(Level.SEVERE, "Fehler beim Laden der Dateien", e);
+            throw e;
         }
         return dateien;
     }
 
     /**
-     * Mappt ein ResultSet auf ein Datei-Objekt (File-Objekt).
-     * @param rs das ResultSet.
-     * @return das gemappte File-Objekt.
-     * @throws SQLException wenn ein Fehler beim Zugriff auf die Daten auftritt.
+     * Liest die Metadaten aller Dateien nach ID sortiert über einen Vorwärts-Cursor, ohne sie im Speicher zu sammeln.
+     * @param consumer erhält jede Datei einzeln.
+     * @return die Anzahl der gelesenen Dateien.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public long forEachFile(Consumer<? super File> consumer) throws SQLException {
+        return JdbcStream.forEach(connectionPool, SELECT_ALL_FILE_ORDERED, FILE_MAPPER, consumer);
+    }
+
+    /**
+     * Entfernt abgelegte Inhalte, auf die keine Datei mehr verweist, z. B. nachdem Klienten samt ihren Dateien
+     * gelöscht wurden (ON DELETE CASCADE).
+     * @return die Anzahl der entfernten Inhalte.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    public int releaseUnreferencedBlobs() throws SQLException {
+        List<String> candidates = new ArrayList<>();
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_UNREFERENCED_BLOBS);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                candidates.add(rs.getString(1));
+            }
+        }
+        int released = 0;
+        for (String contentHash : candidates) {
+            // Erneut prüfen: Inzwischen kann eine neue Datei auf den Inhalt verweisen
+            if (releaseIfUnreferenced(contentHash)) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Fügt eine Datei ein und protokolliert sie. Muss in einer Transaktion aufgerufen werden.
+     * @return die erzeugte ID.
+     */
+    private int insert(Connection conn, File file) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_FILE, Statement.RETURN_GENERATED_KEYS)) {
+            setDateiInsertParameters(stmt, file);
+            stmt.executeUpdate();
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (!generatedKeys.next()) {
+                    throw new SQLException("Der Treiber lieferte keine erzeugte ID.");
+                }
+                int id = generatedKeys.getInt(1);
+                ChangeTracking.log(conn, TABLE, ChangeLogEntry.Operation.INSERT, id);
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Entfernt einen Inhalt samt Eintrag, wenn keine Datei mehr auf ihn verweist. Prüfen und Entfernen geschehen unter
+     * der Sperre des Inhalts und seines Eintrags in {@code file_blob}, sodass kein gleichzeitiges Hochladen, auch in
+     * einer anderen Anwendungsinstanz, dazwischen einen Verweis festschreiben kann.
+     * @return true, wenn der Inhalt nicht mehr referenziert war und entfernt wurde.
+     */
+    private boolean releaseIfUnreferenced(String contentHash) throws SQLException {
+        Lock lock = blobStore.lockFor(contentHash);
+        lock.lock();
+        try {
+            return ChangeTracking.inTransaction(connectionPool, conn -> {
+                // Nach einem zurückgerollten Hochladen fehlt der Eintrag; er wird zum Sperren angelegt und gleich entfernt
+                lockBlobRow(conn, contentHash, 0);
+                if (!deleteUnreferencedBlob(conn, contentHash)) {
+                    return false;
+                }
+                // Noch unter der Zeilensperre: Ein wartendes Hochladen findet danach keinen Inhalt und legt ihn neu ab
+                removeBlobContent(contentHash);
+                return true;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Legt den Eintrag eines Inhalts an, falls er fehlt, und sperrt ihn bis zum Ende der Transaktion. Hat ein
+     * gleichzeitiges Freigeben den Eintrag zwischen Anlegen und Sperren entfernt, wird er erneut angelegt.
      */
-    private File mapResultSetToFile(ResultSet rs) throws SQLException {
-        int documentId = rs.getInt("documentId"); // Statt "dokumentId"
-        String fileName = rs.getString("fileName"); // Statt "dateiname"
-        String fileType = rs.getString("fileType"); // Statt "dateityp"
-        Date uploadDate = rs.getDate("uploadDate"); // Statt "hochladedatum"
-        String filePath = rs.getString("filePath"); // Statt "dateipfad"
-        String clientIfaNumber = rs.getString("clientIfaNumber"); // Statt "klientIfaNummer"
+    private void lockBlobRow(Connection conn, String contentHash, long size) throws SQLException {
+        for (int attempt = 0; attempt < BLOB_LOCK_ATTEMPTS; attempt++) {
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_BLOB)) {
+                stmt.setString(1, contentHash);
+                stmt.setLong(2, size);
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(LOCK_BLOB)) {
+                stmt.setString(1, contentHash);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return;
+                    }
+                }
+            }
+        }
+        throw new SQLException("Der Eintrag des Inhalts " + contentHash + " konnte nicht gesperrt werden.");
+    }
 
-        return new File(documentId, uploadDate.toLocalDate(), fileType, fileName, filePath, clientIfaNumber);
+    /**
+     * @return true, wenn der Inhalt keine Referenzen mehr hatte und sein Eintrag gelöscht wurde.
+     */
+    private boolean deleteUnreferencedBlob(Connection conn, String contentHash) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(DELETE_UNREFERENCED_BLOB)) {
+            stmt.setString(1, contentHash);
+            stmt.setString(2, contentHash);
+            return stmt.executeUpdate() > 0;
+        }
     }
 
+    private void removeBlobContent(String contentHash) {
+        try {
+            blobStore.delete(contentHash);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Fehler beim Entfernen des Dateiinhalts " + contentHash, e);
+        }
+    }
 
     /**
      * Setzt die Parameter für eine Insert-Anweisung.
@@ -109,5 +399,6 @@ public class FileDAO {
         stmt.setDate(3, java.sql.Date.valueOf(file.getFileUploadDate()));
         stmt.setString(4, file.getFilePath());
         stmt.setString(5, file.getFileClientIfaNumber());
+        stmt.setString(6, file.getContentHash());
     }
 }
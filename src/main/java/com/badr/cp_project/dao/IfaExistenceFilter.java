@@ -0,0 +1,142 @@
+package com.badr.cp_project.dao;
+
+import com.badr.cp_project.util.BloomFilter;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bloom-Filter aller bekannten Ifa-Nummern, mit dem {@link CachingClientDAO} sicher nicht vorhandene Nummern
+ * ohne Abfrage beantwortet. Nur mögliche Treffer gehen an Zwischenspeicher und Datenbank.
+ * Der Filter wird beim Start per Vorwärts-Cursor aufgebaut und bei jedem Einfügen ergänzt, auch bei Einfügungen
+ * anderer Arbeitsplätze, die über das Änderungsprotokoll gemeldet werden. Bis zum Ende des Aufbaus gilt jede
+ * Nummer als möglicherweise vorhanden. Gelöschte Nummern bleiben im Filter und erhöhen nur die Falsch-Positiv-Rate.
+ */
+public final class IfaExistenceFilter {
+
+    private static final Logger LOGGER = Logger.getLogger(IfaExistenceFilter.class.getName());
+
+    static final double TARGET_FALSE_POSITIVE_RATE = 0.01;
+    // Platz für Wachstum, bevor die Falsch-Positiv-Rate über das Ziel steigt
+    private static final int MIN_EXPECTED_INSERTIONS = 10_000;
+    private static final int GROWTH_FACTOR = 2;
+    private static final double REBUILD_FACTOR = 5;
+
+    private static final IfaExistenceFilter INSTANCE = new IfaExistenceFilter();
+
+    /**
+     * Kennzahlen des Filters.
+     * @param ready ob der Filter aufgebaut ist.
+     * @param expectedFalsePositiveRate die aus dem Füllgrad geschätzte Falsch-Positiv-Rate.
+     * @param observedFalsePositiveRate der Anteil der geprüften nicht vergebenen Nummern, die der Filter
+     *                                  fälschlich als möglich vorhanden meldete.
+     * @param definiteNegatives Prüfungen, die ohne Abfrage beantwortet wurden.
+     * @param possiblePositives Prüfungen, die an Zwischenspeicher oder Datenbank weitergingen.
+     * @param falsePositives mögliche Treffer, die nicht vorhanden waren.
+     */
+    public record Stats(boolean ready, double expectedFalsePositiveRate, double observedFalsePositiveRate,
+                        long definiteNegatives, long possiblePositives, long falsePositives) {
+    }
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    private final AtomicLong definiteNegatives = new AtomicLong();
+    private final AtomicLong possiblePositives = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    IfaExistenceFilter() {
+    }
+
+    public static IfaExistenceFilter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Baut den Filter aus allen Ifa-Nummern neu auf. Bis dahin bleibt ein vorhandener Filter in Gebrauch.
+     * @param clientDAO liest die Ifa-Nummern.
+     * @throws SQLException wenn die Nummern nicht gelesen werden können; der bisherige Zustand bleibt erhalten.
+     */
+    public synchronized void build(ClientDAO clientDAO) throws SQLException {
+        long expected = Math.max(MIN_EXPECTED_INSERTIONS, clientDAO.countClients() * GROWTH_FACTOR);
+        BloomFilter next = new BloomFilter(expected, TARGET_FALSE_POSITIVE_RATE);
+        // Vor dem Lesen veröffentlichen, damit gleichzeitige Einfügungen auch im neuen Filter landen
+        building = next;
+        try {
+            long count = clientDAO.forEachIfaNumber(next::put);
+            filter = next;
+            LOGGER.log(Level.INFO, "Ifa-Filter mit {0} Nummern aufgebaut ({1} Bits, {2} Hashfunktionen).",
+                    new Object[]{count, next.getBitCount(), next.getHashCount()});
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Baut den Filter neu auf, wenn er durch Wachstum deutlich über der Ziel-Falsch-Positiv-Rate liegt.
+     * @param clientDAO liest die Ifa-Nummern.
+     * @throws SQLException wenn die Nummern nicht gelesen werden können.
+     */
+    public void rebuildIfSaturated(ClientDAO clientDAO) throws SQLException {
+        BloomFilter current = filter;
+        if (current != null && current.expectedFalsePositiveRate() > TARGET_FALSE_POSITIVE_RATE * REBUILD_FACTOR) {
+            build(clientDAO);
+        }
+    }
+
+    /**
+     * Nimmt eine eingefügte Ifa-Nummer auf.
+     * @param ifaNumber die Ifa-Nummer.
+     */
+    public void add(String ifaNumber) {
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(ifaNumber);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(ifaNumber);
+        }
+    }
+
+    /**
+     * @param ifaNumber die Ifa-Nummer.
+     * @return false, wenn die Nummer sicher nicht vergeben ist; true, wenn sie vergeben sein könnte oder der Filter
+     *         noch nicht aufgebaut ist.
+     */
+    boolean mightContain(String ifaNumber) {
+        BloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        if (current.mightContain(ifaNumber)) {
+            possiblePositives.incrementAndGet();
+            return true;
+        }
+        definiteNegatives.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Meldet, dass ein möglicher Treffer nicht vorhanden war.
+     */
+    void recordFalsePositive() {
+        if (filter != null) {
+            falsePositives.incrementAndGet();
+        }
+    }
+
+    public Stats getStats() {
+        BloomFilter current = filter;
+        long positives = possiblePositives.get();
+        long negatives = definiteNegatives.get();
+        long falseHits = falsePositives.get();
+        // Falsch-Positiv-Rate bezogen auf alle Prüfungen nicht vorhandener Nummern
+        long absent = negatives + falseHits;
+        return new Stats(current != null,
+                current == null ? 0 : current.expectedFalsePositiveRate(),
+                absent == 0 ? 0 : (double) falseHits / absent,
+                negatives, positives, falseHits);
+    }
+}
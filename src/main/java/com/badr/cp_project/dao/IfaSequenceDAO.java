@@ -0,0 +1,60 @@
+package com.badr.cp_project.dao;
+
+import com.badr.cp_project.util.ConnectionPool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Zugriff auf die Tabelle {@code ifa_sequence}, aus der Blöcke von Ifa-Nummern reserviert werden.
+ */
+public class IfaSequenceDAO {
+
+    private static final String SEQUENCE_NAME = "client";
+
+    private static final String SELECT_NEXT_VALUE_FOR_UPDATE =
+            "SELECT nextValue FROM ifa_sequence WHERE name = ? FOR UPDATE";
+
+    private static final String UPDATE_NEXT_VALUE =
+            "UPDATE ifa_sequence SET nextValue = ? WHERE name = ?";
+
+    private final ConnectionPool connectionPool;
+
+    public IfaSequenceDAO(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    /**
+     * Reserviert einen zusammenhängenden Block von Ifa-Nummern und schreibt die neue Hochwassermarke fest.
+     * Die Sequenzzeile bleibt bis zum Commit gesperrt, sodass mehrere Arbeitsplätze nie denselben Block erhalten.
+     * @param blockSize die Anzahl der zu reservierenden Nummern.
+     * @return die erste Nummer des Blocks; reserviert sind {@code [start, start + blockSize)}.
+     * @throws SQLException wenn die Sequenz fehlt oder nicht fortgeschrieben werden kann.
+     */
+    public long reserveBlock(int blockSize) throws SQLException {
+        try (Connection conn = connectionPool.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement select = conn.prepareStatement(SELECT_NEXT_VALUE_FOR_UPDATE);
+                 PreparedStatement update = conn.prepareStatement(UPDATE_NEXT_VALUE)) {
+                select.setString(1, SEQUENCE_NAME);
+                long start;
+                try (ResultSet rs = select.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new SQLException("Die Sequenz für Ifa-Nummern ist nicht angelegt.");
+                    }
+                    start = rs.getLong(1);
+                }
+                update.setLong(1, start + blockSize);
+                update.setString(2, SEQUENCE_NAME);
+                update.executeUpdate();
+                conn.commit();
+                return start;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.badr.cp_project.dao;
+
+import com.badr.cp_project.util.ConnectionPool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Gemeinsame Hilfsmethoden der DAOs für Massenschreibvorgänge per JDBC-Batch.
+ * Alle Zeilen einer Operation werden mit einem einzigen PreparedStatement in einer Transaktion geschrieben;
+ * schlägt ein Abschnitt fehl, wird die gesamte Operation zurückgerollt.
+ * Mit {@code rewriteBatchedStatements=true} fasst der MySQL-Treiber jeden Abschnitt zu einer Anweisung zusammen.
+ * Die Schlüssel jedes Abschnitts werden in derselben Transaktion in {@code change_log} protokolliert.
+ */
+final class JdbcBatch {
+
+    // Zeilen pro executeBatch, damit einzelne Pakete nicht über max_allowed_packet wachsen
+    static final int BATCH_SIZE = 500;
+
+    /**
+     * Setzt die Parameter eines PreparedStatements für ein Element.
+     * @param <T> der Typ der Elemente.
+     */
+    @FunctionalInterface
+    interface ParameterBinder<T> {
+        void bind(PreparedStatement stmt, T item) throws SQLException;
+    }
+
+    private JdbcBatch() {
+    }
+
+    /**
+     * Fügt alle Elemente per Batch ein und liefert die erzeugten Schlüssel.
+     * @param connectionPool der Pool, aus dem die Verbindung geliehen wird.
+     * @param sql die INSERT-Anweisung.
+     * @param table der Tabellenname in {@code change_log}.
+     * @param items die einzufügenden Elemente.
+     * @param binder setzt die Parameter je Element.
+     * @return die erzeugten Schlüssel in der Reihenfolge der Elemente.
+     * @throws SQLException wenn ein Abschnitt fehlschlägt; es wurde dann nichts gespeichert.
+     */
+    static <T> List<Integer> insert(ConnectionPool connectionPool, String sql, String table, List<T> items,
+                                    ParameterBinder<T> binder) throws SQLException {
+        List<Integer> keys = new ArrayList<>(items.size());
+        inTransaction(connectionPool, sql, Statement.RETURN_GENERATED_KEYS, items, binder, (conn, stmt, chunk, counts) -> {
+            int first = keys.size();
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                while (generatedKeys.next()) {
+                    keys.add(generatedKeys.getInt(1));
+                }
+            }
+            ChangeTracking.log(conn, table, ChangeLogEntry.Operation.INSERT, keys.subList(first, keys.size()));
+        });
+        if (keys.size() != items.size()) {
+            throw new SQLException("Der Treiber lieferte " + keys.size() + " statt " + items.size() + " erzeugte Schlüssel.");
+        }
+        return keys;
+    }
+
+    /**
+     * Führt eine Anweisung mit vorgegebenen Schlüsseln (INSERT mit Ifa-Nummer oder UPDATE) für alle Elemente per Batch aus.
+     * @param connectionPool der Pool, aus dem die Verbindung geliehen wird.
+     * @param sql die Anweisung.
+     * @param table der Tabellenname in {@code change_log}.
+     * @param operation die Art der Änderung für {@code change_log}.
+     * @param items die Elemente.
+     * @param binder setzt die Parameter je Element.
+     * @param keyOf liefert den Schlüssel eines Elements für {@code change_log}; protokolliert werden nur Elemente,
+     *              deren Zeilenzahl größer 0 ist oder vom Treiber nicht gemeldet wird.
+     * @return die Anzahl der betroffenen Zeilen, soweit der Treiber sie meldet.
+     * @throws SQLException wenn ein Abschnitt fehlschlägt; es wurde dann nichts geändert.
+     */
+    static <T> int execute(ConnectionPool connectionPool, String sql, String table, ChangeLogEntry.Operation operation,
+                           List<T> items, ParameterBinder<T> binder,
+                           Function<? super T, ?> keyOf) throws SQLException {
+        int[] affected = new int[1];
+        inTransaction(connectionPool, sql, Statement.NO_GENERATED_KEYS, items, binder, (conn, stmt, chunk, counts) -> {
+            List<Object> changedKeys = new ArrayList<>(chunk.size());
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    affected[0] += counts[i];
+                    changedKeys.add(keyOf.apply(chunk.get(i)));
+                } else if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                    // Umgeschriebene Batches melden keine Zeilenzahl; die Anweisung lief ohne Fehler
+                    changedKeys.add(keyOf.apply(chunk.get(i)));
+                }
+            }
+            ChangeTracking.log(conn, table, operation, changedKeys);
+        });
+        return affected[0];
+    }
+
+    @FunctionalInterface
+    private interface ChunkCallback<T> {
+        void afterChunk(Connection conn, PreparedStatement stmt, List<T> chunk, int[] counts) throws SQLException;
+    }
+
+    private static <T> void inTransaction(ConnectionPool connectionPool, String sql, int generatedKeys, List<T> items,
+                                          ParameterBinder<T> binder, ChunkCallback<T> afterChunk) throws SQLException {
+        if (items.isEmpty()) {
+            return;
+        }
+        ChangeTracking.inTransaction(connectionPool, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql, generatedKeys)) {
+                for (int from = 0; from < items.size(); from += BATCH_SIZE) {
+                    List<T> chunk = items.subList(from, Math.min(from + BATCH_SIZE, items.size()));
+                    for (T item : chunk) {
+                        binder.bind(stmt, item);
+                        stmt.addBatch();
+                    }
+                    afterChunk.afterChunk(conn, stmt, chunk, stmt.executeBatch());
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package com.badr.cp_project.dao;
+
+import com.badr.cp_project.util.ConnectionPool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Liest große Ergebnismengen zeilenweise über einen Vorwärts-Cursor, ohne sie im Speicher zu sammeln.
+ * Der Treiber holt jeweils {@link #FETCH_SIZE} Zeilen; bei MySQL ist dafür {@code useCursorFetch=true}
+ * nötig, sonst lädt Connector/J die gesamte Ergebnismenge vorab. Der Parameter gilt nur für die Verbindungen aus
+ * {@link ConnectionPool#getStreamingConnection()}, da er alle Prepared Statements serverseitig vorbereiten lässt.
+ */
+final class JdbcStream {
+
+    static final int FETCH_SIZE = 500;
+
+    private JdbcStream() {
+    }
+
+    /**
+     * Führt eine Abfrage aus und übergibt jede Zeile einzeln an den Empfänger.
+     * Die Verbindung bleibt bis zur letzten Zeile ausgeliehen.
+     * @param connectionPool der Pool, aus dem die Verbindung geliehen wird.
+     * @param sql die Abfrage.
+     * @param mapper bildet eine Zeile auf ein Objekt ab.
+     * @param consumer erhält die Objekte in der Reihenfolge der Abfrage.
+     * @return die Anzahl der gelesenen Zeilen.
+     * @throws SQLException wenn die Abfrage fehlschlägt.
+     */
+    static <T> long forEach(ConnectionPool connectionPool, String sql, RowMapper<T> mapper,
+                            Consumer<? super T> consumer) throws SQLException {
+        long rows = 0;
+        try (Connection conn = connectionPool.getStreamingConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                int[] columns = mapper.resolveColumns(rs);
+                while (rs.next()) {
+                    consumer.accept(mapper.mapRow(rs, columns));
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+}
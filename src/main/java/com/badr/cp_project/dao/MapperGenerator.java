@@ -0,0 +1,168 @@
+package com.badr.cp_project.dao;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Erzeugt zur Laufzeit per ASM {@link RowMapper}-Klassen, die eine Projektion direkt an den Konstruktor
+ * eines Modells übergeben. Der erzeugte Code liest jede Spalte mit dem passenden typisierten Getter über ihren
+ * Index und ruft den Konstruktor ohne Reflection auf; er entspricht damit einem handgeschriebenen Mapper.
+ * <p>
+ * Die Klassen werden als Hidden Classes im Paket der DAOs definiert und je Abfrageform
+ * (Modell und Spaltenliste) nur einmal erzeugt.
+ */
+final class MapperGenerator {
+
+    private static final Logger LOGGER = Logger.getLogger(MapperGenerator.class.getName());
+
+    private static final String ROW_MAPPER = Type.getInternalName(RowMapper.class);
+    private static final String RESULT_SET = Type.getInternalName(ResultSet.class);
+    private static final String MAP_ROW_DESCRIPTOR =
+            Type.getMethodDescriptor(Type.getType(Object.class), Type.getType(ResultSet.class), Type.getType(int[].class));
+
+    private static final Map<Shape, RowMapper<?>> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Eine Spalte der Projektion und der Java-Typ des zugehörigen Konstruktorparameters.
+     * Unterstützt werden {@code String}, {@code int}, {@code long} und alle Typen, die der Treiber
+     * über {@link ResultSet#getObject(int, Class)} liefert (z. B. {@code LocalDate}, {@code LocalTime}).
+     * @param label der Spaltenname in der Abfrage.
+     * @param type der Parametertyp im Konstruktor.
+     */
+    record Column(String label, Class<?> type) {
+    }
+
+    private record Shape(Class<?> model, List<Column> columns) {
+    }
+
+    private MapperGenerator() {
+    }
+
+    static Column column(String label, Class<?> type) {
+        return new Column(label, type);
+    }
+
+    /**
+     * Liefert den Mapper für eine Abfrageform und erzeugt ihn beim ersten Aufruf.
+     * @param model die Modellklasse.
+     * @param columns die Spalten in der Reihenfolge der Konstruktorparameter.
+     * @return der wiederverwendbare Mapper.
+     * @throws IllegalStateException wenn das Modell keinen passenden öffentlichen Konstruktor hat.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> RowMapper<T> mapperFor(Class<T> model, Column... columns) {
+        Shape shape = new Shape(model, List.of(columns));
+        return (RowMapper<T>) CACHE.computeIfAbsent(shape, MapperGenerator::generate);
+    }
+
+    private static RowMapper<?> generate(Shape shape) {
+        Class<?>[] parameterTypes = shape.columns().stream().map(Column::type).toArray(Class<?>[]::new);
+        Constructor<?> constructor;
+        try {
+            constructor = shape.model().getConstructor(parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Kein Konstruktor " + shape.model().getSimpleName()
+                    + Arrays.toString(parameterTypes) + " für die Abfrageform.", e);
+        }
+
+        String className = Type.getInternalName(MapperGenerator.class).replace("MapperGenerator",
+                shape.model().getSimpleName() + "RowMapper$Generated");
+        byte[] bytecode = emit(className, shape, constructor);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytecode, true);
+            RowMapper<?> mapper = (RowMapper<?>) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+            LOGGER.log(Level.FINE, "Mapper für {0} mit {1} Spalten erzeugt.", new Object[]{shape.model().getSimpleName(), parameterTypes.length});
+            return mapper;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Mapper für " + shape.model().getSimpleName() + " konnte nicht erzeugt werden.", e);
+        }
+    }
+
+    private static byte[] emit(String className, Shape shape, Constructor<?> constructor) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null, ROW_MAPPER, null);
+        emitConstructor(cw, shape.columns());
+        emitMapRow(cw, shape.columns(), constructor);
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * {@code Generated() { super(new String[] {label0, label1, ...}); }}
+     */
+    private static void emitConstructor(ClassWriter cw, List<Column> columns) {
+        MethodVisitor mv = cw.visitMethod(0, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        pushInt(mv, columns.size());
+        mv.visitTypeInsn(Opcodes.ANEWARRAY, Type.getInternalName(String.class));
+        for (int i = 0; i < columns.size(); i++) {
+            mv.visitInsn(Opcodes.DUP);
+            pushInt(mv, i);
+            mv.visitLdcInsn(columns.get(i).label());
+            mv.visitInsn(Opcodes.AASTORE);
+        }
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, ROW_MAPPER, "<init>", "([Ljava/lang/String;)V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * {@code Object mapRow(ResultSet rs, int[] columns) { return new Model(rs.getX(columns[0]), ...); }}
+     */
+    private static void emitMapRow(ClassWriter cw, List<Column> columns, Constructor<?> constructor) {
+        String model = Type.getInternalName(constructor.getDeclaringClass());
+        MethodVisitor mv = cw.visitMethod(0, "mapRow", MAP_ROW_DESCRIPTOR, null, new String[]{"java/sql/SQLException"});
+        mv.visitCode();
+        mv.visitTypeInsn(Opcodes.NEW, model);
+        mv.visitInsn(Opcodes.DUP);
+        for (int i = 0; i < columns.size(); i++) {
+            Class<?> type = columns.get(i).type();
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitVarInsn(Opcodes.ALOAD, 2);
+            pushInt(mv, i);
+            mv.visitInsn(Opcodes.IALOAD);
+            if (type == String.class) {
+                mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RESULT_SET, "getString", "(I)Ljava/lang/String;", true);
+            } else if (type == int.class) {
+                mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RESULT_SET, "getInt", "(I)I", true);
+            } else if (type == long.class) {
+                mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RESULT_SET, "getLong", "(I)J", true);
+            } else if (!type.isPrimitive()) {
+                mv.visitLdcInsn(Type.getType(type));
+                mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RESULT_SET, "getObject", "(ILjava/lang/Class;)Ljava/lang/Object;", true);
+                mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+            } else {
+                throw new IllegalStateException("Nicht unterstützter Spaltentyp " + type + " für " + columns.get(i).label());
+            }
+        }
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, model, "<init>", Type.getConstructorDescriptor(constructor), false);
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.badr.cp_project.dao;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bildet Zeilen eines ResultSets auf Objekte ab und greift dabei über Spaltenindizes statt Spaltennamen zu.
+ * Die Namen werden einmal je ResultSet in Indizes aufgelöst ({@link #resolveColumns}); danach kostet jede Zeile
+ * nur noch Indexzugriffe. Instanzen sind zustandslos und werden von den DAOs als Konstanten wiederverwendet;
+ * die Implementierungen erzeugt {@link MapperGenerator}.
+ * @param <T> der Typ der Objekte.
+ */
+abstract class RowMapper<T> {
+
+    private final String[] labels;
+
+    /**
+     * @param labels die benötigten Spaltennamen; ihre Position bestimmt die Stelle im Index-Array von {@link #mapRow}.
+     */
+    RowMapper(String... labels) {
+        this.labels = labels;
+    }
+
+    /**
+     * Löst die Spaltennamen für ein ResultSet in Indizes auf (Groß-/Kleinschreibung wird ignoriert).
+     * @param rs das ResultSet.
+     * @return die Spaltenindizes in der Reihenfolge der Namen aus dem Konstruktor.
+     * @throws SQLException wenn eine benötigte Spalte in der Abfrage fehlt.
+     */
+    final int[] resolveColumns(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        int[] columns = new int[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            for (int column = 1; column <= columnCount && columns[i] == 0; column++) {
+                if (labels[i].equalsIgnoreCase(metaData.getColumnLabel(column))) {
+                    columns[i] = column;
+                }
+            }
+            if (columns[i] == 0) {
+                throw new SQLException("Spalte " + labels[i] + " fehlt in der Abfrage.");
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Bildet die aktuelle Zeile ab.
+     * @param rs das ResultSet, positioniert auf der Zeile.
+     * @param columns die mit {@link #resolveColumns} aufgelösten Spaltenindizes.
+     * @return das abgebildete Objekt.
+     * @throws SQLException wenn ein Fehler beim Zugriff auf die Daten auftritt.
+     */
+    abstract T mapRow(ResultSet rs, int[] columns) throws SQLException;
+
+    /**
+     * Bildet alle verbleibenden Zeilen eines ResultSets ab.
+     * @param rs das ResultSet.
+     * @return die abgebildeten Objekte.
+     * @throws SQLException wenn ein Fehler beim Zugriff auf die Daten auftritt.
+     */
+    final List<T> mapAll(ResultSet rs) throws SQLException {
+        int[] columns = resolveColumns(rs);
+        List<T> result = new ArrayList<>();
+        while (rs.next()) {
+            result.add(mapRow(rs, columns));
+        }
+        return result;
+    }
+
+    /**
+     * @param finisher erhält jedes abgebildete Objekt vor der Rückgabe, z. B. um es nachzubearbeiten.
+     * @return ein Mapper mit denselben Spalten, der jedes Objekt zusätzlich an {@code finisher} übergibt.
+     */
+    final RowMapper<T> peek(Consumer<? super T> finisher) {
+        RowMapper<T> delegate = this;
+        return new RowMapper<>(labels) {
+            @Override
+            T mapRow(ResultSet rs, int[] columns) throws SQLException {
+                T row = delegate.mapRow(rs, columns);
+                finisher.accept(row);
+                return row;
+            }
+        };
+    }
+}
@@ -85,6 +85,10 @@ public class Appointment {
         return appointmentId;
     }
 
+    public void setAppointmentId(int appointmentId) {
+        this.appointmentId = appointmentId;
+    }
+
     public LocalDate getAppointmentDate() {
         return appointmentDate.get();
     }
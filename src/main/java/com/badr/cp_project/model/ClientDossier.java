@@ -0,0 +1,20 @@
+package com.badr.cp_project.model;
+
+import java.util.List;
+
+/**
+ * Unveränderliche Zusammenstellung aller Termine, Dokumentationen und Dateien eines Klienten,
+ * wie sie beim Öffnen der Klientenansicht benötigt wird.
+ * @param ifaNumber die Ifa-Nummer des Klienten.
+ * @param appointments die Termine des Klienten.
+ * @param documents die Dokumentationen des Klienten.
+ * @param files die hochgeladenen Dateien des Klienten.
+ */
+public record ClientDossier(String ifaNumber, List<Appointment> appointments, List<Document> documents, List<File> files) {
+
+    public ClientDossier {
+        appointments = List.copyOf(appointments);
+        documents = List.copyOf(documents);
+        files = List.copyOf(files);
+    }
+}
@@ -13,6 +13,8 @@ public class Document {
     private final SimpleStringProperty documentClientIfaNumber;
     private final SimpleStringProperty dokuTitel;
     private int documentId;
+    // true, wenn nur ein gekürzter Auszug der Beschreibung geladen wurde
+    private boolean descriptionExcerpt;
 
     public Document(int dokumentationsId, LocalDate dokuDatum, LocalTime dokuUhrzeit, String dokuBeschreibung, String dokuKlientenIfaNummer, String dokuTitel) {
         this.documentId = dokumentationsId;
@@ -55,6 +57,14 @@ public class Document {
         return documentDescription;
     }
 
+    public boolean isDescriptionExcerpt() {
+        return descriptionExcerpt;
+    }
+
+    public void setDescriptionExcerpt(boolean descriptionExcerpt) {
+        this.descriptionExcerpt = descriptionExcerpt;
+    }
+
     public String getDocumentClientIfaNumber() {
         return documentClientIfaNumber.get();
     }
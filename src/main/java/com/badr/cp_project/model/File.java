@@ -16,9 +16,12 @@ public class File {
     private final StringProperty fileName;
     private final StringProperty filePath;
     private final StringProperty fileClientIfaNumber;
+    // SHA-256-Hash des Inhalts in der Dateiablage; null bei Dateien aus der Zeit vor der Ablage
+    private String contentHash;
 
     // Vollständiger Konstruktor mit allen Feldern
-    public File(int dokumentId, LocalDate dateiHochladedatum, String dateiTyp, String dateiName, String dateiPfad, String dateiKlientenIfaNummer) {
+    public File(int dokumentId, LocalDate dateiHochladedatum, String dateiTyp, String dateiName, String dateiPfad, String dateiKlientenIfaNummer, String contentHash) {
+        this.contentHash = contentHash;
         this.fileId = new SimpleIntegerProperty(dokumentId);
         this.fileUploadDate = new SimpleObjectProperty<>(dateiHochladedatum);
         this.fileTyp = new SimpleStringProperty(dateiTyp);
@@ -27,6 +30,10 @@ public class File {
         this.fileClientIfaNumber = new SimpleStringProperty(dateiKlientenIfaNummer);
     }
 
+    public File(int dokumentId, LocalDate dateiHochladedatum, String dateiTyp, String dateiName, String dateiPfad, String dateiKlientenIfaNummer) {
+        this(dokumentId, dateiHochladedatum, dateiTyp, dateiName, dateiPfad, dateiKlientenIfaNummer, null);
+    }
+
     // Einfacherer Konstruktor für neue Dateien, bei denen die ID später gesetzt wird
     public File(LocalDate dateiHochladedatum, String dateiTyp, String dateiName, String dateiPfad, String dateiKlientenIfaNummer) {
         this(0, dateiHochladedatum, dateiTyp, dateiName, dateiPfad, dateiKlientenIfaNummer);
@@ -75,4 +82,12 @@ public class File {
         return fileClientIfaNumber.get();
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
 }
@@ -0,0 +1,67 @@
+package com.badr.cp_project.run;
+
+import com.badr.cp_project.dao.ClientDAO;
+import com.badr.cp_project.dao.IfaSequenceDAO;
+import com.badr.cp_project.service.ClientImportService;
+import com.badr.cp_project.service.ClientValidationService;
+import com.badr.cp_project.service.IfaNumberAllocator;
+import com.badr.cp_project.util.ConnectionPool;
+import com.badr.cp_project.util.SchemaMigrator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Startet den CSV-Import von Klienten ohne Oberfläche, z. B. für nächtliche Migrationsläufe.
+ * <p>
+ * Aufruf: {@code ClientImportMain <csv-datei> [<ablehnungsdatei>] [<trennzeichen>]}.
+ * Ohne Ablehnungsdatei werden abgelehnte Zeilen nach {@code <csv-datei>.abgelehnt.csv} geschrieben.
+ * Die Datenbank wird wie bei der Anwendung über {@code database.properties} bzw. {@code -Dcasepilot.db.profile} gewählt.
+ * <p>
+ * Exit-Code 0: alle Zeilen importiert, 1: Zeilen abgelehnt, 2: Aufruf- oder Datenbankfehler.
+ */
+public class ClientImportMain {
+
+    private static final Logger LOGGER = Logger.getLogger(ClientImportMain.class.getName());
+
+    // Größere Blöcke als im Formular, damit der Import nicht alle 20 Klienten die Sequenz sperrt
+    private static final int IMPORT_IFA_BLOCK_SIZE = 1000;
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("Aufruf: ClientImportMain <csv-datei> [<ablehnungsdatei>] [<trennzeichen>]");
+            System.exit(2);
+        }
+        Path csvFile = Path.of(args[0]);
+        Path rejectFile = args.length > 1 ? Path.of(args[1]) : Path.of(args[0] + ".abgelehnt.csv");
+        char delimiter = args.length > 2 && !args[2].isEmpty() ? args[2].charAt(0) : ClientImportService.DEFAULT_DELIMITER;
+
+        int exitCode;
+        ConnectionPool connectionPool = ConnectionPool.getInstance();
+        try {
+            new SchemaMigrator().migrate(connectionPool);
+            ClientImportService importService = new ClientImportService(
+                    new ClientDAO(connectionPool),
+                    new IfaNumberAllocator(new IfaSequenceDAO(connectionPool), IMPORT_IFA_BLOCK_SIZE),
+                    new ClientValidationService());
+            ClientImportService.ImportResult result = importService.importCsv(csvFile, rejectFile, delimiter,
+                    progress -> LOGGER.log(Level.INFO, "Fortschritt: {0} Zeilen gelesen, {1} importiert, {2} abgelehnt.",
+                            new Object[]{progress.processed(), progress.imported(), progress.rejected()}));
+            if (result.rejected() > 0) {
+                LOGGER.log(Level.WARNING, "{0} Zeilen abgelehnt, siehe {1}.", new Object[]{result.rejected(), rejectFile});
+                exitCode = 1;
+            } else {
+                exitCode = 0;
+            }
+        } catch (IOException | SQLException | IllegalStateException e) {
+            LOGGER.log(Level.SEVERE, "Import abgebrochen.", e);
+            exitCode = 2;
+        } finally {
+            ConnectionPool.shutdown();
+        }
+        System.exit(exitCode);
+    }
+}
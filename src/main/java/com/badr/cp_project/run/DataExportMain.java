@@ -0,0 +1,57 @@
+package com.badr.cp_project.run;
+
+import com.badr.cp_project.dao.AppointmentDAO;
+import com.badr.cp_project.dao.ClientDAO;
+import com.badr.cp_project.dao.DocumentDAO;
+import com.badr.cp_project.dao.FileDAO;
+import com.badr.cp_project.service.DataExportService;
+import com.badr.cp_project.util.ConnectionPool;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Exportiert einen Datenbestand ohne Oberfläche.
+ * <p>
+ * Aufruf: {@code DataExportMain <client|appointment|documentation|document> <csv|jsonl> <zieldatei>}.
+ * Endet die Zieldatei auf {@code .gz}, wird komprimiert. Exit-Code 0 bei Erfolg, 2 bei Fehlern.
+ */
+public class DataExportMain {
+
+    private static final Logger LOGGER = Logger.getLogger(DataExportMain.class.getName());
+
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Aufruf: DataExportMain <" + String.join("|", names(DataExportService.Entity.values()))
+                    + "> <" + String.join("|", names(DataExportService.Format.values())) + "> <zieldatei>");
+            System.exit(2);
+        }
+        int exitCode = 0;
+        ConnectionPool connectionPool = ConnectionPool.getInstance();
+        try {
+            DataExportService.Entity entity = DataExportService.Entity.valueOf(args[0].toUpperCase(Locale.ROOT));
+            DataExportService.Format format = DataExportService.Format.valueOf(args[1].toUpperCase(Locale.ROOT));
+            DataExportService exportService = new DataExportService(new ClientDAO(connectionPool),
+                    new AppointmentDAO(connectionPool), new DocumentDAO(connectionPool), new FileDAO(connectionPool));
+            exportService.exportToFile(entity, format, Path.of(args[2]));
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.SEVERE, "Unbekannter Datenbestand oder unbekanntes Format: {0} {1}", new Object[]{args[0], args[1]});
+            exitCode = 2;
+        } catch (IOException | SQLException e) {
+            LOGGER.log(Level.SEVERE, "Export abgebrochen.", e);
+            exitCode = 2;
+        } finally {
+            ConnectionPool.shutdown();
+        }
+        System.exit(exitCode);
+    }
+
+    private static String[] names(Enum<?>[] values) {
+        return Arrays.stream(values).map(value -> value.name().toLowerCase(Locale.ROOT)).toArray(String[]::new);
+    }
+}
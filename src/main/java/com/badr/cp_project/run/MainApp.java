@@ -1,22 +1,99 @@
 package com.badr.cp_project.run;
 
+import com.badr.cp_project.dao.ClientCache;
+import com.badr.cp_project.dao.ClientDAO;
+import com.badr.cp_project.dao.DocumentBodyCache;
+import com.badr.cp_project.dao.FileDAO;
+import com.badr.cp_project.dao.IfaExistenceFilter;
+import com.badr.cp_project.model.Client;
+import com.badr.cp_project.model.Document;
+import com.badr.cp_project.service.ChangeLogPoller;
+import com.badr.cp_project.service.ClientSearchService;
+import com.badr.cp_project.service.DocumentationSearchService;
+import com.badr.cp_project.service.EntityChangeEvent;
+import com.badr.cp_project.service.EventBus;
+import com.badr.cp_project.service.GlobalSearchService;
 import com.badr.cp_project.service.NavigationService;
 import com.badr.cp_project.service.WindowsNaviService;
-import com.badr.cp_project.util.DatabaseConnection;
+import com.badr.cp_project.util.ConnectionPool;
+import com.badr.cp_project.util.SchemaMigrator;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
-import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class MainApp extends Application {
 
     private static final Logger LOGGER = Logger.getLogger(MainApp.class.getName());
-    private  Connection connection;
+
+    private ChangeLogPoller changeLogPoller;
 
     @Override
     public void start(Stage stage) {
+        // Zwischenspeicher und Ifa-Filter übernehmen eigene und fremde Änderungen direkt im veröffentlichenden Thread
+        ClientCache clientCache = ClientCache.getInstance();
+        IfaExistenceFilter ifaFilter = IfaExistenceFilter.getInstance();
+        EventBus.getInstance().subscribe(Client.class, Runnable::run, event -> {
+            if (event.type() == EntityChangeEvent.Type.DELETED) {
+                clientCache.markDeleted((String) event.key());
+            } else {
+                ifaFilter.add((String) event.key());
+                clientCache.put(event.entity());
+            }
+        });
+        DocumentBodyCache bodyCache = DocumentBodyCache.getInstance();
+        EventBus.getInstance().subscribe(Document.class, Runnable::run, event -> {
+            if (event.type() == EntityChangeEvent.Type.DELETED || event.entity().isDescriptionExcerpt()) {
+                bodyCache.invalidate((Integer) event.key());
+            } else {
+                bodyCache.put((Integer) event.key(), event.entity().getDocumentDescription());
+            }
+        });
+        Thread.ofVirtual().name("ifa-filter").start(() -> {
+            try {
+                ifaFilter.build(new ClientDAO(ConnectionPool.getInstance()));
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Ifa-Filter konnte nicht aufgebaut werden, Prüfungen gehen an die Datenbank.", e);
+            }
+        });
+        // Inhalte der Dateiablage entfernen, deren Dateien zusammen mit ihren Klienten gelöscht wurden
+        Thread.ofVirtual().name("blob-cleanup").start(() -> {
+            try {
+                int released = new FileDAO(ConnectionPool.getInstance()).releaseUnreferencedBlobs();
+                LOGGER.log(Level.INFO, "Dateiablage: {0} nicht mehr referenzierte Inhalte entfernt.", released);
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Dateiablage konnte nicht aufgeräumt werden.", e);
+            }
+        });
+        // Suchindizes: erst abonnieren, dann aufbauen, damit keine Änderung zwischen Aufbau und Abonnement verloren geht
+        GlobalSearchService globalSearch = GlobalSearchService.getInstance();
+        globalSearch.subscribe(EventBus.getInstance());
+        DocumentationSearchService documentationSearch = DocumentationSearchService.getInstance();
+        documentationSearch.subscribe(EventBus.getInstance());
+        ClientSearchService clientSearch = ClientSearchService.getInstance();
+        clientSearch.subscribe(EventBus.getInstance());
+        Thread.ofVirtual().name("global-search").start(() -> {
+            try {
+                clientSearch.build(ConnectionPool.getInstance());
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Suchindex der Klienten konnte nicht vollständig aufgebaut werden.", e);
+            }
+            try {
+                globalSearch.build(ConnectionPool.getInstance());
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Globaler Suchindex konnte nicht vollständig aufgebaut werden.", e);
+            }
+            try {
+                documentationSearch.build(ConnectionPool.getInstance());
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Volltextindex der Dokumentationen konnte nicht aufgebaut werden.", e);
+            }
+        });
+        // Änderungen anderer Arbeitsplätze in die geöffneten Ansichten übernehmen
+        changeLogPoller = new ChangeLogPoller(ConnectionPool.getInstance(), EventBus.getInstance());
+        changeLogPoller.start();
         NavigationService navigationService = new NavigationService();
         try {
             // Starte die Anwendung und navigiere zur Home-Seite
@@ -30,31 +107,53 @@ public class MainApp extends Application {
 
     @Override
     public void stop() {
-        // Schließe die Datenbankverbindung, falls diese aktiv ist
-        if (connection != null) {
-            try {
-                connection.close();
-                LOGGER.info("Datenbankverbindung geschlossen.");
-            } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, "Fehler beim Schließen der Datenbankverbindung", e);
-            }
+        if (changeLogPoller != null) {
+            changeLogPoller.close();
         }
+        ClientCache.Stats stats = ClientCache.getInstance().getStats();
+        LOGGER.log(Level.INFO, "Klienten-Zwischenspeicher: {0} Treffer, {1} Fehlzugriffe, {2} verdrängt, {3} Einträge",
+                new Object[]{stats.hits(), stats.misses(), stats.evictions(), stats.size()});
+        IfaExistenceFilter.Stats filterStats = IfaExistenceFilter.getInstance().getStats();
+        LOGGER.log(Level.INFO, "Ifa-Filter: {0} ohne Abfrage beantwortet, Falsch-Positiv-Rate {1} (geschätzt {2})",
+                new Object[]{filterStats.definiteNegatives(), filterStats.observedFalsePositiveRate(),
+                        filterStats.expectedFalsePositiveRate()});
+        // Schließe den Verbindungspool und damit alle offenen Datenbankverbindungen
+        ConnectionPool.shutdown();
     }
 
     public static void main(String[] args) {
         MainApp mainApp = new MainApp();
-        mainApp.initializeDatabaseConnection();
+        if (!mainApp.initializeDatabaseConnection()) {
+            ConnectionPool.shutdown();
+            return;
+        }
         launch();
     }
 
-    private void initializeDatabaseConnection() {
-        DatabaseConnection dbConnection = new DatabaseConnection();
-        connection = dbConnection.connect();
-
-        if (connection != null) {
+    /**
+     * Wärmt den Verbindungspool vor und bringt das Schema auf die erwartete Version.
+     * @return false, wenn keine Verbindung zustande kommt, eine Migration fehlschlägt oder die Schema-Version der
+     *         Datenbank nicht zur Anwendung passt.
+     */
+    private boolean initializeDatabaseConnection() {
+        ConnectionPool connectionPool = ConnectionPool.getInstance();
+        try {
+            // Eine Verbindung ausleihen und sofort zurückgeben, damit der Pool vorgewärmt ist
+            connectionPool.getConnection().close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Datenbankverbindung fehlgeschlagen.", e);
+            return false;
+        }
+        try {
+            new SchemaMigrator().migrate(connectionPool);
             LOGGER.info("Datenbankverbindung ist aktiv.");
-        } else {
-            LOGGER.severe("Datenbankverbindung fehlgeschlagen.");
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Schema-Migration fehlgeschlagen, Start abgebrochen.", e);
+            return false;
+        } catch (IllegalStateException e) {
+            LOGGER.log(Level.SEVERE, "Schema-Version passt nicht zur Anwendung, Start abgebrochen.", e);
+            return false;
         }
+        return true;
     }
 }
@@ -0,0 +1,227 @@
+package com.badr.cp_project.service;
+
+import com.badr.cp_project.dao.AppointmentDAO;
+import com.badr.cp_project.dao.ChangeLogDAO;
+import com.badr.cp_project.dao.ChangeLogEntry;
+import com.badr.cp_project.dao.ClientDAO;
+import com.badr.cp_project.dao.DocumentDAO;
+import com.badr.cp_project.dao.FileDAO;
+import com.badr.cp_project.model.Appointment;
+import com.badr.cp_project.model.Client;
+import com.badr.cp_project.model.Document;
+import com.badr.cp_project.model.File;
+import com.badr.cp_project.util.ConnectionPool;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Verteilt Änderungen anderer Arbeitsplätze über den {@link EventBus}, damit geöffnete Ansichten aktuell bleiben.
+ * Ein Hintergrund-Thread liest das Änderungsprotokoll {@code change_log} in festen Abständen ab der zuletzt
+ * verarbeiteten Nummer, lädt die geänderten Zeilen anhand ihrer Schlüssel nach und veröffentlicht sie.
+ * Eigene Änderungen werden übersprungen, da {@link DataLoadService} sie bereits beim Speichern veröffentlicht.
+ * <p>
+ * Nummern werden beim Einfügen vergeben, aber erst mit dem Festschreiben sichtbar. Eine Lücke kann daher eine noch
+ * laufende Transaktion sein; sie wird bis zu {@link #GAP_TIMEOUT} erneut gelesen, bevor sie als zurückgerollt gilt.
+ */
+public final class ChangeLogPoller implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ChangeLogPoller.class.getName());
+
+    static final Duration POLL_INTERVAL = Duration.ofSeconds(2);
+    static final Duration GAP_TIMEOUT = Duration.ofSeconds(10);
+    static final Duration RETENTION = Duration.ofDays(30);
+    private static final int BATCH_LIMIT = 500;
+
+    private final ChangeLogDAO changeLogDAO;
+    private final ClientDAO clientDAO;
+    private final AppointmentDAO appointmentDAO;
+    private final DocumentDAO documentDAO;
+    private final FileDAO fileDAO;
+    private final EventBus eventBus;
+
+    // Nur vom Poller-Thread benutzt
+    private long safeSequence = -1;
+    private final NavigableSet<Long> seenAboveSafe = new TreeSet<>();
+    private final Map<Long, Long> gapFirstSeenNanos = new HashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public ChangeLogPoller(ConnectionPool connectionPool, EventBus eventBus) {
+        this.changeLogDAO = new ChangeLogDAO(connectionPool);
+        this.clientDAO = new ClientDAO(connectionPool);
+        this.appointmentDAO = new AppointmentDAO(connectionPool);
+        this.documentDAO = new DocumentDAO(connectionPool);
+        this.fileDAO = new FileDAO(connectionPool);
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Startet das Abfragen im Hintergrund. Änderungen vor dem Start werden nicht verteilt.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-log-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.execute(this::purgeSafely);
+        scheduler.scheduleWithFixedDelay(this::pollSafely, 0, POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void purgeSafely() {
+        try {
+            int purged = changeLogDAO.purgeOlderThan(RETENTION);
+            LOGGER.log(Level.FINE, "{0} alte Einträge aus dem Änderungsprotokoll entfernt.", purged);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Änderungsprotokoll konnte nicht aufgeräumt werden.", e);
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (SQLException e) {
+            // Beim nächsten Abruf wird ab derselben Nummer erneut gelesen
+            LOGGER.log(Level.WARNING, "Änderungsprotokoll konnte nicht gelesen werden.", e);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Verteilen von Änderungen anderer Arbeitsplätze.", e);
+        }
+    }
+
+    /**
+     * Liest einmal das Änderungsprotokoll und veröffentlicht die neuen Änderungen anderer Arbeitsplätze.
+     * @throws SQLException wenn das Protokoll oder die geänderten Zeilen nicht gelesen werden können.
+     */
+    void poll() throws SQLException {
+        if (safeSequence < 0) {
+            safeSequence = changeLogDAO.getLatestSequence();
+            return;
+        }
+        List<ChangeLogEntry> fresh = new ArrayList<>();
+        for (ChangeLogEntry entry : changeLogDAO.getEntriesAfter(safeSequence, BATCH_LIMIT)) {
+            if (!seenAboveSafe.contains(entry.sequence())) {
+                fresh.add(entry);
+            }
+        }
+        publish(fresh.stream().filter(entry -> !entry.isLocal()).toList());
+        // Erst nach dem Veröffentlichen merken, damit ein fehlgeschlagenes Nachladen beim nächsten Abruf wiederholt wird
+        fresh.forEach(entry -> seenAboveSafe.add(entry.sequence()));
+        advanceSafeSequence();
+    }
+
+    /**
+     * Schiebt die sichere Nummer über alle verarbeiteten Einträge und über Lücken, die älter als {@link #GAP_TIMEOUT} sind.
+     * Lücken werden über ihre erste fehlende Nummer verfolgt, sodass auch große Sprünge nur einen Eintrag kosten.
+     */
+    private void advanceSafeSequence() {
+        long now = System.nanoTime();
+        Map<Long, Long> openGaps = new HashMap<>();
+        boolean blocked = false;
+        long expected = safeSequence + 1;
+        for (long sequence : List.copyOf(seenAboveSafe)) {
+            if (sequence > expected) {
+                long firstSeen = gapFirstSeenNanos.getOrDefault(expected, now);
+                if (blocked || now - firstSeen < GAP_TIMEOUT.toNanos()) {
+                    openGaps.put(expected, firstSeen);
+                    blocked = true;
+                }
+            }
+            if (!blocked) {
+                seenAboveSafe.remove(sequence);
+                safeSequence = sequence;
+            }
+            expected = sequence + 1;
+        }
+        gapFirstSeenNanos.clear();
+        gapFirstSeenNanos.putAll(openGaps);
+    }
+
+    private void publish(List<ChangeLogEntry> entries) throws SQLException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        // Neue und geänderte Zeilen je Tabelle mit einer Abfrage nachladen
+        Map<String, Set<String>> keysByTable = new HashMap<>();
+        for (ChangeLogEntry entry : entries) {
+            if (entry.operation() != ChangeLogEntry.Operation.DELETE) {
+                keysByTable.computeIfAbsent(entry.tableName(), ignore -> new LinkedHashSet<>()).add(entry.rowKey());
+            }
+        }
+        Map<String, Client> clients = load(keysByTable.get(ClientDAO.TABLE), key -> key,
+                clientDAO::getClientsByIfa, Client::getClientIfaNumber);
+        Map<String, Appointment> appointments = load(keysByTable.get(AppointmentDAO.TABLE), Integer::valueOf,
+                appointmentDAO::getAppointmentsByIds, appointment -> String.valueOf(appointment.getAppointmentId()));
+        Map<String, Document> documents = load(keysByTable.get(DocumentDAO.TABLE), Integer::valueOf,
+                documentDAO::getDocumentsByIds, document -> String.valueOf(document.getDocumentId()));
+        Map<String, File> files = load(keysByTable.get(FileDAO.TABLE), Integer::valueOf,
+                fileDAO::getFilesByIds, file -> String.valueOf(file.getFileId()));
+
+        for (ChangeLogEntry entry : entries) {
+            switch (entry.tableName()) {
+                case ClientDAO.TABLE -> publish(entry, Client.class, entry.rowKey(), clients);
+                case AppointmentDAO.TABLE -> publish(entry, Appointment.class, Integer.valueOf(entry.rowKey()), appointments);
+                case DocumentDAO.TABLE -> publish(entry, Document.class, Integer.valueOf(entry.rowKey()), documents);
+                case FileDAO.TABLE -> publish(entry, File.class, Integer.valueOf(entry.rowKey()), files);
+                default -> LOGGER.log(Level.FINE, "Unbekannte Tabelle im Änderungsprotokoll: {0}", entry.tableName());
+            }
+        }
+    }
+
+    private <T> void publish(ChangeLogEntry entry, Class<T> entityType, Object key, Map<String, T> loaded) {
+        if (entry.operation() == ChangeLogEntry.Operation.DELETE) {
+            eventBus.publish(EntityChangeEvent.deleted(entityType, key));
+            return;
+        }
+        T entity = loaded.get(entry.rowKey());
+        if (entity == null) {
+            // Inzwischen gelöscht; die Löschung folgt als eigener Eintrag
+            return;
+        }
+        eventBus.publish(entry.operation() == ChangeLogEntry.Operation.INSERT
+                ? EntityChangeEvent.created(entityType, key, entity)
+                : EntityChangeEvent.updated(entityType, key, entity));
+    }
+
+    @FunctionalInterface
+    private interface KeyLoader<K, T> {
+        List<T> load(List<K> keys) throws SQLException;
+    }
+
+    private static <K, T> Map<String, T> load(Set<String> rowKeys, Function<String, K> keyParser,
+                                              KeyLoader<K, T> loader, Function<T, String> rowKeyOf) throws SQLException {
+        Map<String, T> loaded = new HashMap<>();
+        if (rowKeys == null) {
+            return loaded;
+        }
+        for (T entity : loader.load(rowKeys.stream().map(keyParser).toList())) {
+            loaded.put(rowKeyOf.apply(entity), entity);
+        }
+        return loaded;
+    }
+}
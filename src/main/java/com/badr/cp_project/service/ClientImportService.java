@@ -0,0 +1,258 @@
+package com.badr.cp_project.service;
+
+import com.badr.cp_project.dao.ClientDAO;
+import com.badr.cp_project.model.Client;
+import com.badr.cp_project.util.CsvReader;
+import com.badr.cp_project.util.CsvWriter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Importiert Klienten aus einer CSV-Datei. Die Datei wird zeilenweise gelesen und in Batches
+ * über {@link ClientDAO#saveAll} geschrieben, der Speicherbedarf hängt daher nicht von der Dateigröße ab.
+ * Zeilen, die die Prüfregeln des Klientenformulars verletzen oder nicht gespeichert werden können,
+ * landen mit Zeilennummer und Grund in einer Ablehnungsdatei.
+ * <p>
+ * Erwartet wird eine Kopfzeile mit den Spalten {@code lastName, firstName, birthDate, nationality, gender,
+ * relationshipStatus} (oder den deutschen Bezeichnungen); die Reihenfolge ist beliebig.
+ * Jeder importierte Klient erhält eine neue Ifa-Nummer.
+ */
+public class ClientImportService {
+
+    private static final Logger LOGGER = Logger.getLogger(ClientImportService.class.getName());
+
+    public static final char DEFAULT_DELIMITER = ';';
+    private static final int BATCH_SIZE = 500;
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ofPattern("dd.MM.uuuu").withResolverStyle(ResolverStyle.STRICT), DateTimeFormatter.ISO_LOCAL_DATE);
+
+    private static final String LAST_NAME = "lastName";
+    private static final String FIRST_NAME = "firstName";
+    private static final String BIRTH_DATE = "birthDate";
+    private static final String NATIONALITY = "nationality";
+    private static final String GENDER = "gender";
+    private static final String RELATIONSHIP_STATUS = "relationshipStatus";
+    private static final Map<String, String> COLUMN_ALIASES = Map.ofEntries(
+            Map.entry("lastname", LAST_NAME), Map.entry("nachname", LAST_NAME), Map.entry("name", LAST_NAME),
+            Map.entry("firstname", FIRST_NAME), Map.entry("vorname", FIRST_NAME),
+            Map.entry("birthdate", BIRTH_DATE), Map.entry("geburtsdatum", BIRTH_DATE),
+            Map.entry("nationality", NATIONALITY), Map.entry("nationalität", NATIONALITY),
+            Map.entry("gender", GENDER), Map.entry("geschlecht", GENDER),
+            Map.entry("relationshipstatus", RELATIONSHIP_STATUS), Map.entry("beziehungsstatus", RELATIONSHIP_STATUS));
+
+    /**
+     * Wird nach jedem geschriebenen Batch und am Ende des Imports aufgerufen.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(ImportResult progress);
+    }
+
+    /**
+     * Zwischen- oder Endstand eines Imports.
+     * @param processed die Anzahl der gelesenen Datenzeilen.
+     * @param imported die Anzahl der gespeicherten Klienten.
+     * @param rejected die Anzahl der abgelehnten Zeilen.
+     */
+    public record ImportResult(long processed, long imported, long rejected) {
+    }
+
+    private final ClientDAO clientDAO;
+    private final IfaNumberAllocator ifaNumberAllocator;
+    private final ClientValidationService clientValidationService;
+
+    public ClientImportService(ClientDAO clientDAO, IfaNumberAllocator ifaNumberAllocator,
+                               ClientValidationService clientValidationService) {
+        this.clientDAO = clientDAO;
+        this.ifaNumberAllocator = ifaNumberAllocator;
+        this.clientValidationService = clientValidationService;
+    }
+
+    /**
+     * Importiert alle Klienten aus einer CSV-Datei (UTF-8).
+     * @param csvFile die zu importierende Datei.
+     * @param rejectFile die Datei, in die abgelehnte Zeilen geschrieben werden.
+     * @param delimiter das Trennzeichen, z. B. {@link #DEFAULT_DELIMITER}.
+     * @param listener erhält den Fortschritt.
+     * @return der Endstand des Imports.
+     * @throws IOException wenn die Dateien nicht gelesen oder geschrieben werden können oder Pflichtspalten fehlen.
+     * @throws SQLException wenn keine Ifa-Nummern reserviert werden können.
+     */
+    public ImportResult importCsv(Path csvFile, Path rejectFile, char delimiter, ProgressListener listener)
+            throws IOException, SQLException {
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(csvFile, StandardCharsets.UTF_8), delimiter);
+             CsvWriter rejects = new CsvWriter(Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8), delimiter)) {
+            List<String> header = reader.readRecord();
+            if (header == null) {
+                throw new IOException("Die Datei " + csvFile + " ist leer.");
+            }
+            Map<String, Integer> columns = mapColumns(header);
+            List<String> rejectHeader = new ArrayList<>(header);
+            rejectHeader.addAll(0, List.of("zeile", "fehler"));
+            rejects.writeRecord(rejectHeader);
+
+            ImportRun run = new ImportRun(rejects, listener);
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                run.processed++;
+                long line = reader.getLineNumber();
+                Optional<String> error = parse(record, columns, line, run);
+                if (error.isPresent()) {
+                    run.reject(line, record, error.get());
+                }
+            }
+            run.flush();
+            ImportResult result = run.result();
+            LOGGER.log(Level.INFO, "Import abgeschlossen: {0} Zeilen, {1} importiert, {2} abgelehnt.",
+                    new Object[]{result.processed(), result.imported(), result.rejected()});
+            return result;
+        }
+    }
+
+    private Map<String, Integer> mapColumns(List<String> header) throws IOException {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = COLUMN_ALIASES.get(header.get(i).trim().toLowerCase(Locale.GERMAN));
+            if (column != null) {
+                columns.putIfAbsent(column, i);
+            }
+        }
+        for (String required : List.of(LAST_NAME, FIRST_NAME, BIRTH_DATE, GENDER, RELATIONSHIP_STATUS)) {
+            if (!columns.containsKey(required)) {
+                throw new IOException("Pflichtspalte fehlt in der Kopfzeile: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private Optional<String> parse(List<String> record, Map<String, Integer> columns, long line, ImportRun run)
+            throws SQLException, IOException {
+        String lastName = field(record, columns, LAST_NAME);
+        String firstName = field(record, columns, FIRST_NAME);
+        String birthDateText = field(record, columns, BIRTH_DATE);
+        String nationality = field(record, columns, NATIONALITY);
+        String gender = field(record, columns, GENDER);
+        String relationshipStatus = field(record, columns, RELATIONSHIP_STATUS);
+
+        LocalDate birthDate = parseDate(birthDateText);
+        if (birthDate == null && birthDateText != null && !birthDateText.isEmpty()) {
+            return Optional.of("Ungültiges Geburtsdatum: " + birthDateText);
+        }
+        Optional<String> error = clientValidationService.validateImport(lastName, firstName, birthDate, nationality, gender, relationshipStatus);
+        if (error.isPresent()) {
+            return error;
+        }
+        run.add(new Client(ifaNumberAllocator.nextIfaNumber(), lastName, firstName, birthDate,
+                nationality, gender, relationshipStatus), line, record);
+        return Optional.empty();
+    }
+
+    private String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() && NATIONALITY.equals(column) ? null : value;
+    }
+
+    private LocalDate parseDate(String text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(text, format);
+            } catch (DateTimeParseException ignored) {
+                // nächstes Format versuchen
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Zustand eines laufenden Imports: der aktuelle Batch und die Zähler.
+     */
+    private final class ImportRun {
+        private final CsvWriter rejects;
+        private final ProgressListener listener;
+        private final List<Client> pending = new ArrayList<>(BATCH_SIZE);
+        private final List<Long> pendingLines = new ArrayList<>(BATCH_SIZE);
+        private final List<List<String>> pendingRecords = new ArrayList<>(BATCH_SIZE);
+        private long processed;
+        private long imported;
+        private long rejected;
+
+        private ImportRun(CsvWriter rejects, ProgressListener listener) {
+            this.rejects = rejects;
+            this.listener = listener;
+        }
+
+        /**
+         * Nimmt einen gültigen Klienten in den Batch auf; die Zeile wird für eine mögliche Ablehnung gemerkt.
+         */
+        private void add(Client client, long line, List<String> record) throws IOException {
+            pending.add(client);
+            pendingLines.add(line);
+            pendingRecords.add(record);
+            if (pending.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void reject(long line, List<String> record, String reason) throws IOException {
+            rejected++;
+            List<String> row = new ArrayList<>(record.size() + 2);
+            row.add(String.valueOf(line));
+            row.add(reason);
+            row.addAll(record);
+            rejects.writeRecord(row);
+        }
+
+        private void flush() throws IOException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                clientDAO.saveAll(pending);
+                imported += pending.size();
+            } catch (SQLException batchError) {
+                // Den fehlerhaften Batch zeilenweise wiederholen, damit nur die betroffenen Zeilen abgelehnt werden
+                LOGGER.log(Level.WARNING, "Batch konnte nicht gespeichert werden, wiederhole zeilenweise.", batchError);
+                for (int i = 0; i < pending.size(); i++) {
+                    try {
+                        clientDAO.saveAll(List.of(pending.get(i)));
+                        imported++;
+                    } catch (SQLException rowError) {
+                        reject(pendingLines.get(i), pendingRecords.get(i), rowError.getMessage());
+                    }
+                }
+            }
+            pending.clear();
+            pendingLines.clear();
+            pendingRecords.clear();
+            rejects.flush();
+            listener.onProgress(result());
+        }
+
+        private ImportResult result() {
+            return new ImportResult(processed, imported, rejected);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.badr.cp_project.service;
+
+import com.badr.cp_project.dao.ClientDAO;
+import com.badr.cp_project.model.Client;
+import com.badr.cp_project.util.ConnectionPool;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Suche über alle Klienten für das Suchfeld der Startseite, unabhängig davon, welche Seiten der Klientenliste gerade
+ * geladen sind. Je Klient werden nur Ifa-Nummer, Namen und Geburtsdatum in einem {@link SearchIndex} mit unscharfer
+ * Namenssuche gehalten; die Startseite lädt die Klienten der Treffer anschließend über ihre Ifa-Nummern.
+ * Der Index wird einmal über einen Vorwärts-Cursor aufgebaut und folgt danach den Ereignissen des {@link EventBus}.
+ * Alle Methoden sind threadsicher.
+ */
+public final class ClientSearchService {
+
+    private static final Logger LOGGER = Logger.getLogger(ClientSearchService.class.getName());
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private static final ClientSearchService INSTANCE = new ClientSearchService();
+
+    private record Key(String ifaNumber, String lastName, String firstName, LocalDate dateOfBirth) {
+    }
+
+    private final SearchIndex<Key> index = new SearchIndex<>(ClientSearchService::fields,
+            key -> Arrays.asList(key.lastName(), key.firstName()));
+    private final Map<String, Key> keys = new HashMap<>();
+    // Während des Aufbaus geänderte Klienten; der Aufbau überschreibt sie nicht mit dem älteren Stand
+    private Set<String> changedDuringBuild;
+
+    ClientSearchService() {
+    }
+
+    public static ClientSearchService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Übernimmt künftig alle Änderungen an Klienten aus dem {@link EventBus}, direkt im veröffentlichenden Thread.
+     * @param eventBus der EventBus.
+     */
+    public void subscribe(EventBus eventBus) {
+        eventBus.subscribe(Client.class, Runnable::run, this::apply);
+    }
+
+    /**
+     * Liest alle Klienten über einen Vorwärts-Cursor in den Index. Änderungen, die währenddessen gemeldet werden,
+     * bleiben erhalten.
+     * @param connectionPool der Verbindungspool.
+     * @throws SQLException wenn die Klienten nicht gelesen werden können; bis dahin gelesene bleiben im Index.
+     */
+    public void build(ConnectionPool connectionPool) throws SQLException {
+        synchronized (this) {
+            changedDuringBuild = new HashSet<>();
+        }
+        try {
+            long count = new ClientDAO(connectionPool).forEachClient(this::putFromBuild);
+            LOGGER.log(Level.INFO, "Suchindex der Klienten mit {0} Einträgen aufgebaut.", count);
+        } finally {
+            synchronized (this) {
+                changedDuringBuild = null;
+            }
+        }
+    }
+
+    /**
+     * Sucht Klienten, bei denen jeder Suchbegriff in Ifa-Nummer, Namen oder Geburtsdatum vorkommt oder einem Namen
+     * phonetisch bzw. mit kleiner Distanz entspricht.
+     * @param query die Eingabe des Benutzers.
+     * @param limit die höchste Anzahl der Treffer.
+     * @return die Ifa-Nummern der Treffer, genaue vor unscharfen; leer ohne Suchbegriff.
+     */
+    public synchronized List<String> search(String query, int limit) {
+        return index.find(query, limit).stream().map(Key::ifaNumber).toList();
+    }
+
+    public synchronized int size() {
+        return keys.size();
+    }
+
+    /**
+     * Nimmt einen Klienten auf oder ersetzt seinen bisherigen Eintrag.
+     * @param client der Klient.
+     */
+    synchronized void put(Client client) {
+        remove(client.getClientIfaNumber());
+        Key key = new Key(client.getClientIfaNumber(), client.getClientLastname(), client.getClientFirstname(),
+                client.getClientDateOfBirth());
+        keys.put(key.ifaNumber(), key);
+        index.add(key);
+    }
+
+    private synchronized void apply(EntityChangeEvent<Client> event) {
+        String ifaNumber = (String) event.key();
+        if (changedDuringBuild != null) {
+            changedDuringBuild.add(ifaNumber);
+        }
+        if (event.type() == EntityChangeEvent.Type.DELETED) {
+            remove(ifaNumber);
+        } else {
+            put(event.entity());
+        }
+    }
+
+    private synchronized void putFromBuild(Client client) {
+        if (changedDuringBuild == null || !changedDuringBuild.contains(client.getClientIfaNumber())) {
+            put(client);
+        }
+    }
+
+    private void remove(String ifaNumber) {
+        Key key = keys.remove(ifaNumber);
+        if (key != null) {
+            index.remove(key);
+        }
+    }
+
+    private static List<String> fields(Key key) {
+        return Arrays.asList(key.ifaNumber(), key.lastName(), key.firstName(),
+                key.dateOfBirth() == null ? null : key.dateOfBirth().toString(),
+                key.dateOfBirth() == null ? null : DATE_FORMAT.format(key.dateOfBirth()));
+    }
+}
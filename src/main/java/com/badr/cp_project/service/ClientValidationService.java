@@ -0,0 +1,74 @@
+package com.badr.cp_project.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Prüfregeln für Klientendaten, gemeinsam genutzt vom Klientenformular und vom CSV-Import.
+ */
+public class ClientValidationService {
+
+    public static final String DEFAULT_SELECTION_PROMPT = "Bitte auswählen...";
+    public static final List<String> GENDERS = List.of("Männlich", "Weiblich", "Diverses");
+    public static final List<String> RELATIONSHIP_STATUSES = List.of("Verheiratet", "Ledig", "Verwitwet");
+
+    // Spaltenbreite von lastName, firstName und nationality im Schema
+    private static final int MAX_NAME_LENGTH = 100;
+
+    /**
+     * Prüft die Eingaben des Klientenformulars: Pflichtfelder und eine getroffene Auswahl bei Geschlecht und
+     * Beziehungsstatus.
+     * @param name der Nachname.
+     * @param vorname der Vorname.
+     * @param geburtsdatum das Geburtsdatum.
+     * @param geschlecht das Geschlecht.
+     * @param beziehungsstatus der Beziehungsstatus.
+     * @return die Fehlermeldung für den ersten Verstoß oder leer, wenn alle Eingaben gültig sind.
+     */
+    public Optional<String> validate(String name, String vorname, LocalDate geburtsdatum, String geschlecht,
+                                     String beziehungsstatus) {
+        if (isEmpty(name) || isEmpty(vorname) || geburtsdatum == null) {
+            return Optional.of("Bitte füllen Sie alle erforderlichen Felder aus.");
+        }
+        if (DEFAULT_SELECTION_PROMPT.equals(geschlecht) || DEFAULT_SELECTION_PROMPT.equals(beziehungsstatus)) {
+            return Optional.of("Bitte wählen Sie ein gültiges Geschlecht und einen Beziehungsstatus aus.");
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Prüft eine Zeile des CSV-Imports: dieselben Regeln wie {@link #validate} und zusätzlich Regeln nur für den
+     * Import, da die Werte nicht aus den Eingabefeldern stammen. Geschlecht und Beziehungsstatus müssen Werte der
+     * Auswahllisten sein, Namen in die Spalten passen, und das Geburtsdatum darf nicht in der Zukunft liegen.
+     * @param name der Nachname.
+     * @param vorname der Vorname.
+     * @param geburtsdatum das Geburtsdatum.
+     * @param nationalitaet die Nationalität (optional).
+     * @param geschlecht das Geschlecht, eines von {@link #GENDERS}.
+     * @param beziehungsstatus der Beziehungsstatus, einer von {@link #RELATIONSHIP_STATUSES}.
+     * @return die Fehlermeldung für den ersten Verstoß oder leer, wenn alle Eingaben gültig sind.
+     */
+    public Optional<String> validateImport(String name, String vorname, LocalDate geburtsdatum, String nationalitaet,
+                                           String geschlecht, String beziehungsstatus) {
+        Optional<String> error = validate(name, vorname, geburtsdatum, geschlecht, beziehungsstatus);
+        if (error.isPresent()) {
+            return error;
+        }
+        if (!GENDERS.contains(geschlecht) || !RELATIONSHIP_STATUSES.contains(beziehungsstatus)) {
+            return Optional.of("Bitte wählen Sie ein gültiges Geschlecht und einen Beziehungsstatus aus.");
+        }
+        if (name.length() > MAX_NAME_LENGTH || vorname.length() > MAX_NAME_LENGTH
+                || (nationalitaet != null && nationalitaet.length() > MAX_NAME_LENGTH)) {
+            return Optional.of("Name, Vorname und Nationalität dürfen höchstens " + MAX_NAME_LENGTH + " Zeichen lang sein.");
+        }
+        if (geburtsdatum.isAfter(LocalDate.now())) {
+            return Optional.of("Das Geburtsdatum darf nicht in der Zukunft liegen.");
+        }
+        return Optional.empty();
+    }
+
+    private boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -0,0 +1,159 @@
+package com.badr.cp_project.service;
+
+import com.badr.cp_project.dao.AppointmentDAO;
+import com.badr.cp_project.dao.ClientDAO;
+import com.badr.cp_project.dao.DocumentDAO;
+import com.badr.cp_project.dao.FileDAO;
+import com.badr.cp_project.util.CsvWriter;
+import com.badr.cp_project.util.JsonLinesWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportiert ganze Tabellen als CSV oder JSON Lines. Die Zeilen werden über Vorwärts-Cursor der DAOs gelesen
+ * und sofort geschrieben, der Speicherbedarf bleibt daher unabhängig von der Tabellengröße konstant.
+ */
+public class DataExportService {
+
+    private static final Logger LOGGER = Logger.getLogger(DataExportService.class.getName());
+    private static final char CSV_DELIMITER = ';';
+
+    /**
+     * Die exportierbaren Datenbestände.
+     */
+    public enum Entity {
+        CLIENT(List.of("ifaNumber", "lastName", "firstName", "birthDate", "nationality", "gender", "relationshipStatus")),
+        APPOINTMENT(List.of("appointmentId", "date", "time", "address", "institution", "priority", "status",
+                "clientIfaNumber", "clientLastName", "clientFirstName")),
+        DOCUMENTATION(List.of("documentationId", "date", "time", "title", "description", "clientIfaNumber")),
+        DOCUMENT(List.of("documentId", "fileName", "fileType", "uploadDate", "filePath", "clientIfaNumber", "contentHash"));
+
+        private final List<String> columns;
+
+        Entity(List<String> columns) {
+            this.columns = columns;
+        }
+
+        public List<String> getColumns() {
+            return columns;
+        }
+    }
+
+    /**
+     * Die unterstützten Ausgabeformate.
+     */
+    public enum Format {
+        CSV, JSONL
+    }
+
+    private final ClientDAO clientDAO;
+    private final AppointmentDAO appointmentDAO;
+    private final DocumentDAO documentDAO;
+    private final FileDAO fileDAO;
+
+    public DataExportService(ClientDAO clientDAO, AppointmentDAO appointmentDAO, DocumentDAO documentDAO, FileDAO fileDAO) {
+        this.clientDAO = clientDAO;
+        this.appointmentDAO = appointmentDAO;
+        this.documentDAO = documentDAO;
+        this.fileDAO = fileDAO;
+    }
+
+    /**
+     * Exportiert einen Datenbestand in eine Datei. Endet der Dateiname auf {@code .gz}, wird gzip-komprimiert.
+     * @param entity der zu exportierende Datenbestand.
+     * @param format das Ausgabeformat.
+     * @param target die Zieldatei; sie wird überschrieben.
+     * @return die Anzahl der exportierten Zeilen.
+     * @throws IOException wenn die Datei nicht geschrieben werden kann.
+     * @throws SQLException wenn die Daten nicht gelesen werden können.
+     */
+    public long exportToFile(Entity entity, Format format, Path target) throws IOException, SQLException {
+        boolean gzip = target.getFileName().toString().endsWith(".gz");
+        try (OutputStream file = Files.newOutputStream(target);
+             OutputStream out = gzip ? new GZIPOutputStream(file, 64 * 1024) : file) {
+            long rows = export(entity, format, out);
+            LOGGER.log(Level.INFO, "{0} Zeilen aus {1} nach {2} exportiert.", new Object[]{rows, entity, target});
+            return rows;
+        }
+    }
+
+    /**
+     * Exportiert einen Datenbestand in einen Stream (UTF-8). Der Stream wird geleert, aber nicht geschlossen.
+     * @param entity der zu exportierende Datenbestand.
+     * @param format das Ausgabeformat.
+     * @param out der Ziel-Stream, z. B. ein {@link GZIPOutputStream}.
+     * @return die Anzahl der exportierten Zeilen.
+     * @throws IOException wenn nicht geschrieben werden kann.
+     * @throws SQLException wenn die Daten nicht gelesen werden können.
+     */
+    public long export(Entity entity, Format format, OutputStream out) throws IOException, SQLException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowSink sink = switch (format) {
+            case CSV -> csvSink(writer, entity.getColumns());
+            case JSONL -> jsonLinesSink(writer, entity.getColumns());
+        };
+        try {
+            long rows = switch (entity) {
+                case CLIENT -> clientDAO.forEachClient(client -> write(sink,
+                        client.getClientIfaNumber(), client.getClientLastname(), client.getClientFirstname(),
+                        client.getClientDateOfBirth(), client.getClientNationality(), client.getClientGender(),
+                        client.getClientRelationshipStatus()));
+                case APPOINTMENT -> appointmentDAO.forEachAppointment(appointment -> write(sink,
+                        appointment.getAppointmentId(), appointment.getAppointmentDate(), appointment.getAppointmentTime(),
+                        appointment.getAppointmentAddress(), appointment.getAppointmentInstitution(),
+                        appointment.getAppointmentPriority(), appointment.getAppointmentStatus(),
+                        appointment.getAppointmentClientIfaNumber(), appointment.getAppointmentClientLastname(),
+                        appointment.getAppointmentClientFirstname()));
+                case DOCUMENTATION -> documentDAO.forEachDocument(document -> write(sink,
+                        document.getDocumentId(), document.getDocumentDate(), document.getDocumentTime(),
+                        document.getDokuTitel(), document.getDocumentDescription(), document.getDocumentClientIfaNumber()));
+                case DOCUMENT -> fileDAO.forEachFile(file -> write(sink,
+                        file.getFileId(), file.getFileName(), file.getFileTyp(), file.getFileUploadDate(),
+                        file.getFilePath(), file.getFileClientIfaNumber(), file.getContentHash()));
+            };
+            writer.flush();
+            return rows;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSink {
+        void write(List<Object> values) throws IOException;
+    }
+
+    private RowSink csvSink(Writer writer, List<String> columns) throws IOException {
+        CsvWriter csv = new CsvWriter(writer, CSV_DELIMITER);
+        csv.writeRecord(columns);
+        return values -> csv.writeRecord(values.stream().map(value -> value == null ? null : value.toString()).toList());
+    }
+
+    private RowSink jsonLinesSink(Writer writer, List<String> columns) {
+        JsonLinesWriter json = new JsonLinesWriter(writer);
+        return values -> json.writeObject(columns, values);
+    }
+
+    // Die DAO-Callbacks dürfen keine geprüften Ausnahmen werfen, daher wird IOException hier verpackt
+    private void write(RowSink sink, Object... values) {
+        try {
+            sink.write(Arrays.asList(values));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -4,74 +4,294 @@ import com.badr.cp_project.dao.FileDAO;
 import com.badr.cp_project.dao.DocumentDAO;
 import com.badr.cp_project.dao.ClientDAO;
 import com.badr.cp_project.dao.AppointmentDAO;
+import com.badr.cp_project.dao.AppointmentFilter;
+import com.badr.cp_project.dao.ClientDossierDAO;
 import com.badr.cp_project.model.File;
 import com.badr.cp_project.model.Document;
 import com.badr.cp_project.model.Client;
 import com.badr.cp_project.model.Appointment;
+import com.badr.cp_project.model.ClientDossier;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.scene.Node;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
+import javafx.stage.Window;
 
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class DataLoadService {
 
     private static final Logger LOGGER = Logger.getLogger(DataLoadService.class.getName());
+    private static final String STATUS_OFFEN = "Offen";
+    private static final int PAGE_SIZE = 100;
+    private static final int CLIENT_SEARCH_LIMIT = 500;
+
+    // Sortierungen, in denen die Listen geladen werden; Änderungen werden in derselben Reihenfolge eingearbeitet
+    public static final Comparator<Client> CLIENT_BY_IFA = Comparator.comparing(Client::getClientIfaNumber);
+    public static final Comparator<Appointment> APPOINTMENT_BY_ID = Comparator.comparingInt(Appointment::getAppointmentId);
+    public static final Comparator<Appointment> APPOINTMENT_BY_DATE = Comparator.comparing(Appointment::getAppointmentDate)
+            .thenComparing(Appointment::getAppointmentTime)
+            .thenComparing(APPOINTMENT_BY_ID);
+    public static final Comparator<Document> DOCUMENT_BY_ID = Comparator.comparingInt(Document::getDocumentId);
+    public static final Comparator<Document> DOCUMENT_BY_DATE = Comparator.comparing(Document::getDocumentDate)
+            .thenComparing(Document::getDocumentTime)
+            .thenComparing(DOCUMENT_BY_ID);
+    public static final Predicate<Appointment> OPEN_APPOINTMENT =
+            termin -> STATUS_OFFEN.equals(AppointmentDAO.normalizeStatus(termin.getAppointmentStatus()));
+    public static final Comparator<File> FILE_BY_UPLOAD_DATE = Comparator.comparing(File::getFileUploadDate)
+            .thenComparingInt(File::getFileId);
+
+    // Datenbankzugriffe laufen in virtuellen Threads, damit der JavaFX-Thread nie blockiert
+    private static final ExecutorService BACKGROUND_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    // Schreibvorgänge getrennt davon: Sie werden nicht als Ladevorgänge geführt und beim Navigieren nicht abgebrochen
+    private static final ExecutorService WRITE_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
     private final UtilityService utilityService;
+    private final EventBus eventBus;
+    private final Set<CompletableFuture<?>> pendingLoads = ConcurrentHashMap.newKeySet();
 
     public DataLoadService(UtilityService utilityService) {
         this.utilityService = utilityService;
+        this.eventBus = EventBus.getInstance();
     }
 
     private <T> ObservableList<T> toObservableList(List<T> list) {
         return FXCollections.observableArrayList(list);
     }
 
-    public ObservableList<Client> loadClientData(ClientDAO clientDAO) {
-        return executeWithLogging(() -> toObservableList(clientDAO.getAllClient()), "Klientendaten");
+    /**
+     * Führt einen Ladevorgang in einem virtuellen Thread aus und schließt das Ergebnis im JavaFX-Thread ab.
+     * Abhängige Aktionen wie {@code thenAccept} laufen daher ebenfalls im JavaFX-Thread.
+     * Ein Abbruch des Futures unterbricht den Hintergrund-Thread.
+     * @param loader der Ladevorgang, z. B. ein DAO-Aufruf.
+     * @param contextMessage Beschreibung für das Logging.
+     * @param <T> der Typ des Ergebnisses.
+     * @return ein Future, das im JavaFX-Thread abgeschlossen wird.
+     */
+    public <T> CompletableFuture<T> loadAsync(Callable<T> loader, String contextMessage) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        pendingLoads.add(result);
+        Future<?> task = BACKGROUND_EXECUTOR.submit(() -> {
+            try {
+                T value = loader.call();
+                Platform.runLater(() -> result.complete(value));
+            } catch (Exception e) {
+                if (!result.isCancelled()) {
+                    LOGGER.log(Level.SEVERE, "Fehler beim Laden der " + contextMessage, e);
+                }
+                Platform.runLater(() -> result.completeExceptionally(e));
+            }
+        });
+        result.whenComplete((ignore, ignore2) -> {
+            pendingLoads.remove(result);
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
     }
 
-    public ObservableList<Appointment> loadAllAppointment(AppointmentDAO appointmentDAO) {
-        return executeWithLogging(() -> toObservableList(appointmentDAO.getAllAppointment()), "Termindaten");
+    /**
+     * Führt einen Schreibvorgang in einem virtuellen Thread aus und schließt das Ergebnis im JavaFX-Thread ab.
+     * Anders als {@link #loadAsync} wird er beim Navigieren nicht abgebrochen, und auch ein Abbruch des Futures
+     * unterbricht ihn nicht; was danach veröffentlicht werden muss, gehört daher in den Schreibvorgang selbst.
+     * @param writer der Schreibvorgang, z. B. ein DAO-Aufruf.
+     * @param contextMessage Beschreibung für das Logging.
+     * @param <T> der Typ des Ergebnisses.
+     * @return ein Future, das im JavaFX-Thread abgeschlossen wird.
+     */
+    private <T> CompletableFuture<T> writeAsync(Callable<T> writer, String contextMessage) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        WRITE_EXECUTOR.execute(() -> {
+            try {
+                T value = writer.call();
+                Platform.runLater(() -> result.complete(value));
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Fehler beim Speichern der " + contextMessage, e);
+                Platform.runLater(() -> result.completeExceptionally(e));
+            }
+        });
+        return result;
     }
 
-    public ObservableList<Appointment> loadOffeneAppointment(AppointmentDAO appointmentDAO) {
-        return executeWithLogging(() -> {
-            List<Appointment> termine = appointmentDAO.getAllAppointment();
-            List<Appointment> offeneTermine = List.copyOf(
-                    termine.stream()
-                            .filter(termin -> "Offen".equalsIgnoreCase(termin.getAppointmentStatus()))
-                            .toList()
-            );
-            return toObservableList(offeneTermine);
-        }, "offene Termine");
+    /**
+     * Bricht alle noch laufenden Ladevorgänge dieses Services ab. Ihre Ergebnisse werden verworfen.
+     */
+    public void cancelPendingLoads() {
+        if (!pendingLoads.isEmpty()) {
+            LOGGER.log(Level.FINE, "Breche {0} laufende Ladevorgänge ab.", pendingLoads.size());
+        }
+        pendingLoads.forEach(future -> future.cancel(true));
     }
 
-    public ObservableList<Appointment> loadTermineByClientIfaNumber(AppointmentDAO appointmentDAO, String ifaNumber) {
-        return executeWithLogging(() -> toObservableList(appointmentDAO.getAppointmentByClientIfa(ifaNumber)),
+    /**
+     * Bricht die laufenden Ladevorgänge ab, sobald die Szene des Knotens nicht mehr angezeigt wird,
+     * also wenn der Benutzer zu einer anderen Seite navigiert.
+     * @param node ein beliebiger Knoten der Seite, z. B. eine Tabelle.
+     */
+    public void cancelPendingLoadsOnNavigation(Node node) {
+        onNavigationAway(node, this::cancelPendingLoads);
+    }
+
+    /**
+     * Abonniert die Änderungen eines Typs für die Dauer, in der die Seite des Knotens angezeigt wird.
+     * Beim Wegnavigieren wird das Abonnement beendet, damit verlassene Controller keine Ereignisse mehr erhalten.
+     * @param node ein beliebiger Knoten der Seite, z. B. eine Tabelle.
+     * @param entityType die Modellklasse, z. B. {@code Appointment.class}.
+     * @param listener erhält jedes Ereignis im JavaFX-Thread.
+     */
+    public <T> void subscribeWhileShown(Node node, Class<T> entityType, Consumer<? super EntityChangeEvent<T>> listener) {
+        EventBus.Subscription subscription = eventBus.subscribe(entityType, listener);
+        onNavigationAway(node, subscription::unsubscribe);
+    }
+
+    private void onNavigationAway(Node node, Runnable action) {
+        ChangeListener<Window> windowListener = (ignore, ignore2, window) -> {
+            if (window == null) {
+                action.run();
+            }
+        };
+        node.sceneProperty().addListener((ignore, oldScene, newScene) -> {
+            if (oldScene != null) {
+                oldScene.windowProperty().removeListener(windowListener);
+            }
+            if (newScene != null) {
+                newScene.windowProperty().addListener(windowListener);
+            }
+        });
+        if (node.getScene() != null) {
+            node.getScene().windowProperty().addListener(windowListener);
+        }
+    }
+
+    /**
+     * Lädt die Klienten seitenweise nach Ifa-Nummer sortiert; die erste Seite wird im Hintergrund geladen.
+     */
+    public PagedObservableList<Client> loadClientData(ClientDAO clientDAO) {
+        return loadPaged((last, pageSize) ->
+                clientDAO.getClientPage(last == null ? null : last.getClientIfaNumber(), pageSize), "Klientendaten");
+    }
+
+    /**
+     * Sucht Klienten über den {@link ClientSearchService} und lädt die Treffer im Hintergrund, höchstens
+     * {@value #CLIENT_SEARCH_LIMIT}.
+     * @return ein Future mit den Klienten in der Rangfolge der Suche, das im JavaFX-Thread abgeschlossen wird.
+     */
+    public CompletableFuture<List<Client>> searchClientsAsync(String query, ClientSearchService clientSearch,
+                                                              ClientDAO clientDAO) {
+        return loadAsync(() -> {
+            List<String> ifaNumbers = clientSearch.search(query, CLIENT_SEARCH_LIMIT);
+            Map<String, Client> found = new HashMap<>();
+            for (Client client : clientDAO.getClientsByIfa(ifaNumbers)) {
+                found.put(client.getClientIfaNumber(), client);
+            }
+            return ifaNumbers.stream().map(found::get).filter(client -> client != null).toList();
+        }, "Suchtreffer: " + query);
+    }
+
+    /**
+     * Lädt alle Termine seitenweise nach ID sortiert; die erste Seite wird im Hintergrund geladen.
+     */
+    public PagedObservableList<Appointment> loadAllAppointment(AppointmentDAO appointmentDAO) {
+        return loadPaged((last, pageSize) ->
+                appointmentDAO.getAppointmentPage(last == null ? 0 : last.getAppointmentId(), pageSize), "Termindaten");
+    }
+
+    /**
+     * Lädt die offenen Termine für das Dashboard seitenweise nach Datum sortiert.
+     * Statusfilter, Sortierung und Seitengrenze werden in der Datenbank ausgewertet.
+     */
+    public PagedObservableList<Appointment> loadOffeneAppointment(AppointmentDAO appointmentDAO) {
+        AppointmentFilter filter = new AppointmentFilter()
+                .status(STATUS_OFFEN)
+                .orderBy(AppointmentFilter.Order.DATE_ASC);
+        return loadPaged((last, pageSize) ->
+                appointmentDAO.findAppointments(filter.copy().after(last).limit(pageSize)), "offene Termine");
+    }
+
+    public CompletableFuture<ObservableList<Appointment>> loadTermineByClientIfaNumberAsync(AppointmentDAO appointmentDAO, String ifaNumber) {
+        return loadAsync(() -> toObservableList(appointmentDAO.getAppointmentByClientIfa(ifaNumber)),
                 "Termine für Klient mit Ifa-Nummer: " + ifaNumber);
     }
 
-    public ObservableList<Document> loadDocuments(DocumentDAO documentDAO) {
-        return executeWithLogging(() -> toObservableList(documentDAO.getAllDocuments()), "Dokumentationen");
+    /**
+     * Sucht den Klienten zu einer eingegebenen Ifa-Nummer, z. B. vor dem Speichern eines Termins.
+     * Mit einem {@link com.badr.cp_project.dao.CachingClientDAO} beantworten Ifa-Filter und Zwischenspeicher
+     * die meisten Anfragen ohne Datenbankabfrage.
+     * @return ein Future mit dem Klienten oder null, wenn kein Klient mit der Ifa-Nummer existiert.
+     */
+    public CompletableFuture<Client> findClientAsync(ClientDAO clientDAO, String ifaNumber) {
+        return loadAsync(() -> clientDAO.getClientByIfa(ifaNumber), "Klient mit Ifa-Nummer: " + ifaNumber);
+    }
+
+    /**
+     * Lädt Termine, Dokumentationen und Dateien eines Klienten in einem gemeinsamen Hintergrund-Ladevorgang.
+     */
+    public CompletableFuture<ClientDossier> loadClientDossierAsync(ClientDossierDAO clientDossierDAO, String ifaNumber) {
+        return loadAsync(() -> clientDossierDAO.getDossierByIfa(ifaNumber),
+                "Klientendossier für Ifa-Nummer: " + ifaNumber);
+    }
+
+    /**
+     * Lädt alle Dokumentationen seitenweise nach ID sortiert; die erste Seite wird im Hintergrund geladen.
+     */
+    public PagedObservableList<Document> loadDocuments(DocumentDAO documentDAO) {
+        return loadPaged((last, pageSize) ->
+                documentDAO.getDocumentPage(last == null ? 0 : last.getDocumentId(), pageSize), "Dokumentationen");
+    }
+
+    private <T> PagedObservableList<T> loadPaged(PagedObservableList.PageLoader<T> pageLoader, String contextMessage) {
+        PagedObservableList<T> pagedList = new PagedObservableList<>(pageLoader, PAGE_SIZE, this);
+        pagedList.loadNextPage().thenRun(() ->
+                LOGGER.log(Level.INFO, "Erste Seite der {0} geladen: {1} Einträge.", new Object[]{contextMessage, pagedList.size()}));
+        return pagedList;
     }
 
-    public void saveOrUpdateClient(Client klient, ClientDAO klientDAO) {
+    /**
+     * Speichert einen Klienten per atomarem Upsert.
+     * @return ob der Klient neu angelegt, aktualisiert oder unverändert gelassen wurde.
+     * @throws SQLException wenn der Klient nicht gespeichert werden konnte.
+     */
+    public ClientDAO.UpsertResult saveOrUpdateClient(Client klient, ClientDAO klientDAO) throws SQLException {
         try {
-            if (klientDAO.existsByIfa(klient.getClientIfaNumber())) {
-                klientDAO.update(klient);
-                LOGGER.info("Klient wurde erfolgreich aktualisiert.");
-            } else {
-                klientDAO.save(klient);
-                LOGGER.info("Neuer Klient wurde erfolgreich gespeichert.");
+            ClientDAO.UpsertResult result = klientDAO.upsert(klient);
+            switch (result) {
+                case INSERTED -> {
+                    LOGGER.info("Neuer Klient wurde erfolgreich gespeichert.");
+                    eventBus.publish(EntityChangeEvent.created(Client.class, klient.getClientIfaNumber(), klient));
+                }
+                case UPDATED -> {
+                    LOGGER.info("Klient wurde erfolgreich aktualisiert.");
+                    eventBus.publish(EntityChangeEvent.updated(Client.class, klient.getClientIfaNumber(), klient));
+                }
+                case UNCHANGED -> LOGGER.info("Klient war bereits aktuell.");
             }
-        } catch (Exception e) {
+            return result;
+        } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Fehler beim Speichern oder Aktualisieren des Klienten", e);
+            throw e;
         }
     }
 
@@ -82,15 +302,50 @@ public class DataLoadService {
         vornameField.clear();
         geburtsdatumPicker.setValue(null);
         nationalitaetField.clear();
-        geschlechtField.setValue("Bitte auswählen...");
-        beziehungsstatusField.setValue("Bitte auswählen...");
-        ifaNummerLabel.setText(utilityService.generateRandomIfaNumber());
+        geschlechtField.setValue(ClientValidationService.DEFAULT_SELECTION_PROMPT);
+        beziehungsstatusField.setValue(ClientValidationService.DEFAULT_SELECTION_PROMPT);
+        assignNewIfaNumber(ifaNummerLabel);
+    }
+
+    /**
+     * Reserviert im Hintergrund eine neue IFA-Nummer und zeigt sie im Label an. Bis dahin bleibt das Label leer,
+     * sodass ein vorzeitiges Speichern abgewiesen wird. Wurde das Label inzwischen anders belegt, z. B. mit der
+     * Nummer eines geöffneten Klienten, bleibt es unverändert.
+     * @param ifaNummerLabel das Label der IFA-Nummer.
+     */
+    public void assignNewIfaNumber(Label ifaNummerLabel) {
+        ifaNummerLabel.setText("");
+        loadAsync(utilityService::generateIfaNumber, "IFA-Nummer")
+                .thenAccept(ifaNummer -> {
+                    if ("".equals(ifaNummerLabel.getText())) {
+                        ifaNummerLabel.setText(ifaNummer);
+                    }
+                });
+    }
+
+    /**
+     * Löscht einen Klienten samt seiner Termine, Dokumentationen und Dateien und meldet jede gelöschte Zeile über den
+     * EventBus, damit Suchindizes und offene Ansichten auch die mitgelöschten entfernen.
+     * @return true, wenn der Klient gelöscht wurde.
+     */
+    public boolean deleteClient(String ifaNumber, ClientDAO klientDAO) {
+        ClientDAO.Deletion deletion = klientDAO.deleteByIfa(ifaNumber);
+        if (!deletion.deleted()) {
+            return false;
+        }
+        deletion.appointmentIds().forEach(id -> eventBus.publish(EntityChangeEvent.deleted(Appointment.class, id)));
+        deletion.documentationIds().forEach(id -> eventBus.publish(EntityChangeEvent.deleted(Document.class, id)));
+        deletion.fileIds().forEach(id -> eventBus.publish(EntityChangeEvent.deleted(File.class, id)));
+        eventBus.publish(EntityChangeEvent.deleted(Client.class, ifaNumber));
+        return true;
     }
 
     public void updateAppointment(Appointment termin, AppointmentDAO terminDAO) {
         try {
-            terminDAO.update(termin);
-            LOGGER.info("Termin wurde erfolgreich aktualisiert.");
+            if (terminDAO.update(termin)) {
+                LOGGER.info("Termin wurde erfolgreich aktualisiert.");
+                eventBus.publish(EntityChangeEvent.updated(Appointment.class, termin.getAppointmentId(), termin));
+            }
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Fehler beim Aktualisieren des Termins", e);
         }
@@ -98,8 +353,10 @@ public class DataLoadService {
 
     public void saveAppointment(Appointment termin, AppointmentDAO terminDAO) {
         try {
-            terminDAO.save(termin);
-            LOGGER.info("Neuer Termin wurde erfolgreich gespeichert.");
+            if (terminDAO.save(termin)) {
+                LOGGER.info("Neuer Termin wurde erfolgreich gespeichert.");
+                eventBus.publish(EntityChangeEvent.created(Appointment.class, termin.getAppointmentId(), termin));
+            }
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Fehler beim Speichern des Termins", e);
         }
@@ -107,37 +364,67 @@ public class DataLoadService {
 
     public void deleteAppointmentById(int appointmentId, AppointmentDAO terminDAO) {
         try {
-            terminDAO.deleteById(appointmentId);
-            LOGGER.info("Termin wurde erfolgreich gelöscht.");
+            if (terminDAO.deleteById(appointmentId)) {
+                LOGGER.info("Termin wurde erfolgreich gelöscht.");
+                eventBus.publish(EntityChangeEvent.deleted(Appointment.class, appointmentId));
+            }
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Fehler beim Löschen des Termins mit ID: " + appointmentId, e);
         }
     }
 
-    @FunctionalInterface
-    private interface ActionWithResult<T> {
-        T execute() throws Exception;
-    }
-    public ObservableList<File> loadFileByClientIfaNumber(FileDAO dateiDAO, String ifaNummer) {
-        List<File> dateien = dateiDAO.getFileByIfa(ifaNummer);
-        return FXCollections.observableArrayList(dateien);
+    /**
+     * Speichert eine neue Dokumentation oder aktualisiert sie, wenn sie bereits eine ID hat.
+     */
+    public void saveOrUpdateDocument(Document document, DocumentDAO documentDAO) {
+        if (document.getDocumentId() > 0) {
+            if (documentDAO.update(document)) {
+                eventBus.publish(EntityChangeEvent.updated(Document.class, document.getDocumentId(), document));
+            }
+        } else if (documentDAO.save(document)) {
+            eventBus.publish(EntityChangeEvent.created(Document.class, document.getDocumentId(), document));
+        }
     }
 
-    private <T> T executeWithLogging(ActionWithResult<T> action, String contextMessage) {
-        try {
-            return action.execute();
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Fehler beim Laden der " + contextMessage, e);
-            return getDefaultValue();
+    public void deleteDocument(int documentId, DocumentDAO documentDAO) {
+        if (documentDAO.delete(documentId)) {
+            eventBus.publish(EntityChangeEvent.deleted(Document.class, documentId));
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> T getDefaultValue() {
-        if (ObservableList.class.isAssignableFrom(Object.class)) {
-            return (T) FXCollections.observableArrayList();
+    /**
+     * Legt eine hochgeladene Datei im Hintergrund in der Dateiablage ab und speichert sie; die Tabellen übernehmen
+     * sie über den EventBus. Das Hochladen läuft auch weiter, wenn der Benutzer die Seite verlässt.
+     * @param source die hochgeladene Datei.
+     * @param fileName der angezeigte Dateiname.
+     * @param fileType der MIME-Typ oder null.
+     * @param ifaNumber die Ifa-Nummer des Klienten.
+     * @return ein Future mit der gespeicherten Datei, das im JavaFX-Thread abgeschlossen wird.
+     */
+    public CompletableFuture<File> uploadFileAsync(Path source, String fileName, String fileType, String ifaNumber,
+                                                   FileDAO fileDAO) {
+        return writeAsync(() -> {
+            File file = fileDAO.upload(source, fileName, fileType, LocalDate.now(), ifaNumber);
+            // Nach dem Festschreiben und unabhängig davon, ob noch jemand auf das Future wartet
+            eventBus.publish(EntityChangeEvent.created(File.class, file.getFileId(), file));
+            return file;
+        }, "Datei: " + fileName);
+    }
+
+    /**
+     * Löscht die Metadaten einer Datei.
+     * @return true, wenn die Datei gelöscht wurde.
+     */
+    public boolean deleteFile(int fileId, FileDAO fileDAO) {
+        boolean deleted = fileDAO.delete(fileId);
+        if (deleted) {
+            eventBus.publish(EntityChangeEvent.deleted(File.class, fileId));
         }
-        return null;
+        return deleted;
+    }
 
+    public CompletableFuture<ObservableList<File>> loadFileByClientIfaNumberAsync(FileDAO dateiDAO, String ifaNummer) {
+        return loadAsync(() -> toObservableList(dateiDAO.getFileByIfa(ifaNummer)),
+                "Dateien für Klient mit Ifa-Nummer: " + ifaNummer);
     }
     }
@@ -0,0 +1,415 @@
+package com.badr.cp_project.service;
+
+import com.badr.cp_project.dao.DocumentDAO;
+import com.badr.cp_project.model.Document;
+import com.badr.cp_project.util.ConnectionPool;
+import com.badr.cp_project.util.GermanStemmer;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Volltextsuche über die Beschreibungen der Dokumentationen.
+ * Die Beschreibungen werden in Wörter zerlegt, auf ihren Stamm reduziert ({@link GermanStemmer}, ohne Umlaute) und
+ * mit ihren Positionen in einem invertierten Index abgelegt; die Texte selbst werden nicht im Speicher gehalten.
+ * Eine Suche besteht aus Begriffen, die alle vorkommen müssen: einzelnen Wörtern, Wortanfängen ({@code antr*}) und
+ * Phrasen in Anführungszeichen ({@code "neue Wohnung"}). Die Treffer werden nach BM25 bewertet; nur die besten werden
+ * aus der Datenbank gelesen und erhalten einen Textausschnitt mit markierten Fundstellen.
+ * Der Index wird einmal aufgebaut und folgt danach den Ereignissen des {@link EventBus}. Alle Methoden sind threadsicher.
+ */
+public final class DocumentationSearchService {
+
+    private static final Logger LOGGER = Logger.getLogger(DocumentationSearchService.class.getName());
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Pattern QUERY_PART = Pattern.compile("\"([^\"]*)\"?|(\\S+)");
+    // BM25-Parameter: Sättigung der Worthäufigkeit und Einfluss der Textlänge
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int SNIPPET_LENGTH = 160;
+    private static final int SNIPPET_LEAD = 40;
+
+    private static final DocumentationSearchService INSTANCE = new DocumentationSearchService();
+
+    /**
+     * Eine markierte Fundstelle im Textausschnitt.
+     * @param start der Anfang im Ausschnitt.
+     * @param end das Ende im Ausschnitt (exklusiv).
+     */
+    public record Highlight(int start, int end) {
+    }
+
+    /**
+     * Ein Textausschnitt um die erste Fundstelle.
+     * @param text der Ausschnitt, ggf. mit Auslassungszeichen.
+     * @param highlights die Fundstellen im Ausschnitt.
+     */
+    public record Snippet(String text, List<Highlight> highlights) {
+    }
+
+    /**
+     * Ein Treffer der Volltextsuche.
+     * @param document die Dokumentation.
+     * @param score die Relevanz nach BM25.
+     * @param snippet der Ausschnitt aus der Beschreibung.
+     */
+    public record Hit(Document document, double score, Snippet snippet) {
+    }
+
+    private record Indexed(int length, Set<String> terms) {
+    }
+
+    private record Scored(int documentId, double score) {
+    }
+
+    /**
+     * Ein Bestandteil der Suche; prüft, ob ein Wortstamm der Beschreibung zu ihm gehört, z. B. zum Markieren.
+     */
+    private sealed interface Clause permits Term, Prefix, Phrase {
+
+        boolean matches(String term);
+    }
+
+    private record Term(String term) implements Clause {
+
+        @Override
+        public boolean matches(String candidate) {
+            return term.equals(candidate);
+        }
+    }
+
+    private record Prefix(String prefix) implements Clause {
+
+        @Override
+        public boolean matches(String candidate) {
+            return candidate.startsWith(prefix);
+        }
+    }
+
+    private record Phrase(List<String> terms) implements Clause {
+
+        @Override
+        public boolean matches(String candidate) {
+            return terms.contains(candidate);
+        }
+    }
+
+    // Stamm -> Dokumentation -> aufsteigende Positionen
+    private final NavigableMap<String, Map<Integer, int[]>> postings = new TreeMap<>();
+    private final Map<Integer, Indexed> documents = new HashMap<>();
+    private long totalLength;
+    private Set<Integer> changedDuringBuild;
+
+    DocumentationSearchService() {
+    }
+
+    public static DocumentationSearchService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Übernimmt künftig alle Änderungen an Dokumentationen aus dem {@link EventBus}, direkt im veröffentlichenden Thread.
+     * @param eventBus der EventBus.
+     */
+    public void subscribe(EventBus eventBus) {
+        eventBus.subscribe(Document.class, Runnable::run, this::apply);
+    }
+
+    /**
+     * Übernimmt eine Änderung an einer Dokumentation in den Index.
+     * @param event die Änderung.
+     */
+    synchronized void apply(EntityChangeEvent<Document> event) {
+        int documentId = (Integer) event.key();
+        if (changedDuringBuild != null) {
+            changedDuringBuild.add(documentId);
+        }
+        remove(documentId);
+        if (event.type() != EntityChangeEvent.Type.DELETED) {
+            add(documentId, event.entity().getDocumentDescription(), new HashMap<>());
+        }
+    }
+
+    /**
+     * Liest alle Beschreibungen über einen Vorwärts-Cursor in den Index. Währenddessen gemeldete Änderungen bleiben
+     * erhalten.
+     * @param connectionPool der Verbindungspool.
+     * @throws SQLException wenn die Dokumentationen nicht gelesen werden können.
+     */
+    public void build(ConnectionPool connectionPool) throws SQLException {
+        synchronized (this) {
+            changedDuringBuild = new HashSet<>();
+        }
+        // Wörter wiederholen sich über alle Beschreibungen; jeden Stamm nur einmal berechnen
+        Map<String, String> stems = new HashMap<>();
+        try {
+            long count = new DocumentDAO(connectionPool).forEachDocument(document -> {
+                synchronized (this) {
+                    if (!changedDuringBuild.contains(document.getDocumentId())) {
+                        remove(document.getDocumentId());
+                        add(document.getDocumentId(), document.getDocumentDescription(), stems);
+                    }
+                }
+            });
+            LOGGER.log(Level.INFO, "Volltextindex mit {0} Dokumentationen und {1} Stämmen aufgebaut.",
+                    new Object[]{count, termCount()});
+        } finally {
+            synchronized (this) {
+                changedDuringBuild = null;
+            }
+        }
+    }
+
+    /**
+     * Sucht Dokumentationen, deren Beschreibung alle Begriffe der Suche enthält, und liest die besten aus der Datenbank.
+     * Darf nicht im JavaFX-Thread aufgerufen werden.
+     * @param query die Suche, z. B. {@code antr* "neue Wohnung" jobcenter}.
+     * @param limit die höchste Anzahl der Treffer.
+     * @param documentDAO liest die gefundenen Dokumentationen.
+     * @return die Treffer, die relevantesten zuerst.
+     * @throws SQLException wenn die Dokumentationen nicht gelesen werden können.
+     */
+    public List<Hit> search(String query, int limit, DocumentDAO documentDAO) throws SQLException {
+        List<Clause> clauses = parse(query);
+        List<Scored> ranked = rank(clauses, limit);
+        if (ranked.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Document> loaded = documentDAO.getDocumentsByIds(ranked.stream().map(Scored::documentId).toList())
+                .stream().collect(Collectors.toMap(Document::getDocumentId, Function.identity()));
+        List<Hit> hits = new ArrayList<>(ranked.size());
+        for (Scored scored : ranked) {
+            Document document = loaded.get(scored.documentId());
+            // Inzwischen gelöschte Dokumentationen fehlen
+            if (document != null) {
+                hits.add(new Hit(document, scored.score(), snippet(document.getDocumentDescription(), clauses)));
+            }
+        }
+        return hits;
+    }
+
+    public synchronized int size() {
+        return documents.size();
+    }
+
+    public synchronized int termCount() {
+        return postings.size();
+    }
+
+    private synchronized List<Scored> rank(List<Clause> clauses, int limit) {
+        if (clauses.isEmpty() || documents.isEmpty()) {
+            return List.of();
+        }
+        List<Map<Integer, Integer>> frequencies = new ArrayList<>(clauses.size());
+        for (Clause clause : clauses) {
+            Map<Integer, Integer> frequency = frequencies(clause);
+            if (frequency.isEmpty()) {
+                return List.of();
+            }
+            frequencies.add(frequency);
+        }
+        double averageLength = (double) totalLength / documents.size();
+        Map<Integer, Integer> smallest = frequencies.stream().min(Comparator.comparingInt(Map::size)).orElseThrow();
+        List<Scored> scored = new ArrayList<>();
+        candidates:
+        for (int documentId : smallest.keySet()) {
+            double score = 0;
+            int length = documents.get(documentId).length();
+            for (Map<Integer, Integer> frequency : frequencies) {
+                Integer tf = frequency.get(documentId);
+                if (tf == null) {
+                    continue candidates;
+                }
+                double idf = Math.log(1 + (documents.size() - frequency.size() + 0.5) / (frequency.size() + 0.5));
+                score += idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+            }
+            scored.add(new Scored(documentId, score));
+        }
+        scored.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return scored.size() > limit ? List.copyOf(scored.subList(0, limit)) : scored;
+    }
+
+    /**
+     * @return je Dokumentation, wie oft der Bestandteil vorkommt.
+     */
+    private Map<Integer, Integer> frequencies(Clause clause) {
+        Map<Integer, Integer> frequencies = new HashMap<>();
+        switch (clause) {
+            case Term term -> {
+                Map<Integer, int[]> positions = postings.get(term.term());
+                if (positions != null) {
+                    positions.forEach((documentId, at) -> frequencies.put(documentId, at.length));
+                }
+            }
+            case Prefix prefix -> {
+                for (Map<Integer, int[]> positions : postings.subMap(prefix.prefix(), true,
+                        prefix.prefix() + Character.MAX_VALUE, false).values()) {
+                    positions.forEach((documentId, at) -> frequencies.merge(documentId, at.length, Integer::sum));
+                }
+            }
+            case Phrase phrase -> phraseFrequencies(phrase.terms(), frequencies);
+        }
+        return frequencies;
+    }
+
+    private void phraseFrequencies(List<String> terms, Map<Integer, Integer> frequencies) {
+        List<Map<Integer, int[]>> positions = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Map<Integer, int[]> termPositions = postings.get(term);
+            if (termPositions == null) {
+                return;
+            }
+            positions.add(termPositions);
+        }
+        candidates:
+        for (Map.Entry<Integer, int[]> first : positions.getFirst().entrySet()) {
+            List<int[]> following = new ArrayList<>(terms.size() - 1);
+            for (int i = 1; i < positions.size(); i++) {
+                int[] at = positions.get(i).get(first.getKey());
+                if (at == null) {
+                    continue candidates;
+                }
+                following.add(at);
+            }
+            int count = 0;
+            starts:
+            for (int start : first.getValue()) {
+                for (int i = 0; i < following.size(); i++) {
+                    if (Arrays.binarySearch(following.get(i), start + i + 1) < 0) {
+                        continue starts;
+                    }
+                }
+                count++;
+            }
+            if (count > 0) {
+                frequencies.put(first.getKey(), count);
+            }
+        }
+    }
+
+    private void add(int documentId, String description, Map<String, String> stems) {
+        Map<String, List<Integer>> positions = new HashMap<>();
+        int length = 0;
+        if (description != null) {
+            Matcher words = WORD.matcher(description);
+            while (words.find()) {
+                String term = stems.computeIfAbsent(words.group(), DocumentationSearchService::term);
+                positions.computeIfAbsent(term, ignore -> new ArrayList<>()).add(length++);
+            }
+        }
+        positions.forEach((term, at) -> postings.computeIfAbsent(term, ignore -> new HashMap<>())
+                .put(documentId, at.stream().mapToInt(Integer::intValue).toArray()));
+        documents.put(documentId, new Indexed(length, positions.keySet()));
+        totalLength += length;
+    }
+
+    private void remove(int documentId) {
+        Indexed indexed = documents.remove(documentId);
+        if (indexed == null) {
+            return;
+        }
+        totalLength -= indexed.length();
+        for (String term : indexed.terms()) {
+            Map<Integer, int[]> positions = postings.get(term);
+            positions.remove(documentId);
+            if (positions.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static List<Clause> parse(String query) {
+        List<Clause> clauses = new ArrayList<>();
+        if (query == null) {
+            return clauses;
+        }
+        Matcher parts = QUERY_PART.matcher(query);
+        while (parts.find()) {
+            if (parts.group(1) != null) {
+                List<String> terms = terms(parts.group(1));
+                if (terms.size() == 1) {
+                    clauses.add(new Term(terms.getFirst()));
+                } else if (!terms.isEmpty()) {
+                    clauses.add(new Phrase(terms));
+                }
+            } else if (parts.group(2).endsWith("*")) {
+                Matcher word = WORD.matcher(parts.group(2));
+                if (word.find()) {
+                    // Der Stamm des Wortanfangs, damit auch "häuser*" die auf "haus" reduzierten Wörter findet
+                    clauses.add(new Prefix(term(word.group())));
+                }
+            } else {
+                terms(parts.group(2)).forEach(term -> clauses.add(new Term(term)));
+            }
+        }
+        return clauses;
+    }
+
+    private static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        Matcher words = WORD.matcher(text);
+        while (words.find()) {
+            terms.add(term(words.group()));
+        }
+        return terms;
+    }
+
+    private static String term(String word) {
+        return SearchIndex.normalize(GermanStemmer.stem(word));
+    }
+
+    /**
+     * Schneidet einen Ausschnitt um die erste Fundstelle aus und markiert darin alle Wörter, die einen Bestandteil
+     * der Suche treffen.
+     */
+    private static Snippet snippet(String text, List<Clause> clauses) {
+        if (text == null) {
+            return new Snippet("", List.of());
+        }
+        List<Highlight> found = new ArrayList<>();
+        Matcher words = WORD.matcher(text);
+        while (words.find()) {
+            String term = term(words.group());
+            for (Clause clause : clauses) {
+                if (clause.matches(term)) {
+                    found.add(new Highlight(words.start(), words.end()));
+                    break;
+                }
+            }
+        }
+        int start = found.isEmpty() ? 0 : Math.max(0, found.getFirst().start() - SNIPPET_LEAD);
+        // Am Wortanfang beginnen und enden
+        while (start > 0 && !Character.isWhitespace(text.charAt(start - 1))) {
+            start--;
+        }
+        int end = Math.min(text.length(), start + SNIPPET_LENGTH);
+        while (end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+        String prefix = start > 0 ? "… " : "";
+        String suffix = end < text.length() ? " …" : "";
+        List<Highlight> highlights = new ArrayList<>();
+        for (Highlight highlight : found) {
+            if (highlight.start() >= start && highlight.end() <= end) {
+                highlights.add(new Highlight(highlight.start() - start + prefix.length(),
+                        highlight.end() - start + prefix.length()));
+            }
+        }
+        return new Snippet(prefix + text.substring(start, end) + suffix, highlights);
+    }
+}
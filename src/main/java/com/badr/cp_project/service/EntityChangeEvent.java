@@ -0,0 +1,33 @@
+package com.badr.cp_project.service;
+
+/**
+ * Eine Änderung an einem Klienten, Termin, einer Dokumentation oder Datei, die über den {@link EventBus} verteilt wird.
+ * @param type die Art der Änderung.
+ * @param entityType die Modellklasse, z. B. {@code Appointment.class}.
+ * @param key der Schlüssel des Eintrags (Ifa-Nummer oder ID).
+ * @param entity der neue Stand des Eintrags oder null bei {@link Type#DELETED}.
+ * @param <T> der Typ des Eintrags.
+ */
+public record EntityChangeEvent<T>(Type type, Class<T> entityType, Object key, T entity) {
+
+    /**
+     * Art der Änderung.
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static <T> EntityChangeEvent<T> created(Class<T> entityType, Object key, T entity) {
+        return new EntityChangeEvent<>(Type.CREATED, entityType, key, entity);
+    }
+
+    public static <T> EntityChangeEvent<T> updated(Class<T> entityType, Object key, T entity) {
+        return new EntityChangeEvent<>(Type.UPDATED, entityType, key, entity);
+    }
+
+    public static <T> EntityChangeEvent<T> deleted(Class<T> entityType, Object key) {
+        return new EntityChangeEvent<>(Type.DELETED, entityType, key, null);
+    }
+}
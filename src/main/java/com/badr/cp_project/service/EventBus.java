@@ -0,0 +1,109 @@
+package com.badr.cp_project.service;
+
+import javafx.application.Platform;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Verteilt Änderungen an Einträgen innerhalb der Anwendung, damit geöffnete Ansichten und Caches
+ * sie ohne erneute Datenbankabfrage übernehmen können.
+ * Veröffentlichen blockiert nie: Jeder Abonnent erhält die Ereignisse über seinen eigenen Executor,
+ * standardmäßig im JavaFX-Thread, und zwar in der Reihenfolge, in der sie veröffentlicht wurden.
+ */
+public final class EventBus {
+
+    private static final Logger LOGGER = Logger.getLogger(EventBus.class.getName());
+    private static final EventBus INSTANCE = new EventBus();
+
+    /**
+     * Ein Abonnement, das mit {@link #unsubscribe()} beendet wird.
+     */
+    public interface Subscription {
+        void unsubscribe();
+    }
+
+    private final List<Subscriber<?>> subscribers = new CopyOnWriteArrayList<>();
+
+    private EventBus() {
+    }
+
+    public static EventBus getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Abonniert die Änderungen eines Typs; die Ereignisse werden im JavaFX-Thread zugestellt.
+     * @param entityType die Modellklasse, z. B. {@code Client.class}.
+     * @param listener erhält jedes Ereignis.
+     * @return das Abonnement.
+     */
+    public <T> Subscription subscribe(Class<T> entityType, Consumer<? super EntityChangeEvent<T>> listener) {
+        return subscribe(entityType, Platform::runLater, listener);
+    }
+
+    /**
+     * Abonniert die Änderungen eines Typs; die Ereignisse werden über den angegebenen Executor zugestellt.
+     * @param entityType die Modellklasse, z. B. {@code Client.class}.
+     * @param executor führt die Zustellung aus, z. B. {@code Runnable::run} für Caches ohne Oberfläche.
+     * @param listener erhält jedes Ereignis.
+     * @return das Abonnement.
+     */
+    public <T> Subscription subscribe(Class<T> entityType, Executor executor, Consumer<? super EntityChangeEvent<T>> listener) {
+        Subscriber<T> subscriber = new Subscriber<>(entityType, executor, listener);
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    /**
+     * Veröffentlicht eine Änderung an alle Abonnenten ihres Typs.
+     * @param event die Änderung.
+     */
+    public void publish(EntityChangeEvent<?> event) {
+        LOGGER.log(Level.FINE, "Veröffentliche {0} {1} {2}",
+                new Object[]{event.type(), event.entityType().getSimpleName(), event.key()});
+        for (Subscriber<?> subscriber : subscribers) {
+            subscriber.deliver(event);
+        }
+    }
+
+    private final class Subscriber<T> implements Subscription {
+
+        private final Class<T> entityType;
+        private final Executor executor;
+        private final Consumer<? super EntityChangeEvent<T>> listener;
+
+        private Subscriber(Class<T> entityType, Executor executor, Consumer<? super EntityChangeEvent<T>> listener) {
+            this.entityType = entityType;
+            this.executor = executor;
+            this.listener = listener;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void deliver(EntityChangeEvent<?> event) {
+            if (event.entityType() != entityType) {
+                return;
+            }
+            executor.execute(() -> {
+                // Nach dem Abbestellen bereits eingereihte Ereignisse verwerfen
+                if (!subscribers.contains(this)) {
+                    return;
+                }
+                try {
+                    listener.accept((EntityChangeEvent<T>) event);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.SEVERE, "Fehler beim Verarbeiten einer Änderung an " + entityType.getSimpleName(), e);
+                }
+            });
+        }
+
+        @Override
+        public void unsubscribe() {
+            subscribers.remove(this);
+        }
+    }
+}
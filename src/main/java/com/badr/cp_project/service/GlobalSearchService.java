@@ -0,0 +1,343 @@
+package com.badr.cp_project.service;
+
+import com.badr.cp_project.dao.AppointmentDAO;
+import com.badr.cp_project.dao.CachingClientDAO;
+import com.badr.cp_project.dao.ClientDAO;
+import com.badr.cp_project.dao.DocumentDAO;
+import com.badr.cp_project.dao.FileDAO;
+import com.badr.cp_project.model.Appointment;
+import com.badr.cp_project.model.Client;
+import com.badr.cp_project.model.Document;
+import com.badr.cp_project.model.File;
+import com.badr.cp_project.util.ConnectionPool;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Globale Suche über Klienten, Termine, Dokumentationen und Dateien für das Suchfeld der Startseite.
+ * Ein invertierter Index ordnet jedem normalisierten Wort (siehe {@link SearchIndex#normalize}) die Einträge zu, in
+ * deren Feldern es vorkommt, gewichtet nach Feld. Die Wörter liegen sortiert vor, sodass jeder Suchbegriff auch als
+ * Wortanfang über einen Bereich des Index gefunden wird. Ein Eintrag passt, wenn jeder Begriff eines seiner Wörter
+ * trifft; die Treffer werden nach der Summe der Gewichte sortiert.
+ * Der Index wird einmal aus der Datenbank aufgebaut und folgt danach den Ereignissen des {@link EventBus}, also eigenen
+ * Änderungen und denen anderer Arbeitsplätze. Gehalten werden nur Schlüssel, Anzeigetexte und Wörter, nicht die
+ * Einträge selbst; zur Navigation lädt {@link #loadEntity} den Eintrag eines Treffers nach.
+ * Alle Methoden sind threadsicher.
+ */
+public final class GlobalSearchService {
+
+    private static final Logger LOGGER = Logger.getLogger(GlobalSearchService.class.getName());
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    // Gewichte der Felder; ein vollständig getroffenes Wort zählt doppelt so viel wie ein getroffener Wortanfang
+    private static final int WEIGHT_NAME = 10;
+    private static final int WEIGHT_TITLE = 6;
+    private static final int WEIGHT_INSTITUTION = 5;
+    private static final int WEIGHT_ADDRESS = 3;
+    private static final int WEIGHT_DESCRIPTION = 2;
+    private static final int WEIGHT_RELATED = 1;
+    private static final int EXACT_WORD_FACTOR = 2;
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score).reversed()
+            .thenComparing(Hit::type)
+            .thenComparing(Hit::label, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private static final GlobalSearchService INSTANCE = new GlobalSearchService();
+
+    /**
+     * Art eines Treffers.
+     */
+    public enum Type {
+        CLIENT("Klient"),
+        APPOINTMENT("Termin"),
+        DOCUMENTATION("Dokumentation"),
+        FILE("Datei");
+
+        private final String label;
+
+        Type(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * Ein Treffer der globalen Suche.
+     * @param type die Art des Eintrags.
+     * @param key der Schlüssel des Eintrags (Ifa-Nummer oder ID).
+     * @param label die Bezeichnung, z. B. der Name des Klienten oder der Titel der Dokumentation.
+     * @param detail eine kurze Ergänzung, z. B. Datum und Ifa-Nummer.
+     * @param score die Relevanz; höhere Werte passen besser.
+     */
+    public record Hit(Type type, Object key, String label, String detail, int score) {
+    }
+
+    private record Ref(Type type, Object key) {
+    }
+
+    private record Entry(String label, String detail, Map<String, Integer> words) {
+    }
+
+    private final NavigableMap<String, Map<Ref, Integer>> index = new TreeMap<>();
+    private final Map<Ref, Entry> entries = new HashMap<>();
+    // Während des Aufbaus geänderte Einträge; der Aufbau überschreibt sie nicht mit dem älteren Stand
+    private Set<Ref> changedDuringBuild;
+
+    GlobalSearchService() {
+    }
+
+    public static GlobalSearchService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Übernimmt künftig alle Änderungen aus dem {@link EventBus}, direkt im veröffentlichenden Thread.
+     * @param eventBus der EventBus.
+     */
+    public void subscribe(EventBus eventBus) {
+        eventBus.subscribe(Client.class, Runnable::run, event -> apply(Type.CLIENT, event, GlobalSearchService::clientEntry));
+        eventBus.subscribe(Appointment.class, Runnable::run, event -> apply(Type.APPOINTMENT, event, GlobalSearchService::appointmentEntry));
+        eventBus.subscribe(Document.class, Runnable::run, event -> apply(Type.DOCUMENTATION, event, GlobalSearchService::documentEntry));
+        eventBus.subscribe(File.class, Runnable::run, event -> apply(Type.FILE, event, GlobalSearchService::fileEntry));
+    }
+
+    /**
+     * Liest alle Einträge über Vorwärts-Cursor in den Index. Änderungen, die währenddessen gemeldet werden, bleiben
+     * erhalten.
+     * @param connectionPool der Verbindungspool.
+     * @throws SQLException wenn eine Tabelle nicht gelesen werden kann; bis dahin gelesene Einträge bleiben im Index.
+     */
+    public void build(ConnectionPool connectionPool) throws SQLException {
+        synchronized (this) {
+            changedDuringBuild = new HashSet<>();
+        }
+        try {
+            long count = new ClientDAO(connectionPool).forEachClient(client ->
+                    putFromBuild(new Ref(Type.CLIENT, client.getClientIfaNumber()), clientEntry(client)));
+            count += new AppointmentDAO(connectionPool).forEachAppointment(appointment ->
+                    putFromBuild(new Ref(Type.APPOINTMENT, appointment.getAppointmentId()), appointmentEntry(appointment)));
+            count += new DocumentDAO(connectionPool).forEachDocument(document ->
+                    putFromBuild(new Ref(Type.DOCUMENTATION, document.getDocumentId()), documentEntry(document)));
+            count += new FileDAO(connectionPool).forEachFile(file ->
+                    putFromBuild(new Ref(Type.FILE, file.getFileId()), fileEntry(file)));
+            LOGGER.log(Level.INFO, "Globaler Suchindex mit {0} Einträgen und {1} Wörtern aufgebaut.",
+                    new Object[]{count, wordCount()});
+        } finally {
+            synchronized (this) {
+                changedDuringBuild = null;
+            }
+        }
+    }
+
+    /**
+     * Sucht Einträge, in denen jeder Suchbegriff ein Wort oder einen Wortanfang trifft.
+     * @param query die Eingabe des Benutzers.
+     * @param limit die höchste Anzahl der Treffer.
+     * @return die Treffer, die relevantesten zuerst; leer ohne Suchbegriff oder bei einem Limit unter 1.
+     */
+    public synchronized List<Hit> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(words(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Der längste Begriff trifft meist die wenigsten Wörter; nur seine Treffer werden gegen die übrigen geprüft
+        terms.sort(Comparator.comparingInt(String::length).reversed());
+        String leading = terms.getFirst();
+        List<String> others = terms.subList(1, terms.size());
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        scores(leading).forEach((ref, leadingScore) -> {
+            Entry entry = entries.get(ref);
+            int score = leadingScore;
+            for (String term : others) {
+                int termScore = score(entry, term);
+                if (termScore == 0) {
+                    return;
+                }
+                score += termScore;
+            }
+            if (best.size() == limit && score < best.peek().score()) {
+                return;
+            }
+            best.add(new Hit(ref.type(), ref.key(), entry.label(), entry.detail(), score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        });
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        return hits;
+    }
+
+    /**
+     * Lädt den Eintrag eines Treffers anhand seines Schlüssels aus der Datenbank, z. B. für die Detailansicht.
+     * @param hit der Treffer.
+     * @param connectionPool der Verbindungspool.
+     * @return der Klient, Termin, die Dokumentation oder Datei; null, wenn der Eintrag inzwischen gelöscht wurde.
+     * @throws SQLException wenn der Eintrag nicht gelesen werden kann.
+     */
+    public Object loadEntity(Hit hit, ConnectionPool connectionPool) throws SQLException {
+        return switch (hit.type()) {
+            case CLIENT -> new CachingClientDAO(connectionPool).getClientByIfa((String) hit.key());
+            case APPOINTMENT -> first(new AppointmentDAO(connectionPool).getAppointmentsByIds(List.of((Integer) hit.key())));
+            case DOCUMENTATION -> first(new DocumentDAO(connectionPool).getDocumentsByIds(List.of((Integer) hit.key())));
+            case FILE -> first(new FileDAO(connectionPool).getFilesByIds(List.of((Integer) hit.key())));
+        };
+    }
+
+    private static <T> T first(List<T> rows) {
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized int wordCount() {
+        return index.size();
+    }
+
+    /**
+     * @return je Eintrag das höchste Gewicht eines Wortes, das mit dem Begriff beginnt.
+     */
+    private Map<Ref, Integer> scores(String term) {
+        Map<Ref, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Ref, Integer>> word : index.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            int factor = word.getKey().equals(term) ? EXACT_WORD_FACTOR : 1;
+            word.getValue().forEach((ref, weight) -> scores.merge(ref, weight * factor, Math::max));
+        }
+        return scores;
+    }
+
+    /**
+     * @return das höchste Gewicht eines Wortes des Eintrags, das mit dem Begriff beginnt, oder 0.
+     */
+    private static int score(Entry entry, String term) {
+        int score = 0;
+        for (Map.Entry<String, Integer> word : entry.words().entrySet()) {
+            if (word.getKey().startsWith(term)) {
+                int factor = word.getKey().equals(term) ? EXACT_WORD_FACTOR : 1;
+                score = Math.max(score, word.getValue() * factor);
+            }
+        }
+        return score;
+    }
+
+    private <T> void apply(Type type, EntityChangeEvent<T> event, Function<T, Entry> entryOf) {
+        Ref ref = new Ref(type, event.key());
+        synchronized (this) {
+            if (changedDuringBuild != null) {
+                changedDuringBuild.add(ref);
+            }
+            remove(ref);
+            if (event.type() != EntityChangeEvent.Type.DELETED) {
+                put(ref, entryOf.apply(event.entity()));
+            }
+        }
+    }
+
+    private synchronized void putFromBuild(Ref ref, Entry entry) {
+        if (changedDuringBuild != null && changedDuringBuild.contains(ref)) {
+            return;
+        }
+        remove(ref);
+        put(ref, entry);
+    }
+
+    private void put(Ref ref, Entry entry) {
+        entries.put(ref, entry);
+        entry.words().forEach((word, weight) -> index.computeIfAbsent(word, ignore -> new HashMap<>()).put(ref, weight));
+    }
+
+    private void remove(Ref ref) {
+        Entry entry = entries.remove(ref);
+        if (entry == null) {
+            return;
+        }
+        for (String word : entry.words().keySet()) {
+            Map<Ref, Integer> refs = index.get(word);
+            refs.remove(ref);
+            if (refs.isEmpty()) {
+                index.remove(word);
+            }
+        }
+    }
+
+    private static Entry clientEntry(Client client) {
+        Map<String, Integer> words = new HashMap<>();
+        addWords(words, client.getClientLastname(), WEIGHT_NAME);
+        addWords(words, client.getClientFirstname(), WEIGHT_NAME);
+        addWords(words, client.getClientIfaNumber(), WEIGHT_NAME);
+        addWords(words, client.getClientNationality(), WEIGHT_RELATED);
+        return new Entry(client.getClientLastname() + ", " + client.getClientFirstname(),
+                "IFA " + client.getClientIfaNumber(), words);
+    }
+
+    private static Entry appointmentEntry(Appointment appointment) {
+        Map<String, Integer> words = new HashMap<>();
+        addWords(words, appointment.getAppointmentInstitution(), WEIGHT_INSTITUTION);
+        addWords(words, appointment.getAppointmentAddress(), WEIGHT_ADDRESS);
+        addWords(words, appointment.getAppointmentClientIfaNumber(), WEIGHT_RELATED);
+        return new Entry(appointment.getAppointmentInstitution(),
+                format(appointment.getAppointmentDate()) + " – " + appointment.getAppointmentClientLastname()
+                        + ", " + appointment.getAppointmentClientFirstname(),
+                words);
+    }
+
+    private static Entry documentEntry(Document document) {
+        Map<String, Integer> words = new HashMap<>();
+        addWords(words, document.getDokuTitel(), WEIGHT_TITLE);
+        addWords(words, document.getDocumentDescription(), WEIGHT_DESCRIPTION);
+        addWords(words, document.getDocumentClientIfaNumber(), WEIGHT_RELATED);
+        return new Entry(document.getDokuTitel(),
+                format(document.getDocumentDate()) + " – IFA " + document.getDocumentClientIfaNumber(), words);
+    }
+
+    private static Entry fileEntry(File file) {
+        Map<String, Integer> words = new HashMap<>();
+        addWords(words, file.getFileName(), WEIGHT_TITLE);
+        addWords(words, file.getFileClientIfaNumber(), WEIGHT_RELATED);
+        return new Entry(file.getFileName(),
+                format(file.getFileUploadDate()) + " – IFA " + file.getFileClientIfaNumber(), words);
+    }
+
+    private static void addWords(Map<String, Integer> words, String text, int weight) {
+        if (text != null) {
+            words(text).forEach(word -> words.merge(word, weight, Math::max));
+        }
+    }
+
+    private static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(WORD_SEPARATOR.split(SearchIndex.normalize(text)))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    private static String format(LocalDate date) {
+        return date == null ? "" : DATE_FORMAT.format(date);
+    }
+}
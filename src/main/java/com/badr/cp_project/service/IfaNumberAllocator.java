@@ -0,0 +1,77 @@
+package com.badr.cp_project.service;
+
+import com.badr.cp_project.dao.IfaSequenceDAO;
+import com.badr.cp_project.util.ConnectionPool;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Vergibt eindeutige Ifa-Nummern aus Blöcken, die über {@link IfaSequenceDAO} in der Datenbank reserviert werden.
+ * Innerhalb eines Blocks werden die Nummern ohne Sperre aus dem Speicher vergeben; nur das Nachreservieren
+ * eines neuen Blocks greift auf die Datenbank zu. Nicht verwendete Nummern eines Blocks verfallen beim Beenden,
+ * die Vergabe bleibt dadurch lückenhaft, aber auch mit mehreren Arbeitsplätzen kollisionsfrei.
+ */
+public class IfaNumberAllocator {
+
+    private static final Logger LOGGER = Logger.getLogger(IfaNumberAllocator.class.getName());
+    private static final int DEFAULT_BLOCK_SIZE = 20;
+
+    private static IfaNumberAllocator instance;
+
+    private final IfaSequenceDAO ifaSequenceDAO;
+    private final int blockSize;
+    private final AtomicReference<Block> currentBlock = new AtomicReference<>(Block.EMPTY);
+
+    public IfaNumberAllocator(IfaSequenceDAO ifaSequenceDAO, int blockSize) {
+        this.ifaSequenceDAO = ifaSequenceDAO;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Liefert den gemeinsamen Allocator der Anwendung und legt ihn beim ersten Zugriff an.
+     * @return der gemeinsame Allocator.
+     */
+    public static synchronized IfaNumberAllocator getInstance() {
+        if (instance == null) {
+            instance = new IfaNumberAllocator(new IfaSequenceDAO(ConnectionPool.getInstance()), DEFAULT_BLOCK_SIZE);
+        }
+        return instance;
+    }
+
+    /**
+     * Vergibt die nächste freie Ifa-Nummer.
+     * @return eine noch nie vergebene Ifa-Nummer.
+     * @throws SQLException wenn ein neuer Block benötigt wird und nicht reserviert werden kann.
+     */
+    public String nextIfaNumber() throws SQLException {
+        while (true) {
+            Block block = currentBlock.get();
+            long number = block.next().getAndIncrement();
+            if (number < block.end()) {
+                return String.valueOf(number);
+            }
+            refill(block);
+        }
+    }
+
+    private synchronized void refill(Block exhausted) throws SQLException {
+        // Ein anderer Thread hat den Block bereits ersetzt
+        if (currentBlock.get() != exhausted) {
+            return;
+        }
+        long start = ifaSequenceDAO.reserveBlock(blockSize);
+        currentBlock.set(new Block(new AtomicLong(start), start + blockSize));
+        LOGGER.log(Level.FINE, "Ifa-Nummern {0} bis {1} reserviert.", new Object[]{start, start + blockSize - 1});
+    }
+
+    /**
+     * Reservierter Bereich {@code [next, end)}; {@code next} wird bei jeder Vergabe erhöht.
+     */
+    private record Block(AtomicLong next, long end) {
+        static final Block EMPTY = new Block(new AtomicLong(), 0);
+    }
+}
@@ -5,6 +5,7 @@ import com.badr.cp_project.controller.DocumentController;
 import com.badr.cp_project.controller.ClientController;
 import com.badr.cp_project.controller.AppointmentController;
 import com.badr.cp_project.model.Document;
+import com.badr.cp_project.model.File;
 import com.badr.cp_project.model.Client;
 import com.badr.cp_project.model.Appointment;
 import javafx.stage.Stage;
@@ -99,7 +100,7 @@ public class NavigationService {
     }
 
     /**
-     * Navigiert zur Detailansicht eines Dokuments.
+     * Navigiert zur Detailansicht eines Dokuments und öffnet es im Formular.
      * @param stage das aktuelle Stage-Objekt.
      * @param document das Dokument-Objekt, dessen Details angezeigt werden sollen.
      */
@@ -107,13 +108,13 @@ public class NavigationService {
         LOGGER.log(Level.INFO, "Navigiere zu Dokument-Detailansicht für: {0}", document.getDokuTitel());
         navigateTo(stage, WindowsNaviService.Page.DOCUMENT, controller -> {
             if (controller instanceof DocumentController documentController) {
-                documentController.setDocumentClientIfaNumber(document.getDocumentClientIfaNumber());
+                documentController.openDocument(document);
             }
         });
     }
 
     /**
-     * Navigiert zur Detailansicht eines Termins basierend auf einem Termin-Objekt.
+     * Navigiert zur Detailansicht eines Termins basierend auf einem Termin-Objekt und wählt den Termin aus.
      * @param stage das aktuelle Stage-Objekt.
      * @param appointment das Termin-Objekt, dessen Details angezeigt werden sollen.
      */
@@ -121,11 +122,7 @@ public class NavigationService {
         LOGGER.log(Level.INFO, "Navigiere zu Termin-Detailansicht für: {0} {1}", new Object[]{appointment.getAppointmentClientLastname(), appointment.getAppointmentClientFirstname()});
         navigateTo(stage, WindowsNaviService.Page.APPOINTMENT, controller -> {
             if (controller instanceof AppointmentController appointmentController) {
-                appointmentController.setClientData(
-                        appointment.getAppointmentClientIfaNumber(),
-                        appointment.getAppointmentClientLastname(),
-                        appointment.getAppointmentClientFirstname()
-                );
+                appointmentController.showAppointment(appointment);
             }
         });
     }
@@ -159,4 +156,34 @@ public class NavigationService {
             }
         });
     }
+
+    /**
+     * Navigiert zur Detailansicht einer Datei und wählt die Datei aus.
+     * @param stage das aktuelle Stage-Objekt.
+     * @param file die Datei, die angezeigt werden soll.
+     */
+    public void navigateToFileDetail(Stage stage, File file) {
+        LOGGER.log(Level.INFO, "Navigiere zu Datei-Detailansicht für: {0}", file.getFileName());
+        navigateTo(stage, WindowsNaviService.Page.FILE, controller -> {
+            if (controller instanceof FileController fileController) {
+                fileController.showFile(file);
+            }
+        });
+    }
+
+    /**
+     * Navigiert zur Detailansicht eines Treffers der globalen Suche.
+     * @param stage das aktuelle Stage-Objekt.
+     * @param hit der ausgewählte Treffer.
+     * @param entity der mit {@link GlobalSearchService#loadEntity} geladene Eintrag des Treffers.
+     */
+    public void navigateToSearchHit(Stage stage, GlobalSearchService.Hit hit, Object entity) {
+        LOGGER.log(Level.INFO, "Navigiere zu Suchtreffer: {0} {1}", new Object[]{hit.type().getLabel(), hit.key()});
+        switch (hit.type()) {
+            case CLIENT -> navigateToClientDetail(stage, (Client) entity);
+            case APPOINTMENT -> navigateToAppointmentDetail(stage, (Appointment) entity);
+            case DOCUMENTATION -> navigateToDocumentDetail(stage, (Document) entity);
+            case FILE -> navigateToFileDetail(stage, (File) entity);
+        }
+    }
 }
@@ -0,0 +1,157 @@
+package com.badr.cp_project.service;
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.collections.ObservableListBase;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Beobachtbare Liste, die ihre Einträge seitenweise über Keyset-Abfragen nachlädt.
+ * Es wird immer nur so viel geladen, wie die Tabelle beim Scrollen anfordert
+ * (siehe {@link UtilityService#enableLazyPaging}). Die Abfragen laufen über
+ * {@link DataLoadService#loadAsync} im Hintergrund, die Liste selbst wird nur im JavaFX-Thread verändert.
+ * @param <T> der Typ der Einträge.
+ */
+public class PagedObservableList<T> extends ObservableListBase<T> {
+
+    private static final Logger LOGGER = Logger.getLogger(PagedObservableList.class.getName());
+
+    /**
+     * Lädt die Seite, die auf den übergebenen letzten Eintrag folgt.
+     * @param <T> der Typ der Einträge.
+     */
+    @FunctionalInterface
+    public interface PageLoader<T> {
+        /**
+         * @param lastItem der letzte bereits geladene Eintrag oder null für die erste Seite.
+         * @param pageSize die gewünschte Seitengröße.
+         * @return die Einträge der Folgeseite; weniger als pageSize bedeutet, dass keine weiteren folgen.
+         * @throws SQLException wenn die Abfrage fehlschlägt; die Seite wird dann beim nächsten Anfordern erneut geladen.
+         */
+        List<T> loadPage(T lastItem, int pageSize) throws SQLException;
+    }
+
+    private final List<T> items = new ArrayList<>();
+    private final PageLoader<T> pageLoader;
+    private final int pageSize;
+    private final DataLoadService dataLoadService;
+    private final ReadOnlyBooleanWrapper loading = new ReadOnlyBooleanWrapper(false);
+    private final ReadOnlyBooleanWrapper exhausted = new ReadOnlyBooleanWrapper(false);
+
+    public PagedObservableList(PageLoader<T> pageLoader, int pageSize, DataLoadService dataLoadService) {
+        this.pageLoader = pageLoader;
+        this.pageSize = pageSize;
+        this.dataLoadService = dataLoadService;
+    }
+
+    @Override
+    public T get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Ersetzt einen Eintrag, z. B. nach einer Delta-Aktualisierung. Muss im JavaFX-Thread aufgerufen werden.
+     */
+    @Override
+    public T set(int index, T element) {
+        T old = items.set(index, element);
+        beginChange();
+        nextSet(index, old);
+        endChange();
+        return old;
+    }
+
+    /**
+     * Fügt einen Eintrag ein, z. B. nach einer Delta-Aktualisierung. Muss im JavaFX-Thread aufgerufen werden.
+     */
+    @Override
+    public void add(int index, T element) {
+        items.add(index, element);
+        beginChange();
+        nextAdd(index, index + 1);
+        endChange();
+    }
+
+    /**
+     * Entfernt einen Eintrag, z. B. nach einer Delta-Aktualisierung. Muss im JavaFX-Thread aufgerufen werden.
+     */
+    @Override
+    public T remove(int index) {
+        T old = items.remove(index);
+        beginChange();
+        nextRemove(index, old);
+        endChange();
+        return old;
+    }
+
+    /**
+     * @return true, wenn alle Seiten geladen sind.
+     */
+    public boolean isExhausted() {
+        return exhausted.get();
+    }
+
+    public ReadOnlyBooleanProperty exhaustedProperty() {
+        return exhausted.getReadOnlyProperty();
+    }
+
+    /**
+     * @return true, solange eine Seite im Hintergrund geladen wird.
+     */
+    public boolean isLoading() {
+        return loading.get();
+    }
+
+    public ReadOnlyBooleanProperty loadingProperty() {
+        return loading.getReadOnlyProperty();
+    }
+
+    /**
+     * Lädt die nächste Seite im Hintergrund und hängt sie im JavaFX-Thread an.
+     * Läuft bereits ein Ladevorgang oder sind alle Seiten geladen, passiert nichts. Schlägt das Laden fehl, bleibt die
+     * Liste unverändert und der nächste Aufruf versucht dieselbe Seite erneut.
+     * Muss im JavaFX-Thread aufgerufen werden.
+     * @return ein Future, das nach dem Anhängen der Seite abgeschlossen ist.
+     */
+    public CompletableFuture<Void> loadNextPage() {
+        if (exhausted.get() || loading.get()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        loading.set(true);
+        T lastItem = items.isEmpty() ? null : items.getLast();
+        return dataLoadService.loadAsync(() -> pageLoader.loadPage(lastItem, pageSize), "Seite")
+                .handle((page, error) -> {
+                    loading.set(false);
+                    if (page != null) {
+                        appendPage(page);
+                    } else if (error != null) {
+                        LOGGER.log(Level.FINE, "Nachladen einer Seite abgebrochen oder fehlgeschlagen", error);
+                    }
+                    return null;
+                });
+    }
+
+    private void appendPage(List<T> page) {
+        if (!page.isEmpty()) {
+            int from = items.size();
+            items.addAll(page);
+            beginChange();
+            nextAdd(from, items.size());
+            endChange();
+            LOGGER.log(Level.FINE, "Seite mit {0} Einträgen nachgeladen, insgesamt {1}.", new Object[]{page.size(), items.size()});
+        }
+        // Erst nach dem Anhängen melden, damit Beobachter die vollständige Liste sehen
+        exhausted.set(page.size() < pageSize);
+    }
+}
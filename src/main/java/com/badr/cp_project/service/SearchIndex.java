@@ -0,0 +1,473 @@
+package com.badr.cp_project.service;
+
+import com.badr.cp_project.util.BkTree;
+import com.badr.cp_project.util.KoelnerPhonetik;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Volltextsuche über die Felder einer Menge von Elementen, z. B. der Klienten für die Startseite (siehe
+ * {@link ClientSearchService}).
+ * Jedes Element wird einmal normalisiert (Kleinschreibung, ohne Akzente, ß als ss) und mit allen Trigrammen
+ * seiner Felder indiziert. Eine Suche liest für jeden Suchbegriff ab drei Zeichen nur die kürzeste Trefferliste
+ * eines seiner Trigramme und prüft diese Kandidaten; kürzere Begriffe durchsuchen die vorberechneten Texte.
+ * Ein Element passt, wenn jeder durch Leerzeichen getrennte Begriff in einem seiner Felder vorkommt.
+ * Optional werden Namen zusätzlich unscharf gesucht: Ein Begriff passt auch auf einen Namensteil mit demselben Code
+ * der {@link KoelnerPhonetik} oder mit kleiner Levenshtein-Distanz. Die Codes werden beim Aufnehmen einmal berechnet
+ * und in einer Map nachgeschlagen, die ähnlichen Namensteile in einem {@link BkTree} gesucht; unscharfe Treffer werden
+ * hinter den genauen eingereiht.
+ * Entfernte Elemente bleiben zunächst als Lücke in den Trefferlisten stehen; sobald mehr als ein Viertel der IDs
+ * Lücken sind, wird der Index aus den verbliebenen Elementen neu aufgebaut, damit häufiges Ersetzen ihn nicht wachsen lässt.
+ * Nicht threadsicher; Aufrufer aus mehreren Threads müssen die Zugriffe selbst synchronisieren.
+ * @param <T> der Typ der Elemente.
+ */
+public class SearchIndex<T> {
+
+    // Trennt die Felder im normalisierten Text; kommt in keiner normalisierten Eingabe vor
+    private static final char FIELD_SEPARATOR = '\u0001';
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NAME_SEPARATOR = Pattern.compile("[\\s-]+");
+    // Unscharfe Suche erst ab drei Zeichen, bis fünf Zeichen mit einer, danach mit zwei Abweichungen
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int LONG_TERM_LENGTH = 6;
+    private static final int PHONETIC_RANK = 1;
+    private static final Postings NO_POSTINGS = new Postings();
+    // Neu aufbauen, wenn mehr als ein Viertel der IDs entfernt ist, aber nicht schon bei den ersten Entfernungen
+    private static final int MIN_COMPACT_REMOVED = 16;
+
+    private final Function<? super T, ? extends Collection<String>> fieldsOf;
+    private final Map<T, Integer> idOf = new IdentityHashMap<>();
+    // Element und normalisierter Text je ID; null, wenn das Element entfernt wurde
+    private final List<T> items = new ArrayList<>();
+    private final List<String> documents = new ArrayList<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Function<? super T, ? extends Collection<String>> namesOf;
+    private final Map<String, Postings> nameTokens = new HashMap<>();
+    private final Map<String, Postings> phoneticCodes = new HashMap<>();
+    private BkTree nameTree = new BkTree();
+    private int removed;
+    // Zählt die Neuaufbauten; Suchergebnisse von vorher kennen die neuen IDs nicht
+    private int generation;
+
+    /**
+     * Ergebnis einer Suche: Prädikat für eine {@code FilteredList} und Rangfolge der Treffer.
+     * @param <T> der Typ der Elemente.
+     */
+    public static final class Result<T> implements Predicate<T> {
+
+        private final Predicate<T> matches;
+        private final ToIntFunction<T> rank;
+        private final boolean ranked;
+
+        private Result(Predicate<T> matches, ToIntFunction<T> rank, boolean ranked) {
+            this.matches = matches;
+            this.rank = rank;
+            this.ranked = ranked;
+        }
+
+        @Override
+        public boolean test(T item) {
+            return matches.test(item);
+        }
+
+        /**
+         * @return true, wenn unscharfe Treffer dabei sind und die Reihenfolge nach {@link #byRank()} von Bedeutung ist.
+         */
+        public boolean isRanked() {
+            return ranked;
+        }
+
+        /**
+         * @return ordnet genaue Treffer vor phonetisch gleiche und diese vor Treffern mit größerer Distanz.
+         */
+        public Comparator<T> byRank() {
+            return Comparator.comparingInt(rank);
+        }
+    }
+
+    /**
+     * @param fieldsOf liefert die durchsuchbaren Felder eines Elements; null-Felder werden übersprungen.
+     */
+    public SearchIndex(Function<? super T, ? extends Collection<String>> fieldsOf) {
+        this(fieldsOf, null);
+    }
+
+    /**
+     * @param fieldsOf liefert die durchsuchbaren Felder eines Elements; null-Felder werden übersprungen.
+     * @param namesOf liefert die Namen eines Elements, die zusätzlich unscharf gesucht werden, oder null.
+     */
+    public SearchIndex(Function<? super T, ? extends Collection<String>> fieldsOf,
+                       Function<? super T, ? extends Collection<String>> namesOf) {
+        this.fieldsOf = fieldsOf;
+        this.namesOf = namesOf;
+    }
+
+    /**
+     * Normalisiert einen Text für die Suche: Kleinschreibung, ohne diakritische Zeichen, ß als ss.
+     * @param text der Text.
+     * @return der normalisierte Text.
+     */
+    public static String normalize(String text) {
+        if (isAscii(text)) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace("ß", "ss");
+    }
+
+    /**
+     * Nimmt ein Element auf.
+     * @param item das Element.
+     */
+    public void add(T item) {
+        if (idOf.containsKey(item)) {
+            return;
+        }
+        int id = documents.size();
+        String document = document(item);
+        items.add(item);
+        documents.add(document);
+        idOf.put(item, id);
+        for (int i = 0; i + 3 <= document.length(); i++) {
+            long trigram = trigram(document, i);
+            if (trigram >= 0) {
+                postings.computeIfAbsent(trigram, ignore -> new Postings()).add(id);
+            }
+        }
+        if (namesOf != null) {
+            addNames(item, id);
+        }
+    }
+
+    private void addNames(T item, int id) {
+        for (String name : namesOf.apply(item)) {
+            if (name == null) {
+                continue;
+            }
+            for (String token : NAME_SEPARATOR.split(normalize(name))) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                nameTokens.computeIfAbsent(token, ignore -> new Postings()).add(id);
+                nameTree.add(token);
+                String code = KoelnerPhonetik.encode(token);
+                if (!code.isEmpty()) {
+                    phoneticCodes.computeIfAbsent(code, ignore -> new Postings()).add(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Nimmt mehrere Elemente auf.
+     * @param items die Elemente.
+     */
+    public void addAll(Collection<? extends T> items) {
+        items.forEach(this::add);
+    }
+
+    /**
+     * Entfernt ein Element. Seine ID wird erst bei einem Neuaufbau des Index freigegeben.
+     * @param item das Element.
+     */
+    public void remove(T item) {
+        Integer id = idOf.remove(item);
+        if (id == null) {
+            return;
+        }
+        items.set(id, null);
+        documents.set(id, null);
+        removed++;
+        if (removed >= MIN_COMPACT_REMOVED && removed > documents.size() / 4) {
+            compact();
+        }
+    }
+
+    /**
+     * @return die Anzahl der enthaltenen Elemente.
+     */
+    public int size() {
+        return idOf.size();
+    }
+
+    /**
+     * @return die Anzahl der vergebenen IDs einschließlich der Lücken entfernter Elemente.
+     */
+    int capacity() {
+        return documents.size();
+    }
+
+    /**
+     * Baut Trefferlisten, Namensteile, phonetische Codes und BK-Baum aus den verbliebenen Elementen neu auf.
+     * Die Reihenfolge der Aufnahme bleibt erhalten.
+     */
+    private void compact() {
+        List<T> live = items.stream().filter(Objects::nonNull).toList();
+        idOf.clear();
+        items.clear();
+        documents.clear();
+        postings.clear();
+        nameTokens.clear();
+        phoneticCodes.clear();
+        nameTree = new BkTree();
+        removed = 0;
+        generation++;
+        live.forEach(this::add);
+    }
+
+    /**
+     * Sucht alle passenden Elemente. Elemente, die erst nach der Suche hinzukommen oder nach einem Neuaufbau eine neue
+     * ID haben, prüft das Ergebnis einzeln und nur genau.
+     * @param query die Eingabe des Benutzers.
+     * @return das Ergebnis, das als Prädikat für passende Elemente true liefert.
+     */
+    public Result<T> search(String query) {
+        String[] terms = terms(query);
+        if (terms.length == 0) {
+            return new Result<>(ignore -> true, ignore -> 0, false);
+        }
+        BitSet matches = new BitSet(documents.size());
+        Map<Integer, Integer> ranks = new HashMap<>();
+        collect(terms, matches, ranks);
+        int searched = documents.size();
+        int searchedGeneration = generation;
+        Predicate<T> predicate = item -> {
+            Integer id = idOf.get(item);
+            if (id != null && id < searched && generation == searchedGeneration) {
+                return matches.get(id);
+            }
+            return matchesAll(id != null ? documents.get(id) : document(item), terms);
+        };
+        ToIntFunction<T> rank = item -> {
+            Integer id = idOf.get(item);
+            return id == null || generation != searchedGeneration ? 0 : ranks.getOrDefault(id, 0);
+        };
+        return new Result<>(predicate, rank, !ranks.isEmpty());
+    }
+
+    /**
+     * Sucht unter den aufgenommenen Elementen, ohne dass der Aufrufer sie selbst in einer Liste hält.
+     * @param query die Eingabe des Benutzers.
+     * @param limit die höchste Anzahl der Treffer.
+     * @return die Treffer, genaue vor unscharfen, bei gleichem Rang in der Reihenfolge der Aufnahme;
+     *         leer, wenn die Eingabe keinen Suchbegriff enthält.
+     */
+    public List<T> find(String query, int limit) {
+        String[] terms = terms(query);
+        if (terms.length == 0) {
+            return List.of();
+        }
+        BitSet matches = new BitSet(documents.size());
+        Map<Integer, Integer> ranks = new HashMap<>();
+        collect(terms, matches, ranks);
+        return matches.stream().boxed()
+                .sorted(Comparator.comparingInt(id -> ranks.getOrDefault(id, 0)))
+                .limit(limit)
+                .map(items::get)
+                .toList();
+    }
+
+    private void collect(String[] terms, BitSet matches, Map<Integer, Integer> ranks) {
+        List<Map<Integer, Integer>> fuzzyRanks = new ArrayList<>(terms.length);
+        for (String term : terms) {
+            fuzzyRanks.add(fuzzyMatches(term));
+        }
+        collect(terms, fuzzyRanks, matches, ranks);
+    }
+
+    /**
+     * Prüft die Kandidaten des Begriffs mit den wenigsten Kandidaten gegen alle Begriffe.
+     * Ein Begriff passt genau, wenn er im Text vorkommt, sonst mit dem Rang seines unscharfen Treffers.
+     */
+    private void collect(String[] terms, List<Map<Integer, Integer>> fuzzyRanks, BitSet matches,
+                         Map<Integer, Integer> ranks) {
+        Postings candidates = null;
+        Map<Integer, Integer> fuzzyCandidates = Map.of();
+        long fewest = Long.MAX_VALUE;
+        for (int i = 0; i < terms.length; i++) {
+            Postings list = shortestPostings(terms[i]);
+            long count = (list == null ? documents.size() : list.size) + fuzzyRanks.get(i).size();
+            if (count < fewest) {
+                fewest = count;
+                candidates = list;
+                fuzzyCandidates = fuzzyRanks.get(i);
+            }
+        }
+        if (candidates == null) {
+            // Nur Begriffe unter drei Zeichen: alle vorberechneten Texte durchsuchen
+            for (int id = 0; id < documents.size(); id++) {
+                verify(id, terms, fuzzyRanks, matches, ranks);
+            }
+            return;
+        }
+        for (int i = 0; i < candidates.size; i++) {
+            verify(candidates.ids[i], terms, fuzzyRanks, matches, ranks);
+        }
+        for (int id : fuzzyCandidates.keySet()) {
+            verify(id, terms, fuzzyRanks, matches, ranks);
+        }
+    }
+
+    private void verify(int id, String[] terms, List<Map<Integer, Integer>> fuzzyRanks, BitSet matches,
+                        Map<Integer, Integer> ranks) {
+        String document = documents.get(id);
+        if (document == null) {
+            return;
+        }
+        int rank = 0;
+        for (int i = 0; i < terms.length; i++) {
+            if (document.contains(terms[i])) {
+                continue;
+            }
+            Integer fuzzyRank = fuzzyRanks.get(i).get(id);
+            if (fuzzyRank == null) {
+                return;
+            }
+            rank += fuzzyRank;
+        }
+        matches.set(id);
+        if (rank > 0) {
+            ranks.put(id, rank);
+        }
+    }
+
+    /**
+     * @return die kürzeste Trefferliste der Trigramme des Begriffs, eine leere Liste, wenn ein Trigramm nirgends
+     *         vorkommt, oder null bei Begriffen unter drei Zeichen.
+     */
+    private Postings shortestPostings(String term) {
+        Postings shortest = null;
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            Postings list = postings.get(trigram(term, i));
+            if (list == null) {
+                return NO_POSTINGS;
+            }
+            if (shortest == null || list.size < shortest.size) {
+                shortest = list;
+            }
+        }
+        return shortest;
+    }
+
+    /**
+     * @return die IDs der Elemente, deren Namen unscharf zum Begriff passen, mit ihrem Rang: 1 bei gleichem
+     *         phonetischen Code, sonst die Levenshtein-Distanz.
+     */
+    private Map<Integer, Integer> fuzzyMatches(String term) {
+        if (namesOf == null || term.length() < MIN_FUZZY_LENGTH) {
+            return Map.of();
+        }
+        String code = KoelnerPhonetik.encode(term);
+        if (code.isEmpty()) {
+            // Zahlen und Datumsangaben nur genau suchen
+            return Map.of();
+        }
+        Map<Integer, Integer> ranks = new HashMap<>();
+        addRanks(phoneticCodes.get(code), PHONETIC_RANK, ranks);
+        int maxDistance = term.length() < LONG_TERM_LENGTH ? 1 : 2;
+        nameTree.search(term, maxDistance).forEach((token, distance) -> addRanks(nameTokens.get(token), distance, ranks));
+        return ranks;
+    }
+
+    private void addRanks(Postings list, int rank, Map<Integer, Integer> ranks) {
+        if (list == null || rank == 0) {
+            return;
+        }
+        for (int i = 0; i < list.size; i++) {
+            if (documents.get(list.ids[i]) != null) {
+                ranks.merge(list.ids[i], rank, Math::min);
+            }
+        }
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesAll(String document, String[] terms) {
+        if (document == null) {
+            return false;
+        }
+        for (String term : terms) {
+            if (!document.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] terms(String query) {
+        if (query == null) {
+            return new String[0];
+        }
+        return Arrays.stream(WHITESPACE.split(normalize(query).strip()))
+                .filter(term -> !term.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private String document(T item) {
+        StringBuilder document = new StringBuilder();
+        for (String field : fieldsOf.apply(item)) {
+            if (field != null) {
+                document.append(normalize(field)).append(FIELD_SEPARATOR);
+            }
+        }
+        return document.toString();
+    }
+
+    /**
+     * @return die drei Zeichen ab {@code start} als Schlüssel oder -1, wenn sie eine Feldgrenze überspannen.
+     */
+    private static long trigram(String text, int start) {
+        char a = text.charAt(start);
+        char b = text.charAt(start + 1);
+        char c = text.charAt(start + 2);
+        if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR || c == FIELD_SEPARATOR) {
+            return -1;
+        }
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    /**
+     * Aufsteigend sortierte IDs der Elemente, die ein Trigramm enthalten.
+     */
+    private static final class Postings {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            // IDs werden aufsteigend vergeben; ein Trigramm, das mehrfach im selben Text vorkommt, nur einmal speichern
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.badr.cp_project.service;
+
+import com.badr.cp_project.dao.ChangeSet;
+import javafx.scene.control.TableView;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Hält ein TableView nach Änderungen aktuell, ohne die Tabelle neu abzufragen.
+ * Nach dem Laden einer Liste merkt sich der Tracker das Wasserzeichen der Datenbank; {@link #refresh()} holt
+ * nur die seitdem geänderten und gelöschten Zeilen und arbeitet sie per {@link UtilityService#applyChanges}
+ * in die vorhandene Liste ein, sodass Auswahl und Scrollposition erhalten bleiben.
+ * Alle Methoden müssen im JavaFX-Thread aufgerufen werden.
+ * @param <T> der Typ der Elemente im TableView.
+ * @param <K> der Typ des Schlüssels.
+ */
+public class TableChangeTracker<T, K> {
+
+    /**
+     * Liest die Änderungen seit einem Wasserzeichen, z. B. {@code AppointmentDAO::getAppointmentChangesSince}.
+     * @param <T> der Typ der Zeilen.
+     * @param <K> der Typ des Schlüssels.
+     */
+    @FunctionalInterface
+    public interface ChangeLoader<T, K> {
+        ChangeSet<T, K> loadChangesSince(Timestamp since) throws SQLException;
+    }
+
+    private final TableView<T> tableView;
+    private final ChangeLoader<T, K> changeLoader;
+    private final Function<? super T, ? extends K> keyOf;
+    private final DataLoadService dataLoadService;
+    private final UtilityService utilityService;
+
+    private Comparator<? super T> order;
+    private Predicate<? super T> filter;
+    private CompletableFuture<Timestamp> watermark;
+    private int generation;
+
+    public TableChangeTracker(TableView<T> tableView, ChangeLoader<T, K> changeLoader, Function<? super T, ? extends K> keyOf,
+                              DataLoadService dataLoadService, UtilityService utilityService) {
+        this.tableView = tableView;
+        this.changeLoader = changeLoader;
+        this.keyOf = keyOf;
+        this.dataLoadService = dataLoadService;
+        this.utilityService = utilityService;
+    }
+
+    /**
+     * Beginnt die Verfolgung für eine neu geladene Liste. Muss direkt beim Laden der Liste aufgerufen werden.
+     * @param order die Sortierung, in der die Liste geladen wird.
+     * @param filter welche Einträge die Liste enthält.
+     */
+    public void track(Comparator<? super T> order, Predicate<? super T> filter) {
+        this.order = order;
+        this.filter = filter;
+        generation++;
+        watermark = dataLoadService.loadAsync(() -> changeLoader.loadChangesSince(null).watermark(), "Änderungsstand");
+    }
+
+    /**
+     * Übernimmt eine Änderung vom {@link EventBus} mit der Sortierung und dem Filter der aktuellen Liste.
+     * @param event die Änderung.
+     */
+    public void apply(EntityChangeEvent<T> event) {
+        if (watermark != null) {
+            utilityService.applyChange(tableView, event, keyOf, order, filter);
+        }
+    }
+
+    /**
+     * Holt die Änderungen seit dem letzten Abruf im Hintergrund und arbeitet sie in die Liste ein.
+     * Aufeinanderfolgende Aufrufe werden nacheinander ausgeführt.
+     * @return ein Future, das nach dem Einarbeiten abgeschlossen ist.
+     */
+    public CompletableFuture<Void> refresh() {
+        if (watermark == null) {
+            throw new IllegalStateException("track() wurde noch nicht aufgerufen.");
+        }
+        int refreshGeneration = generation;
+        CompletableFuture<Timestamp> since = watermark;
+        CompletableFuture<ChangeSet<T, K>> changes = since.thenCompose(timestamp ->
+                dataLoadService.loadAsync(() -> changeLoader.loadChangesSince(timestamp), "Änderungen"));
+        // Schlägt der Abruf fehl, gilt weiter das alte Wasserzeichen
+        watermark = changes.thenApply(ChangeSet::watermark).exceptionallyCompose(ignore -> since);
+        return changes.thenAccept(changeSet -> {
+            if (refreshGeneration == generation) {
+                utilityService.applyChanges(tableView, changeSet, keyOf, order, filter);
+            }
+        });
+    }
+}
@@ -1,22 +1,51 @@
 package com.badr.cp_project.service;
 
+import com.badr.cp_project.dao.ChangeSet;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
+import javafx.collections.transformation.TransformationList;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.Label;
+import javafx.scene.control.MenuItem;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableColumnBase;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
+import javafx.scene.control.skin.VirtualFlow;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextFlow;
 import javafx.stage.Stage;
 import javafx.util.Callback;
+import javafx.util.Duration;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
-import java.util.function.BiPredicate;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -24,16 +53,32 @@ public class UtilityService {
 
     // Logger für konsistente Protokollierung
     private static final Logger LOGGER = Logger.getLogger(UtilityService.class.getName());
-    private final Random random = new Random();
+
+    // Anzahl der Zeilen vor dem Tabellenende, ab der die nächste Seite geladen wird
+    private static final int PAGING_PREFETCH_ROWS = 10;
+    private static final String PAGED_LIST_KEY = "casepilot.pagedList";
+    private static final String PAGING_LISTENERS_KEY = "casepilot.pagingListeners";
+    private static final String PENDING_LOAD_KEY = "casepilot.pendingLoad";
+    private static final String SORTABLE_KEY = "casepilot.sortable";
+    private static final String LOADING_TEXT = "Daten werden geladen...";
+    private static final String EMPTY_TEXT = "Keine Einträge vorhanden.";
+    // Wartezeit nach dem letzten Tastendruck, bevor die Suche ausgewertet wird
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(150);
+    private static final int GLOBAL_SEARCH_HITS = 15;
 
     /**
-     * Generiert eine zufällige 6-stellige IFA-Nummer als String.
-     * @return eine zufällige 6-stellige Nummer als String.
+     * Vergibt die nächste freie IFA-Nummer aus der Datenbank-Sequenz.
+     * @return die neue IFA-Nummer oder ein leerer String, wenn keine Nummer reserviert werden konnte.
      */
-    public String generateRandomIfaNumber() {
-        String ifaNummer = String.valueOf(100000 + random.nextInt(900000));
-        LOGGER.log(Level.INFO, "Generierte zufällige IFA-Nummer: {0}", ifaNummer);
-        return ifaNummer;
+    public String generateIfaNumber() {
+        try {
+            String ifaNummer = IfaNumberAllocator.getInstance().nextIfaNumber();
+            LOGGER.log(Level.INFO, "Vergebene IFA-Nummer: {0}", ifaNummer);
+            return ifaNummer;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Es konnte keine IFA-Nummer reserviert werden.", e);
+            return "";
+        }
     }
 
     /**
@@ -81,6 +126,9 @@ public class UtilityService {
      */
     public <T> void loadData(TableView<T> tableView, ObservableList<T> dataList, String errorMessage) {
         try {
+            // Eine zuvor seitenweise geladene Liste wird durch die neuen Daten ersetzt
+            tableView.getProperties().remove(PAGED_LIST_KEY);
+            tableView.setPlaceholder(new Label(EMPTY_TEXT));
             tableView.setItems(dataList);
             LOGGER.log(Level.INFO, "Daten erfolgreich in TableView geladen: {0} Einträge.", dataList.size());
         } catch (Exception e) {
@@ -88,6 +136,186 @@ public class UtilityService {
         }
     }
 
+    /**
+     * Setzt die Elemente eines TableView, sobald ein asynchroner Ladevorgang abgeschlossen ist.
+     * Bis dahin wird die Tabelle geleert und ein Lade-Hinweis angezeigt. Ein noch laufender
+     * früherer Ladevorgang für dasselbe TableView wird abgebrochen, damit veraltete Daten die neuen nicht überschreiben.
+     * @param tableView das TableView, in dem die Elemente gesetzt werden.
+     * @param pendingData der laufende Ladevorgang, der im JavaFX-Thread abgeschlossen wird.
+     * @param errorMessage die Fehlermeldung, die im Falle einer Ausnahme ausgegeben wird.
+     * @param <T> der Typ der Elemente im TableView.
+     */
+    public <T> void loadDataAsync(TableView<T> tableView, CompletableFuture<ObservableList<T>> pendingData, String errorMessage) {
+        Object previous = tableView.getProperties().put(PENDING_LOAD_KEY, pendingData);
+        if (previous instanceof Future<?> previousLoad && previous != pendingData) {
+            previousLoad.cancel(true);
+        }
+        tableView.getProperties().remove(PAGED_LIST_KEY);
+        tableView.setPlaceholder(new Label(LOADING_TEXT));
+        // Die bisherige Liste nicht leeren, sondern ersetzen: Sie kann eine seitenweise geladene Liste sein
+        tableView.setItems(FXCollections.observableArrayList());
+
+        pendingData.whenComplete((dataList, error) -> {
+            if (tableView.getProperties().get(PENDING_LOAD_KEY) != pendingData) {
+                return;
+            }
+            tableView.getProperties().remove(PENDING_LOAD_KEY);
+            if (dataList != null) {
+                loadData(tableView, dataList, errorMessage);
+            } else if (!isCancellation(error)) {
+                LOGGER.log(Level.SEVERE, errorMessage, error);
+                tableView.setPlaceholder(new Label(errorMessage));
+            }
+        });
+    }
+
+    /**
+     * Wählt einen Eintrag aus und rollt zu ihm, sobald ein mit {@link #loadDataAsync} gestarteter Ladevorgang seine
+     * Liste gesetzt hat; ohne offenen Ladevorgang wird sofort in der aktuellen Liste gesucht.
+     * @param tableView das TableView.
+     * @param matches erkennt den auszuwählenden Eintrag.
+     * @param <T> der Typ der Elemente im TableView.
+     */
+    public <T> void selectWhenLoaded(TableView<T> tableView, Predicate<? super T> matches) {
+        if (!tableView.getProperties().containsKey(PENDING_LOAD_KEY)) {
+            select(tableView, matches);
+            return;
+        }
+        tableView.itemsProperty().addListener(new ChangeListener<>() {
+            @Override
+            public void changed(ObservableValue<? extends ObservableList<T>> items, ObservableList<T> oldItems,
+                                ObservableList<T> newItems) {
+                // Die leere Liste während des Ladens überspringen
+                if (tableView.getProperties().containsKey(PENDING_LOAD_KEY)) {
+                    return;
+                }
+                items.removeListener(this);
+                select(tableView, matches);
+            }
+        });
+    }
+
+    private <T> void select(TableView<T> tableView, Predicate<? super T> matches) {
+        tableView.getItems().stream().filter(matches).findFirst().ifPresent(item -> {
+            tableView.getSelectionModel().select(item);
+            tableView.scrollTo(item);
+        });
+    }
+
+    /**
+     * Arbeitet die Änderungen einer Delta-Abfrage direkt in die Liste eines TableView ein, statt sie neu zu laden.
+     * Gelöschte Einträge werden entfernt, geänderte an ihrer Stelle ersetzt und neue an der Sortierposition eingefügt.
+     * Neue Einträge hinter dem Ende einer noch nicht vollständig geladenen {@link PagedObservableList} werden
+     * übergangen, sie kommen mit der nächsten Seite. Die Auswahl bleibt auf demselben Schlüssel.
+     * Muss im JavaFX-Thread aufgerufen werden.
+     * @param tableView das TableView, dessen Liste angepasst wird.
+     * @param changes die Änderungen seit dem letzten Abruf.
+     * @param keyOf liefert den Schlüssel eines Eintrags.
+     * @param order die Sortierung, in der die Liste geladen wurde.
+     * @param filter welche Einträge die Liste enthalten soll, z. B. nur die Termine eines Klienten.
+     * @param <T> der Typ der Elemente im TableView.
+     * @param <K> der Typ des Schlüssels.
+     */
+    public <T, K> void applyChanges(TableView<T> tableView, ChangeSet<T, K> changes, Function<? super T, ? extends K> keyOf,
+                                    Comparator<? super T> order, Predicate<? super T> filter) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        ObservableList<T> items = tableView.getProperties().get(PAGED_LIST_KEY) instanceof PagedObservableList<?> pagedList
+                ? (ObservableList<T>) pagedList : tableView.getItems();
+        boolean openEnded = items instanceof PagedObservableList<?> pagedList && !pagedList.isExhausted();
+        T selected = tableView.getSelectionModel().getSelectedItem();
+        K selectedKey = selected == null ? null : keyOf.apply(selected);
+
+        patchItems(items, openEnded, changes, keyOf, order, filter);
+
+        if (selectedKey != null) {
+            restoreSelection(tableView, selectedKey, keyOf);
+        }
+        LOGGER.log(Level.FINE, "Delta eingearbeitet: {0} geändert, {1} gelöscht.",
+                new Object[]{changes.changed().size(), changes.deletedKeys().size()});
+    }
+
+    /**
+     * Übernimmt eine einzelne Änderung vom {@link EventBus} in die Liste eines TableView, ohne Datenbankabfrage.
+     * Es gelten dieselben Regeln wie bei {@link #applyChanges}. Muss im JavaFX-Thread aufgerufen werden.
+     * @param tableView das TableView, dessen Liste angepasst wird.
+     * @param event die Änderung.
+     * @param keyOf liefert den Schlüssel eines Eintrags; er muss dem Schlüssel des Ereignisses entsprechen.
+     * @param order die Sortierung, in der die Liste geladen wurde.
+     * @param filter welche Einträge die Liste enthalten soll.
+     * @param <T> der Typ der Elemente im TableView.
+     */
+    public <T> void applyChange(TableView<T> tableView, EntityChangeEvent<T> event, Function<? super T, ?> keyOf,
+                                Comparator<? super T> order, Predicate<? super T> filter) {
+        ChangeSet<T, Object> changes = event.type() == EntityChangeEvent.Type.DELETED
+                ? new ChangeSet<>(List.of(), List.of(event.key()), null)
+                : new ChangeSet<>(List.of(event.entity()), List.of(), null);
+        applyChanges(tableView, changes, keyOf, order, filter);
+    }
+
+    private <T, K> void patchItems(List<T> items, boolean openEnded, ChangeSet<T, K> changes,
+                                   Function<? super T, ? extends K> keyOf, Comparator<? super T> order,
+                                   Predicate<? super T> filter) {
+        Set<K> deletedKeys = new HashSet<>(changes.deletedKeys());
+        Map<K, T> pending = new LinkedHashMap<>();
+        for (T item : changes.changed()) {
+            pending.put(keyOf.apply(item), item);
+        }
+
+        // Vorhandene Einträge von hinten durchgehen, damit die Indizes beim Entfernen gültig bleiben
+        for (int i = items.size() - 1; i >= 0; i--) {
+            K key = keyOf.apply(items.get(i));
+            T replacement = pending.remove(key);
+            if (replacement != null && filter.test(replacement) && staysInPlace(items, i, replacement, order)) {
+                items.set(i, replacement);
+            } else if (replacement != null) {
+                items.remove(i);
+                pending.put(key, replacement);
+            } else if (deletedKeys.contains(key)) {
+                items.remove(i);
+            }
+        }
+
+        for (T item : pending.values()) {
+            if (!filter.test(item)) {
+                continue;
+            }
+            int index = Collections.binarySearch(items, item, order);
+            int insertAt = index >= 0 ? index : -index - 1;
+            if (insertAt < items.size() || !openEnded) {
+                items.add(insertAt, item);
+            }
+        }
+    }
+
+    private <T> boolean staysInPlace(List<T> items, int index, T replacement, Comparator<? super T> order) {
+        return (index == 0 || order.compare(items.get(index - 1), replacement) <= 0)
+                && (index == items.size() - 1 || order.compare(replacement, items.get(index + 1)) <= 0);
+    }
+
+    private <T, K> void restoreSelection(TableView<T> tableView, K selectedKey, Function<? super T, ? extends K> keyOf) {
+        ObservableList<T> visible = tableView.getItems();
+        for (int i = 0; i < visible.size(); i++) {
+            if (selectedKey.equals(keyOf.apply(visible.get(i)))) {
+                if (tableView.getSelectionModel().getSelectedIndex() != i
+                        || tableView.getSelectionModel().getSelectedItem() != visible.get(i)) {
+                    tableView.getSelectionModel().clearAndSelect(i);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param error der Fehler, mit dem ein Ladevorgang abgeschlossen wurde.
+     * @return true, wenn der Ladevorgang abgebrochen wurde, z. B. beim Wegnavigieren, und keine Meldung nötig ist.
+     */
+    public boolean isCancellation(Throwable error) {
+        return error instanceof CancellationException || error.getCause() instanceof CancellationException;
+    }
+
     /**
      * Erstellt eine Zellfabrik zur Formatierung von LocalDate-Werten in einem TableView.
      * @param dateFormatter der DateTimeFormatter zur Formatierung der LocalDate.
@@ -121,38 +349,224 @@ public class UtilityService {
     }
 
     /**
-     * Fügt ein Suchfeld hinzu, um die Daten einer Tabelle zu filtern.
-     * @param searchField Das Suchfeld (TextField), in das der Benutzer eingibt.
-     * @param tableView Das TableView, das gefiltert werden soll.
-     * @param filteredList Die Liste der Daten, die gefiltert werden soll.
-     * @param <T> Der Typ der Daten in der Tabelle.
-     * @param filterFunction Die Funktion, die definiert, wie gefiltert werden soll.
+     * Erstellt eine CellFactory, die für Treffer der Volltextsuche den Textausschnitt mit fett markierten Fundstellen
+     * zeigt und für alle anderen Zeilen den normalen Text.
+     * @param snippetOf liefert den Ausschnitt einer Zeile oder null, wenn die Zeile kein Treffer ist.
+     * @param <T> der Typ der Elemente im TableView.
+     * @return ein Callback zur Darstellung der Zellen.
      */
-    public <T> void addSearchFilter(TextField searchField, TableView<T> tableView, FilteredList<T> filteredList, BiPredicate<T, String> filterFunction) {
-        // Standardmäßig: zeige alle Daten an, wenn das Suchfeld leer ist
-        filteredList.setPredicate(ignore -> true); // Zeigt zunächst alle Daten an
-
-        searchField.textProperty().addListener((ignore, ignore2, newValue) -> {
-            filteredList.setPredicate(item -> {
-                // Wenn das Suchfeld leer ist, zeige alle Daten an
-                if (newValue == null || newValue.isEmpty()) {
-                    return true;
+    public <T> Callback<TableColumn<T, String>, TableCell<T, String>> snippetCellFactory(
+            Function<? super T, DocumentationSearchService.Snippet> snippetOf) {
+        return ignore -> new TableCell<>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                DocumentationSearchService.Snippet snippet = empty || getTableRow() == null || getTableRow().getItem() == null
+                        ? null : snippetOf.apply(getTableRow().getItem());
+                if (snippet == null) {
+                    setGraphic(null);
+                    setText(empty ? null : item);
+                    return;
                 }
+                TextFlow flow = new TextFlow();
+                int position = 0;
+                for (DocumentationSearchService.Highlight highlight : snippet.highlights()) {
+                    flow.getChildren().add(new Text(snippet.text().substring(position, highlight.start())));
+                    Text match = new Text(snippet.text().substring(highlight.start(), highlight.end()));
+                    match.setStyle("-fx-font-weight: bold;");
+                    flow.getChildren().add(match);
+                    position = highlight.end();
+                }
+                flow.getChildren().add(new Text(snippet.text().substring(position)));
+                setText(null);
+                setGraphic(flow);
+            }
+        };
+    }
+
+    /**
+     * Ruft eine Suche erst auf, wenn im Suchfeld für {@link #SEARCH_DEBOUNCE} nicht mehr getippt wurde, damit alle
+     * Suchfelder gleich schnell reagieren.
+     * @param searchField das Suchfeld.
+     * @param search erhält die aktuelle Eingabe, im JavaFX-Thread.
+     */
+    public void onTypingPause(TextField searchField, Consumer<String> search) {
+        PauseTransition debounce = new PauseTransition(SEARCH_DEBOUNCE);
+        debounce.setOnFinished(ignore -> search.accept(searchField.getText()));
+        searchField.textProperty().addListener((ignore, oldValue, newValue) -> debounce.playFromStart());
+    }
 
-                // Anwenden der benutzerdefinierten Filterlogik
-                String lowerCaseFilter = newValue.toLowerCase();
-                return filterFunction.test(item, lowerCaseFilter);
+    /**
+     * Fügt einem TableView ein Suchfeld hinzu, dessen Treffer eine eigene Suche über alle Einträge liefert, z. B. der
+     * {@link ClientSearchService}, statt nur die bereits geladenen Seiten zu filtern. Nach einer kurzen Tipp-Pause
+     * zeigt die Tabelle die Treffer als eigene, vollständige Liste, bei leerem Suchfeld wieder die ursprüngliche.
+     * Treffer einer inzwischen geänderten Eingabe werden verworfen.
+     * @param searchField das Suchfeld.
+     * @param tableView das TableView.
+     * @param allItems die Liste, die ohne Suchbegriff angezeigt wird, z. B. eine {@link PagedObservableList}.
+     * @param search lädt die Treffer einer Eingabe; das Future muss im JavaFX-Thread abgeschlossen werden.
+     * @param <T> der Typ der Elemente im TableView.
+     * @return führt die aktuelle Suche erneut aus, z. B. nach einer Änderung; ohne Suchbegriff wirkungslos.
+     */
+    public <T> Runnable addIndexedSearch(TextField searchField, TableView<T> tableView, ObservableList<T> allItems,
+                                         Function<String, CompletableFuture<List<T>>> search) {
+        long[] generation = new long[1];
+        Runnable runSearch = () -> {
+            String query = searchField.getText();
+            long current = ++generation[0];
+            if (query == null || query.isBlank()) {
+                tableView.setItems(allItems);
+                return;
+            }
+            search.apply(query).whenComplete((hits, error) -> {
+                if (current != generation[0]) {
+                    return;
+                }
+                if (error != null) {
+                    if (!(error instanceof CancellationException)) {
+                        LOGGER.log(Level.WARNING, "Suche fehlgeschlagen: " + query, error);
+                    }
+                    return;
+                }
+                tableView.setItems(FXCollections.observableArrayList(hits));
             });
+        };
+        onTypingPause(searchField, ignore -> runSearch.run());
+        return () -> {
+            if (searchField.getText() != null && !searchField.getText().isBlank()) {
+                runSearch.run();
+            }
+        };
+    }
 
-            // Aktualisiere die Tabelle mit den gefilterten Daten
-            SortedList<T> sortedList = new SortedList<>(filteredList);
-            sortedList.comparatorProperty().bind(tableView.comparatorProperty());
-            tableView.setItems(sortedList);
+    /**
+     * Macht ein Textfeld zum Suchfeld der globalen Suche: Nach einer kurzen Tipp-Pause erscheinen die besten Treffer
+     * aller Bereiche mit ihrer Art in einer Liste unter dem Feld. Enter wählt den ersten Treffer.
+     * @param searchField das Suchfeld.
+     * @param searchService die globale Suche.
+     * @param onSelect wird mit dem ausgewählten Treffer aufgerufen, z. B. zur Navigation.
+     */
+    public void addGlobalSearch(TextField searchField, GlobalSearchService searchService,
+                                Consumer<GlobalSearchService.Hit> onSelect) {
+        ContextMenu hitMenu = new ContextMenu();
+        List<GlobalSearchService.Hit> currentHits = new ArrayList<>();
+        onTypingPause(searchField, query -> {
+            currentHits.clear();
+            currentHits.addAll(searchService.search(query, GLOBAL_SEARCH_HITS));
+            List<MenuItem> items = new ArrayList<>(currentHits.size());
+            for (GlobalSearchService.Hit hit : currentHits) {
+                MenuItem item = new MenuItem(hit.type().getLabel() + ": " + hit.label() + "  (" + hit.detail() + ")");
+                item.setOnAction(event -> onSelect.accept(hit));
+                items.add(item);
+            }
+            hitMenu.getItems().setAll(items);
+            if (items.isEmpty()) {
+                hitMenu.hide();
+            } else if (!hitMenu.isShowing()) {
+                hitMenu.show(searchField, Side.BOTTOM, 0, 0);
+            }
         });
+        searchField.setOnAction(ignore -> {
+            if (!currentHits.isEmpty()) {
+                hitMenu.hide();
+                onSelect.accept(currentHits.getFirst());
+            }
+        });
+    }
 
-        // Setze die sortierte Liste direkt, um die anfänglichen Daten anzuzeigen
-        SortedList<T> sortedList = new SortedList<>(filteredList);
-        sortedList.comparatorProperty().bind(tableView.comparatorProperty());
-        tableView.setItems(sortedList);
+    /**
+     * Lädt die Seiten einer {@link PagedObservableList} nach, sobald das TableView in die Nähe des Endes gescrollt wird
+     * oder die geladenen Zeilen den sichtbaren Bereich noch nicht füllen.
+     * Zeigt das TableView vorübergehend eine andere Liste, z. B. Suchtreffer, wird nichts nachgeladen.
+     * Wird die Methode für dasselbe TableView erneut aufgerufen, ersetzt die neue Liste die bisherige.
+     * Solange das TableView die Liste oder eine Sicht auf sie zeigt und noch Seiten fehlen, ist das Sortieren per
+     * Spaltenkopf abgeschaltet (siehe {@link #updateSortable}).
+     * @param tableView das TableView, dessen Scrollposition beobachtet wird.
+     * @param pagedList die seitenweise geladene Datenquelle.
+     */
+    public void enableLazyPaging(TableView<?> tableView, PagedObservableList<?> pagedList) {
+        boolean listenersInstalled = tableView.getProperties().put(PAGING_LISTENERS_KEY, Boolean.TRUE) != null;
+        tableView.getProperties().put(PAGED_LIST_KEY, pagedList);
+        pagedList.addListener((ListChangeListener<Object>) ignore -> requestPageIfNeeded(tableView));
+
+        // Lade-Hinweis, solange die erste Seite noch nicht da ist
+        tableView.setPlaceholder(new Label(pagedList.isLoading() ? LOADING_TEXT : EMPTY_TEXT));
+        pagedList.loadingProperty().addListener((ignore, ignore2, loading) -> {
+            if (tableView.getProperties().get(PAGED_LIST_KEY) == pagedList) {
+                tableView.setPlaceholder(new Label(loading ? LOADING_TEXT : EMPTY_TEXT));
+            }
+        });
+        // Sind alle Seiten geladen, sortiert die Tabelle wieder vollständig
+        pagedList.exhaustedProperty().addListener((ignore, ignore2, ignore3) -> {
+            if (tableView.getProperties().get(PAGED_LIST_KEY) == pagedList) {
+                updateSortable(tableView);
+            }
+        });
+
+        if (!listenersInstalled) {
+            installScrollListener(tableView);
+            tableView.skinProperty().addListener((ignore, ignore2, skin) -> installScrollListener(tableView));
+            tableView.itemsProperty().addListener((ignore, ignore2, ignore3) -> requestPageIfNeeded(tableView));
+            tableView.itemsProperty().addListener((ignore, ignore2, items) -> updateSortable(tableView));
+        }
+        updateSortable(tableView);
+        requestPageIfNeeded(tableView);
+    }
+
+    private void updateSortable(TableView<?> tableView) {
+        if (isPartiallyLoaded(tableView.getItems())) {
+            tableView.getSortOrder().clear();
+        }
+        updateSortable(tableView.getItems(), tableView.getColumns());
+    }
+
+    /**
+     * Schaltet das Sortieren der Spalten ab, solange eine Tabelle eine noch nicht vollständig geladene
+     * {@link PagedObservableList} zeigt, auch über eine {@link SortedList} oder andere Sicht: Im Speicher sortiert
+     * wären nur die geladenen Seiten, weitere Seiten kämen in Keyset-Reihenfolge dahinter an. Zeigt die Tabelle eine
+     * andere Liste, z. B. Suchtreffer, oder sind alle Seiten geladen, gilt wieder die ursprüngliche Einstellung.
+     * @param items die angezeigte Liste.
+     * @param columns die Spalten einschließlich verschachtelter Spalten.
+     */
+    static void updateSortable(ObservableList<?> items, List<? extends TableColumnBase<?, ?>> columns) {
+        boolean partial = isPartiallyLoaded(items);
+        for (TableColumnBase<?, ?> column : columns) {
+            Object original = column.getProperties().putIfAbsent(SORTABLE_KEY, column.isSortable());
+            boolean sortable = original == null ? column.isSortable() : (Boolean) original;
+            column.setSortable(sortable && !partial);
+            updateSortable(items, column.getColumns());
+        }
+    }
+
+    private static boolean isPartiallyLoaded(ObservableList<?> items) {
+        ObservableList<?> source = items;
+        while (source instanceof TransformationList<?, ?> view) {
+            source = view.getSource();
+        }
+        return source instanceof PagedObservableList<?> pagedList && !pagedList.isExhausted();
+    }
+
+    private void installScrollListener(TableView<?> tableView) {
+        if (tableView.getSkin() != null && tableView.lookup(".virtual-flow") instanceof VirtualFlow<?> flow) {
+            flow.positionProperty().addListener((ignore, ignore2, ignore3) -> requestPageIfNeeded(tableView));
+        }
+    }
+
+    private void requestPageIfNeeded(TableView<?> tableView) {
+        Platform.runLater(() -> {
+            // Nur, solange die Tabelle die Liste selbst zeigt: Unter Suchtreffern wäre sie immer "fast am Ende"
+            if (tableView.getProperties().get(PAGED_LIST_KEY) instanceof PagedObservableList<?> pagedList
+                    && tableView.getItems() == pagedList && !pagedList.isExhausted() && isScrolledNearEnd(tableView)) {
+                pagedList.loadNextPage();
+            }
+        });
+    }
+
+    private boolean isScrolledNearEnd(TableView<?> tableView) {
+        if (!(tableView.lookup(".virtual-flow") instanceof VirtualFlow<?> flow)) {
+            return false;
+        }
+        IndexedCell<?> lastVisibleCell = flow.getLastVisibleCell();
+        return lastVisibleCell == null || lastVisibleCell.getIndex() >= flow.getCellCount() - PAGING_PREFETCH_ROWS;
     }
 }
@@ -0,0 +1,108 @@
+package com.badr.cp_project.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * BK-Baum über Wörtern mit der Levenshtein-Distanz. Findet alle Wörter mit höchstens einer gegebenen Distanz zu einem
+ * Suchwort, ohne jedes Wort zu vergleichen: Wegen der Dreiecksungleichung werden nur Teilbäume besucht, deren
+ * Kantenabstand im Bereich {@code d ± maxDistance} liegt. Nicht threadsicher.
+ */
+public final class BkTree {
+
+    private Node root;
+    private int size;
+
+    /**
+     * Fügt ein Wort hinzu; bereits enthaltene Wörter werden ignoriert.
+     * @param word das Wort.
+     * @return true, wenn das Wort neu war.
+     */
+    public boolean add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size++;
+            return true;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(node.word, word);
+            if (distance == 0) {
+                return false;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                size++;
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * @param word das Suchwort.
+     * @param maxDistance die größte zulässige Levenshtein-Distanz.
+     * @return die gefundenen Wörter mit ihrer Distanz zum Suchwort.
+     */
+    public Map<String, Integer> search(String word, int maxDistance) {
+        Map<String, Integer> matches = new LinkedHashMap<>();
+        if (root == null) {
+            return matches;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = distance(node.word, word);
+            if (distance <= maxDistance) {
+                matches.put(node.word, distance);
+            }
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                    pending.push(child.getValue());
+                }
+            }
+        }
+        return matches;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return die Levenshtein-Distanz (Einfügen, Löschen, Ersetzen) zweier Wörter.
+     */
+    public static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Node {
+
+        private final String word;
+        private final Map<Integer, Node> children = new HashMap<>(4);
+
+        private Node(String word) {
+            this.word = word;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.badr.cp_project.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inhaltsadressierte Ablage für hochgeladene Dateien. Jeder Inhalt wird genau einmal unter seinem SHA-256-Hash
+ * gespeichert, verteilt auf zwei Verzeichnisebenen aus den ersten vier Hex-Zeichen ({@code ab/cd/abcd…}), damit kein
+ * Verzeichnis zu groß wird. Der Hash wird beim Kopieren in eine temporäre Datei berechnet, die anschließend an ihren
+ * Platz verschoben wird; ein halb geschriebener Inhalt ist daher nie unter einem Hash sichtbar.
+ * Welche Inhalte noch gebraucht werden, verwaltet {@link com.badr.cp_project.dao.FileDAO}; Verweise auf einen Inhalt
+ * werden nur unter seiner {@link #lockFor Sperre} festgeschrieben oder freigegeben.
+ */
+public final class BlobStore {
+
+    private static final BlobStore INSTANCE = new BlobStore(Path.of("uploads", "blobs"));
+    private static final HexFormat HEX = HexFormat.of();
+    private static final int HASH_LENGTH = 64;
+    private static final int LOCK_STRIPES = 64;
+    // In Dateinamen unter Windows oder Unix nicht erlaubte Zeichen
+    private static final Pattern UNSAFE_NAME_CHARS = Pattern.compile("[<>:\"/\\\\|?*\\x00-\\x1F]");
+
+    /**
+     * Ein gespeicherter Inhalt.
+     * @param hash der SHA-256-Hash in Kleinbuchstaben-Hex.
+     * @param size die Größe in Bytes.
+     * @param path der Ablageort.
+     * @param created true, wenn der Inhalt neu abgelegt wurde; false, wenn er bereits vorhanden war.
+     */
+    public record Blob(String hash, long size, Path path, boolean created) {
+    }
+
+    private final Path root;
+    // Gestreift: Gleiche Hashes teilen sich immer dieselbe Sperre, ohne dass pro Hash ein Eintrag gehalten wird
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+    /**
+     * @param root das Wurzelverzeichnis der Ablage; es wird bei Bedarf angelegt.
+     */
+    public BlobStore(Path root) {
+        this.root = root.toAbsolutePath();
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public static BlobStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Legt den Inhalt einer Datei ab, sofern er noch nicht vorhanden ist.
+     * @param source die Quelldatei.
+     * @return der abgelegte Inhalt.
+     * @throws IOException wenn Lesen oder Schreiben fehlschlägt.
+     */
+    public Blob store(Path source) throws IOException {
+        try (InputStream in = Files.newInputStream(source)) {
+            return store(in);
+        }
+    }
+
+    /**
+     * Legt den Inhalt eines Streams ab, sofern er noch nicht vorhanden ist. Der Stream wird nicht geschlossen.
+     * @param in der Inhalt.
+     * @return der abgelegte Inhalt.
+     * @throws IOException wenn Lesen oder Schreiben fehlschlägt.
+     */
+    public Blob store(InputStream in) throws IOException {
+        Path tempDirectory = Files.createDirectories(root.resolve("tmp"));
+        Path temp = Files.createTempFile(tempDirectory, "upload", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                size = in.transferTo(out);
+            }
+            String hash = HEX.formatHex(digest.digest());
+            Path target = resolve(hash);
+            if (Files.exists(target)) {
+                return new Blob(hash, size, target, false);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new Blob(hash, size, target, true);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @param hash der SHA-256-Hash.
+     * @return der Ablageort des Inhalts, unabhängig davon, ob er existiert.
+     * @throws IllegalArgumentException wenn der Hash kein SHA-256-Hash in Hex ist.
+     */
+    public Path resolve(String hash) {
+        if (hash.length() != HASH_LENGTH || !hash.chars().allMatch(HexFormat::isHexDigit)) {
+            throw new IllegalArgumentException("Ungültiger Inhalts-Hash: " + hash);
+        }
+        String normalized = hash.toLowerCase(Locale.ROOT);
+        return root.resolve(normalized.substring(0, 2)).resolve(normalized.substring(2, 4)).resolve(normalized);
+    }
+
+    /**
+     * @param hash der SHA-256-Hash.
+     * @return true, wenn der Inhalt abgelegt ist.
+     */
+    public boolean exists(String hash) {
+        return Files.exists(resolve(hash));
+    }
+
+    /**
+     * Kopiert einen Inhalt unter seinem ursprünglichen Dateinamen in ein eigenes temporäres Verzeichnis. Abgelegte
+     * Inhalte haben keine Endung; über die Kopie wählt das Betriebssystem das passende Programm zum Öffnen.
+     * Kopie und Verzeichnis werden beim Beenden der Anwendung gelöscht.
+     * @param hash der SHA-256-Hash.
+     * @param fileName der ursprüngliche Dateiname; Verzeichnisanteile und unzulässige Zeichen werden entfernt.
+     * @return der Pfad der Kopie.
+     * @throws IOException wenn der Inhalt fehlt oder nicht kopiert werden kann.
+     */
+    public Path copyForOpening(String hash, String fileName) throws IOException {
+        Path directory = Files.createTempDirectory("casepilot-");
+        directory.toFile().deleteOnExit();
+        Path copy = directory.resolve(safeFileName(fileName, hash));
+        Files.copy(resolve(hash), copy);
+        copy.toFile().deleteOnExit();
+        return copy;
+    }
+
+    /**
+     * Löscht einen Inhalt. Die Verzeichnisse bleiben bestehen, damit gleichzeitiges Ablegen nicht ins Leere schreibt.
+     * @param hash der SHA-256-Hash.
+     * @return true, wenn der Inhalt gelöscht wurde.
+     * @throws IOException wenn das Löschen fehlschlägt.
+     */
+    public boolean delete(String hash) throws IOException {
+        return Files.deleteIfExists(resolve(hash));
+    }
+
+    /**
+     * Liefert die Sperre eines Inhalts. Wer einen Verweis auf den Inhalt festschreibt oder den Inhalt entfernt, hält
+     * sie, damit ein Hochladen nie auf einen gerade entfernten Inhalt verweist. Sie gilt nur innerhalb dieser Anwendung;
+     * gegenüber anderen Instanzen sperrt {@link com.badr.cp_project.dao.FileDAO} zusätzlich den Eintrag in {@code file_blob}.
+     * @param hash der SHA-256-Hash.
+     * @return die Sperre; verschiedene Hashes können sich eine Sperre teilen.
+     */
+    public Lock lockFor(String hash) {
+        return locks[Math.floorMod(hash.toLowerCase(Locale.ROOT).hashCode(), LOCK_STRIPES)];
+    }
+
+    private static String safeFileName(String fileName, String hash) {
+        if (fileName == null) {
+            return hash;
+        }
+        String name = fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1);
+        name = UNSAFE_NAME_CHARS.matcher(name).replaceAll("_").strip();
+        return name.isEmpty() || name.equals(".") || name.equals("..") ? hash : name;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Jede Java-Plattform muss SHA-256 anbieten
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.badr.cp_project.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom-Filter für Zeichenketten: beantwortet, ob ein Wert sicher fehlt oder möglicherweise enthalten ist.
+ * Werte können nur hinzugefügt, nicht entfernt werden. Die Größe wird aus der erwarteten Anzahl und der
+ * gewünschten Falsch-Positiv-Rate berechnet; die k Bitpositionen entstehen per Double Hashing aus einem 64-Bit-Hash.
+ * Hinzufügen und Abfragen sind ohne Sperren threadsicher.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions die erwartete Anzahl der Werte.
+     * @param falsePositiveRate die gewünschte Falsch-Positiv-Rate bei dieser Anzahl, z. B. 0.01.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Falsch-Positiv-Rate muss zwischen 0 und 1 liegen: " + falsePositiveRate);
+        }
+        long n = Math.max(1, expectedInsertions);
+        // m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64);
+        this.words = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    /**
+     * Fügt einen Wert hinzu.
+     * @param value der Wert.
+     */
+    public void put(String value) {
+        long h1 = hash(value);
+        long h2 = Long.rotateLeft(h1, 32) * 0x9E3779B97F4A7C15L | 1;
+        for (int i = 1; i <= hashCount; i++) {
+            setBit(index(h1, h2, i));
+        }
+    }
+
+    /**
+     * @param value der Wert.
+     * @return false, wenn der Wert sicher nicht hinzugefügt wurde; true, wenn er möglicherweise enthalten ist.
+     */
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = Long.rotateLeft(h1, 32) * 0x9E3779B97F4A7C15L | 1;
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1, h2, i);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Schätzt die aktuelle Falsch-Positiv-Rate aus dem Anteil gesetzter Bits (Füllgrad hoch k).
+     * Steigt über die Zielrate, wenn mehr Werte als erwartet hinzugefügt wurden.
+     * @return die geschätzte Falsch-Positiv-Rate.
+     */
+    public double expectedFalsePositiveRate() {
+        long setBits = 0;
+        for (int i = 0; i < words.length(); i++) {
+            setBits += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) setBits / bitCount, hashCount);
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    private long index(long h1, long h2, int i) {
+        return Math.floorMod(h1 + i * h2, bitCount);
+    }
+
+    private void setBit(long bit) {
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        while (((current = words.get(word)) & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    // FNV-1a über die UTF-8-Bytes mit abschließender Durchmischung (Murmur3-fmix64)
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb34fe63a9a53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
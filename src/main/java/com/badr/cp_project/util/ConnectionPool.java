@@ -0,0 +1,380 @@
+package com.badr.cp_project.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Begrenzter Pool für Datenbankverbindungen, aufgebaut auf {@link DatabaseConnection}.
+ * Verbindungen werden beim Ausleihen validiert, nach längerer Inaktivität geschlossen
+ * und bei zu langer Ausleihe als mögliches Leck protokolliert.
+ * Ein {@code close()} auf der ausgeliehenen Verbindung gibt sie an den Pool zurück.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    private static final int DEFAULT_MAX_SIZE = 8;
+    private static final Duration DEFAULT_BORROW_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+    private static final Duration DEFAULT_LEAK_THRESHOLD = Duration.ofMinutes(2);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private static ConnectionPool instance;
+
+    private final DatabaseConnection databaseConnection;
+    private final int maxSize;
+    private final Duration borrowTimeout;
+    private final Duration idleTimeout;
+    private final Duration leakThreshold;
+
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idleConnections = new ArrayDeque<>();
+    private final Map<Connection, Borrow> borrowed = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(DatabaseConnection databaseConnection, int maxSize, Duration borrowTimeout,
+                          Duration idleTimeout, Duration leakThreshold) {
+        this.databaseConnection = databaseConnection;
+        this.maxSize = maxSize;
+        this.borrowTimeout = borrowTimeout;
+        this.idleTimeout = idleTimeout;
+        this.leakThreshold = leakThreshold;
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = Math.max(1000, Math.min(idleTimeout.toMillis(), leakThreshold.toMillis()) / 2);
+        housekeeper.scheduleAtFixedRate(this::runHousekeeping, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Liefert den gemeinsamen Pool der Anwendung und legt ihn beim ersten Zugriff an.
+     * @return der gemeinsame Verbindungspool.
+     */
+    public static synchronized ConnectionPool getInstance() {
+        if (instance == null || instance.closed) {
+            instance = new ConnectionPool(new DatabaseConnection(), DEFAULT_MAX_SIZE, DEFAULT_BORROW_TIMEOUT,
+                    DEFAULT_IDLE_TIMEOUT, DEFAULT_LEAK_THRESHOLD);
+        }
+        return instance;
+    }
+
+    /**
+     * Schließt den gemeinsamen Pool, falls er angelegt wurde.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    /**
+     * Leiht eine validierte Verbindung aus dem Pool aus.
+     * Die Verbindung muss mit {@code close()} (am besten per try-with-resources) zurückgegeben werden.
+     * @return eine ausgeliehene Verbindung.
+     * @throws SQLException wenn innerhalb der Wartezeit keine Verbindung verfügbar ist oder keine aufgebaut werden kann.
+     */
+    public Connection getConnection() throws SQLException {
+        return borrow(false);
+    }
+
+    /**
+     * Leiht eine Verbindung zum zeilenweisen Lesen großer Ergebnismengen aus, z. B. für Exporte.
+     * Sind für das Profil Streaming-Parameter konfiguriert, wird dafür eine eigene Verbindung mit diesen Parametern
+     * aufgebaut, die einen Platz im Pool belegt und beim {@code close()} geschlossen statt wiederverwendet wird.
+     * @return eine ausgeliehene Verbindung.
+     * @throws SQLException wenn innerhalb der Wartezeit keine Verbindung verfügbar ist oder keine aufgebaut werden kann.
+     */
+    public Connection getStreamingConnection() throws SQLException {
+        return borrow(databaseConnection.hasStreamingParameters());
+    }
+
+    private Connection borrow(boolean streaming) throws SQLException {
+        if (closed) {
+            throw new SQLException("Der Verbindungspool ist bereits geschlossen.");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Keine freie Datenbankverbindung innerhalb von " + borrowTimeout.toSeconds() + " Sekunden.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Warten auf eine Datenbankverbindung wurde unterbrochen.", e);
+        }
+
+        try {
+            Connection physical = streaming ? databaseConnection.connectForStreaming() : takeValidIdleConnection();
+            if (physical == null && !streaming) {
+                physical = databaseConnection.connect();
+            }
+            if (physical == null) {
+                throw new SQLException("Es konnte keine Datenbankverbindung aufgebaut werden.");
+            }
+            Connection pooled = wrap(physical);
+            borrowed.put(pooled, new Borrow(physical, streaming, System.nanoTime(), new Throwable("Ausleihe der Verbindung")));
+            return pooled;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Schließt alle freien Verbindungen und beendet die Hintergrundpflege.
+     * Noch ausgeliehene Verbindungen werden bei ihrer Rückgabe geschlossen.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        synchronized (idleConnections) {
+            idleConnections.forEach(idle -> closeQuietly(idle.connection()));
+            idleConnections.clear();
+        }
+        if (!borrowed.isEmpty()) {
+            LOGGER.log(Level.WARNING, "Pool geschlossen, {0} Verbindung(en) sind noch ausgeliehen.", borrowed.size());
+        }
+        LOGGER.info("Verbindungspool geschlossen.");
+    }
+
+    public DatabaseBackend getBackend() {
+        return databaseConnection.getBackend();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActiveCount() {
+        return borrowed.size();
+    }
+
+    public int getIdleCount() {
+        synchronized (idleConnections) {
+            return idleConnections.size();
+        }
+    }
+
+    private Connection takeValidIdleConnection() {
+        while (true) {
+            IdleConnection idle;
+            synchronized (idleConnections) {
+                idle = idleConnections.pollFirst();
+            }
+            if (idle == null) {
+                return null;
+            }
+            if (isUsable(idle.connection())) {
+                return idle.connection();
+            }
+            LOGGER.fine("Ungültige Verbindung aus dem Pool verworfen.");
+            closeQuietly(idle.connection());
+        }
+    }
+
+    private void release(Connection pooled) {
+        Borrow borrow = borrowed.remove(pooled);
+        if (borrow == null) {
+            return;
+        }
+        try {
+            Connection physical = borrow.physical();
+            if (closed || borrow.dedicated() || !resetForReuse(physical)) {
+                closeQuietly(physical);
+            } else {
+                synchronized (idleConnections) {
+                    idleConnections.addFirst(new IdleConnection(physical, System.nanoTime()));
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean resetForReuse(Connection physical) {
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Verbindung konnte nicht für die Wiederverwendung zurückgesetzt werden.", e);
+            return false;
+        }
+    }
+
+    private boolean isUsable(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void runHousekeeping() {
+        try {
+            evictIdleConnections();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Fehler bei der Pflege des Verbindungspools.", e);
+        }
+    }
+
+    private void evictIdleConnections() {
+        long now = System.nanoTime();
+        synchronized (idleConnections) {
+            Iterator<IdleConnection> iterator = idleConnections.descendingIterator();
+            while (iterator.hasNext()) {
+                IdleConnection idle = iterator.next();
+                if (now - idle.idleSince() > idleTimeout.toNanos()) {
+                    iterator.remove();
+                    closeQuietly(idle.connection());
+                    LOGGER.fine("Inaktive Verbindung aus dem Pool entfernt.");
+                }
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        long now = System.nanoTime();
+        for (Borrow borrow : borrowed.values()) {
+            if (now - borrow.borrowedAt() > leakThreshold.toNanos() && borrow.markReported()) {
+                LOGGER.log(Level.WARNING, "Mögliches Verbindungsleck: Verbindung ist seit mehr als "
+                        + leakThreshold.toSeconds() + " Sekunden ausgeliehen.", borrow.origin());
+            }
+        }
+    }
+
+    private Connection wrap(Connection physical) {
+        InvocationHandler handler = new PooledConnectionHandler(physical);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Fehler beim Schließen einer Verbindung.", e);
+        }
+    }
+
+    private record IdleConnection(Connection connection, long idleSince) {
+    }
+
+    private static final class Borrow {
+        private final Connection physical;
+        private final boolean dedicated;
+        private final long borrowedAt;
+        private final Throwable origin;
+        private final AtomicBoolean reported = new AtomicBoolean();
+
+        private Borrow(Connection physical, boolean dedicated, long borrowedAt, Throwable origin) {
+            this.physical = physical;
+            this.dedicated = dedicated;
+            this.borrowedAt = borrowedAt;
+            this.origin = origin;
+        }
+
+        Connection physical() {
+            return physical;
+        }
+
+        boolean dedicated() {
+            return dedicated;
+        }
+
+        long borrowedAt() {
+            return borrowedAt;
+        }
+
+        Throwable origin() {
+            return origin;
+        }
+
+        /**
+         * Markiert die Ausleihe als gemeldet.
+         * @return {@code true}, wenn sie zuvor noch nicht gemeldet war.
+         */
+        boolean markReported() {
+            return reported.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Leitet alle Aufrufe an die physische Verbindung weiter, gibt sie bei {@code close()} aber an den Pool zurück.
+     */
+    private final class PooledConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private boolean returned;
+
+        private PooledConnectionHandler(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        release((Connection) proxy);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || physical.isClosed();
+                }
+                case "unwrap" -> {
+                    return physical.unwrap((Class<?>) args[0]);
+                }
+                case "isWrapperFor" -> {
+                    return ((Class<?>) args[0]).isInstance(physical) || physical.isWrapperFor((Class<?>) args[0]);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + physical + "]";
+                }
+                default -> {
+                    if (returned) {
+                        throw new SQLException("Die Verbindung wurde bereits an den Pool zurückgegeben.");
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+    }
+}
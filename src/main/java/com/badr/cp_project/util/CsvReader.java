@@ -0,0 +1,106 @@
+package com.badr.cp_project.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Liest CSV-Dateien Datensatz für Datensatz (RFC 4180), ohne die Datei vollständig in den Speicher zu laden.
+ * Felder in Anführungszeichen dürfen Trennzeichen, Zeilenumbrüche und verdoppelte Anführungszeichen enthalten.
+ */
+public class CsvReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final char delimiter;
+    private long lineNumber;
+    private boolean firstRecord = true;
+
+    public CsvReader(Reader reader, char delimiter) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Liest den nächsten Datensatz. Leerzeilen werden übersprungen.
+     * @return die Felder des Datensatzes oder null am Dateiende.
+     * @throws IOException wenn die Datei nicht gelesen werden kann oder ein Anführungszeichen nicht geschlossen wird.
+     */
+    public List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        long quoteLine = 0;
+        boolean empty = true;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (firstRecord && empty && c == '\uFEFF') {
+                continue; // BOM von Excel-Exporten
+            }
+            empty = false;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                quoteLine = lineNumber + 1;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                lineNumber++;
+                if (fields.isEmpty() && field.isEmpty()) {
+                    empty = true;
+                    continue;
+                }
+                fields.add(field.toString());
+                firstRecord = false;
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+        if (quoted) {
+            throw new IOException("Nicht geschlossenes Anführungszeichen ab Zeile " + quoteLine + ".");
+        }
+        if (empty && fields.isEmpty()) {
+            return null;
+        }
+        lineNumber++;
+        fields.add(field.toString());
+        firstRecord = false;
+        return fields;
+    }
+
+    /**
+     * @return die Nummer der zuletzt gelesenen Zeile (1-basiert), für Fehlermeldungen.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,62 @@
+package com.badr.cp_project.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Schreibt CSV-Datensätze (RFC 4180) direkt in einen Writer.
+ * Felder mit Trennzeichen, Anführungszeichen oder Zeilenumbrüchen werden in Anführungszeichen gesetzt.
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+    private final Writer writer;
+    private final char delimiter;
+
+    public CsvWriter(Writer writer, char delimiter) {
+        this.writer = writer;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Schreibt einen Datensatz; null wird als leeres Feld geschrieben.
+     * @param fields die Felder des Datensatzes.
+     * @throws IOException wenn nicht geschrieben werden kann.
+     */
+    public void writeRecord(List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(delimiter);
+            }
+            writeField(fields.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = value.indexOf(delimiter) >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,40 @@
+package com.badr.cp_project.util;
+
+/**
+ * Die unterstützten Datenbank-Backends.
+ */
+public enum DatabaseBackend {
+    /**
+     * Zentraler MySQL-Server, Zugangsdaten aus den Umgebungsvariablen DB_USER und DB_PASSWORD.
+     */
+    MYSQL("mysql"),
+    /**
+     * Eingebettete, dateibasierte H2-Datenbank im MySQL-Modus, die ohne Netzwerk auskommt.
+     */
+    EMBEDDED("embedded");
+
+    private final String profileName;
+
+    DatabaseBackend(String profileName) {
+        this.profileName = profileName;
+    }
+
+    public String getProfileName() {
+        return profileName;
+    }
+
+    /**
+     * Ermittelt das Backend zu einem Profilnamen aus der Konfiguration.
+     * @param profileName der Profilname, z. B. "mysql" oder "embedded".
+     * @return das passende Backend.
+     * @throws IllegalArgumentException wenn kein Backend zum Profilnamen passt.
+     */
+    public static DatabaseBackend fromProfileName(String profileName) {
+        for (DatabaseBackend backend : values()) {
+            if (backend.profileName.equalsIgnoreCase(profileName.trim())) {
+                return backend;
+            }
+        }
+        throw new IllegalArgumentException("Unbekanntes Datenbank-Profil: " + profileName);
+    }
+}
@@ -0,0 +1,91 @@
+package com.badr.cp_project.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Verbindungsparameter des gewählten Datenbank-Profils.
+ * Das Profil wird aus {@code database.properties} gelesen und kann per Systemeigenschaft
+ * {@code casepilot.db.profile} oder Umgebungsvariable {@code CASEPILOT_DB_PROFILE} überschrieben werden.
+ * Die JDBC-URL lässt sich zusätzlich mit {@code casepilot.db.url} überschreiben (z. B. In-Memory-Datenbank für Lasttests).
+ * {@code streamingParameters} werden nur an die URL der Verbindungen angehängt, über die Exporte zeilenweise lesen.
+ */
+public record DatabaseConfig(DatabaseBackend backend, String url, String user, String password, String streamingParameters) {
+
+    private static final Logger LOGGER = Logger.getLogger(DatabaseConfig.class.getName());
+    private static final String CONFIG_RESOURCE = "/com/badr/cp_project/database.properties";
+
+    /**
+     * Lädt die Konfiguration des aktiven Profils.
+     * @return die Verbindungsparameter des aktiven Profils.
+     */
+    public static DatabaseConfig load() {
+        Properties properties = readProperties();
+        String profile = firstNonBlank(System.getProperty("casepilot.db.profile"),
+                System.getenv("CASEPILOT_DB_PROFILE"),
+                properties.getProperty("profile"),
+                DatabaseBackend.MYSQL.getProfileName());
+        DatabaseBackend backend = DatabaseBackend.fromProfileName(profile);
+
+        String prefix = backend.getProfileName() + ".";
+        String url = firstNonBlank(System.getProperty("casepilot.db.url"), properties.getProperty(prefix + "url"));
+        String user;
+        String password;
+        if (backend == DatabaseBackend.MYSQL) {
+            user = System.getenv("DB_USER"); // Benutzername aus Umgebungsvariable
+            password = System.getenv("DB_PASSWORD"); // Passwort aus Umgebungsvariable
+        } else {
+            user = properties.getProperty(prefix + "user", "");
+            password = properties.getProperty(prefix + "password", "");
+        }
+
+        String streamingParameters = properties.getProperty(prefix + "streaming.parameters", "");
+
+        LOGGER.log(Level.INFO, "Datenbank-Profil: {0}", backend.getProfileName());
+        return new DatabaseConfig(backend, expandPlaceholders(url), user, password, streamingParameters);
+    }
+
+    /**
+     * Die URL für Verbindungen, die große Ergebnismengen zeilenweise lesen.
+     * @return die URL mit den Streaming-Parametern oder die normale URL, wenn keine konfiguriert sind.
+     */
+    public String streamingUrl() {
+        if (url == null || streamingParameters == null || streamingParameters.isBlank()) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + streamingParameters;
+    }
+
+    private static Properties readProperties() {
+        Properties properties = new Properties();
+        try (InputStream in = DatabaseConfig.class.getResourceAsStream(CONFIG_RESOURCE)) {
+            if (in != null) {
+                properties.load(in);
+            } else {
+                LOGGER.log(Level.WARNING, "Konfigurationsdatei {0} nicht gefunden, verwende Standardwerte.", CONFIG_RESOURCE);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Fehler beim Lesen der Datenbank-Konfiguration", e);
+        }
+        return properties;
+    }
+
+    private static String expandPlaceholders(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.replace("${user.home}", System.getProperty("user.home").replace('\\', '/'));
+    }
+
+    private static String firstNonBlank(String... values) {
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
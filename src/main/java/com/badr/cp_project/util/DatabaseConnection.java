@@ -3,24 +3,60 @@ package com.badr.cp_project.util;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/klientenverwaltung?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
-    private static final String USER = System.getenv("DB_USER"); // Benutzername aus Umgebungsvariable
-    private static final String PASSWORD = System.getenv("DB_PASSWORD"); // Passwort aus Umgebungsvariable
 
     private static final Logger LOGGER = Logger.getLogger(DatabaseConnection.class.getName());
 
+    private final DatabaseConfig config;
+
+    public DatabaseConnection() {
+        this(DatabaseConfig.load());
+    }
+
+    public DatabaseConnection(DatabaseConfig config) {
+        this.config = config;
+    }
+
+    public DatabaseBackend getBackend() {
+        return config.backend();
+    }
+
     public Connection connect() {
-        if (USER == null || PASSWORD == null) {
+        return connect(config.url());
+    }
+
+    /**
+     * Baut eine Verbindung mit den Streaming-Parametern des Profils auf, z. B. für Exporte über einen Server-Cursor.
+     * @return die Verbindung oder null, wenn keine aufgebaut werden konnte.
+     */
+    public Connection connectForStreaming() {
+        return connect(config.streamingUrl());
+    }
+
+    /**
+     * Gibt an, ob Streaming-Verbindungen andere Parameter brauchen als die Verbindungen im Pool.
+     * @return true, wenn Streaming-Parameter konfiguriert sind.
+     */
+    public boolean hasStreamingParameters() {
+        return !Objects.equals(config.url(), config.streamingUrl());
+    }
+
+    private Connection connect(String url) {
+        if (url == null) {
+            LOGGER.log(Level.SEVERE, "Keine Datenbank-URL für das Profil {0} konfiguriert.", config.backend().getProfileName());
+            return null;
+        }
+        if (config.user() == null || config.password() == null) {
             LOGGER.log(Level.SEVERE, "Datenbank-Benutzername oder Passwort sind nicht gesetzt.");
             return null;
         }
 
         try {
-            Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+            Connection connection = DriverManager.getConnection(url, config.user(), config.password());
             LOGGER.log(Level.INFO, "Verbindung zur Datenbank erfolgreich!");
             return connection;
         } catch (SQLException e) {
@@ -0,0 +1,185 @@
+package com.badr.cp_project.util;
+
+import java.util.Locale;
+
+/**
+ * Stammformreduktion für deutsche Wörter nach dem Snowball-Verfahren (Variante German2), z. B. Beratungen → berat,
+ * Häusern → haus. Umschreibungen wie ae, oe, ue werden wie Umlaute behandelt; das Ergebnis enthält keine Umlaute
+ * und kein ß mehr. Erwartet ein einzelnes Wort ohne Satzzeichen.
+ */
+public final class GermanStemmer {
+
+    private static final String VOWELS = "aeiouyäöü";
+    private static final String S_ENDINGS = "bdfghklmnrt";
+    private static final String ST_ENDINGS = "bdfghklmnt";
+    private static final String[] STEP_1_SUFFIXES = {"ern", "em", "er", "en", "es", "e", "s"};
+    private static final String[] STEP_2_SUFFIXES = {"est", "en", "er", "st"};
+    private static final String[] STEP_3_SUFFIXES = {"isch", "lich", "heit", "keit", "end", "ung", "ig", "ik"};
+
+    private GermanStemmer() {
+    }
+
+    /**
+     * @param word das Wort.
+     * @return der Wortstamm in Kleinbuchstaben.
+     */
+    public static String stem(String word) {
+        StringBuilder w = new StringBuilder(word.toLowerCase(Locale.ROOT).replace("ß", "ss"));
+        prelude(w);
+        int r1 = regionStart(w, 0);
+        int r1Start = Math.max(r1, 3);
+        int r2 = regionStart(w, r1);
+        step1(w, r1Start);
+        step2(w, r1Start);
+        step3(w, r1Start, r2);
+        return postlude(w);
+    }
+
+    // u und y zwischen Vokalen gelten als Konsonanten; ae, oe, ue werden zu Umlauten, außer nach q
+    private static void prelude(StringBuilder w) {
+        for (int i = 1; i + 1 < w.length(); i++) {
+            char c = w.charAt(i);
+            if ((c == 'u' || c == 'y') && isVowel(w.charAt(i - 1)) && isVowel(w.charAt(i + 1))) {
+                w.setCharAt(i, Character.toUpperCase(c));
+            }
+        }
+        int i = 0;
+        while (i + 1 < w.length()) {
+            char c = w.charAt(i);
+            char next = w.charAt(i + 1);
+            if (c == 'q' && next == 'u') {
+                i += 2;
+                continue;
+            }
+            if (next == 'e' && (c == 'a' || c == 'o' || c == 'u')) {
+                w.replace(i, i + 2, c == 'a' ? "ä" : c == 'o' ? "ö" : "ü");
+            }
+            i++;
+        }
+    }
+
+    /**
+     * @return die Position nach dem ersten Nicht-Vokal, der ab {@code from} auf einen Vokal folgt, sonst die Länge.
+     */
+    private static int regionStart(StringBuilder w, int from) {
+        for (int i = from + 1; i < w.length(); i++) {
+            if (!isVowel(w.charAt(i)) && isVowel(w.charAt(i - 1))) {
+                return i + 1;
+            }
+        }
+        return w.length();
+    }
+
+    private static void step1(StringBuilder w, int r1) {
+        String suffix = longestSuffix(w, STEP_1_SUFFIXES);
+        if (suffix == null || w.length() - suffix.length() < r1) {
+            return;
+        }
+        int start = w.length() - suffix.length();
+        switch (suffix) {
+            case "em", "ern", "er" -> w.setLength(start);
+            case "e", "en", "es" -> {
+                w.setLength(start);
+                if (endsWith(w, "niss")) {
+                    w.setLength(w.length() - 1);
+                }
+            }
+            default -> {
+                if (start > 0 && S_ENDINGS.indexOf(w.charAt(start - 1)) >= 0) {
+                    w.setLength(start);
+                }
+            }
+        }
+    }
+
+    private static void step2(StringBuilder w, int r1) {
+        String suffix = longestSuffix(w, STEP_2_SUFFIXES);
+        if (suffix == null || w.length() - suffix.length() < r1) {
+            return;
+        }
+        int start = w.length() - suffix.length();
+        if (!suffix.equals("st")) {
+            w.setLength(start);
+        } else if (start >= 4 && ST_ENDINGS.indexOf(w.charAt(start - 1)) >= 0) {
+            w.setLength(start);
+        }
+    }
+
+    private static void step3(StringBuilder w, int r1, int r2) {
+        String suffix = longestSuffix(w, STEP_3_SUFFIXES);
+        if (suffix == null) {
+            return;
+        }
+        int start = w.length() - suffix.length();
+        switch (suffix) {
+            case "end", "ung" -> {
+                if (start >= r2) {
+                    w.setLength(start);
+                    if (endsWith(w, "ig") && w.length() - 2 >= r2 && !precededByE(w, w.length() - 2)) {
+                        w.setLength(w.length() - 2);
+                    }
+                }
+            }
+            case "ig", "ik", "isch" -> {
+                if (start >= r2 && !precededByE(w, start)) {
+                    w.setLength(start);
+                }
+            }
+            case "lich", "heit" -> {
+                if (start >= r2) {
+                    w.setLength(start);
+                    if ((endsWith(w, "er") || endsWith(w, "en")) && w.length() - 2 >= r1) {
+                        w.setLength(w.length() - 2);
+                    }
+                }
+            }
+            default -> {
+                if (start >= r2) {
+                    w.setLength(start);
+                    if (endsWith(w, "lich") && w.length() - 4 >= r2) {
+                        w.setLength(w.length() - 4);
+                    } else if (endsWith(w, "ig") && w.length() - 2 >= r2) {
+                        w.setLength(w.length() - 2);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String postlude(StringBuilder w) {
+        for (int i = 0; i < w.length(); i++) {
+            switch (w.charAt(i)) {
+                case 'U', 'ü' -> w.setCharAt(i, 'u');
+                case 'Y' -> w.setCharAt(i, 'y');
+                case 'ä' -> w.setCharAt(i, 'a');
+                case 'ö' -> w.setCharAt(i, 'o');
+                default -> {
+                }
+            }
+        }
+        return w.toString();
+    }
+
+    private static String longestSuffix(StringBuilder w, String[] suffixes) {
+        String longest = null;
+        for (String suffix : suffixes) {
+            if (endsWith(w, suffix) && (longest == null || suffix.length() > longest.length())) {
+                longest = suffix;
+            }
+        }
+        return longest;
+    }
+
+    private static boolean endsWith(StringBuilder w, String suffix) {
+        int start = w.length() - suffix.length();
+        return start >= 0 && w.indexOf(suffix, start) == start;
+    }
+
+    private static boolean precededByE(StringBuilder w, int index) {
+        return index > 0 && w.charAt(index - 1) == 'e';
+    }
+
+    private static boolean isVowel(char c) {
+        return VOWELS.indexOf(c) >= 0;
+    }
+}
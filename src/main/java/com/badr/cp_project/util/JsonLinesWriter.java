@@ -0,0 +1,81 @@
+package com.badr.cp_project.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Schreibt JSON Lines: je Datensatz ein JSON-Objekt in einer eigenen Zeile.
+ * Zahlen und Wahrheitswerte werden unverändert, alle anderen Werte als Zeichenkette ({@code toString()}) geschrieben.
+ */
+public class JsonLinesWriter implements Closeable, Flushable {
+
+    private final Writer writer;
+
+    public JsonLinesWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Schreibt einen Datensatz als JSON-Objekt.
+     * @param keys die Feldnamen.
+     * @param values die Werte in derselben Reihenfolge; null wird als {@code null} geschrieben.
+     * @throws IOException wenn nicht geschrieben werden kann.
+     */
+    public void writeObject(List<String> keys, List<?> values) throws IOException {
+        writer.write('{');
+        for (int i = 0; i < keys.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeString(keys.get(i));
+            writer.write(':');
+            writeValue(values.get(i));
+        }
+        writer.write("}\n");
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            writer.write(value.toString());
+        } else {
+            writeString(value.toString());
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
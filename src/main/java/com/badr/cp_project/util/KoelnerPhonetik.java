@@ -0,0 +1,77 @@
+package com.badr.cp_project.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Kölner Phonetik: bildet deutsche Namen auf einen Zifferncode ab, sodass gleich klingende Schreibweisen
+ * (z. B. Meier, Meyer, Maier) denselben Code erhalten.
+ * Umlaute und Akzente werden auf den Grundbuchstaben zurückgeführt, ß als s gewertet; andere Zeichen werden ignoriert.
+ */
+public final class KoelnerPhonetik {
+
+    private KoelnerPhonetik() {
+    }
+
+    /**
+     * @param name der Name.
+     * @return der phonetische Code oder ein leerer String, wenn der Name keine Buchstaben enthält.
+     */
+    public static String encode(String name) {
+        String letters = letters(name);
+        StringBuilder code = new StringBuilder(letters.length());
+        char last = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            char previous = i > 0 ? letters.charAt(i - 1) : 0;
+            char next = i + 1 < letters.length() ? letters.charAt(i + 1) : 0;
+            String digits = code(letters.charAt(i), previous, next, i == 0);
+            for (int j = 0; j < digits.length(); j++) {
+                char digit = digits.charAt(j);
+                // Gleiche aufeinanderfolgende Ziffern zusammenfassen, 0 nur am Anfang behalten
+                if (digit != last && (digit != '0' || code.isEmpty())) {
+                    code.append(digit);
+                }
+                last = digit;
+            }
+        }
+        return code.toString();
+    }
+
+    private static String code(char c, char previous, char next, boolean initial) {
+        return switch (c) {
+            case 'a', 'e', 'i', 'j', 'o', 'u', 'y' -> "0";
+            case 'h' -> "";
+            case 'b' -> "1";
+            case 'p' -> next == 'h' ? "3" : "1";
+            case 'd', 't' -> next == 'c' || next == 's' || next == 'z' ? "8" : "2";
+            case 'f', 'v', 'w' -> "3";
+            case 'g', 'k', 'q' -> "4";
+            case 'c' -> {
+                if (initial) {
+                    yield "ahkloqrux".indexOf(next) >= 0 ? "4" : "8";
+                }
+                yield "ahkoqux".indexOf(next) >= 0 && previous != 's' && previous != 'z' ? "4" : "8";
+            }
+            case 'x' -> previous == 'c' || previous == 'k' || previous == 'q' ? "8" : "48";
+            case 'l' -> "5";
+            case 'm', 'n' -> "6";
+            case 'r' -> "7";
+            case 's', 'z' -> "8";
+            default -> "";
+        };
+    }
+
+    private static String letters(String name) {
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder letters = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                letters.append(c);
+            } else if (c == 'ß') {
+                letters.append('s');
+            }
+        }
+        return letters.toString();
+    }
+}
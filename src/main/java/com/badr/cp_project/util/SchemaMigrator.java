@@ -0,0 +1,333 @@
+package com.badr.cp_project.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Versionierte Schema-Migrationen, die mit der Anwendung ausgeliefert werden.
+ * Die Skripte liegen unter {@code /com/badr/cp_project/db/migration} und werden in der Reihenfolge
+ * von {@link #MIGRATIONS} genau einmal ausgeführt. Angewendete Versionen stehen in der Tabelle {@code schema_version}.
+ * <p>
+ * MySQL schreibt DDL-Anweisungen sofort fest, ein Skript lässt sich daher nicht als Ganzes zurückrollen. Jede Anweisung
+ * wird deshalb einzeln in {@code schema_version_step} vermerkt; nach einem Abbruch setzt die nächste Migration hinter
+ * der letzten vermerkten Anweisung fort. Fehler, weil ein Objekt bereits angelegt oder schon entfernt ist, gelten dabei
+ * nur bei {@code CREATE}/{@code ALTER ... ADD} bzw. {@code DROP}/{@code ALTER ... DROP} als erledigt. Auf MySQL verhindert eine Sperre ({@code GET_LOCK}), dass mehrere Arbeitsplätze gleichzeitig migrieren.
+ */
+public class SchemaMigrator {
+
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigrator.class.getName());
+    private static final String MIGRATION_PATH = "/com/badr/cp_project/db/migration/";
+
+    /**
+     * Alle Migrationen in Ausführungsreihenfolge. Neue Skripte werden hier am Ende ergänzt.
+     */
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "V1__grundschema.sql"),
+            new Migration(2, "V2__indizes.sql"),
+            new Migration(3, "V3__ifa_sequence.sql"),
+            new Migration(4, "V4__aenderungsverfolgung.sql"),
+            new Migration(5, "V5__aenderungsprotokoll.sql"),
+            new Migration(6, "V6__dateiablage.sql"),
+            new Migration(7, "V7__terminstatus.sql")
+    );
+
+    private static final String CREATE_SCHEMA_VERSION =
+            "CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INT NOT NULL PRIMARY KEY, " +
+                    "script VARCHAR(255) NOT NULL, " +
+                    "checksum BIGINT NOT NULL, " +
+                    "installedAt TIMESTAMP NOT NULL)";
+
+    private static final String CREATE_SCHEMA_VERSION_STEP =
+            "CREATE TABLE IF NOT EXISTS schema_version_step (" +
+                    "version INT NOT NULL, " +
+                    "step INT NOT NULL, " +
+                    "installedAt TIMESTAMP NOT NULL, " +
+                    "PRIMARY KEY (version, step))";
+
+    private static final String SELECT_APPLIED_STEPS =
+            "SELECT step FROM schema_version_step WHERE version = ?";
+
+    private static final String INSERT_SCHEMA_VERSION_STEP =
+            "INSERT INTO schema_version_step (version, step, installedAt) VALUES (?, ?, ?)";
+
+    private static final String LOCK_NAME = "casepilot.schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 120;
+
+    /**
+     * Herstellerfehlercodes für bereits vorhandene Objekte (MySQL: Tabelle, Spalte, Index, Fremdschlüssel;
+     * H2: dasselbe). Sie treten auf, wenn eine abgebrochene Migration ein {@code CREATE} oder {@code ALTER ... ADD}
+     * wiederholt, und werden nur bei diesen Anweisungen als erledigt gewertet.
+     */
+    private static final Set<Integer> ALREADY_EXISTS_ERRORS = Set.of(
+            1050, 1060, 1061, 1826,
+            42101, 42111, 42121, 90045);
+
+    /**
+     * Herstellerfehlercodes für bereits entfernte Objekte. Sie werden nur bei {@code DROP} oder
+     * {@code ALTER ... DROP} als erledigt gewertet.
+     */
+    private static final Set<Integer> NOT_FOUND_ERRORS = Set.of(
+            1051, 1091,
+            42102, 42112, 42122, 90057);
+
+    private static final Pattern CREATE_STATEMENT =
+            Pattern.compile("^(CREATE\\s|ALTER\\s+TABLE\\s+\\S+\\s+ADD\\s)", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern DROP_STATEMENT =
+            Pattern.compile("^(DROP\\s|ALTER\\s+TABLE\\s+\\S+\\s+DROP\\s)", Pattern.CASE_INSENSITIVE);
+
+    private static final String SELECT_APPLIED_VERSIONS =
+            "SELECT version, checksum FROM schema_version";
+
+    private static final String INSERT_SCHEMA_VERSION =
+            "INSERT INTO schema_version (version, script, checksum, installedAt) VALUES (?, ?, ?, ?)";
+
+    /**
+     * Die Schema-Version, die diese Anwendungsversion erwartet.
+     * @return die höchste ausgelieferte Migrationsversion.
+     */
+    public static int getExpectedVersion() {
+        return MIGRATIONS.getLast().version();
+    }
+
+    /**
+     * Führt alle noch nicht angewendeten Migrationen aus und prüft anschließend die Schema-Version.
+     * @param connectionPool der Pool, über den migriert wird.
+     * @throws SQLException wenn eine Migration fehlschlägt.
+     * @throws IllegalStateException wenn die Datenbank eine neuere Schema-Version hat als die Anwendung erwartet.
+     */
+    public void migrate(ConnectionPool connectionPool) throws SQLException {
+        try (Connection conn = connectionPool.getConnection()) {
+            boolean locking = connectionPool.getBackend() == DatabaseBackend.MYSQL;
+            if (locking) {
+                acquireLock(conn);
+            }
+            try {
+                migrate(conn);
+            } finally {
+                if (locking) {
+                    releaseLock(conn);
+                }
+            }
+        }
+    }
+
+    private void migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_SCHEMA_VERSION);
+            stmt.execute(CREATE_SCHEMA_VERSION_STEP);
+        }
+
+        Map<Integer, Long> applied = readAppliedVersions(conn);
+        int currentVersion = applied.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        if (currentVersion > getExpectedVersion()) {
+            throw new IllegalStateException("Die Datenbank hat Schema-Version " + currentVersion
+                    + ", diese Anwendung erwartet Version " + getExpectedVersion() + ". Bitte CasePilot aktualisieren.");
+        }
+
+        for (Migration migration : MIGRATIONS) {
+            List<String> statements = readStatements(MIGRATION_PATH + migration.script());
+            long checksum = checksum(statements);
+            Long appliedChecksum = applied.get(migration.version());
+            if (appliedChecksum == null) {
+                apply(conn, migration, statements, checksum);
+            } else if (appliedChecksum != checksum) {
+                LOGGER.log(Level.WARNING, "Migration {0} wurde nach dem Anwenden verändert (Prüfsumme weicht ab).", migration.script());
+            }
+        }
+
+        verify(conn);
+    }
+
+    private void verify(Connection conn) throws SQLException {
+        int version = readAppliedVersions(conn).keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        if (version != getExpectedVersion()) {
+            throw new IllegalStateException("Schema-Version " + version + " stimmt nicht mit der erwarteten Version "
+                    + getExpectedVersion() + " überein.");
+        }
+        LOGGER.log(Level.INFO, "Datenbankschema ist auf Version {0}.", version);
+    }
+
+    /**
+     * Führt die noch nicht vermerkten Anweisungen einer Migration einzeln aus. Jede Anweisung wird zusammen mit ihrem
+     * Vermerk festgeschrieben; bei DDL, die MySQL sofort festschreibt, fängt die Fehlerbehandlung für bereits
+     * vorhandene Objekte einen Abbruch zwischen Anweisung und Vermerk ab.
+     */
+    private void apply(Connection conn, Migration migration, List<String> statements, long checksum) throws SQLException {
+        Set<Integer> appliedSteps = readAppliedSteps(conn, migration.version());
+        LOGGER.log(Level.INFO, appliedSteps.isEmpty() ? "Wende Migration {0} an." : "Setze Migration {0} fort.",
+                migration.script());
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement insertStep = conn.prepareStatement(INSERT_SCHEMA_VERSION_STEP);
+             PreparedStatement insert = conn.prepareStatement(INSERT_SCHEMA_VERSION)) {
+            for (int step = 0; step < statements.size(); step++) {
+                if (appliedSteps.contains(step)) {
+                    continue;
+                }
+                execute(stmt, migration, statements.get(step));
+                insertStep.setInt(1, migration.version());
+                insertStep.setInt(2, step);
+                insertStep.setTimestamp(3, Timestamp.from(Instant.now()));
+                insertStep.executeUpdate();
+                conn.commit();
+            }
+            insert.setInt(1, migration.version());
+            insert.setString(2, migration.script());
+            insert.setLong(3, checksum);
+            insert.setTimestamp(4, Timestamp.from(Instant.now()));
+            insert.executeUpdate();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            LOGGER.log(Level.SEVERE, "Migration " + migration.script() + " ist fehlgeschlagen.", e);
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void execute(Statement stmt, Migration migration, String sql) throws SQLException {
+        try {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            if (!isAlreadyApplied(sql, e.getErrorCode())) {
+                throw e;
+            }
+            LOGGER.log(Level.WARNING, "Anweisung aus {0} war bereits ausgeführt und wird übersprungen: {1}",
+                    new Object[]{migration.script(), e.getMessage()});
+        }
+    }
+
+    /**
+     * Prüft, ob ein Fehler nur bedeutet, dass eine idempotente DDL-Anweisung schon gewirkt hat. DML wird zusammen mit
+     * ihrem Vermerk festgeschrieben und muss nie übersprungen werden; jeder Fehler dort bricht die Migration ab.
+     */
+    static boolean isAlreadyApplied(String sql, int errorCode) {
+        String statement = sql.strip();
+        if (CREATE_STATEMENT.matcher(statement).find()) {
+            return ALREADY_EXISTS_ERRORS.contains(errorCode);
+        }
+        if (DROP_STATEMENT.matcher(statement).find()) {
+            return NOT_FOUND_ERRORS.contains(errorCode);
+        }
+        return false;
+    }
+
+    private Set<Integer> readAppliedSteps(Connection conn, int version) throws SQLException {
+        Set<Integer> steps = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_APPLIED_STEPS)) {
+            stmt.setInt(1, version);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    steps.add(rs.getInt(1));
+                }
+            }
+        }
+        return steps;
+    }
+
+    private void acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Die Migrationssperre wurde nicht innerhalb von " + LOCK_TIMEOUT_SECONDS
+                            + " Sekunden frei; migriert ein anderer Arbeitsplatz gerade?");
+                }
+            }
+        }
+    }
+
+    private void releaseLock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            // Die Sperre endet spätestens mit der Sitzung
+            LOGGER.log(Level.WARNING, "Migrationssperre konnte nicht freigegeben werden.", e);
+        }
+    }
+
+    private Map<Integer, Long> readAppliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_APPLIED_VERSIONS)) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    private long checksum(List<String> statements) {
+        CRC32 crc = new CRC32();
+        for (String sql : statements) {
+            crc.update(sql.getBytes(StandardCharsets.UTF_8));
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Liest ein SQL-Skript und zerlegt es an Semikolons am Zeilenende in einzelne Anweisungen.
+     * Zeilen, die mit {@code --} beginnen, werden als Kommentar ignoriert.
+     * @param resource der Pfad des Skripts im Klassenpfad.
+     * @return die einzelnen Anweisungen ohne abschließendes Semikolon.
+     * @throws SQLException wenn das Skript fehlt oder nicht gelesen werden kann.
+     */
+    static List<String> readStatements(String resource) throws SQLException {
+        String script;
+        try (InputStream in = SchemaMigrator.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new SQLException("SQL-Skript nicht gefunden: " + resource);
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Lesen des SQL-Skripts " + resource, e);
+            throw new SQLException("SQL-Skript konnte nicht gelesen werden: " + resource, e);
+        }
+
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String sql = current.toString().trim();
+                statements.add(sql.substring(0, sql.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank()) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    private record Migration(int version, String script) {
+    }
+}
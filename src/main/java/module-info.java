@@ -3,6 +3,7 @@ module com.badr.cp_project {
     requires javafx.fxml;
     requires java.sql;
     requires java.desktop;
+    requires org.objectweb.asm;
 
     opens com.badr.cp_project to javafx.fxml;
     opens com.badr.cp_project.run to javafx.fxml;
@@ -0,0 +1,43 @@
+-- V1: Grundschema der Klientenverwaltung (MySQL und H2 im MySQL-Modus)
+
+CREATE TABLE IF NOT EXISTS client (
+    ifaNumber          VARCHAR(20)  NOT NULL PRIMARY KEY,
+    lastName           VARCHAR(100) NOT NULL,
+    firstName          VARCHAR(100) NOT NULL,
+    birthDate          DATE         NOT NULL,
+    nationality        VARCHAR(100),
+    gender             VARCHAR(30),
+    relationshipStatus VARCHAR(30)
+);
+
+CREATE TABLE IF NOT EXISTS appointment (
+    appointmentId   INT AUTO_INCREMENT PRIMARY KEY,
+    date            DATE         NOT NULL,
+    time            TIME         NOT NULL,
+    address         VARCHAR(255),
+    institution     VARCHAR(255),
+    priority        VARCHAR(20),
+    status          VARCHAR(20),
+    clientIfaNumber VARCHAR(20)  NOT NULL,
+    CONSTRAINT fk_appointment_client FOREIGN KEY (clientIfaNumber) REFERENCES client (ifaNumber) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS documentation (
+    documentationId INT AUTO_INCREMENT PRIMARY KEY,
+    date            DATE         NOT NULL,
+    time            TIME         NOT NULL,
+    description     TEXT,
+    title           VARCHAR(255),
+    clientIfaNumber VARCHAR(20)  NOT NULL,
+    CONSTRAINT fk_documentation_client FOREIGN KEY (clientIfaNumber) REFERENCES client (ifaNumber) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS document (
+    documentId      INT AUTO_INCREMENT PRIMARY KEY,
+    fileName        VARCHAR(255) NOT NULL,
+    fileType        VARCHAR(100),
+    uploadDate      DATE         NOT NULL,
+    filePath        VARCHAR(1024),
+    clientIfaNumber VARCHAR(20)  NOT NULL,
+    CONSTRAINT fk_document_client FOREIGN KEY (clientIfaNumber) REFERENCES client (ifaNumber) ON DELETE CASCADE
+);
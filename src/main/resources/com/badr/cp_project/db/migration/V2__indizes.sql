@@ -0,0 +1,12 @@
+-- V2: Indizes für alle Zugriffspfade der DAOs
+-- Termine eines Klienten (AppointmentDAO, Join über clientIfaNumber) in Datumsreihenfolge
+CREATE INDEX idx_appointment_client_date ON appointment (clientIfaNumber, date, time);
+
+-- Offene Termine im Dashboard (Filter auf status, sortiert nach Datum)
+CREATE INDEX idx_appointment_status_date ON appointment (status, date, time);
+
+-- Dokumentationen eines Klienten (SELECT_DOCUMENT_BY_IFA_NUMBER)
+CREATE INDEX idx_documentation_client_date ON documentation (clientIfaNumber, date);
+
+-- Dateien eines Klienten (SELECT_FILE_BY_IFA_NUMBER)
+CREATE INDEX idx_document_client_upload ON document (clientIfaNumber, uploadDate);
@@ -0,0 +1,12 @@
+-- V3: Sequenz für die Vergabe von Ifa-Nummern (IfaNumberAllocator)
+-- nextValue ist die Hochwassermarke: Alle kleineren Nummern sind bereits vergeben oder reserviert.
+CREATE TABLE IF NOT EXISTS ifa_sequence (
+    name      VARCHAR(50) NOT NULL PRIMARY KEY,
+    nextValue BIGINT      NOT NULL
+);
+
+-- Startwert hinter der höchsten bisher (zufällig) vergebenen numerischen Ifa-Nummer, mindestens 100000
+INSERT INTO ifa_sequence (name, nextValue)
+SELECT 'client', GREATEST(100000, COALESCE(MAX(CAST(ifaNumber AS DECIMAL(20, 0))) + 1, 100000))
+FROM client
+WHERE ifaNumber REGEXP '^[0-9]+$';
@@ -0,0 +1,13 @@
+-- V4: Änderungsverfolgung für Delta-Abfragen (ChangeSet in den DAOs)
+-- updatedAt wird von der Datenbank beim Einfügen und bei jeder tatsächlichen Änderung gesetzt.
+ALTER TABLE client ADD COLUMN updatedAt TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+ALTER TABLE appointment ADD COLUMN updatedAt TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+ALTER TABLE documentation ADD COLUMN updatedAt TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+ALTER TABLE document ADD COLUMN updatedAt TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+
+CREATE INDEX idx_client_updated ON client (updatedAt);
+CREATE INDEX idx_appointment_updated ON appointment (updatedAt);
+CREATE INDEX idx_documentation_updated ON documentation (updatedAt);
+CREATE INDEX idx_document_updated ON document (updatedAt);
+
+-- Gelöschte Zeilen liefern die Delta-Abfragen aus dem Änderungsprotokoll change_log (V5).
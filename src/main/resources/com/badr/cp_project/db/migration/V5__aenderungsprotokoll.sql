@@ -0,0 +1,15 @@
+-- V5: Änderungsprotokoll für die Benachrichtigung anderer Arbeitsplätze (ChangeLogPoller)
+-- Die DAOs schreiben jede eingefügte, geänderte oder gelöschte Zeile in derselben Transaktion wie die Änderung.
+-- operation: I = eingefügt, U = geändert, D = gelöscht; origin kennzeichnet die schreibende Anwendungsinstanz.
+CREATE TABLE IF NOT EXISTS change_log (
+    seq       BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tableName VARCHAR(30)  NOT NULL,
+    rowKey    VARCHAR(20)  NOT NULL,
+    operation CHAR(1)      NOT NULL,
+    origin    VARCHAR(36)  NOT NULL,
+    changedAt TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+-- Für die Löschungen in den Delta-Abfragen (ChangeSet) und das Aufräumen alter Einträge
+CREATE INDEX idx_change_log_table_time ON change_log (tableName, changedAt);
+CREATE INDEX idx_change_log_time ON change_log (changedAt);
@@ -0,0 +1,16 @@
+-- V6: Inhaltsadressierte Ablage der hochgeladenen Dateien (BlobStore)
+-- Jeder Inhalt liegt einmal unter seinem SHA-256-Hash; document.contentHash ordnet die Dateien ihm zu.
+-- Die Referenzen eines Inhalts sind die document-Zeilen mit seinem Hash. Sie werden gezählt statt mitgeführt,
+-- weil das Löschen eines Klienten seine Dateien per ON DELETE CASCADE entfernt, ohne dass ein DAO beteiligt ist.
+-- Dateien aus der Zeit vor V6 behalten contentHash = NULL und werden weiter über filePath gefunden.
+CREATE TABLE IF NOT EXISTS file_blob (
+    contentHash CHAR(64)     PRIMARY KEY,
+    size        BIGINT       NOT NULL,
+    createdAt   TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+ALTER TABLE document ADD COLUMN contentHash CHAR(64) NULL;
+ALTER TABLE document ADD CONSTRAINT fk_document_blob FOREIGN KEY (contentHash) REFERENCES file_blob (contentHash);
+
+-- Für das Zählen der Referenzen beim Löschen
+CREATE INDEX idx_document_content_hash ON document (contentHash);
@@ -0,0 +1,6 @@
+-- V7: Einheitliche Schreibweise des Terminstatus
+-- Der Statusfilter vergleicht in SQL exakt (über idx_appointment_status_date), die Tabellen im Speicher ebenso.
+-- Abweichend geschriebene Werte wie "offen" würden je nach Kollation unterschiedlich behandelt und werden daher
+-- auf die Schreibweise gebracht, die AppointmentDAO seither beim Speichern verwendet.
+UPDATE appointment SET status = 'Offen' WHERE LOWER(TRIM(status)) = 'offen' AND status <> 'Offen';
+UPDATE appointment SET status = 'Erledigt' WHERE LOWER(TRIM(status)) = 'erledigt' AND status <> 'Erledigt';
@@ -0,0 +1,85 @@
+package com.badr.cp_project.dao;
+
+import com.badr.cp_project.model.Client;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.badr.cp_project.model.TestClients.client;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingClientDAOTest {
+
+    private final ClientCache cache = new ClientCache(10);
+    private final IfaExistenceFilter ifaFilter = new IfaExistenceFilter();
+    // Ohne Pool: jeder Zugriff, der die Datenbank erreicht, schlägt fehl
+    private final CachingClientDAO clientDAO = new CachingClientDAO(null, cache, ifaFilter);
+
+    @Test
+    void cachedClientIsReturnedWithoutDatabase() throws SQLException {
+        Client anna = client("100");
+        cache.put(anna);
+
+        assertSame(anna, clientDAO.getClientByIfa("100"));
+        assertSame(anna, clientDAO.getClientByIfa("100"));
+
+        ClientCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.hits());
+        assertEquals(0, stats.misses());
+    }
+
+    @Test
+    void deletedClientIsAnsweredFromCache() throws SQLException {
+        cache.markDeleted("100");
+
+        assertNull(clientDAO.getClientByIfa("100"));
+        assertEquals(1, cache.getStats().hits());
+    }
+
+    @Test
+    void cachedNegativeIsNotCountedAsFalsePositive() throws SQLException {
+        buildFilter();
+        cache.markDeleted("100");
+
+        assertNull(clientDAO.getClientByIfa("100"));
+        assertNull(clientDAO.getClientByIfa("100"));
+
+        assertEquals(0, ifaFilter.getStats().falsePositives());
+    }
+
+    @Test
+    void builtFilterAnswersUnknownNumbersWithoutCacheOrDatabase() throws SQLException {
+        buildFilter();
+
+        assertNull(clientDAO.getClientByIfa("999"));
+
+        assertEquals(0, cache.getStats().misses());
+        assertEquals(1, ifaFilter.getStats().definiteNegatives());
+    }
+
+    @Test
+    void filterLetsEveryNumberThroughUntilBuilt() {
+        assertTrue(ifaFilter.mightContain("999"));
+        assertEquals(0, ifaFilter.getStats().definiteNegatives());
+    }
+
+    private void buildFilter() throws SQLException {
+        ifaFilter.build(new ClientDAO(null) {
+            @Override
+            public long countClients() {
+                return 2;
+            }
+
+            @Override
+            public long forEachIfaNumber(Consumer<? super String> consumer) {
+                List.of("100", "101").forEach(consumer);
+                return 2;
+            }
+        });
+    }
+}
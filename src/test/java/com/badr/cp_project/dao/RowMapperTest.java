@@ -0,0 +1,149 @@
+package com.badr.cp_project.dao;
+
+import com.badr.cp_project.model.Appointment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.badr.cp_project.dao.MapperGenerator.column;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Prüft, dass das Abbilden über vorab aufgelöste Spaltenindizes dieselben Termine liefert wie das Abbilden über
+ * Spaltennamen (wie vor den {@link RowMapper}n), unabhängig von der Spaltenreihenfolge der Abfrage.
+ * Die Zeilen liegen in einer eingebetteten H2-Datenbank.
+ */
+class RowMapperTest {
+
+    private static final int ROWS = 1_000;
+
+    private static final String COLUMNS =
+            "appointmentId, date, time, address, institution, priority, status, clientIfaNumber, " +
+                    "clientLastName, clientFirstName";
+
+    // Dieselben Spalten wie AppointmentDAO
+    private static final RowMapper<Appointment> INDEX_MAPPER = MapperGenerator.mapperFor(Appointment.class,
+            column("appointmentId", int.class),
+            column("clientIfaNumber", String.class),
+            column("address", String.class),
+            column("institution", String.class),
+            column("date", LocalDate.class),
+            column("priority", String.class),
+            column("status", String.class),
+            column("time", LocalTime.class),
+            column("clientLastName", String.class),
+            column("clientFirstName", String.class));
+
+    private Connection conn;
+
+    @BeforeEach
+    void fill() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:rowmapper;MODE=MySQL");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE test_appointment (appointmentId INT PRIMARY KEY, date DATE, time TIME, " +
+                    "address VARCHAR(255), institution VARCHAR(255), priority VARCHAR(20), status VARCHAR(20), " +
+                    "clientIfaNumber VARCHAR(20), clientLastName VARCHAR(100), clientFirstName VARCHAR(100))");
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO test_appointment VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            LocalDate firstDate = LocalDate.of(2024, 1, 1);
+            for (int i = 1; i <= ROWS; i++) {
+                stmt.setInt(1, i);
+                stmt.setObject(2, firstDate.plusDays(i % 365));
+                stmt.setObject(3, LocalTime.of(8 + i % 10, i % 60));
+                stmt.setString(4, "Hauptstraße " + i);
+                stmt.setString(5, "Jobcenter");
+                stmt.setString(6, "Hoch");
+                stmt.setString(7, i % 3 == 0 ? "Erledigt" : "Offen");
+                stmt.setString(8, String.valueOf(1000 + i % 500));
+                stmt.setString(9, "Meier");
+                stmt.setString(10, "Anna");
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    @AfterEach
+    void drop() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE test_appointment");
+        }
+        conn.close();
+    }
+
+    @Test
+    void indexMappingMatchesLabelMapping() throws SQLException {
+        String query = "SELECT " + COLUMNS + " FROM test_appointment ORDER BY appointmentId";
+
+        List<String> byLabel = describe(query(query, RowMapperTest::mapByLabel));
+        List<String> byIndex = describe(query(query, INDEX_MAPPER::mapAll));
+
+        assertEquals(ROWS, byIndex.size());
+        assertEquals(byLabel, byIndex);
+    }
+
+    @Test
+    void columnOrderOfTheQueryDoesNotMatter() throws SQLException {
+        String reordered = "SELECT clientFirstName, clientLastName, status, priority, institution, address, time, date, " +
+                "clientIfaNumber, appointmentId FROM test_appointment ORDER BY appointmentId";
+
+        assertEquals(describe(query("SELECT " + COLUMNS + " FROM test_appointment ORDER BY appointmentId",
+                        RowMapperTest::mapByLabel)),
+                describe(query(reordered, INDEX_MAPPER::mapAll)));
+    }
+
+    @Test
+    void missingColumnIsReported() {
+        assertThrows(SQLException.class,
+                () -> query("SELECT appointmentId, date FROM test_appointment", INDEX_MAPPER::mapAll));
+    }
+
+    @FunctionalInterface
+    private interface Mapping {
+        List<Appointment> mapAll(ResultSet rs) throws SQLException;
+    }
+
+    private List<Appointment> query(String sql, Mapping mapping) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return mapping.mapAll(rs);
+        }
+    }
+
+    /**
+     * Abbildung wie vor den RowMappern: jeder Zugriff sucht die Spalte über ihren Namen.
+     */
+    private static List<Appointment> mapByLabel(ResultSet rs) throws SQLException {
+        List<Appointment> appointments = new ArrayList<>();
+        while (rs.next()) {
+            appointments.add(new Appointment(rs.getInt("appointmentId"), rs.getString("clientIfaNumber"),
+                    rs.getString("address"), rs.getString("institution"), rs.getDate("date").toLocalDate(),
+                    rs.getString("priority"), rs.getString("status"), rs.getTime("time").toLocalTime(),
+                    rs.getString("clientLastName"), rs.getString("clientFirstName")));
+        }
+        return appointments;
+    }
+
+    private static List<String> describe(List<Appointment> appointments) {
+        return appointments.stream()
+                .map(a -> a.getAppointmentId() + "|" + a.getAppointmentClientIfaNumber() + "|" + a.getAppointmentDate()
+                        + "|" + a.getAppointmentTime() + "|" + a.getAppointmentAddress() + "|"
+                        + a.getAppointmentInstitution() + "|" + a.getAppointmentPriority() + "|"
+                        + a.getAppointmentStatus() + "|" + a.getAppointmentClientLastname() + "|"
+                        + a.getAppointmentClientFirstname())
+                .toList();
+    }
+}
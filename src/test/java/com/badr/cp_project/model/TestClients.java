@@ -0,0 +1,22 @@
+package com.badr.cp_project.model;
+
+import java.time.LocalDate;
+
+/**
+ * Gemeinsame Testdaten für Klienten. Alle Felder, auf die es im jeweiligen Test nicht ankommt, sind fest belegt.
+ */
+public final class TestClients {
+
+    public static final LocalDate DATE_OF_BIRTH = LocalDate.of(1980, 5, 1);
+
+    private TestClients() {
+    }
+
+    public static Client client(String ifaNumber) {
+        return client(ifaNumber, "Meier", "Anna");
+    }
+
+    public static Client client(String ifaNumber, String lastName, String firstName) {
+        return new Client(ifaNumber, lastName, firstName, DATE_OF_BIRTH, "DE", "weiblich", "ledig");
+    }
+}
@@ -0,0 +1,41 @@
+package com.badr.cp_project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.badr.cp_project.model.TestClients.client;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClientSearchServiceTest {
+
+    private final ClientSearchService clientSearch = new ClientSearchService();
+
+    @Test
+    void findsByIfaNameAndBirthDate() {
+        clientSearch.put(client("100", "Meier", "Anna"));
+        clientSearch.put(client("200", "Schulz", "Karl"));
+
+        assertEquals(List.of("200"), clientSearch.search("schul", 10));
+        assertEquals(List.of("100"), clientSearch.search("100", 10));
+        assertEquals(List.of("100", "200"), clientSearch.search("01.05.1980", 10));
+    }
+
+    @Test
+    void phoneticMatchesFollowExactOnes() {
+        clientSearch.put(client("100", "Meier", "Anna"));
+        clientSearch.put(client("200", "Meyer", "Karl"));
+
+        assertEquals(List.of("200", "100"), clientSearch.search("Meyer", 10));
+    }
+
+    @Test
+    void updatedClientIsFoundOnlyUnderItsNewName() {
+        clientSearch.put(client("100", "Meier", "Anna"));
+        clientSearch.put(client("100", "Schulz", "Anna"));
+
+        assertEquals(List.of(), clientSearch.search("Meier", 10));
+        assertEquals(List.of("100"), clientSearch.search("Schulz", 10));
+        assertEquals(1, clientSearch.size());
+    }
+}
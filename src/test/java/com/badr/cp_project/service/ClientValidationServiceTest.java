@@ -0,0 +1,33 @@
+package com.badr.cp_project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientValidationServiceTest {
+
+    private final ClientValidationService validation = new ClientValidationService();
+    private final LocalDate birthDate = LocalDate.of(1980, 5, 1);
+
+    @Test
+    void formRequiresNamesBirthDateAndASelection() {
+        assertTrue(validation.validate("", "Anna", birthDate, "Weiblich", "Ledig").isPresent());
+        assertTrue(validation.validate("Meier", "Anna", null, "Weiblich", "Ledig").isPresent());
+        assertTrue(validation.validate("Meier", "Anna", birthDate,
+                ClientValidationService.DEFAULT_SELECTION_PROMPT, "Ledig").isPresent());
+        assertTrue(validation.validate("Meier", "Anna", birthDate, "Weiblich", "Ledig").isEmpty());
+    }
+
+    @Test
+    void importOnlyChecksDoNotApplyToTheForm() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+        assertTrue(validation.validate("Meier", "Anna", tomorrow, "Weiblich", "Ledig").isEmpty());
+        assertTrue(validation.validateImport("Meier", "Anna", tomorrow, null, "Weiblich", "Ledig").isPresent());
+        assertTrue(validation.validateImport("Meier", "Anna", birthDate, null, "w", "Ledig").isPresent());
+        assertTrue(validation.validateImport("M".repeat(101), "Anna", birthDate, null, "Weiblich", "Ledig").isPresent());
+        assertTrue(validation.validateImport("Meier", "Anna", birthDate, "DE", "Weiblich", "Ledig").isEmpty());
+    }
+}
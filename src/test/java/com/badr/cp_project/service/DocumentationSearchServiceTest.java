@@ -0,0 +1,110 @@
+package com.badr.cp_project.service;
+
+import com.badr.cp_project.dao.DocumentDAO;
+import com.badr.cp_project.model.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentationSearchServiceTest {
+
+    private static final List<String> CORPUS = List.of(
+            // 1: Antrag einmal, langer Text
+            "Gespräch im Jobcenter über den Antrag auf Weiterbewilligung, Unterlagen zur Miete und zu den Nebenkosten "
+                    + "wurden besprochen, weitere Termine folgen nach Rückmeldung der Sachbearbeitung.",
+            // 2: Antrag dreimal, kurzer Text
+            "Antrag gestellt. Anträge geprüft, Antrag abgegeben.",
+            // 3: Phrase in der richtigen Reihenfolge
+            "Klientin sucht eine neue Wohnung in der Nähe der Schule.",
+            // 4: dieselben Wörter, aber nicht als Phrase
+            "Die Wohnung ist zu klein, eine neue Küche wurde eingebaut.",
+            // 5: ohne Treffer
+            "Termin beim Hausarzt vereinbart.");
+
+    private final DocumentationSearchService service = new DocumentationSearchService();
+    private final Map<Integer, Document> stored = new HashMap<>();
+    private final DocumentDAO documentDAO = new DocumentDAO(null) {
+        @Override
+        public List<Document> getDocumentsByIds(List<Integer> documentIds) {
+            return documentIds.stream().map(stored::get).toList();
+        }
+    };
+
+    @BeforeEach
+    void indexCorpus() {
+        for (int i = 0; i < CORPUS.size(); i++) {
+            Document document = new Document(i + 1, LocalDate.of(2024, 1, 1), LocalTime.NOON, CORPUS.get(i), "100", "Notiz " + (i + 1));
+            stored.put(document.getDocumentId(), document);
+            service.apply(EntityChangeEvent.created(Document.class, document.getDocumentId(), document));
+        }
+    }
+
+    private List<Integer> ids(String query) throws SQLException {
+        return service.search(query, 10, documentDAO).stream().map(hit -> hit.document().getDocumentId()).toList();
+    }
+
+    @Test
+    void ranksFrequentTermsInShortTextsFirst() throws SQLException {
+        assertEquals(List.of(2, 1), ids("Antrag"));
+    }
+
+    @Test
+    void matchesInflectedFormsThroughTheirStem() throws SQLException {
+        assertEquals(List.of(2, 1), ids("anträge"));
+        assertEquals(List.of(3, 4), ids("Wohnungen").stream().sorted().toList());
+    }
+
+    @Test
+    void scoresFollowBm25() throws SQLException {
+        List<DocumentationSearchService.Hit> hits = service.search("antrag", 10, documentDAO);
+
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+        assertTrue(hits.get(1).score() > 0);
+    }
+
+    @Test
+    void allTermsMustMatch() throws SQLException {
+        assertEquals(List.of(1), ids("antrag jobcenter"));
+        assertEquals(List.of(), ids("antrag hausarzt"));
+    }
+
+    @Test
+    void phraseRequiresAdjacentWordsInOrder() throws SQLException {
+        assertEquals(List.of(3), ids("\"neue Wohnung\""));
+        assertEquals(List.of(), ids("\"Wohnung neue\""));
+    }
+
+    @Test
+    void prefixMatchesWordBeginnings() throws SQLException {
+        assertEquals(List.of(1), ids("weiterbew*"));
+        assertEquals(List.of(1), ids("Nebenk*"));
+    }
+
+    @Test
+    void snippetHighlightsTheMatchedWords() throws SQLException {
+        DocumentationSearchService.Hit hit = service.search("\"neue Wohnung\"", 10, documentDAO).getFirst();
+        DocumentationSearchService.Snippet snippet = hit.snippet();
+
+        List<String> marked = snippet.highlights().stream()
+                .map(h -> snippet.text().substring(h.start(), h.end()))
+                .toList();
+        assertEquals(List.of("neue", "Wohnung"), marked);
+    }
+
+    @Test
+    void removedDocumentsAreNoLongerFound() throws SQLException {
+        service.apply(EntityChangeEvent.deleted(Document.class, 2));
+
+        assertEquals(List.of(1), ids("antrag"));
+        assertEquals(CORPUS.size() - 1, service.size());
+    }
+}
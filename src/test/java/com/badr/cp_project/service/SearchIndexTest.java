@@ -0,0 +1,172 @@
+package com.badr.cp_project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTest {
+
+    private record Person(String ifaNumber, String lastName, String firstName) {
+    }
+
+    private static final Person ANNA_MUELLER = new Person("100", "Müller", "Anna");
+    private static final Person ANNA_MEYER = new Person("200", "Meyer", "Anna");
+    private static final Person KARL_MEIER = new Person("300", "Meier", "Karl");
+    private static final Person GRETA_STRASSER = new Person("410", "Straßer", "Greta");
+    private static final List<Person> PEOPLE = List.of(ANNA_MUELLER, ANNA_MEYER, KARL_MEIER, GRETA_STRASSER);
+
+    private static SearchIndex<Person> exactIndex() {
+        SearchIndex<Person> index = new SearchIndex<>(p -> List.of(p.ifaNumber(), p.lastName(), p.firstName()));
+        index.addAll(PEOPLE);
+        return index;
+    }
+
+    private static SearchIndex<Person> fuzzyIndex() {
+        SearchIndex<Person> index = new SearchIndex<>(p -> List.of(p.ifaNumber(), p.lastName(), p.firstName()),
+                p -> List.of(p.lastName(), p.firstName()));
+        index.addAll(PEOPLE);
+        return index;
+    }
+
+    private static List<Person> matches(SearchIndex.Result<Person> result) {
+        return PEOPLE.stream().filter(result).toList();
+    }
+
+    @Test
+    void findsSubstringsThroughTheirTrigrams() {
+        SearchIndex<Person> index = exactIndex();
+
+        assertEquals(List.of(ANNA_MUELLER), matches(index.search("ller")));
+        assertEquals(List.of(ANNA_MEYER, KARL_MEIER), matches(index.search("me")));
+        assertEquals(List.of(), matches(index.search("xyz")));
+    }
+
+    @Test
+    void ignoresCaseAccentsAndSharpS() {
+        SearchIndex<Person> index = exactIndex();
+
+        assertEquals(List.of(ANNA_MUELLER), matches(index.search("MÜLL")));
+        assertEquals(List.of(ANNA_MUELLER), matches(index.search("muller")));
+        assertEquals(List.of(GRETA_STRASSER), matches(index.search("strasser")));
+    }
+
+    @Test
+    void everyTermMustMatchSomeField() {
+        SearchIndex<Person> index = exactIndex();
+
+        assertEquals(List.of(ANNA_MUELLER, ANNA_MEYER), matches(index.search("anna")));
+        assertEquals(List.of(ANNA_MEYER), matches(index.search("anna  200")));
+        assertEquals(List.of(), matches(index.search("anna 300")));
+    }
+
+    @Test
+    void trigramsDoNotSpanFieldBoundaries() {
+        // "meyer" und "anna" stehen in getrennten Feldern
+        assertEquals(List.of(), matches(exactIndex().search("eran")));
+    }
+
+    @Test
+    void shortTermsAndBlankQueries() {
+        SearchIndex<Person> index = exactIndex();
+
+        assertEquals(List.of(ANNA_MUELLER, GRETA_STRASSER), matches(index.search("10")));
+        assertEquals(List.of(GRETA_STRASSER), matches(index.search("41")));
+        assertEquals(PEOPLE, matches(index.search("   ")));
+    }
+
+    @Test
+    void itemsAddedAfterTheSearchAreCheckedIndividually() {
+        SearchIndex<Person> index = exactIndex();
+        SearchIndex.Result<Person> result = index.search("anna");
+
+        Person annaNeumann = new Person("500", "Neumann", "Anna");
+        Person karlNeumann = new Person("501", "Neumann", "Karl");
+        index.add(annaNeumann);
+        index.add(karlNeumann);
+
+        assertTrue(result.test(annaNeumann));
+        assertFalse(result.test(karlNeumann));
+    }
+
+    @Test
+    void removedItemsAreNoLongerCandidates() {
+        SearchIndex<Person> index = fuzzyIndex();
+        index.remove(ANNA_MEYER);
+
+        // Meier bleibt als phonetischer Treffer, Meyer selbst ist nicht mehr im Index
+        SearchIndex.Result<Person> result = index.search("Meyer");
+
+        assertTrue(result.test(KARL_MEIER));
+        assertEquals(PEOPLE.size() - 1, index.size());
+    }
+
+    @Test
+    void fuzzyNamesAreRankedBehindExactMatches() {
+        SearchIndex.Result<Person> result = fuzzyIndex().search("Meyer");
+
+        assertEquals(List.of(ANNA_MEYER, KARL_MEIER), matches(result));
+        assertTrue(result.isRanked());
+        assertTrue(result.byRank().compare(ANNA_MEYER, KARL_MEIER) < 0);
+    }
+
+    @Test
+    void exactIndexHasNoFuzzyMatches() {
+        SearchIndex.Result<Person> result = exactIndex().search("Meyer");
+
+        assertEquals(List.of(ANNA_MEYER), matches(result));
+        assertFalse(result.isRanked());
+    }
+
+    @Test
+    void findReturnsRankedMatchesWithoutACallerList() {
+        SearchIndex<Person> index = fuzzyIndex();
+
+        assertEquals(List.of(ANNA_MEYER, KARL_MEIER), index.find("Meyer", 10));
+        assertEquals(List.of(ANNA_MEYER), index.find("Meyer", 1));
+        assertEquals(List.of(), index.find("  ", 10));
+    }
+
+    @Test
+    void findSkipsRemovedItems() {
+        SearchIndex<Person> index = exactIndex();
+        index.remove(ANNA_MUELLER);
+
+        assertEquals(List.of(ANNA_MEYER), index.find("anna", 10));
+    }
+
+    @Test
+    void replacingTheSameItemRepeatedlyKeepsTheIndexBounded() {
+        SearchIndex<Person> index = fuzzyIndex();
+        Person current = KARL_MEIER;
+        for (int i = 0; i < 1_000; i++) {
+            index.remove(current);
+            current = new Person("300", i % 2 == 0 ? "Maier" : "Meier", "Karl");
+            index.add(current);
+        }
+
+        assertEquals(PEOPLE.size(), index.size());
+        assertTrue(index.capacity() <= 2 * PEOPLE.size() + 16, "capacity " + index.capacity());
+        assertEquals(List.of(current), index.find("300", 10));
+        // Nach dem Neuaufbau bleiben genaue vor unscharfen Treffern und die Reihenfolge der Aufnahme
+        assertEquals(List.of(ANNA_MEYER, current), index.find("Meyer", 10));
+    }
+
+    @Test
+    void resultsFromBeforeACompactionStillCheckItemsExactly() {
+        SearchIndex<Person> index = exactIndex();
+        SearchIndex.Result<Person> result = index.search("anna");
+        Person current = KARL_MEIER;
+        for (int i = 0; i < 100; i++) {
+            index.remove(current);
+            current = new Person("300", "Meier", "Karl");
+            index.add(current);
+        }
+
+        assertTrue(result.test(ANNA_MEYER));
+        assertFalse(result.test(current));
+    }
+}
@@ -0,0 +1,54 @@
+package com.badr.cp_project.service;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableColumn;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UtilityServiceTest {
+
+    private final PagedObservableList<String> pagedList =
+            new PagedObservableList<>((lastItem, pageSize) -> List.of(), 100, null);
+
+    @Test
+    void pagedListDisablesSortingIncludingNestedColumns() {
+        TableColumn<String, String> name = new TableColumn<>("Name");
+        TableColumn<String, String> firstName = new TableColumn<>("Vorname");
+        name.getColumns().add(firstName);
+
+        UtilityService.updateSortable(pagedList, List.of(name));
+
+        assertFalse(name.isSortable());
+        assertFalse(firstName.isSortable());
+    }
+
+    @Test
+    void otherListRestoresOriginalSortable() {
+        TableColumn<String, String> sortable = new TableColumn<>("Datum");
+        TableColumn<String, String> fixed = new TableColumn<>("Titel");
+        fixed.setSortable(false);
+        ObservableList<String> hits = FXCollections.observableArrayList("b", "a");
+
+        UtilityService.updateSortable(pagedList, List.of(sortable, fixed));
+        UtilityService.updateSortable(hits, List.of(sortable, fixed));
+
+        assertTrue(sortable.isSortable());
+        assertFalse(fixed.isSortable());
+    }
+
+    @Test
+    void viewsOverPartiallyLoadedPagedListAreNotSortable() {
+        TableColumn<String, String> column = new TableColumn<>("Ifa-Nummer");
+
+        UtilityService.updateSortable(pagedList.sorted(), List.of(column));
+        assertFalse(column.isSortable());
+
+        UtilityService.updateSortable(pagedList.filtered(item -> true).sorted(), List.of(column));
+        assertFalse(column.isSortable());
+    }
+}
@@ -0,0 +1,67 @@
+package com.badr.cp_project.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BkTreeTest {
+
+    private static final List<String> NAMES = List.of(
+            "meier", "meyer", "maier", "mayer", "mueller", "muller", "schmidt", "schmitt", "schneider",
+            "fischer", "weber", "wagner", "becker", "hoffmann", "koch", "richter", "klein", "wolf");
+
+    private static BkTree tree() {
+        BkTree tree = new BkTree();
+        NAMES.forEach(tree::add);
+        return tree;
+    }
+
+    @Test
+    void computesLevenshteinDistance() {
+        assertEquals(0, BkTree.distance("meier", "meier"));
+        assertEquals(1, BkTree.distance("meier", "meyer"));
+        assertEquals(1, BkTree.distance("muller", "mueller"));
+        assertEquals(3, BkTree.distance("kitten", "sitting"));
+        assertEquals(5, BkTree.distance("", "weber"));
+    }
+
+    @Test
+    void findsExactlyTheWordsWithinTheBound() {
+        BkTree tree = tree();
+        for (String query : List.of("meier", "mayr", "schmid", "wagener", "x")) {
+            for (int maxDistance = 0; maxDistance <= 3; maxDistance++) {
+                int bound = maxDistance;
+                Map<String, Integer> expected = NAMES.stream()
+                        .filter(name -> BkTree.distance(name, query) <= bound)
+                        .collect(Collectors.toMap(name -> name, name -> BkTree.distance(name, query)));
+
+                assertEquals(expected, tree.search(query, maxDistance), query + " / " + maxDistance);
+            }
+        }
+    }
+
+    @Test
+    void distanceZeroFindsOnlyTheWordItself() {
+        assertEquals(Map.of("meyer", 0), tree().search("meyer", 0));
+    }
+
+    @Test
+    void ignoresDuplicates() {
+        BkTree tree = tree();
+
+        assertFalse(tree.add("meier"));
+        assertTrue(tree.add("meierhofer"));
+        assertEquals(NAMES.size() + 1, tree.size());
+    }
+
+    @Test
+    void emptyTreeFindsNothing() {
+        assertTrue(new BkTree().search("meier", 2).isEmpty());
+    }
+}
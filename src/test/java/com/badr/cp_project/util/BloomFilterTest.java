@@ -0,0 +1,72 @@
+package com.badr.cp_project.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 10_000;
+    private static final double TARGET_RATE = 0.01;
+
+    private static BloomFilter filledFilter(int insertions) {
+        BloomFilter filter = new BloomFilter(INSERTIONS, TARGET_RATE);
+        for (int i = 0; i < insertions; i++) {
+            filter.put(String.valueOf(100_000 + i));
+        }
+        return filter;
+    }
+
+    @Test
+    void sizesBitsAndHashFunctionsFromExpectedInsertionsAndRate() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, TARGET_RATE);
+
+        // m = -n ln p / (ln 2)^2 = 95 851, aufgerundet auf ganze 64-Bit-Wörter; k = m/n ln 2 ≈ 6,6
+        assertEquals(95_872, filter.getBitCount());
+        assertEquals(7, filter.getHashCount());
+    }
+
+    @Test
+    void smallerRateNeedsMoreBits() {
+        assertTrue(new BloomFilter(INSERTIONS, 0.001).getBitCount() > new BloomFilter(INSERTIONS, TARGET_RATE).getBitCount());
+    }
+
+    @Test
+    void rejectsRatesOutsideTheOpenUnitInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(INSERTIONS, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(INSERTIONS, 1));
+    }
+
+    @Test
+    void hasNoFalseNegatives() {
+        BloomFilter filter = filledFilter(INSERTIONS);
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertTrue(filter.mightContain(String.valueOf(100_000 + i)));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTargetAtExpectedSize() {
+        BloomFilter filter = filledFilter(INSERTIONS);
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(String.valueOf(500_000 + i))) {
+                falsePositives++;
+            }
+        }
+        double observed = (double) falsePositives / probes;
+        assertTrue(observed < TARGET_RATE * 1.5, "beobachtet " + observed);
+        double expected = filter.expectedFalsePositiveRate();
+        assertTrue(expected > TARGET_RATE / 2 && expected < TARGET_RATE * 1.5, "geschätzt " + expected);
+    }
+
+    @Test
+    void estimatedRateRisesWhenOverfilled() {
+        assertTrue(filledFilter(INSERTIONS * 5).expectedFalsePositiveRate() > TARGET_RATE * 5);
+    }
+}
@@ -0,0 +1,94 @@
+package com.badr.cp_project.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvReaderTest {
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv), ';')) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    @Test
+    void splitsUnquotedFieldsAndKeepsEmptyOnes() throws IOException {
+        assertEquals(List.of(List.of("1", "Müller", "", "DE")), readAll("1;Müller;;DE\n"));
+    }
+
+    @Test
+    void quotedFieldsMayContainSeparatorsNewlinesAndDoubledQuotes() throws IOException {
+        List<List<String>> records = readAll("\"a;b\";\"Zeile 1\nZeile 2\";\"sagt \"\"Hallo\"\"\"\nx;y;z\n");
+
+        assertEquals(List.of(
+                List.of("a;b", "Zeile 1\nZeile 2", "sagt \"Hallo\""),
+                List.of("x", "y", "z")), records);
+    }
+
+    @Test
+    void acceptsCrLfAndMissingFinalLineBreak() throws IOException {
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d")), readAll("a;b\r\nc;d"));
+    }
+
+    @Test
+    void skipsLeadingByteOrderMarkAndBlankLines() throws IOException {
+        List<List<String>> records = readAll("﻿ifaNumber;lastName\n\n\r\n100;Meier\n");
+
+        assertEquals(List.of(List.of("ifaNumber", "lastName"), List.of("100", "Meier")), records);
+    }
+
+    @Test
+    void keepsByteOrderMarkOutsideTheFirstRecord() throws IOException {
+        List<List<String>> records = readAll("a\n﻿b\n");
+
+        assertEquals("﻿b", records.get(1).get(0));
+    }
+
+    @Test
+    void countsLinesInsideQuotedFields() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("kopf\n\"a\nb\"\nc\n"), ';')) {
+            reader.readRecord();
+            reader.readRecord();
+            assertEquals(3, reader.getLineNumber());
+            reader.readRecord();
+            assertEquals(4, reader.getLineNumber());
+            assertNull(reader.readRecord());
+        }
+    }
+
+    @Test
+    void returnsShortRowsAsReadSoTheImportCanRejectThem() throws IOException {
+        assertEquals(List.of(List.of("a", "b", "c"), List.of("d")), readAll("a;b;c\nd\n"));
+    }
+
+    @Test
+    void keepsQuotesInsideUnquotedFieldsLiterally() throws IOException {
+        assertEquals(List.of(List.of("12\" Monitor", "x")), readAll("12\" Monitor;x\n"));
+    }
+
+    @Test
+    void unclosedQuoteFailsWithTheLineWhereItOpens() {
+        IOException error = assertThrows(IOException.class, () -> readAll("a;b\n\"offen;c\nd\n"));
+
+        assertTrue(error.getMessage().contains("ab Zeile 2"), error.getMessage());
+    }
+
+    @Test
+    void emptyInputHasNoRecords() throws IOException {
+        assertTrue(readAll("").isEmpty());
+    }
+}
@@ -0,0 +1,40 @@
+package com.badr.cp_project.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GermanStemmerTest {
+
+    @Test
+    void reducesPluralsWithUmlautToTheSingularStem() {
+        assertEquals("antrag", GermanStemmer.stem("Anträge"));
+        assertEquals("antrag", GermanStemmer.stem("Antrag"));
+        assertEquals("haus", GermanStemmer.stem("Häuser"));
+        assertEquals("haus", GermanStemmer.stem("Häusern"));
+    }
+
+    @Test
+    void treatsTranscribedUmlautsLikeUmlauts() {
+        assertEquals("antrag", GermanStemmer.stem("antraege"));
+        assertEquals(GermanStemmer.stem("Häuser"), GermanStemmer.stem("Haeuser"));
+        // ue nach q bleibt erhalten
+        assertEquals("quell", GermanStemmer.stem("Quellen"));
+    }
+
+    @Test
+    void removesDerivationalSuffixes() {
+        assertEquals("berat", GermanStemmer.stem("Beratungen"));
+        assertEquals("berat", GermanStemmer.stem("Beratung"));
+    }
+
+    @Test
+    void replacesSharpS() {
+        assertEquals(GermanStemmer.stem("Strasse"), GermanStemmer.stem("Straße"));
+    }
+
+    @Test
+    void leavesShortWordsAlone() {
+        assertEquals("amt", GermanStemmer.stem("Amt"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.badr.cp_project.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KoelnerPhonetikTest {
+
+    @Test
+    void encodesTheReferenceExample() {
+        assertEquals("65752682", KoelnerPhonetik.encode("Müller-Lüdenscheidt"));
+    }
+
+    @Test
+    void spellingVariantsShareACode() {
+        assertEquals("67", KoelnerPhonetik.encode("Meier"));
+        assertEquals("67", KoelnerPhonetik.encode("Meyer"));
+        assertEquals("67", KoelnerPhonetik.encode("Maier"));
+        assertEquals(KoelnerPhonetik.encode("Schmidt"), KoelnerPhonetik.encode("Schmitt"));
+    }
+
+    @Test
+    void treatsUmlautsAndSharpSLikeTheirBaseLetters() {
+        assertEquals(KoelnerPhonetik.encode("Mueller"), KoelnerPhonetik.encode("Müller"));
+        assertEquals(KoelnerPhonetik.encode("Strasse"), KoelnerPhonetik.encode("Straße"));
+    }
+
+    @Test
+    void keepsALeadingVowelOnly() {
+        assertEquals("06278", KoelnerPhonetik.encode("Anders"));
+    }
+
+    @Test
+    void appliesContextRulesForCAndX() {
+        // C am Anfang vor A wird 4, vor E 8; X nach C wird 8, sonst 48
+        assertEquals("4", KoelnerPhonetik.encode("Ca"));
+        assertEquals("8", KoelnerPhonetik.encode("Ce"));
+        assertEquals("048", KoelnerPhonetik.encode("Axa"));
+    }
+
+    @Test
+    void returnsEmptyCodeWithoutLetters() {
+        assertEquals("", KoelnerPhonetik.encode("12.03.1980"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.badr.cp_project.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaMigratorTest {
+
+    private static final int MYSQL_TABLE_EXISTS = 1050;
+    private static final int MYSQL_UNKNOWN_TABLE = 1051;
+    private static final int MYSQL_CANT_DROP = 1091;
+    private static final int H2_TABLE_NOT_FOUND = 42102;
+    private static final int H2_COLUMN_NOT_FOUND = 42122;
+    private static final int H2_DUPLICATE_COLUMN = 42121;
+
+    @Test
+    void toleratesExistingObjectsOnlyForCreateAndAdd() {
+        assertTrue(SchemaMigrator.isAlreadyApplied("CREATE INDEX idx_x ON client (name)", 1061));
+        assertTrue(SchemaMigrator.isAlreadyApplied("alter table document add column contentHash CHAR(64)", H2_DUPLICATE_COLUMN));
+        assertFalse(SchemaMigrator.isAlreadyApplied("DROP TABLE import_staging", MYSQL_TABLE_EXISTS));
+    }
+
+    @Test
+    void toleratesMissingObjectsOnlyForDrop() {
+        assertTrue(SchemaMigrator.isAlreadyApplied("DROP TABLE import_staging", MYSQL_UNKNOWN_TABLE));
+        assertTrue(SchemaMigrator.isAlreadyApplied("ALTER TABLE client DROP INDEX idx_x", MYSQL_CANT_DROP));
+        assertFalse(SchemaMigrator.isAlreadyApplied("ALTER TABLE clinet ADD COLUMN x INT", H2_TABLE_NOT_FOUND));
+        assertFalse(SchemaMigrator.isAlreadyApplied("CREATE INDEX idx_x ON client (nmae)", H2_COLUMN_NOT_FOUND));
+    }
+
+    @Test
+    void neverSkipsFailedDataChanges() {
+        assertFalse(SchemaMigrator.isAlreadyApplied("UPDATE appointmnt SET status = 'Offen'", H2_TABLE_NOT_FOUND));
+        assertFalse(SchemaMigrator.isAlreadyApplied("INSERT INTO change_log (tableNmae) VALUES ('x')", H2_COLUMN_NOT_FOUND));
+        assertFalse(SchemaMigrator.isAlreadyApplied("UPDATE appointment SET x = 1", MYSQL_UNKNOWN_TABLE));
+    }
+}